@@ -17,7 +17,11 @@
  */
 package net.openhft.chronicle.logger.jcl;
 
+import net.openhft.chronicle.logger.ChronicleLogClock;
+import net.openhft.chronicle.logger.ChronicleLogClocks;
+import net.openhft.chronicle.logger.ChronicleLogThreadNames;
 import net.openhft.chronicle.logger.ChronicleLogWriter;
+import net.openhft.chronicle.logger.ChronicleLogWriters;
 import net.openhft.chronicle.logger.ChronicleLogLevel;
 import org.apache.commons.logging.Log;
 
@@ -26,6 +30,8 @@ class ChronicleLogger implements Log {
     private final String name;
     private final ChronicleLogWriter appender;
     private final ChronicleLogLevel level;
+    private final ChronicleLogClock clock;
+    private final boolean nanos;
 
     /**
      * c-tor
@@ -33,11 +39,15 @@ class ChronicleLogger implements Log {
      * @param writer
      * @param name
      * @param level
+     * @param clock
      */
-    ChronicleLogger(final ChronicleLogWriter writer, final String name, final ChronicleLogLevel level) {
+    ChronicleLogger(final ChronicleLogWriter writer, final String name, final ChronicleLogLevel level,
+                    final ChronicleLogClock clock) {
         this.appender = writer;
         this.name = name;
         this.level = level;
+        this.clock = clock;
+        this.nanos = clock instanceof ChronicleLogClocks.NanoClock;
     }
 
     // *************************************************************************
@@ -179,26 +189,30 @@ class ChronicleLogger implements Log {
     }
 
     private void append(ChronicleLogLevel level, String message) {
-        if(level.isHigherOrEqualTo(this.level)) {
-            this.appender.write(
-                level,
-                System.currentTimeMillis(),
-                Thread.currentThread().getName(),
-                this.name,
-                message,
-                null);
-        }
+        append(level, message, null);
     }
 
     private void append(ChronicleLogLevel level, String message, Throwable throwable) {
         if(level.isHigherOrEqualTo(this.level)) {
-            this.appender.write(
-                level,
-                System.currentTimeMillis(),
-                Thread.currentThread().getName(),
-                this.name,
-                message,
-                throwable);
+            if (this.nanos) {
+                ChronicleLogWriters.write(
+                    this.appender,
+                    this.clock,
+                    level,
+                    ChronicleLogThreadNames.current(),
+                    this.name,
+                    message,
+                    throwable,
+                    null);
+            } else {
+                this.appender.write(
+                    level,
+                    this.clock.currentTimeMillis(),
+                    ChronicleLogThreadNames.current(),
+                    this.name,
+                    message,
+                    throwable);
+            }
         }
     }
 }
@@ -106,7 +106,8 @@ public class ChronicleLoggerFactory extends LogFactory {
                     name,
                     ChronicleLogLevel.fromStringLevel(
                         manager.cfg().getString(name, ChronicleLogConfig.KEY_LEVEL)
-                    )
+                    ),
+                    manager.getClock(name)
                 )
             );
         }
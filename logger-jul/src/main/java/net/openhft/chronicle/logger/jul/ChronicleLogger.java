@@ -17,8 +17,13 @@
  */
 package net.openhft.chronicle.logger.jul;
 
+import net.openhft.chronicle.logger.ChronicleLogArgs;
+import net.openhft.chronicle.logger.ChronicleLogClock;
+import net.openhft.chronicle.logger.ChronicleLogClocks;
 import net.openhft.chronicle.logger.ChronicleLogLevel;
+import net.openhft.chronicle.logger.ChronicleLogThreadNames;
 import net.openhft.chronicle.logger.ChronicleLogWriter;
+import net.openhft.chronicle.logger.ChronicleLogWriters;
 
 import java.text.MessageFormat;
 import java.util.logging.Level;
@@ -30,6 +35,7 @@ abstract class ChronicleLogger extends Logger {
     protected final String name;
     protected final ChronicleLogWriter writer;
     protected final ChronicleLogLevel level;
+    protected final ChronicleLogClock clock;
 
     /**
      * c-tor
@@ -37,13 +43,16 @@ abstract class ChronicleLogger extends Logger {
      * @param writer
      * @param name
      * @param level
+     * @param clock
      */
-    ChronicleLogger(final ChronicleLogWriter writer, final String name, final ChronicleLogLevel level) {
+    ChronicleLogger(final ChronicleLogWriter writer, final String name, final ChronicleLogLevel level,
+                    final ChronicleLogClock clock) {
         super(name, null);
 
         this.writer = writer;
         this.name = name;
         this.level = level;
+        this.clock = clock;
         
         /*
          * Set level of super class using final method
@@ -246,14 +255,19 @@ abstract class ChronicleLogger extends Logger {
     // *************************************************************************
 
     public static class Binary extends ChronicleLogger {
-        public Binary(ChronicleLogWriter writer, String name, ChronicleLogLevel level) {
-            super(writer, name, level);
+        private final boolean nanos;
+
+        public Binary(ChronicleLogWriter writer, String name, ChronicleLogLevel level, ChronicleLogClock clock) {
+            super(writer, name, level, clock);
+
+            this.nanos = clock instanceof ChronicleLogClocks.NanoClock;
         }
 
         @Override
         protected void append(final LogRecord record) {
             final ChronicleLogLevel clevel = ChronicleHelper.getLogLevel(record);
             if(isLoggable(clevel)) {
+                // a LogRecord is time stamped to the millisecond
                 writer.write(
                     clevel,
                     record.getMillis(),
@@ -269,12 +283,16 @@ abstract class ChronicleLogger extends Logger {
         protected void append(final Level level, String msg) {
             final ChronicleLogLevel clevel = ChronicleHelper.getLogLevel(level);
             if(isLoggable(clevel)) {
-                writer.write(
-                    clevel,
-                    System.currentTimeMillis(),
-                    Thread.currentThread().getName(),
-                    this.name,
-                    msg);
+                if (nanos) {
+                    write(clevel, msg, null, null);
+                } else {
+                    writer.write(
+                        clevel,
+                        clock.currentTimeMillis(),
+                        ChronicleLogThreadNames.current(),
+                        this.name,
+                        msg);
+                }
             }
         }
 
@@ -282,14 +300,18 @@ abstract class ChronicleLogger extends Logger {
         protected void append(final Level level, String msg, Object param1) {
             final ChronicleLogLevel clevel = ChronicleHelper.getLogLevel(level);
             if(isLoggable(clevel)) {
-                writer.write(
-                    clevel,
-                    System.currentTimeMillis(),
-                    Thread.currentThread().getName(),
-                    this.name,
-                    msg,
-                    null,
-                    param1);
+                if (nanos) {
+                    write(clevel, msg, null, ChronicleLogArgs.get().add(param1));
+                } else {
+                    writer.write(
+                        clevel,
+                        clock.currentTimeMillis(),
+                        ChronicleLogThreadNames.current(),
+                        this.name,
+                        msg,
+                        null,
+                        param1);
+                }
             }
         }
 
@@ -297,14 +319,25 @@ abstract class ChronicleLogger extends Logger {
         protected void append(final Level level, String msg, Object[] params) {
             final ChronicleLogLevel clevel = ChronicleHelper.getLogLevel(level);
             if(isLoggable(clevel)) {
-                writer.write(
-                    clevel,
-                    System.currentTimeMillis(),
-                    Thread.currentThread().getName(),
-                    this.name,
-                    msg,
-                    null,
-                    params);
+                if (nanos) {
+                    final ChronicleLogArgs args = ChronicleLogArgs.get();
+                    if (params != null) {
+                        for (Object param : params) {
+                            args.add(param);
+                        }
+                    }
+
+                    write(clevel, msg, null, args);
+                } else {
+                    writer.write(
+                        clevel,
+                        clock.currentTimeMillis(),
+                        ChronicleLogThreadNames.current(),
+                        this.name,
+                        msg,
+                        null,
+                        params);
+                }
             }
         }
 
@@ -312,20 +345,36 @@ abstract class ChronicleLogger extends Logger {
         protected void append(final Level level, String msg, Throwable thrown) {
             final ChronicleLogLevel clevel = ChronicleHelper.getLogLevel(level);
             if(isLoggable(clevel)) {
-                writer.write(
-                    clevel,
-                    System.currentTimeMillis(),
-                    Thread.currentThread().getName(),
-                    this.name,
-                    msg,
-                    thrown);
+                if (nanos) {
+                    write(clevel, msg, thrown, null);
+                } else {
+                    writer.write(
+                        clevel,
+                        clock.currentTimeMillis(),
+                        ChronicleLogThreadNames.current(),
+                        this.name,
+                        msg,
+                        thrown);
+                }
             }
         }
+
+        private void write(ChronicleLogLevel level, String msg, Throwable thrown, ChronicleLogArgs args) {
+            ChronicleLogWriters.write(
+                writer,
+                clock,
+                level,
+                ChronicleLogThreadNames.current(),
+                this.name,
+                msg,
+                thrown,
+                args);
+        }
     }
 
     public static class Text extends ChronicleLogger {
-        public Text(ChronicleLogWriter writer, String name, ChronicleLogLevel level) {
-            super(writer, name, level);
+        public Text(ChronicleLogWriter writer, String name, ChronicleLogLevel level, ChronicleLogClock clock) {
+            super(writer, name, level, clock);
         }
 
         @Override
@@ -349,8 +398,8 @@ abstract class ChronicleLogger extends Logger {
             if(isLoggable(clevel)) {
                 writer.write(
                     clevel,
-                    System.currentTimeMillis(),
-                    Thread.currentThread().getName(),
+                    clock.currentTimeMillis(),
+                    ChronicleLogThreadNames.current(),
                     this.name,
                     msg,
                     null);
@@ -363,8 +412,8 @@ abstract class ChronicleLogger extends Logger {
             if(isLoggable(clevel)) {
                 writer.write(
                     clevel,
-                    System.currentTimeMillis(),
-                    Thread.currentThread().getName(),
+                    clock.currentTimeMillis(),
+                    ChronicleLogThreadNames.current(),
                     this.name,
                     MessageFormat.format(msg, param1),
                     null);
@@ -377,8 +426,8 @@ abstract class ChronicleLogger extends Logger {
             if(isLoggable(clevel)) {
                 writer.write(
                     clevel,
-                    System.currentTimeMillis(),
-                    Thread.currentThread().getName(),
+                    clock.currentTimeMillis(),
+                    ChronicleLogThreadNames.current(),
                     this.name,
                     MessageFormat.format(msg, params),
                     null);
@@ -391,8 +440,8 @@ abstract class ChronicleLogger extends Logger {
             if(isLoggable(clevel)) {
                 writer.write(
                     clevel,
-                    System.currentTimeMillis(),
-                    Thread.currentThread().getName(),
+                    clock.currentTimeMillis(),
+                    ChronicleLogThreadNames.current(),
                     this.name,
                     msg,
                     thrown);
@@ -404,7 +453,7 @@ abstract class ChronicleLogger extends Logger {
         public static final ChronicleLogger INSTANCE = new Null();
 
         private Null() {
-            super(null, null, null);
+            super(null, null, null, null);
         }
 
         @Override
@@ -86,19 +86,22 @@ public class ChronicleLoggerManager extends LogManager {
                 logger = new ChronicleLogger.Text(
                         writer,
                         name,
-                        ChronicleLogLevel.WARN);
+                        ChronicleLogLevel.WARN,
+                        manager.getClock(name));
 
             } else if(manager.isBinary(name)) {
                 logger = new ChronicleLogger.Binary(
                         writer,
                         name,
-                        manager.cfg().getLevel(name));
+                        manager.cfg().getLevel(name),
+                        manager.getClock(name));
 
             } else if(manager.isText(name)) {
                 logger = new ChronicleLogger.Text(
                         writer,
                         name,
-                        manager.cfg().getLevel(name));
+                        manager.cfg().getLevel(name),
+                        manager.getClock(name));
             }
 
             if(logger != null) {
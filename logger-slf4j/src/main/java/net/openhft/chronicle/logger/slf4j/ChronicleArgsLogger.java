@@ -0,0 +1,45 @@
+/*
+ * Copyright 2014 Higher Frequency Trading
+ *
+ * http://www.higherfrequencytrading.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.logger.slf4j;
+
+import net.openhft.chronicle.logger.ChronicleLogArgs;
+import org.slf4j.Logger;
+
+/**
+ * Extension of the SLF4J Logger accepting a {@link ChronicleLogArgs} so that
+ * primitive arguments reach the binary writer without being boxed, i.e.
+ *
+ * <pre>
+ *   ((ChronicleArgsLogger) logger).debug("px={} qty={}", ChronicleLogArgs.get().add(px).add(qty));
+ * </pre>
+ *
+ * The arguments should only be built once the level is known to be enabled.
+ */
+public interface ChronicleArgsLogger extends Logger {
+
+    void trace(String message, ChronicleLogArgs args);
+
+    void debug(String message, ChronicleLogArgs args);
+
+    void info(String message, ChronicleLogArgs args);
+
+    void warn(String message, ChronicleLogArgs args);
+
+    void error(String message, ChronicleLogArgs args);
+}
@@ -18,18 +18,22 @@
 
 package net.openhft.chronicle.logger.slf4j;
 
+import net.openhft.chronicle.logger.ChronicleLogArgs;
+import net.openhft.chronicle.logger.ChronicleLogClock;
+import net.openhft.chronicle.logger.ChronicleLogClocks;
 import net.openhft.chronicle.logger.ChronicleLogLevel;
+import net.openhft.chronicle.logger.ChronicleLogThreadNames;
 import net.openhft.chronicle.logger.ChronicleLogWriter;
-import org.slf4j.helpers.FormattingTuple;
+import net.openhft.chronicle.logger.ChronicleLogWriters;
 import org.slf4j.helpers.MarkerIgnoringBase;
-import org.slf4j.helpers.MessageFormatter;
 
-abstract class ChronicleLogger extends MarkerIgnoringBase {
+abstract class ChronicleLogger extends MarkerIgnoringBase implements ChronicleArgsLogger {
 
     private static final long serialVersionUID = 1L;
     
     protected final ChronicleLogWriter writer;
     protected final ChronicleLogLevel level;
+    protected final ChronicleLogClock clock;
 
     /**
      * c-tor
@@ -37,12 +41,15 @@ abstract class ChronicleLogger extends MarkerIgnoringBase {
      * @param writer
      * @param name
      * @param level
+     * @param clock
      */
     protected ChronicleLogger(
-            final ChronicleLogWriter writer, final String name, final ChronicleLogLevel level) {
+            final ChronicleLogWriter writer, final String name, final ChronicleLogLevel level,
+            final ChronicleLogClock clock) {
         this.writer = writer;
         this.name = name;
         this.level = level;
+        this.clock = clock;
     }
 
     // *************************************************************************
@@ -107,6 +114,11 @@ abstract class ChronicleLogger extends MarkerIgnoringBase {
         append(ChronicleLogLevel.TRACE,  s, throwable);
     }
 
+    @Override
+    public void trace(String s, ChronicleLogArgs args) {
+        append(ChronicleLogLevel.TRACE, s, args);
+    }
+
     // *************************************************************************
     // DEBUG
     // *************************************************************************
@@ -151,6 +163,11 @@ abstract class ChronicleLogger extends MarkerIgnoringBase {
         append(ChronicleLogLevel.DEBUG,  s, throwable);
     }
 
+    @Override
+    public void debug(String s, ChronicleLogArgs args) {
+        append(ChronicleLogLevel.DEBUG, s, args);
+    }
+
     // *************************************************************************
     // INFO
     // *************************************************************************
@@ -195,6 +212,11 @@ abstract class ChronicleLogger extends MarkerIgnoringBase {
         append(ChronicleLogLevel.INFO,  s, throwable);
     }
 
+    @Override
+    public void info(String s, ChronicleLogArgs args) {
+        append(ChronicleLogLevel.INFO, s, args);
+    }
+
     // *************************************************************************
     // WARN
     // *************************************************************************
@@ -239,6 +261,11 @@ abstract class ChronicleLogger extends MarkerIgnoringBase {
         append(ChronicleLogLevel.WARN,  s, throwable);
     }
 
+    @Override
+    public void warn(String s, ChronicleLogArgs args) {
+        append(ChronicleLogLevel.WARN, s, args);
+    }
+
     // *************************************************************************
     // ERROR
     // *************************************************************************
@@ -283,6 +310,11 @@ abstract class ChronicleLogger extends MarkerIgnoringBase {
         append(ChronicleLogLevel.ERROR, s, throwable);
     }
 
+    @Override
+    public void error(String s, ChronicleLogArgs args) {
+        append(ChronicleLogLevel.ERROR, s, args);
+    }
+
     // *************************************************************************
     // HELPERS
     // *************************************************************************
@@ -301,6 +333,8 @@ abstract class ChronicleLogger extends MarkerIgnoringBase {
         ChronicleLogLevel level, String message, Object[] args);
     protected abstract void append(
         ChronicleLogLevel level, String message, Throwable throwable);
+    protected abstract void append(
+        ChronicleLogLevel level, String message, ChronicleLogArgs args);
 
     // *************************************************************************
     // BINARY
@@ -309,79 +343,145 @@ abstract class ChronicleLogger extends MarkerIgnoringBase {
     public static final class Binary extends ChronicleLogger {
         
         private static final long serialVersionUID = 1L;
+
+        private final boolean nanos;
         
         public Binary(ChronicleLogWriter writer, String name, ChronicleLogLevel level) {
-            super(writer, name, level);
+            this(writer, name, level, ChronicleLogClocks.system());
+        }
+
+        public Binary(ChronicleLogWriter writer, String name, ChronicleLogLevel level, ChronicleLogClock clock) {
+            super(writer, name, level, clock);
+
+            this.nanos = clock instanceof ChronicleLogClocks.NanoClock;
         }
 
         @Override
         protected void append(ChronicleLogLevel level, String message) {
             if(isLevelEnabled(level)) {
-                writer.write(
-                    level,
-                    System.currentTimeMillis(),
-                    Thread.currentThread().getName(),
-                    name,
-                    message,
-                    null);
+                if (nanos) {
+                    write(level, message, null, null);
+                } else {
+                    writer.write(
+                        level,
+                        clock.currentTimeMillis(),
+                        ChronicleLogThreadNames.current(),
+                        name,
+                        message,
+                        null);
+                }
             }
         }
 
         @Override
         protected void append(ChronicleLogLevel level, String message, Throwable throwable) {
             if(isLevelEnabled(level)) {
-                writer.write(
-                    level,
-                    System.currentTimeMillis(),
-                    Thread.currentThread().getName(),
-                    name,
-                    message,
-                    throwable);
+                if (nanos) {
+                    write(level, message, throwable, null);
+                } else {
+                    writer.write(
+                        level,
+                        clock.currentTimeMillis(),
+                        ChronicleLogThreadNames.current(),
+                        name,
+                        message,
+                        throwable);
+                }
             }
         }
 
         @Override
         protected void append(ChronicleLogLevel level, String message, Throwable throwable, Object arg1) {
             if(isLevelEnabled(level)) {
-                writer.write(
-                    level,
-                    System.currentTimeMillis(),
-                    Thread.currentThread().getName(),
-                    name,
-                    message,
-                    throwable,
-                    arg1);
+                if (nanos) {
+                    write(level, message, throwable, ChronicleLogArgs.get().add(arg1));
+                } else {
+                    writer.write(
+                        level,
+                        clock.currentTimeMillis(),
+                        ChronicleLogThreadNames.current(),
+                        name,
+                        message,
+                        throwable,
+                        arg1);
+                }
             }
         }
 
         @Override
         protected void append(ChronicleLogLevel level, String message, Throwable throwable, Object arg1, Object arg2) {
             if(isLevelEnabled(level)) {
-                writer.write(
-                    level,
-                    System.currentTimeMillis(),
-                    Thread.currentThread().getName(),
-                    name,
-                    message,
-                    throwable,
-                    arg1,
-                    arg2);
+                if (nanos) {
+                    write(level, message, throwable, ChronicleLogArgs.get().add(arg1).add(arg2));
+                } else {
+                    writer.write(
+                        level,
+                        clock.currentTimeMillis(),
+                        ChronicleLogThreadNames.current(),
+                        name,
+                        message,
+                        throwable,
+                        arg1,
+                        arg2);
+                }
             }
         }
 
         @Override
         protected void append(ChronicleLogLevel level, String message, Object[] args) {
             if(isLevelEnabled(level)) {
-                writer.write(
-                    level,
-                    System.currentTimeMillis(),
-                    Thread.currentThread().getName(),
-                    name,
-                    message,
-                    null,
-                    args);
+                if (nanos) {
+                    final ChronicleLogArgs largs = ChronicleLogArgs.get();
+                    if (args != null) {
+                        for (Object arg : args) {
+                            largs.add(arg);
+                        }
+                    }
+
+                    write(level, message, null, largs);
+                } else {
+                    writer.write(
+                        level,
+                        clock.currentTimeMillis(),
+                        ChronicleLogThreadNames.current(),
+                        name,
+                        message,
+                        null,
+                        args);
+                }
+            }
+        }
+
+        @Override
+        protected void append(ChronicleLogLevel level, String message, ChronicleLogArgs args) {
+            if(isLevelEnabled(level)) {
+                if (nanos) {
+                    write(level, message, null, args);
+                } else {
+                    ChronicleLogWriters.write(
+                        writer,
+                        level,
+                        clock.currentTimeMillis(),
+                        ChronicleLogThreadNames.current(),
+                        name,
+                        message,
+                        null,
+                        args);
+                }
             }
         }
+
+        private void write(ChronicleLogLevel level, String message, Throwable throwable, ChronicleLogArgs args) {
+            ChronicleLogWriters.write(
+                writer,
+                clock,
+                level,
+                ChronicleLogThreadNames.current(),
+                name,
+                message,
+                throwable,
+                args);
+        }
     }
 
     // *************************************************************************
@@ -393,7 +493,11 @@ abstract class ChronicleLogger extends MarkerIgnoringBase {
         private static final long serialVersionUID = 1L;
         
         public Text(ChronicleLogWriter writer, String name, ChronicleLogLevel level) {
-            super(writer, name, level);
+            this(writer, name, level, ChronicleLogClocks.system());
+        }
+
+        public Text(ChronicleLogWriter writer, String name, ChronicleLogLevel level, ChronicleLogClock clock) {
+            super(writer, name, level, clock);
         }
 
         @Override
@@ -401,8 +505,8 @@ abstract class ChronicleLogger extends MarkerIgnoringBase {
             if(isLevelEnabled(level)) {
                 writer.write(
                     level,
-                    System.currentTimeMillis(),
-                    Thread.currentThread().getName(),
+                    clock.currentTimeMillis(),
+                    ChronicleLogThreadNames.current(),
                     name,
                     message,
                     null);
@@ -414,8 +518,8 @@ abstract class ChronicleLogger extends MarkerIgnoringBase {
             if(isLevelEnabled(level)) {
                 writer.write(
                     level,
-                    System.currentTimeMillis(),
-                    Thread.currentThread().getName(),
+                    clock.currentTimeMillis(),
+                    ChronicleLogThreadNames.current(),
                     name,
                     message,
                     throwable);
@@ -427,11 +531,12 @@ abstract class ChronicleLogger extends MarkerIgnoringBase {
             if(isLevelEnabled(level)) {
                 writer.write(
                     level,
-                    System.currentTimeMillis(),
-                    Thread.currentThread().getName(),
+                    clock.currentTimeMillis(),
+                    ChronicleLogThreadNames.current(),
                     name,
-                    MessageFormatter.format(message, arg1).getMessage(),
-                    throwable);
+                    message,
+                    throwable,
+                    arg1);
             }
         }
 
@@ -440,25 +545,42 @@ abstract class ChronicleLogger extends MarkerIgnoringBase {
             if(isLevelEnabled(level)) {
                 writer.write(
                     level,
-                    System.currentTimeMillis(),
-                    Thread.currentThread().getName(),
+                    clock.currentTimeMillis(),
+                    ChronicleLogThreadNames.current(),
                     name,
-                    MessageFormatter.format(message, arg1, arg2).getMessage(),
-                    throwable);
+                    message,
+                    throwable,
+                    arg1,
+                    arg2);
             }
         }
 
         @Override
         protected void append(ChronicleLogLevel level, String message, Object[] args) {
             if(isLevelEnabled(level)) {
-                FormattingTuple tuple = MessageFormatter.arrayFormat(message, args);
                 writer.write(
                     level,
-                    System.currentTimeMillis(),
-                    Thread.currentThread().getName(),
+                    clock.currentTimeMillis(),
+                    ChronicleLogThreadNames.current(),
+                    name,
+                    message,
+                    null,
+                    args);
+            }
+        }
+
+        @Override
+        protected void append(ChronicleLogLevel level, String message, ChronicleLogArgs args) {
+            if(isLevelEnabled(level)) {
+                ChronicleLogWriters.write(
+                    writer,
+                    level,
+                    clock.currentTimeMillis(),
+                    ChronicleLogThreadNames.current(),
                     name,
-                    tuple.getMessage(),
-                    tuple.getThrowable());
+                    message,
+                    null,
+                    args);
             }
         }
     }
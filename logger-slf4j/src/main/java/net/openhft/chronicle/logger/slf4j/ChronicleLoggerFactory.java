@@ -24,6 +24,7 @@ import org.slf4j.Logger;
 import org.slf4j.helpers.NOPLogger;
 
 import java.io.IOException;
+import java.util.Collection;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -100,18 +101,30 @@ public class ChronicleLoggerFactory implements ILoggerFactory {
     /**
      * close underlying Chronicles
      */
-    public synchronized void shutdown() {
-        this.manager.clear();
-        this.loggers.clear();
+    public void shutdown() {
+        final Collection<ChronicleLogWriter> writers;
+        synchronized (this) {
+            writers = this.manager.detach();
+            this.loggers.clear();
+        }
+
+        // not under the lock: an async writer drains its events on close and
+        // the first write of its thread may ask for a logger (i.e. Affinity)
+        ChronicleLogManager.close(writers);
     }
 
     /**
      *
      */
-    public synchronized void reload() {
-        shutdown();
+    public void reload() {
+        final Collection<ChronicleLogWriter> writers;
+        synchronized (this) {
+            writers = this.manager.detach();
+            this.loggers.clear();
+            this.manager.reload();
+        }
 
-        this.manager.reload();
+        ChronicleLogManager.close(writers);
     }
 
     // *************************************************************************
@@ -126,19 +139,22 @@ public class ChronicleLoggerFactory implements ILoggerFactory {
                 logger = new ChronicleLogger.Text(
                     writer,
                     name,
-                    ChronicleLogLevel.WARN);
+                    ChronicleLogLevel.WARN,
+                    manager.getClock(name));
 
             } else if(manager.isBinary(name)) {
                 logger = new ChronicleLogger.Binary(
                     writer,
                     name,
-                    manager.cfg().getLevel(name));
+                    manager.cfg().getLevel(name),
+                    manager.getClock(name));
 
             } else if(manager.isText(name)) {
                 logger = new ChronicleLogger.Text(
                     writer,
                     name,
-                    manager.cfg().getLevel(name));
+                    manager.cfg().getLevel(name),
+                    manager.getClock(name));
             }
 
             if(logger != null) {
@@ -27,6 +27,7 @@ import net.openhft.chronicle.logger.ChronicleLogConfig;
 import net.openhft.chronicle.logger.ChronicleLogEvent;
 import net.openhft.chronicle.logger.ChronicleLogHelper;
 import net.openhft.chronicle.logger.ChronicleLogLevel;
+import net.openhft.chronicle.logger.ChronicleLogSummary;
 import net.openhft.lang.io.IOTools;
 import org.junit.After;
 import org.junit.Before;
@@ -36,6 +37,7 @@ import org.slf4j.LoggerFactory;
 import org.slf4j.impl.StaticLoggerBinder;
 
 import java.io.IOException;
+import java.util.List;
 
 import static org.junit.Assert.*;
 
@@ -182,4 +184,56 @@ public class Slf4jIndexedChronicleBinaryLoggerTest extends Slf4jTestBase {
 
         IOTools.deleteDir(indexedBasePath(loggerName));
     }
+
+    @Test
+    public void testLogging3() throws IOException {
+        final String threadName = "th-test-binary-logging-3";
+        final String loggerName = "logging_3";
+        final Exception exception = new IllegalStateException("symbols");
+
+        IOTools.deleteDir(indexedBasePath(loggerName));
+        Thread.currentThread().setName(threadName);
+
+        // dictionary, templates, dedupThrowables, summary and blockFilter on an IndexedChronicle
+        final Logger logger = LoggerFactory.getLogger(loggerName);
+        for(int i=0;i<3;i++) {
+            logger.warn("symbols {}", i, exception);
+        }
+
+        getChronicleLoggerFactory().shutdown();
+
+        Chronicle     chronicle = getIndexedChronicle(loggerName);
+        ExcerptTailer tailer    = chronicle.createTailer().toStart();
+
+        for(int i=0;i<3;i++) {
+            assertTrue(tailer.nextIndex());
+
+            ChronicleLogEvent evt = ChronicleLogHelper.decodeBinary(tailer);
+            assertNotNull(evt);
+            assertEquals(ChronicleLogLevel.WARN, evt.getLevel());
+            assertEquals(threadName, evt.getThreadName());
+            assertEquals(loggerName, evt.getLoggerName());
+            assertEquals("symbols {}", evt.getMessage());
+            assertEquals(i, evt.getArgumentArray()[0]);
+            assertNotNull(evt.getThrowable());
+            assertEquals(exception.getMessage(), evt.getThrowable().getMessage());
+
+            tailer.finish();
+        }
+
+        assertFalse(tailer.nextIndex());
+
+        tailer.close();
+        chronicle.close();
+
+        final List<ChronicleLogSummary> summaries = ChronicleLogSummary.read(indexedBasePath(loggerName));
+        long count = 0;
+        for (ChronicleLogSummary summary : summaries) {
+            count += summary.count(ChronicleLogLevel.WARN);
+        }
+
+        assertEquals(3, count);
+
+        IOTools.deleteDir(indexedBasePath(loggerName));
+    }
 }
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2014 Higher Frequency Trading
+ *
+ * http://www.higherfrequencytrading.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.logger.slf4j;
+
+import net.openhft.chronicle.Chronicle;
+import net.openhft.chronicle.ChronicleQueueBuilder;
+import net.openhft.chronicle.logger.ChronicleLogConfig;
+import net.openhft.chronicle.logger.ChronicleLogEvent;
+import net.openhft.chronicle.logger.ChronicleLogHelper;
+import net.openhft.chronicle.logger.ChronicleLogMergeReader;
+import net.openhft.chronicle.logger.ChronicleLogReader;
+import net.openhft.chronicle.logger.ChronicleLogStripes;
+import net.openhft.chronicle.logger.ChronicleLogWriters;
+import net.openhft.lang.io.Bytes;
+import net.openhft.lang.io.IOTools;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class Slf4jStripedChronicleLoggerTest extends Slf4jTestBase {
+
+    // *************************************************************************
+    //
+    // *************************************************************************
+
+    @Before
+    public void setUp() {
+        System.setProperty(
+            "chronicle.logger.properties",
+            "chronicle.logger.striped.properties");
+
+        getChronicleLoggerFactory().reload();
+    }
+
+    @After
+    public void tearDown() {
+        getChronicleLoggerFactory().shutdown();
+
+        IOTools.deleteDir(basePath(ChronicleLogConfig.TYPE_STRIPED));
+    }
+
+    // *************************************************************************
+    //
+    // *************************************************************************
+
+    @Test
+    public void testLogger() {
+        Logger logger = LoggerFactory.getLogger("slf4j-striped-logger");
+
+        assertNotNull(logger);
+        assertTrue(logger instanceof ChronicleLogger);
+
+        ChronicleLogger cl = (ChronicleLogger) logger;
+
+        assertTrue(cl.getWriter() instanceof ChronicleLogWriters.StripedWriter);
+        assertEquals(4, ((ChronicleLogWriters.StripedWriter) cl.getWriter()).stripes().length);
+        assertEquals(4, ((ChronicleLogWriters.StripedWriter) cl.getWriter()).chronicles().size());
+        assertNotNull(cl.getWriter().getChronicle());
+    }
+
+    @Test
+    public void testLogging() throws IOException, InterruptedException {
+        final String loggerName = "striped_1";
+        final int threads = 4;
+        final int runs = 1000;
+
+        final ExecutorService es = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            es.submit(new Runnable() {
+                @Override
+                public void run() {
+                    final Logger logger = LoggerFactory.getLogger(loggerName);
+                    for (int i = 0; i < runs; i++) {
+                        logger.info("striped {}", i);
+                    }
+                }
+            });
+        }
+
+        es.shutdown();
+        es.awaitTermination(1, TimeUnit.MINUTES);
+
+        getChronicleLoggerFactory().shutdown();
+
+        final List<String> stripes = ChronicleLogStripes.paths(basePath(ChronicleLogConfig.TYPE_STRIPED, loggerName));
+        assertEquals(4, stripes.size());
+
+        final List<Chronicle> chronicles = new ArrayList<>();
+        for (String stripe : stripes) {
+            chronicles.add(ChronicleQueueBuilder.indexed(stripe).build());
+        }
+
+        final List<ChronicleLogEvent> events = new ArrayList<>();
+        final ChronicleLogMergeReader merger = new ChronicleLogMergeReader(chronicles, true, false);
+        final ChronicleLogReader reader = new ChronicleLogReader() {
+            @Override
+            public void read(Bytes bytes) {
+                events.add(ChronicleLogHelper.decodeBinary(bytes));
+            }
+        };
+
+        while (merger.read(reader)) {
+        }
+
+        // closes the chronicles of the stripes as well
+        merger.close();
+
+        assertEquals(threads * runs, events.size());
+        for (int i = 1; i < events.size(); i++) {
+            assertTrue(events.get(i - 1).getTimeStamp() <= events.get(i).getTimeStamp());
+        }
+    }
+}
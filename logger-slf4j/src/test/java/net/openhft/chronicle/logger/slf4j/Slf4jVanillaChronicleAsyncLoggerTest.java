@@ -0,0 +1,231 @@
+/*
+ * Copyright 2014 Higher Frequency Trading
+ *
+ * http://www.higherfrequencytrading.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.logger.slf4j;
+
+import net.openhft.chronicle.Chronicle;
+import net.openhft.chronicle.ExcerptTailer;
+import net.openhft.chronicle.VanillaChronicle;
+import net.openhft.chronicle.logger.ChronicleLogConfig;
+import net.openhft.chronicle.logger.ChronicleLogEvent;
+import net.openhft.chronicle.logger.ChronicleLogHelper;
+import net.openhft.chronicle.logger.ChronicleLogLevel;
+import net.openhft.chronicle.logger.ChronicleLogWriters;
+import net.openhft.lang.io.IOTools;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class Slf4jVanillaChronicleAsyncLoggerTest extends Slf4jTestBase {
+
+    // *************************************************************************
+    //
+    // *************************************************************************
+
+    @Before
+    public void setUp() {
+        System.setProperty(
+            "chronicle.logger.properties",
+            "chronicle.logger.vanilla.async.properties");
+
+        getChronicleLoggerFactory().reload();
+    }
+
+    @After
+    public void tearDown() {
+        getChronicleLoggerFactory().shutdown();
+
+        IOTools.deleteDir(basePath(ChronicleLogConfig.TYPE_VANILLA));
+    }
+
+    // *************************************************************************
+    //
+    // *************************************************************************
+
+    @Test
+    public void testLogger() {
+        Logger logger = LoggerFactory.getLogger("slf4j-vanilla-async-logger");
+
+        assertNotNull(logger);
+        assertTrue(logger instanceof ChronicleLogger);
+
+        ChronicleLogger cl = (ChronicleLogger) logger;
+
+        assertTrue(cl.getWriter() instanceof ChronicleLogWriters.AsyncWriter);
+        assertTrue(cl.getWriter().getChronicle() instanceof VanillaChronicle);
+    }
+
+    @Test
+    public void testLogging() throws IOException {
+        final String threadName = "th-test-async-logging";
+        final String loggerName = "async_1";
+        final int    runs       = 10000;
+
+        IOTools.deleteDir(vanillaBasePath(loggerName));
+        Thread.currentThread().setName(threadName);
+
+        final Logger logger = LoggerFactory.getLogger(loggerName);
+        for (int i = 0; i < runs; i++) {
+            logger.info("async {}", i);
+        }
+
+        // closing the writer drains all the pending events
+        getChronicleLoggerFactory().shutdown();
+
+        Chronicle     chronicle = getVanillaChronicle(loggerName);
+        ExcerptTailer tailer    = chronicle.createTailer().toStart();
+
+        for (int i = 0; i < runs; i++) {
+            assertTrue(tailer.nextIndex());
+
+            ChronicleLogEvent evt = ChronicleLogHelper.decodeBinary(tailer);
+            assertNotNull(evt);
+            assertEquals(ChronicleLogLevel.INFO, evt.getLevel());
+            assertEquals(threadName, evt.getThreadName());
+            assertEquals("async {}", evt.getMessage());
+            assertEquals(1, evt.getArgumentArray().length);
+            assertEquals(i, evt.getArgumentArray()[0]);
+
+            tailer.finish();
+        }
+
+        assertFalse(tailer.nextIndex());
+
+        tailer.close();
+        chronicle.close();
+
+        IOTools.deleteDir(vanillaBasePath(loggerName));
+    }
+
+    @Test
+    public void testArgumentsMutatedAfterLogging() throws IOException {
+        final String loggerName = "async_3";
+
+        IOTools.deleteDir(vanillaBasePath(loggerName));
+
+        // the arguments are rendered by the drainer, once the caller changed them
+        final Logger logger = LoggerFactory.getLogger(loggerName);
+        final StringBuilder sb = new StringBuilder("before");
+        final Object[] args = new Object[] { "a", "b", "c" };
+
+        logger.info("sb {}", sb);
+        logger.info("sb {} {}", sb, 1);
+        logger.info("args {} {} {}", args);
+
+        sb.setLength(0);
+        sb.append("after");
+        args[0] = "changed";
+
+        getChronicleLoggerFactory().shutdown();
+
+        Chronicle     chronicle = getVanillaChronicle(loggerName);
+        ExcerptTailer tailer    = chronicle.createTailer().toStart();
+
+        assertTrue(tailer.nextIndex());
+        ChronicleLogEvent evt = ChronicleLogHelper.decodeBinary(tailer);
+        assertEquals("before", evt.getArgumentArray()[0]);
+        tailer.finish();
+
+        assertTrue(tailer.nextIndex());
+        evt = ChronicleLogHelper.decodeBinary(tailer);
+        assertEquals("before", evt.getArgumentArray()[0]);
+        assertEquals(1, evt.getArgumentArray()[1]);
+        tailer.finish();
+
+        assertTrue(tailer.nextIndex());
+        evt = ChronicleLogHelper.decodeBinary(tailer);
+        assertArrayEquals(new Object[] { "a", "b", "c" }, evt.getArgumentArray());
+        tailer.finish();
+
+        assertFalse(tailer.nextIndex());
+
+        tailer.close();
+        chronicle.close();
+
+        IOTools.deleteDir(vanillaBasePath(loggerName));
+    }
+
+    @Test
+    public void testCloseWhileLogging() throws IOException, InterruptedException {
+        final String loggerName = "async_2";
+        final int threads = 4;
+        final int runs = 50000;
+
+        IOTools.deleteDir(vanillaBasePath(loggerName));
+
+        final Logger logger = LoggerFactory.getLogger(loggerName);
+        final ChronicleLogWriters.AsyncWriter writer =
+            (ChronicleLogWriters.AsyncWriter) ((ChronicleLogger) logger).getWriter();
+
+        final AtomicLong attempts = new AtomicLong(0);
+        final CountDownLatch started = new CountDownLatch(threads);
+        final ExecutorService es = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            es.submit(new Runnable() {
+                @Override
+                public void run() {
+                    started.countDown();
+                    for (int i = 0; i < runs; i++) {
+                        logger.info("async {}", i);
+                        attempts.incrementAndGet();
+                    }
+                }
+            });
+        }
+
+        // close while the producers are still claiming slots
+        started.await();
+        writer.close();
+
+        es.shutdown();
+        es.awaitTermination(1, TimeUnit.MINUTES);
+
+        Chronicle     chronicle = getVanillaChronicle(loggerName);
+        ExcerptTailer tailer    = chronicle.createTailer().toStart();
+
+        long written = 0;
+        while (tailer.nextIndex()) {
+            ChronicleLogEvent evt = ChronicleLogHelper.decodeBinary(tailer);
+            if ("async {}".equals(evt.getMessage())) {
+                written++;
+            }
+
+            tailer.finish();
+        }
+
+        tailer.close();
+        chronicle.close();
+
+        // every event claimed before close is written, every other one is counted
+        assertEquals(threads * runs, attempts.get());
+        assertEquals(attempts.get(), written + writer.dropped());
+
+        IOTools.deleteDir(vanillaBasePath(loggerName));
+    }
+}
@@ -22,8 +22,10 @@ import net.openhft.chronicle.Chronicle;
 import net.openhft.chronicle.ExcerptTailer;
 import net.openhft.chronicle.VanillaChronicle;
 import net.openhft.chronicle.logger.ChronicleLog;
+import net.openhft.chronicle.logger.ChronicleLogArgs;
 import net.openhft.chronicle.logger.ChronicleLogWriters;
 import net.openhft.chronicle.logger.ChronicleLogConfig;
+import net.openhft.chronicle.logger.ChronicleLogDictionary;
 import net.openhft.chronicle.logger.ChronicleLogEvent;
 import net.openhft.chronicle.logger.ChronicleLogHelper;
 import net.openhft.chronicle.logger.ChronicleLogLevel;
@@ -182,4 +184,280 @@ public class Slf4jVanillaChronicleBinaryLoggerTest extends Slf4jTestBase {
 
         IOTools.deleteDir(vanillaBasePath(loggerName));
     }
+
+    @Test
+    public void testLogging3() throws IOException {
+        final String theradName = "th-test-binary-logging-3";
+        final String loggerName = "logging_3";
+        final long   timestamp  = System.currentTimeMillis();
+
+        IOTools.deleteDir(vanillaBasePath(loggerName));
+        Thread.currentThread().setName(theradName);
+
+        final Logger logger = LoggerFactory.getLogger(loggerName);
+        assertTrue(logger instanceof ChronicleArgsLogger);
+
+        ((ChronicleArgsLogger)logger).info("px={} qty={} side={} flag={} ref={}",
+            ChronicleLogArgs.get().add(101.25).add(1000L).add('B').add(true).add("ref-1"));
+
+        Chronicle     chronicle = getVanillaChronicle(loggerName);
+        ExcerptTailer tailer    = chronicle.createTailer().toStart();
+
+        assertTrue(tailer.nextIndex());
+
+        ChronicleLogEvent evt = ChronicleLogHelper.decodeBinary(tailer);
+        assertNotNull(evt);
+        assertEquals(evt.getVersion(), ChronicleLog.VERSION);
+        assertTrue(evt.getTimeStamp() >= timestamp);
+        assertEquals(ChronicleLogLevel.INFO, evt.getLevel());
+        assertEquals("px={} qty={} side={} flag={} ref={}", evt.getMessage());
+        assertEquals(theradName, evt.getThreadName());
+        assertArrayEquals(new Object[] { 101.25, 1000L, 'B', true, "ref-1" }, evt.getArgumentArray());
+
+        tailer.close();
+        chronicle.close();
+
+        IOTools.deleteDir(vanillaBasePath(loggerName));
+    }
+
+    @Test
+    public void testLogging4() throws IOException {
+        final String theradName = "th-test-binary-logging-4";
+        final String loggerName = "logging_4";
+
+        IOTools.deleteDir(vanillaBasePath(loggerName));
+        Thread.currentThread().setName(theradName);
+
+        final Logger logger = LoggerFactory.getLogger(loggerName);
+        final long start = System.currentTimeMillis();
+        for(int i=0;i<3;i++) {
+            logger.info("dictionary {}", i);
+        }
+        final long end = System.currentTimeMillis();
+
+        Chronicle     chronicle = getVanillaChronicle(loggerName);
+        ExcerptTailer tailer    = chronicle.createTailer().toStart();
+
+        for(int i=0;i<3;i++) {
+            assertTrue(tailer.nextIndex());
+
+            ChronicleLogEvent evt = ChronicleLogHelper.decodeBinary(tailer);
+            assertNotNull(evt);
+            assertEquals(theradName, evt.getThreadName());
+            assertEquals(loggerName, evt.getLoggerName());
+            assertEquals("dictionary {}", evt.getMessage());
+            assertEquals(i, evt.getArgumentArray()[0]);
+            // written as a delta from the start of the cycle
+            assertTrue(evt.getTimeStamp() >= start && evt.getTimeStamp() <= end);
+
+            tailer.finish();
+        }
+
+        tailer.close();
+
+        // the names are only defined by the first event
+        tailer = chronicle.createTailer().toStart();
+        assertTrue(tailer.nextIndex());
+        tailer.finish();
+        assertTrue(tailer.nextIndex());
+
+        ChronicleLogEvent evt = ChronicleLogHelper.decodeBinary(tailer, new ChronicleLogDictionary());
+        assertTrue(evt.getThreadName().startsWith("#"));
+        assertTrue(evt.getLoggerName().startsWith("#"));
+
+        tailer.close();
+        chronicle.close();
+
+        IOTools.deleteDir(vanillaBasePath(loggerName));
+    }
+
+    @Test
+    public void testLogging5() throws IOException {
+        final String theradName = "th-test-binary-logging-5";
+        final String loggerName = "logging_5";
+
+        IOTools.deleteDir(vanillaBasePath(loggerName));
+        Thread.currentThread().setName(theradName);
+
+        final Logger logger = LoggerFactory.getLogger(loggerName);
+        for(int i=0;i<3;i++) {
+            logger.info("order {} filled at {}", i, 100 + i);
+        }
+
+        Chronicle     chronicle = getVanillaChronicle(loggerName);
+        ExcerptTailer tailer    = chronicle.createTailer().toStart();
+
+        for(int i=0;i<3;i++) {
+            assertTrue(tailer.nextIndex());
+
+            ChronicleLogEvent evt = ChronicleLogHelper.decodeBinary(tailer);
+            assertNotNull(evt);
+            assertEquals(theradName, evt.getThreadName());
+            assertEquals(loggerName, evt.getLoggerName());
+            assertEquals("order {} filled at {}", evt.getMessage());
+            assertEquals(i, evt.getArgumentArray()[0]);
+            assertEquals(100 + i, evt.getArgumentArray()[1]);
+
+            tailer.finish();
+        }
+
+        tailer.close();
+
+        // the template is only defined by the first event
+        tailer = chronicle.createTailer().toStart();
+        assertTrue(tailer.nextIndex());
+        tailer.finish();
+        assertTrue(tailer.nextIndex());
+
+        ChronicleLogEvent evt = ChronicleLogHelper.decodeBinary(tailer, new ChronicleLogDictionary());
+        assertEquals(theradName, evt.getThreadName());
+        assertTrue(evt.getMessage().startsWith("#"));
+
+        tailer.close();
+        chronicle.close();
+
+        IOTools.deleteDir(vanillaBasePath(loggerName));
+    }
+
+    @Test
+    public void testLogging6() throws IOException {
+        final String theradName = "th-test-binary-logging-6";
+        final String loggerName = "logging_6";
+
+        IOTools.deleteDir(vanillaBasePath(loggerName));
+        Thread.currentThread().setName(theradName);
+
+        final Logger logger = LoggerFactory.getLogger(loggerName);
+        for(int i=0;i<3;i++) {
+            logger.warn("throwable", new IllegalStateException("boom " + i));
+        }
+
+        Chronicle         chronicle = getVanillaChronicle(loggerName);
+        ExcerptTailer     tailer    = chronicle.createTailer().toStart();
+        StackTraceElement[] frames  = null;
+
+        for(int i=0;i<3;i++) {
+            assertTrue(tailer.nextIndex());
+
+            ChronicleLogEvent evt = ChronicleLogHelper.decodeBinary(tailer);
+            assertNotNull(evt);
+            assertEquals("throwable", evt.getMessage());
+            assertNotNull(evt.getThrowable());
+            assertEquals(IllegalStateException.class, evt.getThrowable().getClass());
+            assertEquals("boom " + i, evt.getThrowable().getMessage());
+
+            if(frames == null) {
+                frames = evt.getThrowable().getStackTrace();
+            } else {
+                assertArrayEquals(frames, evt.getThrowable().getStackTrace());
+            }
+
+            tailer.finish();
+        }
+
+        tailer.close();
+
+        // the following events only reference the throwable of the first one
+        tailer = chronicle.createTailer().toStart();
+        assertTrue(tailer.nextIndex());
+        tailer.finish();
+        assertTrue(tailer.nextIndex());
+
+        ChronicleLogEvent evt = ChronicleLogHelper.decodeBinary(tailer, new ChronicleLogDictionary());
+        assertTrue(evt.getThrowable() instanceof ChronicleLogDictionary.ThrowableReference);
+        assertEquals("boom 1", evt.getThrowable().getMessage());
+
+        tailer.close();
+        chronicle.close();
+
+        IOTools.deleteDir(vanillaBasePath(loggerName));
+    }
+
+    @Test
+    public void testLogging6Causes() throws IOException {
+        final String theradName = "th-test-binary-logging-6-causes";
+        final String loggerName = "logging_6";
+
+        IOTools.deleteDir(vanillaBasePath(loggerName));
+        Thread.currentThread().setName(theradName);
+
+        // same class and frames, the cause of the second one differs
+        final Logger logger = LoggerFactory.getLogger(loggerName);
+        for(int i=0;i<3;i++) {
+            logger.warn("throwable", new IllegalStateException("boom", new IOException("cause " + (i % 2))));
+        }
+
+        Chronicle     chronicle = getVanillaChronicle(loggerName);
+        ExcerptTailer tailer    = chronicle.createTailer().toStart();
+
+        for(int i=0;i<3;i++) {
+            assertTrue(tailer.nextIndex());
+
+            ChronicleLogEvent evt = ChronicleLogHelper.decodeBinary(tailer);
+            assertNotNull(evt);
+            assertNotNull(evt.getThrowable());
+            assertNotNull(evt.getThrowable().getCause());
+            assertEquals(IOException.class, evt.getThrowable().getCause().getClass());
+            assertEquals("cause " + (i % 2), evt.getThrowable().getCause().getMessage());
+
+            tailer.finish();
+        }
+
+        tailer.close();
+        chronicle.close();
+
+        IOTools.deleteDir(vanillaBasePath(loggerName));
+    }
+
+    @Test
+    public void testLogging7() throws Exception {
+        final String theradName = "th-test-binary-logging-7";
+        final String loggerName = "logging_7";
+
+        IOTools.deleteDir(vanillaBasePath(loggerName));
+        Thread.currentThread().setName(theradName);
+
+        final Logger logger = LoggerFactory.getLogger(loggerName);
+        for(int i=0;i<100;i++) {
+            logger.warn("warn {}", i);
+        }
+        for(int i=0;i<3;i++) {
+            logger.info("info {}", i);
+        }
+
+        // the first event after the window closed reports the events dropped so far
+        Thread.sleep(200);
+        logger.warn("warn {}", 100);
+
+        Chronicle     chronicle = getVanillaChronicle(loggerName);
+        ExcerptTailer tailer    = chronicle.createTailer().toStart();
+
+        int warns = 0;
+        int infos = 0;
+        long suppressed = 0;
+        while(tailer.nextIndex()) {
+            ChronicleLogEvent evt = ChronicleLogHelper.decodeBinary(tailer);
+            if(evt.getMessage().endsWith(" events suppressed")) {
+                assertEquals(ChronicleLogLevel.WARN, evt.getLevel());
+                assertEquals(loggerName, evt.getLoggerName());
+                suppressed += Long.parseLong(evt.getMessage().split(" ")[0]);
+            } else if(evt.getLevel() == ChronicleLogLevel.WARN) {
+                warns++;
+            } else {
+                infos++;
+            }
+
+            tailer.finish();
+        }
+
+        // rate limited warns, the burst and what was refilled meanwhile went through
+        assertTrue(warns >= 6 && warns < 100);
+        assertEquals(101, warns + suppressed);
+        assertEquals(3, infos);
+
+        tailer.close();
+        chronicle.close();
+
+        IOTools.deleteDir(vanillaBasePath(loggerName));
+    }
 }
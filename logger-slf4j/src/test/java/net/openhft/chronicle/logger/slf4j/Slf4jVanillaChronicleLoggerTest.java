@@ -22,10 +22,13 @@ import net.openhft.chronicle.Chronicle;
 import net.openhft.chronicle.ExcerptTailer;
 import net.openhft.chronicle.VanillaChronicle;
 import net.openhft.chronicle.logger.ChronicleLog;
+import net.openhft.chronicle.logger.ChronicleLogArgs;
 import net.openhft.chronicle.logger.ChronicleLogConfig;
+import net.openhft.chronicle.logger.ChronicleLogDictionary;
 import net.openhft.chronicle.logger.ChronicleLogEvent;
 import net.openhft.chronicle.logger.ChronicleLogHelper;
 import net.openhft.chronicle.logger.ChronicleLogLevel;
+import net.openhft.chronicle.logger.ChronicleLogWriters;
 import net.openhft.lang.io.IOTools;
 import org.junit.After;
 import org.junit.Before;
@@ -34,7 +37,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.impl.StaticLoggerBinder;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.PrintStream;
 
 import static org.junit.Assert.*;
 
@@ -250,4 +255,227 @@ public class Slf4jVanillaChronicleLoggerTest extends Slf4jTestBase {
 
         IOTools.deleteDir(basePath(ChronicleLogConfig.TYPE_VANILLA,testId));
     }
+
+    @Test
+    public void testTextThrowableDedup() throws IOException {
+        final String testId    = "text_2";
+        final String threadId  = testId + "-th";
+        final Logger logger    = LoggerFactory.getLogger(testId);
+
+        IOTools.deleteDir(basePath(ChronicleLogConfig.TYPE_VANILLA,testId));
+        Thread.currentThread().setName(threadId);
+
+        for(int i=0;i<3;i++) {
+            logger.warn("Throwable test", new UnsupportedOperationException("Exception message " + i));
+        }
+
+        Chronicle         chronicle = getVanillaChronicle(ChronicleLogConfig.TYPE_VANILLA,testId);
+        ExcerptTailer     tailer    = chronicle.createTailer().toStart();
+        ChronicleLogEvent evt       = null;
+        String            trace     = null;
+
+        for(int i=0;i<3;i++) {
+            assertTrue(tailer.nextIndex());
+
+            evt = ChronicleLogHelper.decodeText(tailer);
+            assertNotNull(evt);
+            assertEquals(threadId, evt.getThreadName());
+            assertTrue(evt.getMessage().contains("Exception message " + i));
+            assertTrue(evt.getMessage().contains(this.getClass().getName()));
+
+            // the stack trace is expanded from the first occurrence
+            final String frames = evt.getMessage().substring(evt.getMessage().indexOf(this.getClass().getName()));
+            if(trace == null) {
+                trace = frames;
+            } else {
+                assertEquals(trace, frames);
+            }
+
+            tailer.finish();
+        }
+
+        tailer.close();
+
+        // the following events only reference the stack trace of the first one
+        tailer = chronicle.createTailer().toStart();
+        assertTrue(tailer.nextIndex());
+        tailer.finish();
+        assertTrue(tailer.nextIndex());
+
+        evt = ChronicleLogHelper.decodeText(tailer, new ChronicleLogDictionary());
+        assertTrue(evt.getMessage().contains("Exception message 1"));
+        assertFalse(evt.getMessage().contains(this.getClass().getName()));
+
+        tailer.close();
+        chronicle.close();
+
+        IOTools.deleteDir(basePath(ChronicleLogConfig.TYPE_VANILLA,testId));
+    }
+
+    @Test
+    public void testTextArguments() throws IOException {
+        final String testId    = "text_3";
+        final String threadId  = testId + "-th";
+        final Logger logger    = LoggerFactory.getLogger(testId);
+
+        IOTools.deleteDir(basePath(ChronicleLogConfig.TYPE_VANILLA,testId));
+        Thread.currentThread().setName(threadId);
+
+        logger.info("one {}", 1);
+        logger.info("two {} {}", "a", 2L);
+        logger.info("many {} {} {} {}", 'c', true, null, new int[] { 1, 2 });
+        logger.info("escaped \\{} and {}", "x");
+        logger.info("missing {} {}", "only one");
+        logger.info("throwable {}", "arg", new IllegalStateException("boom"));
+        ((ChronicleArgsLogger)logger).info("px={} qty={}", ChronicleLogArgs.get().add(12.5).add(100L));
+
+        final String[] expected = new String[] {
+            "one 1",
+            "two a 2",
+            "many c true null [1, 2]",
+            "escaped {} and x",
+            "missing only one {}",
+            "throwable arg",
+            "px=12.5 qty=100"
+        };
+
+        Chronicle     chronicle = getVanillaChronicle(ChronicleLogConfig.TYPE_VANILLA,testId);
+        ExcerptTailer tailer    = chronicle.createTailer().toStart();
+
+        for(String message : expected) {
+            assertTrue(tailer.nextIndex());
+
+            ChronicleLogEvent evt = ChronicleLogHelper.decodeText(tailer);
+            assertNotNull(evt);
+            assertEquals(threadId, evt.getThreadName());
+            assertEquals(testId, evt.getLoggerName());
+
+            if(message.startsWith("throwable")) {
+                assertTrue(evt.getMessage().startsWith(message + " - "));
+                assertTrue(evt.getMessage().contains(IllegalStateException.class.getName() + ": boom"));
+            } else {
+                assertEquals(message, evt.getMessage());
+            }
+
+            tailer.finish();
+        }
+
+        tailer.close();
+        chronicle.close();
+
+        IOTools.deleteDir(basePath(ChronicleLogConfig.TYPE_VANILLA,testId));
+    }
+
+    @Test
+    public void testTextNonAscii() throws IOException {
+        final String testId    = "text_4";
+        final Logger logger    = LoggerFactory.getLogger(testId);
+
+        IOTools.deleteDir(basePath(ChronicleLogConfig.TYPE_VANILLA,testId));
+
+        // formatted and plain messages are encoded alike
+        logger.info("prix {} \u20ac caf\u00e9", 12);
+        logger.info("prix 12 \u20ac caf\u00e9");
+        logger.info("{} \u00e0 {}", '\u20ac', "\u65e5\u672c");
+        ((ChronicleArgsLogger)logger).info("{} \u00e0 {}", ChronicleLogArgs.get().add('\u00e9').add('\u20ac'));
+
+        final String[] expected = new String[] {
+            "prix 12 \u20ac caf\u00e9",
+            "prix 12 \u20ac caf\u00e9",
+            "\u20ac \u00e0 \u65e5\u672c",
+            "\u00e9 \u00e0 \u20ac"
+        };
+
+        Chronicle     chronicle = getVanillaChronicle(ChronicleLogConfig.TYPE_VANILLA,testId);
+        ExcerptTailer tailer    = chronicle.createTailer().toStart();
+
+        for(String message : expected) {
+            assertTrue(tailer.nextIndex());
+
+            ChronicleLogEvent evt = ChronicleLogHelper.decodeText(tailer);
+            assertNotNull(evt);
+            assertEquals(testId, evt.getLoggerName());
+            assertEquals(message, evt.getMessage());
+
+            tailer.finish();
+        }
+
+        tailer.close();
+        chronicle.close();
+
+        IOTools.deleteDir(basePath(ChronicleLogConfig.TYPE_VANILLA,testId));
+    }
+
+    @Test
+    public void testTextFloatingPoint() throws IOException {
+        final String testId    = "text_5";
+        final Logger logger    = LoggerFactory.getLogger(testId);
+
+        IOTools.deleteDir(basePath(ChronicleLogConfig.TYPE_VANILLA,testId));
+
+        logger.info("{} {} {} {}", new Object[] { 0.1 + 0.2, 1.0, -0.0, 1e20 });
+        logger.info("{} {} {}", new Object[] { 0.1f, 1.0f, Double.NaN });
+        ((ChronicleArgsLogger)logger).info("{} {} {} {}",
+            ChronicleLogArgs.get().add(0.1 + 0.2).add(1.0).add(-0.0).add(1e20));
+
+        final String[] expected = new String[] {
+            Double.toString(0.1 + 0.2) + " 1.0 -0.0 1.0E20",
+            "0.1 1.0 NaN",
+            Double.toString(0.1 + 0.2) + " 1.0 -0.0 1.0E20"
+        };
+
+        Chronicle     chronicle = getVanillaChronicle(ChronicleLogConfig.TYPE_VANILLA,testId);
+        ExcerptTailer tailer    = chronicle.createTailer().toStart();
+
+        for(String message : expected) {
+            assertTrue(tailer.nextIndex());
+
+            ChronicleLogEvent evt = ChronicleLogHelper.decodeText(tailer);
+            assertNotNull(evt);
+            assertEquals(message, evt.getMessage());
+
+            tailer.finish();
+        }
+
+        tailer.close();
+        chronicle.close();
+
+        IOTools.deleteDir(basePath(ChronicleLogConfig.TYPE_VANILLA,testId));
+    }
+
+    @Test
+    public void testSimpleArguments() throws IOException {
+        // as built for the net.openhft loggers, which print to the console
+        final String name = "net.openhft.simple_1";
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final Logger logger = new ChronicleLogger.Text(
+            new ChronicleLogWriters.SimpleWriter(new PrintStream(out, true)),
+            name,
+            ChronicleLogLevel.DEBUG);
+
+        logger.info("one {}", 1);
+        logger.info("two {} {}", "a", 2L);
+        logger.info("many {} {} {} {}", 'c', true, null, new int[] { 1, 2 });
+        logger.info("escaped \\{} and {}", "x");
+        logger.info("throwable {}", "arg", new IllegalStateException("boom"));
+        logger.info("throwables {} {}", new Object[] { "a", "b", new IllegalStateException("bang") });
+        ((ChronicleArgsLogger)logger).info("px={} qty={}", ChronicleLogArgs.get().add(12.5).add(100L));
+
+        final String[] expected = new String[] {
+            "one 1",
+            "two a 2",
+            "many c true null [1, 2]",
+            "escaped {} and x",
+            "throwable arg|" + IllegalStateException.class.getName() + ": boom",
+            "throwables a b|" + IllegalStateException.class.getName() + ": bang",
+            "px=12.5 qty=100"
+        };
+
+        final String[] lines = out.toString().split(System.getProperty("line.separator"));
+        assertEquals(expected.length, lines.length);
+
+        for(int i = 0; i < expected.length; i++) {
+            assertTrue(lines[i], lines[i].endsWith("|" + name + "|" + expected[i]));
+        }
+    }
 }
@@ -18,8 +18,6 @@
 
 package net.openhft.chronicle.logger.tools;
 
-import net.openhft.chronicle.ChronicleQueueBuilder;
-
 /**
  *
  */
@@ -34,6 +32,10 @@ public final class ChroniCat {
             boolean indexed = false;
             boolean binary = true;
             boolean compressed = true;
+            boolean ordered = true;
+            int threads = 0;
+            long from = Long.MIN_VALUE;
+            long to = Long.MAX_VALUE;
 
             for (int i = 0; i < args.length - 1; i++) {
                 if ("-t".equals(args[i])) {
@@ -44,33 +46,60 @@ public final class ChroniCat {
 
                 } else if ("-u".equals(args[i])) {
                     compressed = false;
+
+                } else if ("-p".equals(args[i]) && i < args.length - 2) {
+                    threads = Integer.parseInt(args[++i]);
+
+                } else if ("--unordered".equals(args[i])) {
+                    ordered = false;
+
+                } else if ("--from".equals(args[i]) && i < args.length - 2) {
+                    from = ChroniTool.parseTime(args[++i]);
+
+                } else if ("--to".equals(args[i]) && i < args.length - 2) {
+                    to = ChroniTool.parseTime(args[++i]);
                 }
             }
 
-            if (args.length >= 1) {
+            if (args.length >= 1 && threads > 0) {
+                ChroniTool.scan(
+                    ChroniTool.open(args[args.length - 1], indexed, compressed),
+                    ChroniTool.FORMATTERS,
+                    binary,
+                    threads,
+                    ordered,
+                    from,
+                    to
+                );
+
+            } else if (args.length >= 1) {
                 ChroniTool.process(
-                    indexed
-                        ? ChronicleQueueBuilder.indexed(args[args.length - 1])
-                            .useCompressedObjectSerializer(compressed)
-                            .build()
-                        : ChronicleQueueBuilder.vanilla(args[args.length - 1])
-                            .useCompressedObjectSerializer(compressed)
-                            .build(),
+                    ChroniTool.open(args[args.length - 1], indexed, compressed),
                     binary
                         ? ChroniTool.READER_BINARY
                         : ChroniTool.READER_TEXT,
+                    binary,
+                    false,
                     false,
-                    false
+                    from,
+                    to
                 );
 
             } else {
-                System.err.format("%nUsage: ChroniCat [-t|-i|-u] path");
+                System.err.format("%nUsage: ChroniCat [-t|-i|-u|-p threads|--unordered|--from time|--to time] path");
                 System.err.format("%n  -t = text chronicle, default binary");
                 System.err.format("%n  -u = use uncompressed object serialization, default compressed");
                 System.err.format("%n  -i = IndexedChronicle, default VanillaChronicle");
+                System.err.format("%n  -p = scan on the given number of threads, default sequential");
+                System.err.format("%n  --unordered = with -p, print events as they are found rather than in order");
+                System.err.format("%n  --from = skip the events logged before the given time");
+                System.err.format("%n  --to = stop at the events logged after the given time");
+                System.err.format("%n  time = yyyy.MM.dd-HH:mm:ss.SSS, HH:mm[:ss[.SSS]] today or epoch milliseconds");
             }
         } catch (Exception e) {
             e.printStackTrace(System.err);
+        } finally {
+            ChroniTool.OUT.flush();
         }
     }
 
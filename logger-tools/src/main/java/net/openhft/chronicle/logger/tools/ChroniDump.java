@@ -18,7 +18,6 @@
 
 package net.openhft.chronicle.logger.tools;
 
-import net.openhft.chronicle.ChronicleQueueBuilder;
 import net.openhft.chronicle.logger.ChronicleLogReader;
 import net.openhft.lang.io.Bytes;
 
@@ -39,7 +38,7 @@ public final class ChroniDump {
     private static final ChronicleLogReader HEXDUMP = new ChronicleLogReader() {
         @Override
         public void read(final Bytes bytes) {
-            StringBuilder result = new StringBuilder();
+            final ChroniOutput out = ChroniTool.OUT;
 
             for (long i = 0; bytes.remaining() > 0; i++) {
                 long size = bytes.remaining();
@@ -48,29 +47,29 @@ public final class ChroniDump {
                     //Read byte, no consume
                     byte b = bytes.readByte((i * 16) + n);
 
-                    result.append(" ");
-                    result.append(HEX_DIGITS[(b >>> 4) & 0x0F]);
-                    result.append(HEX_DIGITS[b & 0x0F]);
+                    out.append(' ');
+                    out.append(HEX_DIGITS[(b >>> 4) & 0x0F]);
+                    out.append(HEX_DIGITS[b & 0x0F]);
                 }
 
                 size = bytes.remaining();
 
                 for (int n = 0; n < 16 - size; n++) {
-                    result.append("   ");
+                    out.append("   ");
                 }
 
-                result.append(" ==> ");
+                out.append(" ==> ");
 
                 for (int n = 0; n < Math.min(16, size); n++) {
                     //Read byte, consume
                     byte b = bytes.readByte();
-                    result.append((b > ' ' && b < '~') ? (char) b : '.');
+                    out.append((b > ' ' && b < '~') ? (char) b : '.');
                 }
 
-                result.append('\n');
+                out.append('\n');
             }
 
-            System.out.println(result.toString());
+            out.newLine();
         }
     };
 
@@ -81,38 +80,53 @@ public final class ChroniDump {
     public static void main(String[] args) {
         try {
             boolean indexed = false;
+            boolean binary = true;
             boolean compressed = true;
+            long from = Long.MIN_VALUE;
+            long to = Long.MAX_VALUE;
 
             for (int i = 0; i < args.length - 1; i++) {
-                if ("-i".equals(args[i])) {
+                if ("-t".equals(args[i])) {
+                    binary = false;
+
+                } else if ("-i".equals(args[i])) {
                     indexed = true;
 
                 } else if ("-u".equals(args[i])) {
                     compressed = false;
+
+                } else if ("--from".equals(args[i]) && i < args.length - 2) {
+                    from = ChroniTool.parseTime(args[++i]);
+
+                } else if ("--to".equals(args[i]) && i < args.length - 2) {
+                    to = ChroniTool.parseTime(args[++i]);
                 }
             }
 
             if (args.length >= 1) {
                 ChroniTool.process(
-                    indexed
-                        ? ChronicleQueueBuilder.indexed(args[args.length - 1])
-                            .useCompressedObjectSerializer(compressed)
-                            .build()
-                        : ChronicleQueueBuilder.vanilla(args[args.length - 1])
-                            .useCompressedObjectSerializer(compressed)
-                            .build(),
+                    ChroniTool.open(args[args.length - 1], indexed, compressed),
                     HEXDUMP,
+                    binary,
+                    false,
                     false,
-                    false
+                    from,
+                    to
                 );
 
             } else {
-                System.err.format("%nUsage: ChroniDump [-i|-u] path");
+                System.err.format("%nUsage: ChroniDump [-t|-i|-u|--from time|--to time] path");
+                System.err.format("%n  -t = text chronicle, default binary, only used to read the time of the events");
                 System.err.format("%n  -u = use uncompressed object serialization, default compressed");
                 System.err.format("%n  -i = IndexedChronicle, default VanillaChronicle");
+                System.err.format("%n  --from = skip the events logged before the given time");
+                System.err.format("%n  --to = stop at the events logged after the given time");
+                System.err.format("%n  time = yyyy.MM.dd-HH:mm:ss.SSS, HH:mm[:ss[.SSS]] today or epoch milliseconds");
             }
         } catch (Exception e) {
             e.printStackTrace(System.err);
+        } finally {
+            ChroniTool.OUT.flush();
         }
     }
 
@@ -18,12 +18,24 @@
 
 package net.openhft.chronicle.logger.tools;
 
-import net.openhft.chronicle.ChronicleQueueBuilder;
+import net.openhft.chronicle.Chronicle;
+import net.openhft.chronicle.logger.BinaryChronicleLogEventFlyweight;
+import net.openhft.chronicle.logger.ChronicleLogBlocks;
 import net.openhft.chronicle.logger.ChronicleLogEvent;
+import net.openhft.chronicle.logger.ChronicleLogLevel;
+import net.openhft.chronicle.logger.ChronicleLogMatcher;
+import net.openhft.chronicle.logger.ChronicleLogScanner;
+import net.openhft.chronicle.logger.ChronicleLogTerms;
 
+import java.io.IOException;
 import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.regex.Pattern;
 
 /**
@@ -40,6 +52,12 @@ public final class ChroniGrep {
             boolean indexed = false;
             boolean binary = true;
             boolean compressed = true;
+            boolean ordered = true;
+            boolean index = false;
+            boolean blocks = false;
+            int threads = 0;
+            long from = Long.MIN_VALUE;
+            long to = Long.MAX_VALUE;
 
             Grep grep = new Grep();
 
@@ -53,35 +71,97 @@ public final class ChroniGrep {
                 } else if ("-u".equals(args[i])) {
                     compressed = false;
 
+                } else if ("-p".equals(args[i]) && i < args.length - 2) {
+                    threads = Integer.parseInt(args[++i]);
+
+                } else if ("--unordered".equals(args[i])) {
+                    ordered = false;
+
+                } else if ("--index".equals(args[i])) {
+                    index = true;
+
+                } else if ("--blocks".equals(args[i])) {
+                    blocks = true;
+
+                } else if ("--level".equals(args[i]) && i < args.length - 2) {
+                    grep.setLevel(ChronicleLogLevel.fromStringLevel(args[++i]));
+
+                } else if ("--thread".equals(args[i]) && i < args.length - 2) {
+                    grep.addThread(args[++i]);
+
+                } else if ("--logger".equals(args[i]) && i < args.length - 2) {
+                    grep.addLogger(args[++i]);
+
+                } else if ("--message".equals(args[i]) && i < args.length - 2) {
+                    grep.addMessage(args[++i]);
+
+                } else if ("--from".equals(args[i]) && i < args.length - 2) {
+                    from = ChroniTool.parseTime(args[++i]);
+
+                } else if ("--to".equals(args[i]) && i < args.length - 2) {
+                    to = ChroniTool.parseTime(args[++i]);
+
                 } else if (i != args.length - 1) {
                     grep.add(args[i]);
                 }
             }
 
-            if (args.length >= 1 && !grep.isEmpty()) {
+            if (args.length >= 1 && !grep.isEmpty() && index
+                    && search(args[args.length - 1], indexed, compressed, binary, grep, from, to)) {
+                // done with the term index
+
+            } else if (args.length >= 1 && !grep.isEmpty() && threads > 0) {
+                ChroniTool.scan(
+                    ChroniTool.open(args[args.length - 1], indexed, compressed),
+                    new GrepMappers(grep),
+                    binary,
+                    threads,
+                    ordered,
+                    from,
+                    to
+                );
+
+            } else if (args.length >= 1 && !grep.isEmpty() && blocks
+                    && filter(args[args.length - 1], indexed, compressed, binary, grep, from, to)) {
+                // done with the block filters
+
+            } else if (args.length >= 1 && !grep.isEmpty()) {
                 ChroniTool.process(
-                    indexed
-                        ? ChronicleQueueBuilder.indexed(args[args.length - 1])
-                            .useCompressedObjectSerializer(compressed)
-                            .build()
-                        : ChronicleQueueBuilder.vanilla(args[args.length - 1])
-                            .useCompressedObjectSerializer(compressed)
-                            .build(),
+                    ChroniTool.open(args[args.length - 1], indexed, compressed),
                     binary
                         ? new BinaryGrep(grep)
                         : new TextGrep(grep),
+                    binary,
+                    false,
                     false,
-                    false
+                    from,
+                    to
                 );
 
             } else {
-                System.err.format("%nUsage: ChroniGrep [-t|-i|-u] regexp1 ... regexpN path");
+                System.err.format("%nUsage: ChroniGrep [-t|-i|-u|-p threads|--unordered|--from time|--to time|--level level|--thread regexp|--logger regexp|--message regexp|--index|--blocks] regexp1 ... regexpN path");
                 System.err.format("%n  -u = use uncompressed object serialization, default compressed");
                 System.err.format("%n  -t = text chronicle, default binary");
                 System.err.format("%n  -i = IndexedChronicle, default VanillaChronicle");
+                System.err.format("%n  -p = scan on the given number of threads, default sequential");
+                System.err.format("%n  --unordered = with -p, print events as they are found rather than in order");
+                System.err.format("%n  --from = skip the events logged before the given time");
+                System.err.format("%n  --to = stop at the events logged after the given time");
+                System.err.format("%n  --level = only match the events of the given level or above");
+                System.err.format("%n  --thread, --logger, --message = only match the events whose field matches the regexp,");
+                System.err.format("%n             the fields are matched before the events are printed, literals as .*word.*");
+                System.err.format("%n             are looked for in the bytes of binary events without decoding them");
+                System.err.format("%n  --index = look up literals, i.e. .*word.*, in the index built by ChroniIndex");
+                System.err.format("%n            using their whole words, the first and last words of .*7f3a.* or");
+                System.err.format("%n            .*req-7f3a.* may be parts of longer ones, regexps are scanned for");
+                System.err.format("%n  --blocks = skip the blocks of events which the block filters written by loggers");
+                System.err.format("%n             having blockFilter set tell do not hold the literals nor the level");
+                System.err.format("%n  time = yyyy.MM.dd-HH:mm:ss.SSS, HH:mm[:ss[.SSS]] today or epoch milliseconds");
             }
         } catch (Exception e) {
             e.printStackTrace(System.err);
+        } finally {
+            ChroniTool.OUT.flush();
         }
     }
 
@@ -89,24 +169,423 @@ public final class ChroniGrep {
     //
     // *************************************************************************
 
+    /**
+     * Grep a chronicle with its term index, reading only the excerpts holding
+     * the terms of the literals and the excerpts which were not indexed yet.
+     *
+     * @return false if the index can not be used, i.e. one of the expressions
+     *         is not a literal or holds no whole word, the chronicle is
+     *         striped or not indexed
+     */
+    private static boolean search(
+            String path,
+            boolean indexed,
+            boolean compressed,
+            boolean binary,
+            Grep grep,
+            long from,
+            long to) throws IOException {
+
+        final List<String> literals = words(grep.literals());
+        final List<String> paths = ChroniTool.paths(path, indexed);
+        if (literals == null || paths.size() != 1) {
+            return false;
+        }
+
+        final ChronicleLogTerms terms = new ChronicleLogTerms(paths.get(0));
+        if (terms.isEmpty()) {
+            return false;
+        }
+
+        // the events holding any of the literals, and the definitions used by
+        // the events following the last one indexed
+        final long last = terms.lastIndex();
+        final List<long[]> found = new ArrayList<>();
+        for (String literal : literals) {
+            found.add(terms.lookup(ChronicleLogTerms.terms(literal), from, to, true));
+        }
+
+        found.add(terms.lookup(
+            Collections.singleton(ChronicleLogTerms.DEFINITIONS),
+            terms.lastTimestamp(),
+            terms.lastTimestamp(),
+            false));
+
+        final Chronicle chronicle = ChroniTool.open(path, indexed, compressed).get(0);
+        try {
+            ChroniTool.process(
+                chronicle,
+                binary
+                    ? new BinaryGrep(grep)
+                    : new TextGrep(grep),
+                binary,
+                union(found),
+                last,
+                from,
+                to);
+        } finally {
+            chronicle.close();
+        }
+
+        return true;
+    }
+
+    /**
+     * Grep a chronicle skipping the blocks of events which can not match
+     * according to the block filters written with it, on the level, the time
+     * and the literals looked for if all the expressions are literals.
+     *
+     * @return false if the block filters can not be used, i.e. the chronicle
+     *         is striped or has no block filters
+     */
+    private static boolean filter(
+            String path,
+            boolean indexed,
+            boolean compressed,
+            boolean binary,
+            Grep grep,
+            long from,
+            long to) throws IOException {
+
+        final List<String> paths = ChroniTool.paths(path, indexed);
+        if (paths.size() != 1) {
+            return false;
+        }
+
+        final ChronicleLogBlocks.Filter filter = ChronicleLogBlocks.filter(
+            paths.get(0), grep.getLevel(), words(grep.literals()), from, to);
+        if (filter.isEmpty()) {
+            return false;
+        }
+
+        final Chronicle chronicle = ChroniTool.open(path, indexed, compressed).get(0);
+        try {
+            ChroniTool.process(
+                chronicle,
+                binary
+                    ? new BinaryGrep(grep)
+                    : new TextGrep(grep),
+                binary,
+                false,
+                false,
+                from,
+                to,
+                filter);
+        } finally {
+            chronicle.close();
+        }
+
+        return true;
+    }
+
+    /**
+     * @return the whole words of each literal separated by spaces, see
+     *         ChronicleLogTerms#wholeTerms, null if one of them has none and
+     *         so may be found in any event, e.g. .*7f3a.* in req-7f3a9c
+     */
+    private static List<String> words(final List<String> literals) {
+        if (literals == null) {
+            return null;
+        }
+
+        final List<String> words = new ArrayList<>();
+        for (String literal : literals) {
+            final StringBuilder sb = new StringBuilder();
+            for (String term : ChronicleLogTerms.wholeTerms(literal)) {
+                if (sb.length() > 0) {
+                    sb.append(' ');
+                }
+
+                sb.append(term);
+            }
+
+            if (sb.length() == 0) {
+                System.err.format("%s may be found inside longer words, its words are not looked up%n", literal);
+                return null;
+            }
+
+            words.add(sb.toString());
+        }
+
+        return words;
+    }
+
+    private static long[] union(final List<long[]> values) {
+        final Set<Long> union = new TreeSet<>();
+        for (long[] indexes : values) {
+            for (long index : indexes) {
+                union.add(index);
+            }
+        }
+
+        final long[] indexes = new long[union.size()];
+        int i = 0;
+        for (Long index : union) {
+            indexes[i++] = index;
+        }
+
+        return indexes;
+    }
+
+    // *************************************************************************
+    //
+    // *************************************************************************
+
+    /**
+     * The expressions looked for, compiled once. The expressions without a
+     * field are matched against the whole event as printed, an expression
+     * given for a field is matched against the field with . matching line
+     * terminators too, and the event is only printed if it matches one of the
+     * expressions of each field and one of the expressions without a field.
+     *
+     * Literal expressions, i.e. .*word.*, are looked for with a
+     * ChronicleLogMatcher, which runs on the bytes of the inline strings of
+     * binary events for the fields. When the literals without a field can
+     * only be found within a field of the printed event, binary events are
+     * only printed once one of their fields holds one of them.
+     */
     private static class Grep {
-        private Set<String> regexps;
+        private final Set<String> regexps;
+        private final List<Pattern> patterns;
+        private final Scope threads;
+        private final Scope loggers;
+        private final Scope messages;
+        private ChronicleLogMatcher matcher;
+        private boolean fieldwise;
+        private ChronicleLogLevel level;
 
         public Grep() {
             this.regexps = new HashSet<String>();
+            this.patterns = new ArrayList<>();
+            this.threads = new Scope(Scope.THREAD);
+            this.loggers = new Scope(Scope.LOGGER);
+            this.messages = new Scope(Scope.MESSAGE);
+            this.matcher = null;
+            this.fieldwise = false;
+            this.level = null;
         }
 
         public void add(String regexp) {
-            this.regexps.add(regexp);
+            if (this.regexps.add(regexp)) {
+                this.patterns.add(Pattern.compile(regexp));
+
+                final List<String> literals = new ArrayList<>();
+                for (String value : this.regexps) {
+                    final String literal = literal(value, true);
+                    if (literal == null) {
+                        this.matcher = null;
+                        this.fieldwise = false;
+                        return;
+                    }
+
+                    literals.add(literal);
+                }
+
+                this.matcher = new ChronicleLogMatcher(literals);
+                this.fieldwise = fieldwise(literals);
+            }
+        }
+
+        /**
+         * @return true if the literals can only be found within a field of the
+         *         printed events, i.e. they hold no | and can not be found in
+         *         the printed time stamp
+         */
+        private static boolean fieldwise(List<String> literals) {
+            for (String literal : literals) {
+                if (literal.indexOf('|') >= 0 || isTimestamp(literal)) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        private static boolean isTimestamp(String value) {
+            for (int i = 0; i < value.length(); i++) {
+                if ("0123456789.-:".indexOf(value.charAt(i)) < 0) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        public void addThread(String regexp) {
+            this.threads.add(regexp);
+        }
+
+        public void addLogger(String regexp) {
+            this.loggers.add(regexp);
+        }
+
+        public void addMessage(String regexp) {
+            this.messages.add(regexp);
+        }
+
+        public void setLevel(ChronicleLogLevel level) {
+            this.level = level;
+        }
+
+        public ChronicleLogLevel getLevel() {
+            return this.level;
         }
 
         public boolean isEmpty() {
-            return this.regexps.isEmpty();
+            return this.regexps.isEmpty()
+                && this.threads.isEmpty()
+                && this.loggers.isEmpty()
+                && this.messages.isEmpty()
+                && this.level == null;
         }
 
-        boolean matches(CharSequence message) {
+        /**
+         * @return the literal each expression without a field looks for, null
+         *         if there are none or if one of them is not a literal, a word
+         *         or a sequence of words possibly preceded and followed by .*
+         */
+        List<String> literals() {
+            if (this.regexps.isEmpty()) {
+                return null;
+            }
+
+            final List<String> literals = new ArrayList<>();
             for (String regexp : this.regexps) {
-                if (Pattern.matches(regexp, message)) {
+                final String literal = literal(regexp, false);
+                if (literal == null || ChronicleLogTerms.terms(literal).isEmpty()) {
+                    return null;
+                }
+
+                literals.add(literal);
+            }
+
+            return literals;
+        }
+
+        /**
+         * @param contains  true to only accept expressions which are preceded
+         *                  and followed by .*, i.e. match any text holding the literal
+         * @return          the literal an expression looks for, null if it is not one
+         */
+        private static String literal(String regexp, boolean contains) {
+            String literal = regexp;
+            boolean leading = false;
+            boolean trailing = false;
+
+            if (literal.startsWith(".*")) {
+                literal = literal.substring(2);
+                leading = true;
+            }
+            if (literal.endsWith(".*") && !literal.endsWith("\\.*")) {
+                literal = literal.substring(0, literal.length() - 2);
+                trailing = true;
+            }
+            if (contains && !(leading && trailing)) {
+                return null;
+            }
+
+            if (literal.startsWith("\\Q") && literal.indexOf("\\E") == literal.length() - 2) {
+                literal = literal.substring(2, literal.length() - 2);
+            } else if (!isLiteral(literal)) {
+                return null;
+            }
+
+            return literal;
+        }
+
+        private static boolean isLiteral(String value) {
+            for (int i = 0; i < value.length(); i++) {
+                if ("\\[](){}.*+?^$|".indexOf(value.charAt(i)) >= 0) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        /**
+         * @return true if the level and the fields of the event match, the
+         *         event is not printed for this
+         */
+        boolean accepts(ChronicleLogEvent event) {
+            return (this.level == null || event.getLevel().isHigherOrEqualTo(this.level))
+                && this.threads.matches(event)
+                && this.loggers.matches(event)
+                && this.messages.matches(event);
+        }
+
+        /**
+         * Tell from the fields of a binary event, without printing it, whether
+         * it may match the literals without a field: the level, the inline
+         * strings looked for in their bytes and the arguments as printed.
+         *
+         * @param scratch   a buffer the arguments are printed in
+         * @return          false if the event as printed can not match
+         */
+        boolean mayMatch(ChronicleLogEvent event, StringBuilder scratch) {
+            if (!this.fieldwise || !(event instanceof BinaryChronicleLogEventFlyweight)) {
+                return true;
+            }
+
+            final BinaryChronicleLogEventFlyweight flyweight = (BinaryChronicleLogEventFlyweight) event;
+            if (flyweight.hasThrowable()) {
+                // printed with its stack trace, the whole event is matched
+                return true;
+            }
+
+            if (this.matcher.find(event.getLevel().toString())
+                    || flyweight.findInThreadName(this.matcher)
+                    || flyweight.findInLoggerName(this.matcher)
+                    || flyweight.findInMessage(this.matcher)) {
+                return true;
+            }
+
+            if (!flyweight.hasArguments()) {
+                return false;
+            }
+
+            // as printed by ChroniTool
+            final Object[] args = flyweight.getArgumentArray();
+            scratch.setLength(0);
+            scratch.append("args {");
+            for (int i = 0; i < args.length; i++) {
+                scratch.append(Objects.toString(args[i]));
+                if (i != args.length - 1) {
+                    scratch.append(", ");
+                }
+            }
+
+            scratch.append('}');
+            return this.matcher.find(scratch);
+        }
+
+        /**
+         * @return true if the event as printed matches one of the expressions
+         *         without a field, or if there are none
+         */
+        boolean matches(CharSequence line) {
+            if (this.patterns.isEmpty()) {
+                return true;
+            }
+
+            // . does not match line terminators, i.e. in stack traces
+            if (this.matcher != null && !hasLineTerminator(line)) {
+                return this.matcher.find(line);
+            }
+
+            for (int i = 0; i < this.patterns.size(); i++) {
+                if (this.patterns.get(i).matcher(line).matches()) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        private static boolean hasLineTerminator(CharSequence line) {
+            for (int i = 0; i < line.length(); i++) {
+                final char c = line.charAt(i);
+                if (c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029') {
                     return true;
                 }
             }
@@ -115,25 +594,149 @@ public final class ChroniGrep {
         }
     }
 
+    /**
+     * The expressions looked for in a field of the events.
+     */
+    private static final class Scope {
+        static final int THREAD = 0;
+        static final int LOGGER = 1;
+        static final int MESSAGE = 2;
+
+        private final int field;
+        private final List<Pattern> patterns;
+        private final List<String> literals;
+        private ChronicleLogMatcher matcher;
+
+        Scope(int field) {
+            this.field = field;
+            this.patterns = new ArrayList<>();
+            this.literals = new ArrayList<>();
+            this.matcher = null;
+        }
+
+        void add(String regexp) {
+            this.patterns.add(Pattern.compile(regexp, Pattern.DOTALL));
+
+            final String literal = Grep.literal(regexp, true);
+            if (literal != null && this.literals.size() == this.patterns.size() - 1) {
+                this.literals.add(literal);
+                this.matcher = new ChronicleLogMatcher(this.literals);
+            } else {
+                this.matcher = null;
+            }
+        }
+
+        boolean isEmpty() {
+            return this.patterns.isEmpty();
+        }
+
+        boolean matches(ChronicleLogEvent event) {
+            if (this.patterns.isEmpty()) {
+                return true;
+            }
+
+            if (this.matcher != null && event instanceof BinaryChronicleLogEventFlyweight) {
+                final BinaryChronicleLogEventFlyweight flyweight = (BinaryChronicleLogEventFlyweight) event;
+                switch (this.field) {
+                    case THREAD:
+                        return flyweight.findInThreadName(this.matcher);
+                    case LOGGER:
+                        return flyweight.findInLoggerName(this.matcher);
+                    default:
+                        return flyweight.findInMessage(this.matcher);
+                }
+            }
+
+            final CharSequence value = value(event);
+            if (this.matcher != null) {
+                return this.matcher.find(value);
+            }
+
+            for (int i = 0; value != null && i < this.patterns.size(); i++) {
+                if (this.patterns.get(i).matcher(value).matches()) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        private CharSequence value(ChronicleLogEvent event) {
+            if (event instanceof BinaryChronicleLogEventFlyweight) {
+                final BinaryChronicleLogEventFlyweight flyweight = (BinaryChronicleLogEventFlyweight) event;
+                switch (this.field) {
+                    case THREAD:
+                        return flyweight.threadName();
+                    case LOGGER:
+                        return flyweight.loggerName();
+                    default:
+                        return flyweight.message();
+                }
+            }
+
+            switch (this.field) {
+                case THREAD:
+                    return event.getThreadName();
+                case LOGGER:
+                    return event.getLoggerName();
+                default:
+                    return event.getMessage();
+            }
+        }
+    }
+
     private static final class BinaryGrep extends ChroniTool.BinaryProcessor {
         private final Grep grep;
         private final StringWriter writer;
+        private final StringBuilder scratch;
 
         public BinaryGrep(final Grep grep) {
             this.grep = grep;
             this.writer = new StringWriter();
+            this.scratch = new StringBuilder();
         }
 
         @Override
         public void process(final ChronicleLogEvent event) {
+            if (!this.grep.accepts(event) || !this.grep.mayMatch(event, scratch)) {
+                return;
+            }
+
             writer.getBuffer().setLength(0);
             ChroniTool.asString(event, writer).toString();
             if (this.grep.matches(writer.getBuffer())) {
-                System.out.println(writer.getBuffer());
+                ChroniTool.OUT.println(writer.getBuffer());
             }
         }
     }
 
+    private static final class GrepMappers implements ChronicleLogScanner.MapperFactory<String> {
+        private final Grep grep;
+
+        public GrepMappers(final Grep grep) {
+            this.grep = grep;
+        }
+
+        @Override
+        public ChronicleLogScanner.Mapper<String> newMapper() {
+            return new ChronicleLogScanner.Mapper<String>() {
+                private final StringWriter writer = new StringWriter();
+                private final StringBuilder scratch = new StringBuilder();
+
+                @Override
+                public String map(final ChronicleLogEvent event) {
+                    if (!grep.accepts(event) || !grep.mayMatch(event, scratch)) {
+                        return null;
+                    }
+
+                    writer.getBuffer().setLength(0);
+                    ChroniTool.asString(event, writer);
+                    return grep.matches(writer.getBuffer()) ? writer.toString() : null;
+                }
+            };
+        }
+    }
+
     private static final class TextGrep extends ChroniTool.TextProcessor {
         private final Grep grep;
         private final StringWriter writer;
@@ -145,10 +748,14 @@ public final class ChroniGrep {
 
         @Override
         public void process(final ChronicleLogEvent event) {
+            if (!this.grep.accepts(event)) {
+                return;
+            }
+
             writer.getBuffer().setLength(0);
             ChroniTool.asString(event, writer).toString();
             if (this.grep.matches(writer.getBuffer())) {
-                System.out.println(writer.getBuffer());
+                ChroniTool.OUT.println(writer.getBuffer());
             }
         }
     }
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2014 Higher Frequency Trading
+ *
+ * http://www.higherfrequencytrading.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.logger.tools;
+
+import net.openhft.chronicle.Chronicle;
+import net.openhft.chronicle.logger.ChronicleLogTermIndexer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ *
+ */
+public final class ChroniIndex {
+
+    // *************************************************************************
+    //
+    // *************************************************************************
+
+    public static void main(String[] args) {
+        try {
+            boolean indexed = false;
+            boolean binary = true;
+            boolean compressed = true;
+            boolean follow = false;
+
+            for (int i = 0; i < args.length - 1; i++) {
+                if ("-t".equals(args[i])) {
+                    binary = false;
+
+                } else if ("-i".equals(args[i])) {
+                    indexed = true;
+
+                } else if ("-u".equals(args[i])) {
+                    compressed = false;
+
+                } else if ("-f".equals(args[i])) {
+                    follow = true;
+                }
+            }
+
+            if (args.length >= 1) {
+                final String path = args[args.length - 1];
+                final List<String> paths = ChroniTool.paths(path, indexed);
+                final List<Chronicle> chronicles = ChroniTool.open(path, indexed, compressed);
+                final List<ChronicleLogTermIndexer> indexers = new ArrayList<>();
+
+                for (int i = 0; i < chronicles.size(); i++) {
+                    indexers.add(new ChronicleLogTermIndexer(
+                        chronicles.get(i), paths.get(i), binary, ChroniTool.vanillaConfig()));
+                }
+
+                if (follow) {
+                    follow(indexers);
+
+                } else {
+                    for (ChronicleLogTermIndexer indexer : indexers) {
+                        while (indexer.poll() > 0) {
+                        }
+
+                        indexer.close();
+                    }
+                }
+
+                for (Chronicle chronicle : chronicles) {
+                    chronicle.close();
+                }
+
+            } else {
+                System.err.format("%nUsage: ChroniIndex [-t|-i|-u|-f] path");
+                System.err.format("%n  -t = text chronicle, default binary");
+                System.err.format("%n  -u = use uncompressed object serialization, default compressed");
+                System.err.format("%n  -i = IndexedChronicle, default VanillaChronicle");
+                System.err.format("%n  -f = keep indexing the events as they are written, default stop at the end");
+            }
+        } catch (Exception e) {
+            e.printStackTrace(System.err);
+        }
+    }
+
+    /**
+     * Run one indexer per chronicle until the process is stopped.
+     */
+    private static void follow(final List<ChronicleLogTermIndexer> indexers) throws InterruptedException {
+        final List<Thread> threads = new ArrayList<>();
+        for (ChronicleLogTermIndexer indexer : indexers) {
+            final Thread thread = new Thread(indexer, "chronicle-log-indexer-" + threads.size());
+            thread.start();
+            threads.add(thread);
+        }
+
+        Runtime.getRuntime().addShutdownHook(new Thread() {
+            @Override
+            public void run() {
+                for (ChronicleLogTermIndexer indexer : indexers) {
+                    try {
+                        indexer.close();
+                    } catch (Exception e) {
+                        e.printStackTrace(System.err);
+                    }
+                }
+            }
+        });
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+
+    private ChroniIndex() {}
+}
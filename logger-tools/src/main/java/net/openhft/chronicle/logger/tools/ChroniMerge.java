@@ -0,0 +1,304 @@
+/*
+ * Copyright 2014 Higher Frequency Trading
+ *
+ * http://www.higherfrequencytrading.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.logger.tools;
+
+import net.openhft.chronicle.Chronicle;
+import net.openhft.chronicle.ChronicleQueueBuilder;
+import net.openhft.chronicle.ExcerptAppender;
+import net.openhft.chronicle.ExcerptTailer;
+import net.openhft.chronicle.logger.ChronicleLog;
+import net.openhft.chronicle.logger.ChronicleLogArgs;
+import net.openhft.chronicle.logger.ChronicleLogEvent;
+import net.openhft.chronicle.logger.ChronicleLogHelper;
+import net.openhft.chronicle.logger.ChronicleLogReader;
+import net.openhft.chronicle.logger.ChronicleLogWaitStrategies;
+import net.openhft.chronicle.logger.ChronicleLogWaitStrategy;
+import net.openhft.chronicle.logger.ChronicleLogWriter;
+import net.openhft.chronicle.logger.ChronicleLogWriters;
+import net.openhft.lang.io.Bytes;
+import net.openhft.lang.model.constraints.NotNull;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Merges the log chronicles of several processes by timestamp, printing the
+ * events or writing them to a new chronicle.
+ */
+public final class ChroniMerge {
+    private static final int RAW_CHECKED_EXCERPTS = 64;
+
+    // *************************************************************************
+    //
+    // *************************************************************************
+
+    /**
+     * Copy the excerpts as they are, without decoding them, to a chronicle.
+     *
+     * The copies keep their dictionary references, so the excerpts of chronicles
+     * written with different symbol tables can only be copied together when
+     * their loggers have dictionary, templates and dedupThrowables disabled,
+     * otherwise see {@link #writer(ChronicleLogWriter, boolean)} and
+     * {@link #hasSymbols(List, int)}.
+     *
+     * @param appender  the appender of the chronicle to copy to
+     * @return          the reader copying the excerpts
+     */
+    public static ChronicleLogReader copier(@NotNull final ExcerptAppender appender) {
+        return new ChronicleLogReader() {
+            @Override
+            public void read(final Bytes bytes) {
+                final long length = bytes.remaining();
+                appender.startExcerpt(length);
+                appender.write(bytes, bytes.position(), length);
+                appender.finish();
+            }
+        };
+    }
+
+    /**
+     * Write the events to a log writer, the events are decoded and encoded
+     * again with the symbols of the writer, if any.
+     *
+     * @param writer    the writer
+     * @param binary    true if the events read are binary, false for text
+     * @return          the reader writing the events
+     */
+    public static ChronicleLogReader writer(@NotNull final ChronicleLogWriter writer, boolean binary) {
+        return binary
+            ? new ChroniTool.BinaryProcessor() {
+                @Override
+                public void process(final ChronicleLogEvent event) {
+                    write(writer, event);
+                }
+            }
+            : new ChroniTool.TextProcessor() {
+                @Override
+                public void process(final ChronicleLogEvent event) {
+                    write(writer, event);
+                }
+            };
+    }
+
+    /**
+     * Tell whether one of the first excerpts of binary chronicles is written
+     * with symbols, in which case the excerpts can not be copied as they are.
+     *
+     * @param chronicles    the binary chronicles
+     * @param excerpts      the number of excerpts of each chronicle to check
+     * @return              true if an excerpt checked is written with symbols
+     */
+    public static boolean hasSymbols(@NotNull final List<Chronicle> chronicles, int excerpts) throws IOException {
+        for (Chronicle chronicle : chronicles) {
+            final ExcerptTailer tailer = chronicle.createTailer().toStart();
+            try {
+                for (int i = 0; i < excerpts && tailer.nextIndex(); i++) {
+                    final boolean symbols = ChronicleLogHelper.peekBinarySymbols(tailer);
+                    tailer.finish();
+
+                    if (symbols) {
+                        return true;
+                    }
+                }
+            } finally {
+                tailer.close();
+            }
+        }
+
+        return false;
+    }
+
+    private static void write(final ChronicleLogWriter writer, final ChronicleLogEvent event) {
+        final int nanos = ChronicleLogHelper.getNanos(event);
+        if (nanos != 0) {
+            // keep the time stamp below the millisecond
+            final ChronicleLogArgs args = ChronicleLogArgs.get();
+            if (event.hasArguments()) {
+                for (Object arg : event.getArgumentArray()) {
+                    args.add(arg);
+                }
+            }
+
+            ChronicleLogWriters.write(
+                writer,
+                event.getLevel(),
+                event.getTimeStamp(),
+                nanos,
+                event.getThreadName(),
+                event.getLoggerName(),
+                event.getMessage(),
+                event.getThrowable(),
+                event.hasArguments() ? args : null);
+        } else if (event.hasArguments()) {
+            writer.write(
+                event.getLevel(),
+                event.getTimeStamp(),
+                event.getThreadName(),
+                event.getLoggerName(),
+                event.getMessage(),
+                event.getThrowable(),
+                event.getArgumentArray());
+        } else {
+            writer.write(
+                event.getLevel(),
+                event.getTimeStamp(),
+                event.getThreadName(),
+                event.getLoggerName(),
+                event.getMessage(),
+                event.getThrowable());
+        }
+    }
+
+    // *************************************************************************
+    //
+    // *************************************************************************
+
+    public static void main(String[] args) {
+        try {
+            boolean indexed = false;
+            boolean binary = true;
+            boolean compressed = true;
+            boolean follow = false;
+            boolean raw = false;
+            long from = Long.MIN_VALUE;
+            long to = Long.MAX_VALUE;
+            ChronicleLogWaitStrategy wait = ChroniTool.DEFAULT_WAIT;
+            String out = null;
+
+            int i = 0;
+            for (; i < args.length - 1 && args[i].startsWith("-"); i++) {
+                if ("-t".equals(args[i])) {
+                    binary = false;
+
+                } else if ("-i".equals(args[i])) {
+                    indexed = true;
+
+                } else if ("-u".equals(args[i])) {
+                    compressed = false;
+
+                } else if ("-f".equals(args[i])) {
+                    follow = true;
+
+                } else if ("--raw".equals(args[i])) {
+                    raw = true;
+
+                } else if ("--from".equals(args[i]) && i < args.length - 2) {
+                    from = ChroniTool.parseTime(args[++i]);
+
+                } else if ("--to".equals(args[i]) && i < args.length - 2) {
+                    to = ChroniTool.parseTime(args[++i]);
+
+                } else if ("--wait".equals(args[i]) && i < args.length - 2) {
+                    wait = ChronicleLogWaitStrategies.parse(args[++i]);
+
+                } else if ("--out".equals(args[i]) && i < args.length - 2) {
+                    out = args[++i];
+                }
+            }
+
+            if (i < args.length) {
+                final List<Chronicle> chronicles = new ArrayList<>();
+                for (; i < args.length; i++) {
+                    chronicles.addAll(ChroniTool.open(args[i], indexed, compressed));
+                }
+
+                if (out != null) {
+                    merge(chronicles, binary, follow ? wait : null, from, to, out, indexed, compressed, raw);
+                } else {
+                    ChroniTool.merge(
+                        chronicles,
+                        binary
+                            ? ChroniTool.READER_BINARY
+                            : ChroniTool.READER_TEXT,
+                        binary,
+                        follow ? wait : null,
+                        follow,
+                        from,
+                        to
+                    );
+                }
+
+            } else {
+                System.err.format("%nUsage: ChroniMerge [-t|-i|-u|-f|--from time|--to time|--wait strategy|--out path|--raw] path1 ... pathN");
+                System.err.format("%n  -t = text chronicles, default binary");
+                System.err.format("%n  -u = use uncompressed object serialization, default compressed");
+                System.err.format("%n  -i = IndexedChronicle, default VanillaChronicle");
+                System.err.format("%n  -f = follow the chronicles from their end, default merge what was logged");
+                System.err.format("%n  --from = skip the events logged before the given time");
+                System.err.format("%n  --to = stop at the events logged after the given time");
+                System.err.format("%n  --wait = with -f, how to wait for new events, default backoff");
+                System.err.format("%n  --out = write the merged events to a new chronicle, default print them");
+                System.err.format("%n  --raw = with --out, copy the excerpts without decoding them, binary events");
+                System.err.format("%n          written with symbols are encoded again, text events keep the references");
+                System.err.format("%n          of their deduplicated throwables");
+                System.err.format("%n  time = yyyy.MM.dd-HH:mm:ss.SSS, HH:mm[:ss[.SSS]] today or epoch milliseconds");
+                System.err.format("%n  strategy = spin, yield, backoff[:max park microseconds] or block[:park milliseconds]");
+            }
+        } catch (Exception e) {
+            e.printStackTrace(System.err);
+        } finally {
+            ChroniTool.OUT.flush();
+        }
+    }
+
+    private static void merge(
+            List<Chronicle> chronicles,
+            boolean binary,
+            ChronicleLogWaitStrategy wait,
+            long from,
+            long to,
+            String path,
+            boolean indexed,
+            boolean compressed,
+            boolean raw) throws IOException {
+
+        if (raw && binary && hasSymbols(chronicles, RAW_CHECKED_EXCERPTS)) {
+            System.err.format("The chronicles are written with symbols, their events are encoded again%n");
+            raw = false;
+        }
+
+        final Chronicle chronicle = indexed
+            ? ChronicleQueueBuilder.indexed(path).useCompressedObjectSerializer(compressed).build()
+            : ChroniTool.vanilla(path, compressed);
+
+        if (raw) {
+            final ExcerptAppender appender = chronicle.createAppender();
+            try {
+                ChroniTool.merge(chronicles, copier(appender), binary, wait, wait != null, from, to);
+            } finally {
+                appender.close();
+                chronicle.close();
+            }
+        } else {
+            // the writer closes the chronicle
+            final long cycleLength = ChroniTool.vanillaConfig().getCycleLength();
+            final ChronicleLogWriter writer = binary
+                ? new ChronicleLogWriters.BinaryWriter(chronicle, null, cycleLength)
+                : new ChronicleLogWriters.TextWriter(chronicle, ChronicleLog.DEFAULT_DATE_FORMAT, null, null, cycleLength);
+            try {
+                ChroniTool.merge(chronicles, writer(writer, binary), binary, wait, wait != null, from, to);
+            } finally {
+                writer.close();
+            }
+        }
+    }
+
+    private ChroniMerge() {}
+}
@@ -0,0 +1,288 @@
+/*
+ * Copyright 2014 Higher Frequency Trading
+ *
+ * http://www.higherfrequencytrading.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.logger.tools;
+
+import net.openhft.lang.model.constraints.NotNull;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The output of the tools, characters are encoded as UTF-8 into a reusable
+ * buffer which is written to a channel, i.e. the FileChannel of stdout or of
+ * a file, once full or when flushed.
+ *
+ * Unlike System.out nothing is synchronized nor flushed per line, so the
+ * output of a tool only goes out once it is flushed: on exit, and when
+ * following a chronicle whenever no new event is available. As with
+ * PrintStream the methods do not throw, the first I/O error is kept and the
+ * following output is dropped, see {@link #checkError()}. An output is used
+ * by a single thread.
+ */
+public final class ChroniOutput extends Writer {
+    public static final int DEFAULT_CAPACITY = 64 * 1024;
+
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    private final WritableByteChannel channel;
+    private final boolean closeChannel;
+    private final ByteBuffer buffer;
+    private char highSurrogate;
+    private IOException error;
+
+    /**
+     * @param channel       the channel the output is written to
+     * @param capacity      the size of the buffer, in bytes
+     * @param closeChannel  true to close the channel when the output is closed
+     */
+    public ChroniOutput(@NotNull final WritableByteChannel channel, int capacity, boolean closeChannel) {
+        if (capacity < 4) {
+            throw new IllegalArgumentException("capacity should be at least 4 bytes, got " + capacity);
+        }
+
+        this.channel = channel;
+        this.closeChannel = closeChannel;
+        this.buffer = ByteBuffer.allocateDirect(capacity);
+        this.highSurrogate = 0;
+        this.error = null;
+    }
+
+    /**
+     * @return  an output writing to the standard output, which stays open when
+     *          the output is closed
+     */
+    public static ChroniOutput stdout() {
+        return new ChroniOutput(new FileOutputStream(FileDescriptor.out).getChannel(), DEFAULT_CAPACITY, false);
+    }
+
+    /**
+     * @param path  the file to write, created or truncated
+     * @return      an output writing to the file
+     * @throws IOException
+     */
+    public static ChroniOutput open(@NotNull final String path) throws IOException {
+        final FileChannel channel = FileChannel.open(
+            Paths.get(path),
+            StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING);
+
+        return new ChroniOutput(channel, DEFAULT_CAPACITY, true);
+    }
+
+    // *************************************************************************
+    //
+    // *************************************************************************
+
+    @Override
+    public void write(int c) {
+        put((char) c);
+    }
+
+    @Override
+    public void write(@NotNull final char[] chars, int offset, int length) {
+        for (int i = offset, end = offset + length; i < end; i++) {
+            put(chars[i]);
+        }
+    }
+
+    @Override
+    public void write(@NotNull final String str, int offset, int length) {
+        append(str, offset, offset + length);
+    }
+
+    @Override
+    public ChroniOutput append(final CharSequence csq) {
+        final CharSequence chars = csq != null ? csq : "null";
+        return append(chars, 0, chars.length());
+    }
+
+    @Override
+    public ChroniOutput append(final CharSequence csq, int start, int end) {
+        final CharSequence chars = csq != null ? csq : "null";
+        for (int i = start; i < end; i++) {
+            put(chars.charAt(i));
+        }
+
+        return this;
+    }
+
+    @Override
+    public ChroniOutput append(char c) {
+        put(c);
+        return this;
+    }
+
+    /**
+     * Append the decimal representation of a number, without allocating.
+     */
+    public ChroniOutput append(long value) {
+        if (value == Long.MIN_VALUE) {
+            return append(Long.toString(value));
+        }
+
+        if (value < 0) {
+            put('-');
+            value = -value;
+        }
+
+        long divisor = 1;
+        while (value / divisor >= 10) {
+            divisor *= 10;
+        }
+
+        for (; divisor > 0; divisor /= 10) {
+            put((char) ('0' + (value / divisor) % 10));
+        }
+
+        return this;
+    }
+
+    public ChroniOutput newLine() {
+        return append(LINE_SEPARATOR);
+    }
+
+    public ChroniOutput println(final CharSequence csq) {
+        return append(csq).newLine();
+    }
+
+    /**
+     * Write the buffered output to the channel.
+     */
+    @Override
+    public void flush() {
+        if (this.error != null) {
+            this.buffer.clear();
+            return;
+        }
+
+        this.buffer.flip();
+        try {
+            while (this.buffer.hasRemaining()) {
+                this.channel.write(this.buffer);
+            }
+        } catch (IOException e) {
+            this.error = e;
+        } finally {
+            this.buffer.clear();
+        }
+    }
+
+    /**
+     * @return  true if writing to the channel failed, the output being dropped since
+     */
+    public boolean checkError() {
+        return this.error != null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (this.highSurrogate != 0) {
+            // unpaired high surrogate ending the output
+            this.highSurrogate = 0;
+            put('?');
+        }
+
+        flush();
+
+        if (this.closeChannel) {
+            this.channel.close();
+        }
+
+        if (this.error != null) {
+            throw this.error;
+        }
+    }
+
+    // *************************************************************************
+    //
+    // *************************************************************************
+
+    private void put(char c) {
+        if (this.buffer.remaining() < encodedLength(c)) {
+            flush();
+        }
+
+        if (c < 0x80 && this.highSurrogate == 0) {
+            this.buffer.put((byte) c);
+
+        } else if (Character.isHighSurrogate(c)) {
+            if (this.highSurrogate != 0) {
+                this.buffer.put((byte) '?');
+            }
+
+            this.highSurrogate = c;
+
+        } else if (this.highSurrogate != 0) {
+            final char high = this.highSurrogate;
+            this.highSurrogate = 0;
+
+            if (Character.isLowSurrogate(c)) {
+                final int cp = Character.toCodePoint(high, c);
+                this.buffer.put((byte) (0xF0 | (cp >> 18)));
+                this.buffer.put((byte) (0x80 | ((cp >> 12) & 0x3F)));
+                this.buffer.put((byte) (0x80 | ((cp >> 6) & 0x3F)));
+                this.buffer.put((byte) (0x80 | (cp & 0x3F)));
+            } else {
+                // unpaired high surrogate
+                this.buffer.put((byte) '?');
+                put(c);
+            }
+
+        } else if (Character.isLowSurrogate(c)) {
+            this.buffer.put((byte) '?');
+
+        } else if (c < 0x800) {
+            this.buffer.put((byte) (0xC0 | (c >> 6)));
+            this.buffer.put((byte) (0x80 | (c & 0x3F)));
+
+        } else {
+            this.buffer.put((byte) (0xE0 | (c >> 12)));
+            this.buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+            this.buffer.put((byte) (0x80 | (c & 0x3F)));
+        }
+    }
+
+    /**
+     * @return  the number of bytes put for the given char, a high surrogate
+     *          being only put with the following low surrogate
+     */
+    private int encodedLength(char c) {
+        if (this.highSurrogate != 0) {
+            return Character.isLowSurrogate(c) ? 4 : 1;
+        }
+
+        if (c < 0x80 || Character.isLowSurrogate(c)) {
+            return 1;
+        }
+
+        if (Character.isHighSurrogate(c)) {
+            return 0;
+        }
+
+        return c < 0x800 ? 2 : 3;
+    }
+}
@@ -0,0 +1,421 @@
+/*
+ * Copyright 2014 Higher Frequency Trading
+ *
+ * http://www.higherfrequencytrading.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.logger.tools;
+
+import net.openhft.chronicle.Chronicle;
+import net.openhft.chronicle.logger.ChronicleLogEvent;
+import net.openhft.chronicle.logger.ChronicleLogLevel;
+import net.openhft.chronicle.logger.ChronicleLogScanner;
+import net.openhft.lang.model.constraints.NotNull;
+
+import java.io.IOException;
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Computes aggregates over log chronicles without printing their events:
+ * counts per level, logger, thread and minute, bytes per logger, the most
+ * frequent message templates and the error rates.
+ */
+public final class ChroniStat {
+    public static final int DEFAULT_TOP = 20;
+
+    /**
+     * The number of distinct templates counted by the Stats of a split, the
+     * events of the templates met once the limit is reached are counted as
+     * OTHER_TEMPLATES, i.e. for loggers writing formatted messages. Merging
+     * the Stats of the splits is not limited, so that the templates counted
+     * do not depend on the order in which the splits complete.
+     */
+    public static final int MAX_TEMPLATES = 10000;
+    public static final String OTHER_TEMPLATES = "(other templates)";
+
+    private static final long MINUTE = 60 * 1000;
+
+    private static final int COUNT    = 0;
+    private static final int BYTES    = 1;
+    private static final int ERRORS   = 2;
+    private static final int WARNINGS = 3;
+    private static final int SLOTS    = 4;
+
+    private static final ChronicleLogLevel[] LEVELS = ChronicleLogLevel.values();
+
+    // *************************************************************************
+    //
+    // *************************************************************************
+
+    /**
+     * The aggregates of the events of a split, merged into the aggregates of
+     * all the events. The counters of a key are a long array, updated in place.
+     */
+    public static final class Stats implements ChronicleLogScanner.Accumulator<Stats> {
+        private final long[] total;
+        private final long[] levels;
+        private final Map<String, long[]> loggers;
+        private final Map<String, long[]> threads;
+        private final Map<String, long[]> templates;
+        private final Map<Long, long[]> minutes;
+        private long first;
+        private long last;
+        private long lastMinute;
+        private long[] lastMinuteCounters;
+
+        public Stats() {
+            this.total = new long[SLOTS];
+            this.levels = new long[LEVELS.length];
+            this.loggers = new HashMap<>();
+            this.threads = new HashMap<>();
+            this.templates = new HashMap<>();
+            this.minutes = new HashMap<>();
+            this.first = Long.MAX_VALUE;
+            this.last = Long.MIN_VALUE;
+            this.lastMinute = Long.MIN_VALUE;
+            this.lastMinuteCounters = null;
+        }
+
+        @Override
+        public void add(@NotNull final ChronicleLogEvent event, long size) {
+            final ChronicleLogLevel level = event.getLevel();
+            final long timestamp = event.getTimeStamp();
+
+            this.levels[level.ordinal()]++;
+            this.first = Math.min(this.first, timestamp);
+            this.last = Math.max(this.last, timestamp);
+
+            count(this.total, level, size);
+            count(counters(this.loggers, event.getLoggerName()), level, size);
+            count(counters(this.threads, event.getThreadName()), level, size);
+            count(template(event.getMessage()), level, size);
+
+            // the events of a split are mostly in time order, so the last bucket is the one
+            final long minute = timestamp / MINUTE;
+            if (minute != this.lastMinute) {
+                this.lastMinute = minute;
+                this.lastMinuteCounters = counters(this.minutes, minute);
+            }
+
+            count(this.lastMinuteCounters, level, size);
+        }
+
+        @Override
+        public void merge(@NotNull final Stats other) {
+            add(this.total, other.total);
+            add(this.levels, other.levels);
+            this.first = Math.min(this.first, other.first);
+            this.last = Math.max(this.last, other.last);
+
+            merge(this.loggers, other.loggers);
+            merge(this.threads, other.threads);
+            merge(this.minutes, other.minutes);
+            merge(this.templates, other.templates);
+        }
+
+        public long count() {
+            return this.total[COUNT];
+        }
+
+        public long count(@NotNull ChronicleLogLevel level) {
+            return this.levels[level.ordinal()];
+        }
+
+        public long bytes() {
+            return this.total[BYTES];
+        }
+
+        public long errors() {
+            return this.total[ERRORS];
+        }
+
+        public long warnings() {
+            return this.total[WARNINGS];
+        }
+
+        public long countLogger(@NotNull final String logger) {
+            return count(this.loggers.get(logger));
+        }
+
+        public long countThread(@NotNull final String thread) {
+            return count(this.threads.get(thread));
+        }
+
+        /**
+         * @return the number of events of a message template, the events of
+         *         the templates not counted are counted as OTHER_TEMPLATES
+         */
+        public long countTemplate(@NotNull final String template) {
+            return count(this.templates.get(template));
+        }
+
+        /**
+         * @return the time stamp of the first event, Long.MAX_VALUE if there is none
+         */
+        public long getFirstTimestamp() {
+            return this.first;
+        }
+
+        /**
+         * @return the time stamp of the last event, Long.MIN_VALUE if there is none
+         */
+        public long getLastTimestamp() {
+            return this.last;
+        }
+
+        private long[] template(final String message) {
+            final String template = message != null ? message : "null";
+
+            long[] counters = this.templates.get(template);
+            if (counters == null) {
+                if (this.templates.size() < MAX_TEMPLATES) {
+                    this.templates.put(template, counters = new long[SLOTS]);
+                } else {
+                    counters = counters(this.templates, OTHER_TEMPLATES);
+                }
+            }
+
+            return counters;
+        }
+
+        private static long count(final long[] counters) {
+            return counters != null ? counters[COUNT] : 0;
+        }
+
+        private static <K> long[] counters(final Map<K, long[]> map, final K key) {
+            long[] counters = map.get(key);
+            if (counters == null) {
+                map.put(key, counters = new long[SLOTS]);
+            }
+
+            return counters;
+        }
+
+        private static void count(final long[] counters, final ChronicleLogLevel level, long size) {
+            counters[COUNT]++;
+            counters[BYTES] += size;
+            if (level == ChronicleLogLevel.ERROR) {
+                counters[ERRORS]++;
+            } else if (level == ChronicleLogLevel.WARN) {
+                counters[WARNINGS]++;
+            }
+        }
+
+        private static void add(final long[] counters, final long[] others) {
+            for (int i = 0; i < counters.length; i++) {
+                counters[i] += others[i];
+            }
+        }
+
+        private static <K> void merge(final Map<K, long[]> map, final Map<K, long[]> others) {
+            for (Map.Entry<K, long[]> entry : others.entrySet()) {
+                final long[] counters = map.get(entry.getKey());
+                if (counters == null) {
+                    map.put(entry.getKey(), entry.getValue());
+                } else {
+                    add(counters, entry.getValue());
+                }
+            }
+        }
+    }
+
+    public static final ChronicleLogScanner.AccumulatorFactory<Stats> STATS =
+        new ChronicleLogScanner.AccumulatorFactory<Stats>() {
+            @Override
+            public Stats newAccumulator() {
+                return new Stats();
+            }
+        };
+
+    /**
+     * Aggregate the events of a set of chronicles logged between two times on
+     * several threads.
+     *
+     * @param chronicles    the chronicles to scan
+     * @param binary        true for binary chronicles, false for text
+     * @param threads       the number of threads
+     * @param from          the time of the first events, Long.MIN_VALUE for no bound
+     * @param to            the time of the last events, Long.MAX_VALUE for no bound
+     * @return              the aggregates
+     */
+    public static Stats stat(
+            @NotNull final List<Chronicle> chronicles,
+            boolean binary,
+            int threads,
+            long from,
+            long to) throws IOException, InterruptedException {
+
+        final ChronicleLogScanner scanner =
+            new ChronicleLogScanner(threads, ChronicleLogScanner.DEFAULT_SPLIT_SIZE, ChroniTool.vanillaConfig());
+        try {
+            return scanner.aggregate(chronicles, binary, from, to, STATS);
+        } finally {
+            scanner.close();
+        }
+    }
+
+    // *************************************************************************
+    //
+    // *************************************************************************
+
+    public static void main(String[] args) {
+        try {
+            boolean indexed = false;
+            boolean binary = true;
+            boolean compressed = true;
+            int threads = Runtime.getRuntime().availableProcessors();
+            int top = DEFAULT_TOP;
+            long from = Long.MIN_VALUE;
+            long to = Long.MAX_VALUE;
+
+            for (int i = 0; i < args.length - 1; i++) {
+                if ("-t".equals(args[i])) {
+                    binary = false;
+
+                } else if ("-i".equals(args[i])) {
+                    indexed = true;
+
+                } else if ("-u".equals(args[i])) {
+                    compressed = false;
+
+                } else if ("-p".equals(args[i]) && i < args.length - 2) {
+                    threads = Integer.parseInt(args[++i]);
+
+                } else if ("-n".equals(args[i]) && i < args.length - 2) {
+                    top = Integer.parseInt(args[++i]);
+
+                } else if ("--from".equals(args[i]) && i < args.length - 2) {
+                    from = ChroniTool.parseTime(args[++i]);
+
+                } else if ("--to".equals(args[i]) && i < args.length - 2) {
+                    to = ChroniTool.parseTime(args[++i]);
+                }
+            }
+
+            if (args.length >= 1) {
+                print(stat(ChroniTool.open(args[args.length - 1], indexed, compressed), binary, threads, from, to),
+                    top, ChroniTool.OUT);
+
+            } else {
+                System.err.format("%nUsage: ChroniStat [-t|-i|-u|-p threads|-n top|--from time|--to time] path");
+                System.err.format("%n  -t = text chronicle, default binary");
+                System.err.format("%n  -u = use uncompressed object serialization, default compressed");
+                System.err.format("%n  -i = IndexedChronicle, default VanillaChronicle");
+                System.err.format("%n  -p = scan on the given number of threads, default one per processor");
+                System.err.format("%n  -n = the number of message templates to print, default " + DEFAULT_TOP);
+                System.err.format("%n  --from = skip the events logged before the given time");
+                System.err.format("%n  --to = skip the events logged after the given time");
+                System.err.format("%n  time = yyyy.MM.dd-HH:mm:ss.SSS, HH:mm[:ss[.SSS]] today or epoch milliseconds");
+            }
+        } catch (Exception e) {
+            e.printStackTrace(System.err);
+        } finally {
+            ChroniTool.OUT.flush();
+        }
+    }
+
+    // *************************************************************************
+    //
+    // *************************************************************************
+
+    private static void print(final Stats stats, int top, final ChroniOutput out) {
+        out.append("events=").append(stats.count())
+            .append(" bytes=").append(stats.bytes());
+        if (stats.count() > 0) {
+            out.append(" from=").append(ChroniTool.DF.format(stats.getFirstTimestamp()))
+                .append(" to=").append(ChroniTool.DF.format(stats.getLastTimestamp()));
+        }
+        out.newLine();
+
+        out.append("levels");
+        for (ChronicleLogLevel level : LEVELS) {
+            out.append(' ').append(level.name()).append('=').append(stats.count(level));
+        }
+        out.newLine();
+
+        out.append("rates");
+        rates(stats.total, out);
+        out.newLine();
+
+        out.newLine().println("loggers");
+        for (Map.Entry<String, long[]> entry : sorted(stats.loggers, Integer.MAX_VALUE)) {
+            print(entry.getKey(), entry.getValue(), out);
+        }
+
+        out.newLine().println("threads");
+        for (Map.Entry<String, long[]> entry : sorted(stats.threads, Integer.MAX_VALUE)) {
+            print(entry.getKey(), entry.getValue(), out);
+        }
+
+        final DateFormat minutes = new SimpleDateFormat("yyyy.MM.dd-HH:mm");
+        out.newLine().println("minutes");
+        for (Map.Entry<Long, long[]> entry : new TreeMap<>(stats.minutes).entrySet()) {
+            print(minutes.format(entry.getKey() * MINUTE), entry.getValue(), out);
+        }
+
+        out.newLine().println("templates");
+        for (Map.Entry<String, long[]> entry : sorted(stats.templates, top)) {
+            print(entry.getKey(), entry.getValue(), out);
+        }
+    }
+
+    private static void print(final String key, final long[] counters, final ChroniOutput out) {
+        out.append("    ").append(key)
+            .append(" events=").append(counters[COUNT])
+            .append(" bytes=").append(counters[BYTES]);
+        rates(counters, out);
+        out.newLine();
+    }
+
+    private static void rates(final long[] counters, final ChroniOutput out) {
+        out.append(" errors=").append(counters[ERRORS])
+            .append(String.format(" (%.2f%%)", percent(counters[ERRORS], counters[COUNT])))
+            .append(" warnings=").append(counters[WARNINGS])
+            .append(String.format(" (%.2f%%)", percent(counters[WARNINGS], counters[COUNT])));
+    }
+
+    private static double percent(long count, long total) {
+        return total > 0 ? 100.0 * count / total : 0;
+    }
+
+    /**
+     * @return the given number of entries having the most events, most first
+     */
+    private static List<Map.Entry<String, long[]>> sorted(final Map<String, long[]> map, int limit) {
+        final List<Map.Entry<String, long[]>> entries = new ArrayList<>(map.entrySet());
+        Collections.sort(entries, new Comparator<Map.Entry<String, long[]>>() {
+            @Override
+            public int compare(Map.Entry<String, long[]> e1, Map.Entry<String, long[]> e2) {
+                final long c1 = e1.getValue()[COUNT];
+                final long c2 = e2.getValue()[COUNT];
+                return c1 != c2
+                    ? (c1 > c2 ? -1 : 1)
+                    : String.valueOf(e1.getKey()).compareTo(String.valueOf(e2.getKey()));
+            }
+        });
+
+        return entries.size() > limit ? entries.subList(0, limit) : entries;
+    }
+
+    private ChroniStat() {}
+}
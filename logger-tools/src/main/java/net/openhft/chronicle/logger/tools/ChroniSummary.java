@@ -0,0 +1,135 @@
+/*
+ * Copyright 2014 Higher Frequency Trading
+ *
+ * http://www.higherfrequencytrading.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.logger.tools;
+
+import net.openhft.chronicle.logger.ChronicleLogLevel;
+import net.openhft.chronicle.logger.ChronicleLogStripes;
+import net.openhft.chronicle.logger.ChronicleLogSummary;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ *
+ */
+public final class ChroniSummary {
+
+    // *************************************************************************
+    //
+    // *************************************************************************
+
+    public static void main(String[] args) {
+        try {
+            boolean loggers = false;
+            long from = Long.MIN_VALUE;
+            long to = Long.MAX_VALUE;
+
+            for (int i = 0; i < args.length - 1; i++) {
+                if ("-l".equals(args[i])) {
+                    loggers = true;
+
+                } else if ("--from".equals(args[i]) && i < args.length - 2) {
+                    from = ChroniTool.parseTime(args[++i]);
+
+                } else if ("--to".equals(args[i]) && i < args.length - 2) {
+                    to = ChroniTool.parseTime(args[++i]);
+                }
+            }
+
+            if (args.length >= 1) {
+                for (ChronicleLogSummary summary : read(args[args.length - 1], from, to)) {
+                    print(summary, loggers);
+                }
+
+            } else {
+                System.err.format("%nUsage: ChroniSummary [-l|--from time|--to time] path");
+                System.err.format("%n  -l = print the counts of each logger, default the counts of each cycle");
+                System.err.format("%n  --from = skip the cycles ending before the given time");
+                System.err.format("%n  --to = skip the cycles starting after the given time");
+                System.err.format("%n  time = yyyy.MM.dd-HH:mm:ss.SSS, HH:mm[:ss[.SSS]] today or epoch milliseconds");
+            }
+        } catch (Exception e) {
+            e.printStackTrace(System.err);
+        }
+    }
+
+    // *************************************************************************
+    //
+    // *************************************************************************
+
+    /**
+     * Read the summaries of a chronicle, those of the stripes of a striped
+     * chronicle are summed by cycle.
+     */
+    private static List<ChronicleLogSummary> read(String path, long from, long to) throws IOException {
+        final List<String> stripes = ChronicleLogStripes.paths(path);
+        if (stripes.isEmpty()) {
+            return ChronicleLogSummary.read(path, from, to);
+        }
+
+        final List<ChronicleLogSummary> summaries = new ArrayList<>();
+        for (String stripe : stripes) {
+            summaries.addAll(ChronicleLogSummary.read(stripe, from, to));
+        }
+
+        return ChronicleLogSummary.merge(summaries);
+    }
+
+    private static void print(final ChronicleLogSummary summary, boolean loggers) {
+        final StringBuilder sb = new StringBuilder()
+            .append(ChroniTool.DF.format(summary.getStart()))
+            .append(" events=")
+            .append(summary.count());
+
+        for (ChronicleLogLevel level : ChronicleLogLevel.values()) {
+            sb.append(' ').append(level.name()).append('=').append(summary.count(level));
+        }
+
+        if (summary.getLate() > 0) {
+            sb.append(" late=").append(summary.getLate());
+        }
+
+        if (summary.getLastIndex() >= 0) {
+            sb.append(" index=[")
+                .append(summary.getFirstIndex())
+                .append(',')
+                .append(summary.getLastIndex())
+                .append(']');
+        }
+
+        System.out.println(sb);
+
+        if (loggers) {
+            for (String loggerName : new TreeSet<>(summary.getLoggers())) {
+                sb.setLength(0);
+                sb.append("    ").append(loggerName);
+
+                for (ChronicleLogLevel level : ChronicleLogLevel.values()) {
+                    sb.append(' ').append(level.name()).append('=').append(summary.count(loggerName, level));
+                }
+
+                System.out.println(sb);
+            }
+        }
+    }
+
+    private ChroniSummary() {}
+}
@@ -18,7 +18,8 @@
 
 package net.openhft.chronicle.logger.tools;
 
-import net.openhft.chronicle.ChronicleQueueBuilder;
+import net.openhft.chronicle.logger.ChronicleLogWaitStrategies;
+import net.openhft.chronicle.logger.ChronicleLogWaitStrategy;
 
 /**
  *
@@ -34,6 +35,8 @@ public final class ChroniTail {
             boolean indexed = false;
             boolean binary = true;
             boolean compressed = true;
+            long from = Long.MIN_VALUE;
+            ChronicleLogWaitStrategy wait = ChroniTool.DEFAULT_WAIT;
 
             for (int i = 0; i < args.length - 1; i++) {
                 if ("-t".equals(args[i])) {
@@ -44,33 +47,42 @@ public final class ChroniTail {
 
                 } else if ("-u".equals(args[i])) {
                     compressed = false;
+
+                } else if ("--from".equals(args[i]) && i < args.length - 2) {
+                    from = ChroniTool.parseTime(args[++i]);
+
+                } else if ("--wait".equals(args[i]) && i < args.length - 2) {
+                    wait = ChronicleLogWaitStrategies.parse(args[++i]);
                 }
             }
 
             if (args.length >= 1) {
                 ChroniTool.process(
-                    indexed
-                        ? ChronicleQueueBuilder.indexed(args[args.length - 1])
-                            .useCompressedObjectSerializer(compressed)
-                            .build()
-                        : ChronicleQueueBuilder.vanilla(args[args.length - 1])
-                            .useCompressedObjectSerializer(compressed)
-                            .build(),
+                    ChroniTool.open(args[args.length - 1], indexed, compressed),
                     binary
                         ? ChroniTool.READER_BINARY
                         : ChroniTool.READER_TEXT,
+                    binary,
+                    wait,
                     true,
-                    true
+                    from,
+                    Long.MAX_VALUE
                 );
 
             } else {
-                System.err.format("%nUsage: ChroniTail [-t|-i|-u] path");
+                System.err.format("%nUsage: ChroniTail [-t|-i|-u|--from time|--wait strategy] path");
                 System.err.format("%n  -t = text chronicle, default binary");
                 System.err.format("%n  -u = use uncompressed object serialization, default compressed");
                 System.err.format("%n  -i = IndexedChronicle, default VanillaChronicle");
+                System.err.format("%n  --from = replay the events logged since the given time, default follow the end");
+                System.err.format("%n  --wait = how to wait for new events, default backoff");
+                System.err.format("%n  time = yyyy.MM.dd-HH:mm:ss.SSS, HH:mm[:ss[.SSS]] today or epoch milliseconds");
+                System.err.format("%n  strategy = spin, yield, backoff[:max park microseconds] or block[:park milliseconds]");
             }
         } catch (Exception e) {
             e.printStackTrace(System.err);
+        } finally {
+            ChroniTool.OUT.flush();
         }
     }
 
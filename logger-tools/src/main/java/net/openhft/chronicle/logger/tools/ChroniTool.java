@@ -19,6 +19,7 @@
 package net.openhft.chronicle.logger.tools;
 
 import net.openhft.chronicle.Chronicle;
+import net.openhft.chronicle.ChronicleQueueBuilder;
 import net.openhft.chronicle.ExcerptTailer;
 import net.openhft.chronicle.logger.*;
 import net.openhft.lang.io.Bytes;
@@ -27,33 +28,75 @@ import net.openhft.lang.model.constraints.NotNull;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.io.Writer;
 import java.text.DateFormat;
+import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
 
 public final class ChroniTool {
 
     public static final DateFormat DF = new SimpleDateFormat(ChronicleLog.DEFAULT_DATE_FORMAT);
 
+    /**
+     * The wait strategy of the tools following chronicles, i.e. ChroniTail,
+     * when none is given.
+     */
+    public static final ChronicleLogWaitStrategy DEFAULT_WAIT = ChronicleLogWaitStrategies.backoff();
+
+    private static final TimeStampFormatter FORMATTER = TimeStampFormatter.fromDateFormat(ChronicleLog.DEFAULT_DATE_FORMAT);
+
+    private static final VanillaLogAppenderConfig VANILLA = loadVanillaConfig();
+
     // *************************************************************************
     //
     // *************************************************************************
-    public static final ChronicleLogReader READER_BINARY = new BinaryProcessor() {
-        private StringWriter writer = new StringWriter();
+    /**
+     * The buffered standard output of the tools, flushed on exit and when a
+     * tool following chronicles waits for new events.
+     */
+    public static final ChroniOutput OUT = ChroniOutput.stdout();
 
+    public static final ChronicleLogReader READER_BINARY = new BinaryProcessor() {
         @Override
         public void process(final ChronicleLogEvent event) {
-            writer.getBuffer().setLength(0);
-            System.out.println(asString(event, writer));
+            print(event, OUT);
         }
     };
     public static final ChronicleLogReader READER_TEXT = new TextProcessor() {
-        private StringWriter writer = new StringWriter();
-
         @Override
         public void process(final ChronicleLogEvent event) {
-            writer.getBuffer().setLength(0);
-            System.out.println(asString(event, writer));
+            print(event, OUT);
+        }
+    };
+
+    /**
+     * Formats events as READER_BINARY and READER_TEXT print them, for parallel scans.
+     */
+    public static final ChronicleLogScanner.MapperFactory<String> FORMATTERS =
+        new ChronicleLogScanner.MapperFactory<String>() {
+            @Override
+            public ChronicleLogScanner.Mapper<String> newMapper() {
+                return new ChronicleLogScanner.Mapper<String>() {
+                    private final StringWriter writer = new StringWriter();
+
+                    @Override
+                    public String map(final ChronicleLogEvent event) {
+                        writer.getBuffer().setLength(0);
+                        return asString(event, writer).toString();
+                    }
+                };
+            }
+        };
+
+    public static final ChronicleLogScanner.Sink<String> PRINTER = new ChronicleLogScanner.Sink<String>() {
+        @Override
+        public void accept(final String line) {
+            OUT.println(line);
         }
     };
 
@@ -65,7 +108,32 @@ public final class ChroniTool {
     }
 
     public static StringWriter asString(final ChronicleLogEvent event, final StringWriter writer) {
-        writer.append(DF.format(event.getTimeStamp()));
+        try {
+            format(event, writer);
+        } catch (IOException e) {
+            // a StringWriter does not throw
+            throw new IllegalStateException(e);
+        }
+
+        return writer;
+    }
+
+    /**
+     * Print an event as a line of the given output.
+     */
+    public static ChroniOutput print(final ChronicleLogEvent event, final ChroniOutput out) {
+        try {
+            format(event, out);
+        } catch (IOException e) {
+            // a ChroniOutput keeps its errors, see ChroniOutput#checkError
+            throw new IllegalStateException(e);
+        }
+
+        return out.newLine();
+    }
+
+    private static void format(final ChronicleLogEvent event, final Writer writer) throws IOException {
+        writer.append(FORMATTER.format(event.getTimeStamp()));
         writer.append("|");
         writer.append(event.getLevel().toString());
         writer.append("|");
@@ -96,46 +164,397 @@ public final class ChroniTool {
             th.printStackTrace(new PrintWriter(writer));
         }
 
-        return writer;
     }
 
     // *************************************************************************
     //
     // *************************************************************************
 
+    /**
+     * The settings of the VanillaChronicles read by the tools: those of the
+     * configuration the loggers load (see ChronicleLogConfig#load), so that
+     * the cycles and indexes are laid out as they were written, the
+     * VanillaChronicle defaults when there is none.
+     */
+    public static VanillaLogAppenderConfig vanillaConfig() {
+        return VANILLA;
+    }
+
+    private static VanillaLogAppenderConfig loadVanillaConfig() {
+        final ChronicleLogConfig cfg = ChronicleLogConfig.load();
+        return cfg != null && cfg.getVanillaChronicleConfig() != null
+            ? cfg.getVanillaChronicleConfig()
+            : new VanillaLogAppenderConfig();
+    }
+
+    /**
+     * Open the chronicle(s) stored at the given path, an IndexedChronicle path
+     * written by a striped logger is opened as one chronicle per stripe, a
+     * VanillaChronicle with the settings of {@link #vanillaConfig()}.
+     *
+     * @param path          the path of the chronicle
+     * @param indexed       true for an IndexedChronicle, false for a VanillaChronicle
+     * @param compressed    true to use compressed object serialization
+     * @return              the chronicles
+     * @throws IOException
+     */
+    public static List<Chronicle> open(
+            @NotNull final String path,
+            boolean indexed,
+            boolean compressed) throws IOException {
+
+        final List<Chronicle> chronicles = new ArrayList<>();
+        for (String chronicle : paths(path, indexed)) {
+            chronicles.add(indexed
+                ? ChronicleQueueBuilder.indexed(chronicle)
+                    .useCompressedObjectSerializer(compressed)
+                    .build()
+                : vanilla(chronicle, compressed));
+        }
+
+        return chronicles;
+    }
+
+    /**
+     * Open or create a VanillaChronicle with the settings of {@link #vanillaConfig()}.
+     *
+     * @param path          the path of the chronicle
+     * @param compressed    true to use compressed object serialization
+     * @return              the chronicle
+     * @throws IOException
+     */
+    public static Chronicle vanilla(@NotNull final String path, boolean compressed) throws IOException {
+        return ChronicleQueueBuilder.vanilla(path)
+            .useCompressedObjectSerializer(compressed)
+            .cycleFormat(VANILLA.getCycleFormat())
+            .cycleLength(VANILLA.getCycleLength())
+            .indexBlockSize(VANILLA.getIndexBlockSize())
+            .dataBlockSize((int) VANILLA.getDataBlockSize())
+            .entriesPerCycle(VANILLA.getEntriesPerCycle())
+            .build();
+    }
+
+    /**
+     * @param path          the path of the chronicle
+     * @param indexed       true for an IndexedChronicle, false for a VanillaChronicle
+     * @return              the paths of the chronicles opened by {@link #open(String, boolean, boolean)}
+     */
+    public static List<String> paths(@NotNull final String path, boolean indexed) {
+        final List<String> paths = indexed ? ChronicleLogStripes.paths(path) : new ArrayList<String>();
+        if (paths.isEmpty()) {
+            paths.add(path);
+        }
+
+        return paths;
+    }
+
+    /**
+     * Parse the time given to the --from and --to options, either a date in
+     * the default date format (yyyy.MM.dd-HH:mm:ss.SSS), a time of the current
+     * day (HH:mm, HH:mm:ss or HH:mm:ss.SSS) or a number of milliseconds since
+     * the epoch.
+     *
+     * @param time  the time to parse
+     * @return      the time in milliseconds since the epoch
+     * @throws IllegalArgumentException if the time can not be parsed
+     */
+    public static long parseTime(@NotNull final String time) {
+        try {
+            if (time.indexOf('-') > 0) {
+                return new SimpleDateFormat(ChronicleLog.DEFAULT_DATE_FORMAT).parse(time).getTime();
+            }
+
+            if (time.indexOf(':') > 0) {
+                final String[] fields = time.split("[:.]");
+                final Calendar calendar = Calendar.getInstance();
+                calendar.set(Calendar.HOUR_OF_DAY, Integer.parseInt(fields[0]));
+                calendar.set(Calendar.MINUTE, Integer.parseInt(fields[1]));
+                calendar.set(Calendar.SECOND, fields.length > 2 ? Integer.parseInt(fields[2]) : 0);
+                calendar.set(Calendar.MILLISECOND, fields.length > 3 ? Integer.parseInt(fields[3]) : 0);
+                return calendar.getTimeInMillis();
+            }
+
+            return Long.parseLong(time);
+        } catch (ParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid time: " + time, e);
+        }
+    }
+
+    /**
+     * Process a set of chronicles, i.e. the stripes of a striped logger,
+     * as a single stream ordered by timestamp.
+     */
+    public static void process(
+            @NotNull final List<Chronicle> chronicles,
+            @NotNull final ChronicleLogReader reader,
+            boolean binary,
+            boolean waitForData,
+            boolean fromEnd) throws IOException {
+
+        process(chronicles, reader, binary, waitForData, fromEnd, Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Process the events of a set of chronicles logged between two times, the
+     * first event is found with a ChronicleLogSeeker and reading stops at the
+     * first event logged after the last time, beyond the skew tolerance.
+     *
+     * @param from  the time of the first events to process, Long.MIN_VALUE to
+     *              start from the start or the end of the chronicles
+     * @param to    the time of the last events to process, Long.MAX_VALUE for no bound
+     */
+    public static void process(
+            @NotNull final List<Chronicle> chronicles,
+            @NotNull final ChronicleLogReader reader,
+            boolean binary,
+            boolean waitForData,
+            boolean fromEnd,
+            long from,
+            long to) throws IOException {
+
+        process(chronicles, reader, binary, waitForData ? DEFAULT_WAIT : null, fromEnd, from, to);
+    }
+
+    /**
+     * Process the events of a set of chronicles logged between two times,
+     * waiting for new events with the given strategy.
+     *
+     * @param wait  the wait strategy used while no event is available, null
+     *              to stop at the end of the chronicles
+     * @see #process(List, ChronicleLogReader, boolean, boolean, boolean, long, long)
+     */
+    public static void process(
+            @NotNull final List<Chronicle> chronicles,
+            @NotNull final ChronicleLogReader reader,
+            boolean binary,
+            final ChronicleLogWaitStrategy wait,
+            boolean fromEnd,
+            long from,
+            long to) throws IOException {
+
+        process(chronicles, reader, binary, wait, fromEnd, from, to, null);
+    }
+
     public static void process(
             @NotNull final Chronicle chronicle,
             @NotNull final ChronicleLogReader reader,
             boolean waitForData,
             boolean fromEnd) throws IOException {
 
-        ExcerptTailer tailer = null;
+        process(chronicle, reader, reader instanceof BinaryProcessor, waitForData, fromEnd);
+    }
 
-        try {
-            tailer = fromEnd
-                ? chronicle.createTailer().toEnd()
-                : chronicle.createTailer().toStart();
+    /**
+     * Process a chronicle, when starting from the end of a binary chronicle
+     * the existing events are decoded but not processed so that dictionary
+     * encoded strings defined by them can be resolved.
+     */
+    public static void process(
+            @NotNull final Chronicle chronicle,
+            @NotNull final ChronicleLogReader reader,
+            boolean binary,
+            boolean waitForData,
+            boolean fromEnd) throws IOException {
 
-            for (; ;) {
-                if (tailer.nextIndex()) {
-                    reader.read(tailer);
+        process(chronicle, reader, binary, waitForData, fromEnd, Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Process the events of a chronicle logged between two times, see
+     * {@link #process(List, ChronicleLogReader, boolean, boolean, boolean, long, long)}.
+     */
+    public static void process(
+            @NotNull final Chronicle chronicle,
+            @NotNull final ChronicleLogReader reader,
+            boolean binary,
+            boolean waitForData,
+            boolean fromEnd,
+            long from,
+            long to) throws IOException {
+
+        process(chronicle, reader, binary, waitForData, fromEnd, from, to, null);
+    }
+
+    /**
+     * Process the events of a chronicle logged between two times, skipping
+     * the blocks of excerpts which the block filters of the chronicle tell can
+     * not hold the events looked for.
+     *
+     * @param blocks    the block filters, see ChronicleLogBlocks#filter, null to read all the excerpts
+     */
+    public static void process(
+            @NotNull final Chronicle chronicle,
+            @NotNull final ChronicleLogReader reader,
+            boolean binary,
+            boolean waitForData,
+            boolean fromEnd,
+            long from,
+            long to,
+            final ChronicleLogBlocks.Filter blocks) throws IOException {
+
+        process(Collections.singletonList(chronicle), reader, binary, waitForData ? DEFAULT_WAIT : null,
+            fromEnd, from, to, blocks);
+    }
+
+    /**
+     * Process the events of a set of chronicles logged between two times with
+     * a ChronicleLogTailer, waiting for new events with the given strategy.
+     *
+     * @param wait      the wait strategy used while no event is available, null
+     *                  to stop at the end of the chronicles
+     * @param blocks    the block filters of a single chronicle, see
+     *                  ChronicleLogBlocks#filter, null to read all the excerpts
+     */
+    public static void process(
+            @NotNull final List<Chronicle> chronicles,
+            @NotNull final ChronicleLogReader reader,
+            boolean binary,
+            final ChronicleLogWaitStrategy wait,
+            boolean fromEnd,
+            long from,
+            long to,
+            final ChronicleLogBlocks.Filter blocks) throws IOException {
+
+        process(chronicles, reader, binary, wait, fromEnd, from, to, blocks, false);
+    }
+
+    /**
+     * Merge the events of chronicles written by different processes, i.e. the
+     * logs of several JVMs, by timestamp. Each chronicle is read with its own
+     * dictionary, only the timestamp of the pending events is decoded to order
+     * them.
+     *
+     * @param chronicles    the chronicles to merge
+     * @param reader        the reader the events are handed to, in timestamp order
+     * @param binary        true for binary chronicles, false for text
+     * @param wait          the wait strategy used while no event is available,
+     *                      null to stop at the end of the chronicles
+     * @param fromEnd       true to start from the end of the chronicles, ignored when a time is given
+     * @param from          the time of the first events to process, Long.MIN_VALUE for no bound
+     * @param to            the time of the last events to process, Long.MAX_VALUE for no bound
+     * @see ChronicleLogMergeReader
+     */
+    public static void merge(
+            @NotNull final List<Chronicle> chronicles,
+            @NotNull final ChronicleLogReader reader,
+            boolean binary,
+            final ChronicleLogWaitStrategy wait,
+            boolean fromEnd,
+            long from,
+            long to) throws IOException {
+
+        process(chronicles, reader, binary, wait, fromEnd, from, to, null, true);
+    }
+
+    private static void process(
+            @NotNull final List<Chronicle> chronicles,
+            @NotNull final ChronicleLogReader reader,
+            boolean binary,
+            final ChronicleLogWaitStrategy wait,
+            boolean fromEnd,
+            long from,
+            long to,
+            final ChronicleLogBlocks.Filter blocks,
+            boolean isolated) throws IOException {
+
+        final TimeFilter filter = new TimeFilter(reader, binary, from, to, ChronicleLogSeeker.DEFAULT_SKEW);
+        final ChronicleLogWaitStrategy idle = wait != null ? new FlushingWait(wait, OUT) : null;
+
+        try (ChronicleLogTailer tailer =
+                 new ChronicleLogTailer(chronicles, binary, fromEnd, from, blocks, isolated, VANILLA)) {
+            while (!filter.done) {
+                if (idle != null ? !tailer.read(filter, idle) : !tailer.read(filter)) {
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Process the excerpts of a chronicle at the given indexes, i.e. found with
+     * ChronicleLogTerms, then the excerpts following the last index given.
+     *
+     * @param indexes   the sorted indexes of the excerpts to process
+     * @param last      the index after which all the excerpts are processed,
+     *                  -1 to only process the given indexes
+     * @param from      the time of the first events to process, Long.MIN_VALUE for no bound
+     * @param to        the time of the last events to process, Long.MAX_VALUE for no bound
+     */
+    public static void process(
+            @NotNull final Chronicle chronicle,
+            @NotNull final ChronicleLogReader reader,
+            boolean binary,
+            @NotNull final long[] indexes,
+            long last,
+            long from,
+            long to) throws IOException {
+
+        final TimeFilter filter = new TimeFilter(reader, binary, from, to, ChronicleLogSeeker.DEFAULT_SKEW);
+        final ExcerptTailer tailer = chronicle.createTailer();
+
+        try {
+            for (int i = 0; i < indexes.length && !filter.done; i++) {
+                if (tailer.index(indexes[i])) {
+                    filter.read(tailer);
                     tailer.finish();
+                }
+            }
 
-                } else {
-                    if (waitForData) {
-                        try {
-                            Thread.sleep(50);
-                        } catch (InterruptedException ignored) {
-                        }
-                    } else {
-                        break;
-                    }
+            if (last >= 0 && !filter.done && tailer.index(last)) {
+                tailer.finish();
+                while (!filter.done && tailer.nextIndex()) {
+                    filter.read(tailer);
+                    tailer.finish();
                 }
             }
         } finally {
-            if (tailer != null) {
-                tailer.close();
-            }
+            tailer.close();
+        }
+    }
+
+    /**
+     * Scan a set of chronicles on several threads and print the mapped events.
+     *
+     * @see #scan(List, ChronicleLogScanner.MapperFactory, boolean, int, boolean, long, long)
+     */
+    public static void scan(
+            @NotNull final List<Chronicle> chronicles,
+            @NotNull final ChronicleLogScanner.MapperFactory<String> mappers,
+            boolean binary,
+            int threads,
+            boolean ordered) throws IOException, InterruptedException {
+
+        scan(chronicles, mappers, binary, threads, ordered, Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Scan the events of a set of chronicles logged between two times on
+     * several threads and print the mapped events.
+     *
+     * @param chronicles    the chronicles to scan
+     * @param mappers       creates the mapper of each split, null results are dropped
+     * @param binary        true for binary chronicles, false for text
+     * @param threads       the number of threads
+     * @param ordered       true to print in index order, false as splits are done
+     * @param from          the time of the first events to print, Long.MIN_VALUE for no bound
+     * @param to            the time of the last events to print, Long.MAX_VALUE for no bound
+     * @see ChronicleLogScanner
+     */
+    public static void scan(
+            @NotNull final List<Chronicle> chronicles,
+            @NotNull final ChronicleLogScanner.MapperFactory<String> mappers,
+            boolean binary,
+            int threads,
+            boolean ordered,
+            long from,
+            long to) throws IOException, InterruptedException {
+
+        final ChronicleLogScanner scanner =
+            new ChronicleLogScanner(threads, ChronicleLogScanner.DEFAULT_SPLIT_SIZE, VANILLA);
+        try {
+            scanner.scan(chronicles, binary, from, to, mappers, PRINTER, ordered);
+        } finally {
+            scanner.close();
         }
     }
 
@@ -143,10 +562,88 @@ public final class ChroniTool {
     //
     // *************************************************************************
 
+    /**
+     * Hands the events to process as a flyweight bound to the current excerpt,
+     * only the fields accessed are decoded and the event is only valid during
+     * the call to process, see BinaryChronicleLogEventFlyweight#copy.
+     */
     public abstract static class BinaryProcessor implements ChronicleLogReader, ChronicleLogProcessor {
+        private final BinaryChronicleLogEventFlyweight event = new BinaryChronicleLogEventFlyweight();
+
         @Override
         public void read(final Bytes bytes) {
-            process(ChronicleLogHelper.decodeBinary(bytes));
+            process(ChronicleLogHelper.decodeBinary(bytes, this.event));
+        }
+    }
+
+    /**
+     * Flushes the output when starting to wait for new events, so what was
+     * printed so far shows up while the chronicles are idle.
+     */
+    private static final class FlushingWait implements ChronicleLogWaitStrategy {
+        private final ChronicleLogWaitStrategy wait;
+        private final ChroniOutput out;
+
+        FlushingWait(ChronicleLogWaitStrategy wait, ChroniOutput out) {
+            this.wait = wait;
+            this.out = out;
+        }
+
+        @Override
+        public void idle(int tries) {
+            if (tries == 0) {
+                this.out.flush();
+            }
+
+            this.wait.idle(tries);
+        }
+    }
+
+    /**
+     * Only hands the events logged between two times to a reader, the events
+     * skipped are decoded into the dictionary of the thread, as
+     * ChronicleLogHelper#skipBinary does, so that the definitions they carry
+     * are known to the events handed to the reader.
+     */
+    private static final class TimeFilter implements ChronicleLogReader {
+        private final ChronicleLogReader reader;
+        private final boolean binary;
+        private final long from;
+        private final long to;
+        private final long skew;
+        private final BinaryChronicleLogEventFlyweight skipped;
+        private boolean done;
+
+        TimeFilter(ChronicleLogReader reader, boolean binary, long from, long to, long skew) {
+            this.reader = reader;
+            this.binary = binary;
+            this.from = from;
+            this.to = to;
+            this.skew = skew;
+            this.skipped = new BinaryChronicleLogEventFlyweight();
+            this.done = false;
+        }
+
+        @Override
+        public void read(final Bytes bytes) {
+            if (this.from == Long.MIN_VALUE && this.to == Long.MAX_VALUE) {
+                this.reader.read(bytes);
+                return;
+            }
+
+            final long timestamp = this.binary
+                ? ChronicleLogHelper.peekBinaryTimestamp(bytes)
+                : ChronicleLogHelper.peekTextTimestamp(bytes);
+
+            if (timestamp >= this.from && timestamp <= this.to) {
+                this.reader.read(bytes);
+            } else if (timestamp > this.to && timestamp - this.skew > this.to) {
+                this.done = true;
+            } else if (this.binary) {
+                this.skipped.wrap(bytes, ChronicleLogDictionary.local());
+            } else {
+                ChronicleLogHelper.decodeText(bytes, ChronicleLogDictionary.local());
+            }
         }
     }
 
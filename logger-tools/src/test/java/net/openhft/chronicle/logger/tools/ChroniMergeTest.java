@@ -0,0 +1,170 @@
+/*
+ * Copyright 2014 Higher Frequency Trading
+ *
+ * http://www.higherfrequencytrading.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.logger.tools;
+
+import net.openhft.chronicle.Chronicle;
+import net.openhft.chronicle.ChronicleQueueBuilder;
+import net.openhft.chronicle.ExcerptTailer;
+import net.openhft.chronicle.logger.ChronicleLogDictionary;
+import net.openhft.chronicle.logger.ChronicleLogEvent;
+import net.openhft.chronicle.logger.ChronicleLogHelper;
+import net.openhft.chronicle.logger.ChronicleLogLevel;
+import net.openhft.chronicle.logger.ChronicleLogSymbols;
+import net.openhft.chronicle.logger.ChronicleLogWriter;
+import net.openhft.chronicle.logger.ChronicleLogWriters;
+import net.openhft.lang.io.IOTools;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ChroniMergeTest {
+    private static final long CYCLE_LENGTH = 60 * 60 * 1000;
+    private static final long T0 = 10 * CYCLE_LENGTH;
+    private static final int EVENTS = 100;
+
+    private String dir;
+
+    @Before
+    public void setUp() throws Exception {
+        dir = System.getProperty("java.io.tmpdir") + "/chroni-merge-" + System.nanoTime();
+
+        // two processes logging in turn, each numbering its symbols from 0
+        final ChronicleLogWriter[] writers = new ChronicleLogWriter[] {
+            writer("p0", new ChronicleLogSymbols(CYCLE_LENGTH, true, true, true)),
+            writer("p1", new ChronicleLogSymbols(CYCLE_LENGTH, true, true, true)),
+            writer("plain0", null),
+            writer("plain1", null)
+        };
+
+        for (int i = 0; i < EVENTS; i++) {
+            final String process = "p" + (i % 2);
+            writers[i % 2].write(
+                ChronicleLogLevel.INFO, T0 + i, thread(i), logger(i), process + " message {}", null, i);
+            writers[2 + i % 2].write(
+                ChronicleLogLevel.INFO, T0 + i, thread(i), logger(i), process + " message {}", null, i);
+        }
+
+        // the writers close the chronicles
+        for (ChronicleLogWriter writer : writers) {
+            writer.close();
+        }
+    }
+
+    @After
+    public void tearDown() {
+        IOTools.deleteDir(dir);
+    }
+
+    private ChronicleLogWriter writer(String name, ChronicleLogSymbols symbols) throws IOException {
+        return new ChronicleLogWriters.BinaryWriter(
+            ChronicleQueueBuilder.indexed(dir + "/" + name).build(), symbols, CYCLE_LENGTH);
+    }
+
+    private static String thread(int i) {
+        return "p" + (i % 2) + "-thread-" + (i % 3);
+    }
+
+    private static String logger(int i) {
+        return "p" + (i % 2) + ".logger-" + (i / 10);
+    }
+
+    private static List<String> expected() {
+        final List<String> events = new ArrayList<>();
+        for (int i = 0; i < EVENTS; i++) {
+            events.add((T0 + i) + "|" + thread(i) + "|" + logger(i) + "|p" + (i % 2) + " message {}|" + i);
+        }
+
+        return events;
+    }
+
+    private List<String> read(String name) throws IOException {
+        final List<String> events = new ArrayList<>();
+        final Chronicle chronicle = ChronicleQueueBuilder.indexed(dir + "/" + name).build();
+        final ExcerptTailer tailer = chronicle.createTailer().toStart();
+        final ChronicleLogDictionary dictionary = new ChronicleLogDictionary();
+
+        try {
+            while (tailer.nextIndex()) {
+                final ChronicleLogEvent event = ChronicleLogHelper.decodeBinary(tailer, dictionary);
+                events.add(event.getTimeStamp() + "|" + event.getThreadName() + "|" + event.getLoggerName()
+                    + "|" + event.getMessage() + "|" + event.getArgumentArray()[0]);
+                tailer.finish();
+            }
+        } finally {
+            tailer.close();
+            chronicle.close();
+        }
+
+        return events;
+    }
+
+    private boolean hasSymbols(String name) throws IOException {
+        final Chronicle chronicle = ChronicleQueueBuilder.indexed(dir + "/" + name).build();
+        try {
+            return ChroniMerge.hasSymbols(Collections.singletonList(chronicle), 1);
+        } finally {
+            chronicle.close();
+        }
+    }
+
+    @Test
+    public void testOut() throws Exception {
+        // each process is read with its own dictionary, the events are merged
+        // in time stamp order and encoded again
+        ChroniMerge.main(new String[] { "-i", "--out", dir + "/out", dir + "/p0", dir + "/p1" });
+        assertEquals(expected(), read("out"));
+    }
+
+    @Test
+    public void testOutFrom() throws Exception {
+        ChroniMerge.main(new String[] {
+            "-i", "--from", Long.toString(T0 + 55), "--to", Long.toString(T0 + 80),
+            "--out", dir + "/out", dir + "/p0", dir + "/p1" });
+
+        assertEquals(expected().subList(55, 81), read("out"));
+    }
+
+    @Test
+    public void testRawWithSymbols() throws Exception {
+        // the ids of the two processes conflict, the events are encoded again
+        assertTrue(hasSymbols("p0"));
+        assertTrue(hasSymbols("p1"));
+
+        ChroniMerge.main(new String[] { "-i", "--raw", "--out", dir + "/out", dir + "/p0", dir + "/p1" });
+        assertEquals(expected(), read("out"));
+    }
+
+    @Test
+    public void testRawWithoutSymbols() throws Exception {
+        assertFalse(hasSymbols("plain0"));
+        assertFalse(hasSymbols("plain1"));
+
+        ChroniMerge.main(new String[] { "-i", "--raw", "--out", dir + "/out", dir + "/plain0", dir + "/plain1" });
+        assertEquals(expected(), read("out"));
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2014 Higher Frequency Trading
+ *
+ * http://www.higherfrequencytrading.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.logger.tools;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ChroniOutputTest {
+
+    /**
+     * Write a string through an output and return the bytes written to the
+     * channel once closed.
+     */
+    private static byte[] write(String str, int capacity) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final ChroniOutput output = new ChroniOutput(Channels.newChannel(out), capacity, true);
+        output.append(str);
+        output.close();
+
+        assertFalse(output.checkError());
+        return out.toByteArray();
+    }
+
+    private static void assertEncoded(String str) throws IOException {
+        // the same bytes as the encoder of the JDK, '?' replacing the
+        // unpaired surrogates
+        final byte[] expected = str.getBytes(StandardCharsets.UTF_8);
+        for (int capacity : new int[] { 4, 5, 7, ChroniOutput.DEFAULT_CAPACITY }) {
+            assertArrayEquals("capacity " + capacity, expected, write(str, capacity));
+        }
+    }
+
+    @Test
+    public void testAscii() throws IOException {
+        assertEncoded("");
+        assertEncoded("2014-01-01 00:00:00.000|INFO|main|logger|message");
+        assertEncoded("\u0000\t\n\u007f");
+    }
+
+    @Test
+    public void testBmp() throws IOException {
+        // two and three bytes
+        assertEncoded("\u00e9t\u00e9 \u00df \u07ff");
+        assertEncoded("\u0800 \u65e5\u672c\u8a9e \u20ac \uffff");
+    }
+
+    @Test
+    public void testSurrogatePairs() throws IOException {
+        assertEncoded("\ud83d\ude00");
+        assertEncoded("a\ud83d\ude00b\ud800\udc00\udbff\udfff");
+        assertArrayEquals(
+            new byte[] { (byte) 0xF0, (byte) 0x9F, (byte) 0x98, (byte) 0x80 },
+            write("\ud83d\ude00", 4));
+    }
+
+    @Test
+    public void testUnpairedSurrogates() throws IOException {
+        assertArrayEquals("?".getBytes(StandardCharsets.UTF_8), write("\ude00", 4));
+        assertArrayEquals("?a".getBytes(StandardCharsets.UTF_8), write("\ud83da", 4));
+        assertArrayEquals("?\u00e9".getBytes(StandardCharsets.UTF_8), write("\ud83d\u00e9", 4));
+        assertArrayEquals("a?".getBytes(StandardCharsets.UTF_8), write("a\ud83d", 4));
+
+        assertEncoded("\ud83d\ud83d\ude00");
+        assertEncoded("\ude00\ud83d");
+    }
+
+    @Test
+    public void testAppendLong() throws IOException {
+        for (long value : new long[] { 0, 1, 9, 10, -1, -10, 1234567890123L, Long.MAX_VALUE, Long.MIN_VALUE }) {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final ChroniOutput output = new ChroniOutput(Channels.newChannel(out), 4, true);
+            output.append(value);
+            output.close();
+
+            assertEquals(Long.toString(value), new String(out.toByteArray(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void testFlushAtBufferBoundary() throws IOException {
+        // the buffer is written once it can not hold the longest encoding of
+        // a character, so a character is never split over two writes
+        final List<byte[]> writes = new ArrayList<>();
+        final ChroniOutput output = new ChroniOutput(new WritableByteChannel() {
+            @Override
+            public int write(ByteBuffer src) {
+                final byte[] bytes = new byte[src.remaining()];
+                src.get(bytes);
+                writes.add(bytes);
+                return bytes.length;
+            }
+
+            @Override
+            public boolean isOpen() {
+                return true;
+            }
+
+            @Override
+            public void close() {
+            }
+        }, 8, false);
+
+        output.append("abcd");
+        assertTrue(writes.isEmpty());
+
+        output.append("e\ud83d\ude00");
+        assertEquals(1, writes.size());
+        assertArrayEquals("abcde".getBytes(StandardCharsets.UTF_8), writes.get(0));
+
+        output.flush();
+        assertEquals(2, writes.size());
+        assertArrayEquals("\ud83d\ude00".getBytes(StandardCharsets.UTF_8), writes.get(1));
+
+        // a high surrogate pending on flush is kept for the next character
+        output.append('\ud83d').flush();
+        assertEquals(2, writes.size());
+        output.append('\ude00').flush();
+        assertEquals(3, writes.size());
+        assertArrayEquals("\ud83d\ude00".getBytes(StandardCharsets.UTF_8), writes.get(2));
+    }
+
+    @Test
+    public void testCheckErrorAfterChannelFailure() throws IOException {
+        final IOException failure = new IOException("broken pipe");
+        final int[] attempts = new int[1];
+        final ChroniOutput output = new ChroniOutput(new WritableByteChannel() {
+            @Override
+            public int write(ByteBuffer src) throws IOException {
+                attempts[0]++;
+                throw failure;
+            }
+
+            @Override
+            public boolean isOpen() {
+                return true;
+            }
+
+            @Override
+            public void close() {
+            }
+        }, 4, false);
+
+        output.append("ab");
+        assertFalse(output.checkError());
+
+        // the methods do not throw, the error is kept
+        output.flush();
+        assertTrue(output.checkError());
+        assertEquals(1, attempts[0]);
+
+        // the following output is dropped, without writing to the channel
+        output.append("cdefghijkl").newLine();
+        output.flush();
+        assertTrue(output.checkError());
+        assertEquals(1, attempts[0]);
+
+        try {
+            output.close();
+            fail("the error should be thrown on close");
+        } catch (IOException e) {
+            assertSame(failure, e);
+        }
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2014 Higher Frequency Trading
+ *
+ * http://www.higherfrequencytrading.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.logger.tools;
+
+import net.openhft.chronicle.logger.ChronicleLog;
+import net.openhft.chronicle.logger.ChronicleLogEvent;
+import net.openhft.chronicle.logger.ChronicleLogLevel;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class ChroniStatTest {
+    private static final long T0 = 1000L * 60 * 60 * 24 * 365;
+
+    private static ChronicleLogLevel level(int i) {
+        return i % 10 == 0 ? ChronicleLogLevel.ERROR : (i % 5 == 0 ? ChronicleLogLevel.WARN : ChronicleLogLevel.INFO);
+    }
+
+    private static void add(ChroniStat.Stats stats, int from, int to) {
+        for (int i = from; i < to; i++) {
+            stats.add(
+                new Event(T0 + 1000L * i, level(i), "thread-" + (i % 3), "logger-" + (i % 4), "message " + (i % 7)),
+                10 + i % 2);
+        }
+    }
+
+    private static void assertStats(ChroniStat.Stats stats, int events) {
+        assertEquals(events, stats.count());
+        assertEquals(events / 10, stats.errors());
+        assertEquals(events / 10, stats.warnings());
+        assertEquals(events / 10, stats.count(ChronicleLogLevel.ERROR));
+        assertEquals(events - 2 * (events / 10), stats.count(ChronicleLogLevel.INFO));
+        assertEquals(10L * events + events / 2, stats.bytes());
+        assertEquals(T0, stats.getFirstTimestamp());
+        assertEquals(T0 + 1000L * (events - 1), stats.getLastTimestamp());
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals((events + 2 - i) / 3, stats.countThread("thread-" + i));
+        }
+
+        for (int i = 0; i < 4; i++) {
+            assertEquals((events + 3 - i) / 4, stats.countLogger("logger-" + i));
+        }
+
+        for (int i = 0; i < 7; i++) {
+            assertEquals((events + 6 - i) / 7, stats.countTemplate("message " + i));
+        }
+    }
+
+    @Test
+    public void testAdd() {
+        final ChroniStat.Stats stats = new ChroniStat.Stats();
+        assertEquals(0, stats.count());
+        assertEquals(Long.MAX_VALUE, stats.getFirstTimestamp());
+        assertEquals(Long.MIN_VALUE, stats.getLastTimestamp());
+
+        add(stats, 0, 100);
+        assertStats(stats, 100);
+        assertEquals(0, stats.countLogger("logger-4"));
+    }
+
+    @Test
+    public void testMerge() {
+        // the splits merged in any order add up to the events added at once
+        final int[][] orders = new int[][] { { 0, 1, 2 }, { 2, 1, 0 }, { 1, 0, 2 } };
+        for (int[] order : orders) {
+            final ChroniStat.Stats[] splits = new ChroniStat.Stats[] {
+                new ChroniStat.Stats(), new ChroniStat.Stats(), new ChroniStat.Stats()
+            };
+
+            add(splits[0], 0, 30);
+            add(splits[1], 30, 70);
+            add(splits[2], 70, 100);
+
+            final ChroniStat.Stats stats = new ChroniStat.Stats();
+            for (int split : order) {
+                stats.merge(splits[split]);
+            }
+
+            assertStats(stats, 100);
+        }
+    }
+
+    @Test
+    public void testTemplatesOfASplit() {
+        final ChroniStat.Stats stats = new ChroniStat.Stats();
+        for (int i = 0; i < ChroniStat.MAX_TEMPLATES + 5; i++) {
+            stats.add(new Event(T0, ChronicleLogLevel.INFO, "thread", "logger", "formatted " + i), 1);
+        }
+
+        assertEquals(1, stats.countTemplate("formatted 0"));
+        assertEquals(0, stats.countTemplate("formatted " + ChroniStat.MAX_TEMPLATES));
+        assertEquals(5, stats.countTemplate(ChroniStat.OTHER_TEMPLATES));
+    }
+
+    @Test
+    public void testTemplatesDoNotDependOnMergeOrder() {
+        // a frequent template first met in a split completing after a split
+        // holding as many templates as counted is not counted as other
+        for (boolean fullFirst : new boolean[] { true, false }) {
+            final ChroniStat.Stats full = new ChroniStat.Stats();
+            for (int i = 0; i < ChroniStat.MAX_TEMPLATES; i++) {
+                full.add(new Event(T0, ChronicleLogLevel.INFO, "thread", "logger", "formatted " + i), 1);
+            }
+
+            final ChroniStat.Stats frequent = new ChroniStat.Stats();
+            for (int i = 0; i < 100; i++) {
+                frequent.add(new Event(T0, ChronicleLogLevel.INFO, "thread", "logger", "frequent {}"), 1);
+            }
+
+            final ChroniStat.Stats stats = new ChroniStat.Stats();
+            stats.merge(fullFirst ? full : frequent);
+            stats.merge(fullFirst ? frequent : full);
+
+            assertEquals(100, stats.countTemplate("frequent {}"));
+            assertEquals(0, stats.countTemplate(ChroniStat.OTHER_TEMPLATES));
+            assertEquals(ChroniStat.MAX_TEMPLATES + 100, stats.count());
+        }
+    }
+
+    // *************************************************************************
+    //
+    // *************************************************************************
+
+    private static final class Event implements ChronicleLogEvent {
+        private final long timestamp;
+        private final ChronicleLogLevel level;
+        private final String threadName;
+        private final String loggerName;
+        private final String message;
+
+        Event(long timestamp, ChronicleLogLevel level, String threadName, String loggerName, String message) {
+            this.timestamp = timestamp;
+            this.level = level;
+            this.threadName = threadName;
+            this.loggerName = loggerName;
+            this.message = message;
+        }
+
+        @Override
+        public byte getVersion() {
+            return ChronicleLog.VERSION;
+        }
+
+        @Override
+        public long getTimeStamp() {
+            return this.timestamp;
+        }
+
+        @Override
+        public String getThreadName() {
+            return this.threadName;
+        }
+
+        @Override
+        public ChronicleLogLevel getLevel() {
+            return this.level;
+        }
+
+        @Override
+        public String getMessage() {
+            return this.message;
+        }
+
+        @Override
+        public Object[] getArgumentArray() {
+            return EMPTY_ARGS;
+        }
+
+        @Override
+        public boolean hasArguments() {
+            return false;
+        }
+
+        @Override
+        public String getLoggerName() {
+            return this.loggerName;
+        }
+
+        @Override
+        public Throwable getThrowable() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2014 Higher Frequency Trading
+ *
+ * http://www.higherfrequencytrading.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.logger.tools;
+
+import net.openhft.chronicle.Chronicle;
+import net.openhft.chronicle.ChronicleQueueBuilder;
+import net.openhft.chronicle.logger.ChronicleLogEvent;
+import net.openhft.chronicle.logger.ChronicleLogLevel;
+import net.openhft.chronicle.logger.ChronicleLogSymbols;
+import net.openhft.chronicle.logger.ChronicleLogWriter;
+import net.openhft.chronicle.logger.ChronicleLogWriters;
+import net.openhft.lang.io.IOTools;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+
+public class ChroniToolTest {
+    private static final long CYCLE_LENGTH = 60 * 60 * 1000;
+    private static final long T0 = 10 * CYCLE_LENGTH;
+    private static final int EVENTS = 100;
+
+    private String dir;
+    private Chronicle chronicle;
+
+    @Before
+    public void setUp() throws Exception {
+        dir = System.getProperty("java.io.tmpdir") + "/chroni-tool-" + System.nanoTime();
+        chronicle = ChronicleQueueBuilder.indexed(dir + "/log").build();
+
+        // the thread names are defined by the first three events, the logger
+        // names by the first event of each ten
+        final ChronicleLogWriter writer = new ChronicleLogWriters.BinaryWriter(
+            chronicle,
+            new ChronicleLogSymbols(CYCLE_LENGTH, true, true, true),
+            CYCLE_LENGTH);
+
+        for (int i = 0; i < EVENTS; i++) {
+            writer.write(
+                ChronicleLogLevel.INFO,
+                T0 + i,
+                "thread-" + (i % 3),
+                "logger-" + (i / 10),
+                "message {}",
+                null,
+                i);
+        }
+
+        // the writer closes the chronicle
+        writer.close();
+        chronicle = ChronicleQueueBuilder.indexed(dir + "/log").build();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        chronicle.close();
+        IOTools.deleteDir(dir);
+    }
+
+    private static String expected(int i) {
+        return "thread-" + (i % 3) + "|logger-" + (i / 10) + "|message {}|" + i;
+    }
+
+    /**
+     * Process on a new thread, so that its dictionary only holds the
+     * definitions read by the processing.
+     */
+    private static List<String> process(final Callable<List<String>> processing) throws Exception {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            return executor.submit(processing).get();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static ChroniTool.BinaryProcessor collector(final List<String> events) {
+        return new ChroniTool.BinaryProcessor() {
+            @Override
+            public void process(final ChronicleLogEvent event) {
+                events.add(event.getThreadName() + "|" + event.getLoggerName()
+                    + "|" + event.getMessage() + "|" + event.getArgumentArray()[0]);
+            }
+        };
+    }
+
+    @Test
+    public void testFromAfterDefinitions() throws Exception {
+        // the events preceding the time given within the skew tolerance are
+        // read but not processed, they define the names of the following ones
+        final List<String> events = process(new Callable<List<String>>() {
+            @Override
+            public List<String> call() throws Exception {
+                final List<String> events = new ArrayList<>();
+                ChroniTool.process(chronicle, collector(events), true, false, false, T0 + 55, T0 + 80);
+                return events;
+            }
+        });
+
+        assertEquals(26, events.size());
+        for (int i = 0; i < events.size(); i++) {
+            assertEquals(expected(55 + i), events.get(i));
+        }
+    }
+
+    @Test
+    public void testIndexesAfterDefinitions() throws Exception {
+        // as found with a term index: the events defining the thread names
+        // and the one of the same logger, then the event looked for
+        final List<String> events = process(new Callable<List<String>>() {
+            @Override
+            public List<String> call() throws Exception {
+                final List<String> events = new ArrayList<>();
+                ChroniTool.process(
+                    chronicle, collector(events), true, new long[] { 0, 1, 2, 60, 64 }, -1, T0 + 64, T0 + 64);
+                return events;
+            }
+        });
+
+        assertEquals(1, events.size());
+        assertEquals(expected(64), events.get(0));
+    }
+
+    @Test
+    public void testOpenUnstriped() throws Exception {
+        // log.index is not the index of a stripe of log
+        assertEquals(Collections.singletonList(dir + "/log"), ChroniTool.paths(dir + "/log", true));
+
+        final List<Chronicle> chronicles = ChroniTool.open(dir + "/log", true, false);
+        try {
+            assertEquals(1, chronicles.size());
+
+            final List<String> events = process(new Callable<List<String>>() {
+                @Override
+                public List<String> call() throws Exception {
+                    final List<String> events = new ArrayList<>();
+                    ChroniTool.process(chronicles, collector(events), true, false, false);
+                    return events;
+                }
+            });
+
+            assertEquals(EVENTS, events.size());
+            for (int i = 0; i < events.size(); i++) {
+                assertEquals(expected(i), events.get(i));
+            }
+        } finally {
+            for (Chronicle chronicle : chronicles) {
+                chronicle.close();
+            }
+        }
+    }
+}
@@ -24,13 +24,21 @@ import net.openhft.lang.model.constraints.NotNull;
 final class BinaryChronicleLogEvent implements ChronicleLogEvent {
 
     static BinaryChronicleLogEvent read(@NotNull Bytes in) throws IllegalStateException {
+        return read(in, ChronicleLogDictionary.local());
+    }
+
+    static BinaryChronicleLogEvent read(@NotNull Bytes in, @NotNull ChronicleLogDictionary dictionary)
+            throws IllegalStateException {
         byte version = in.readByte();
-        if(version == ChronicleLog.VERSION) {
+        if(version == ChronicleLog.VERSION_3) {
+            return readV3(in, dictionary);
+
+        } else if(version == ChronicleLog.VERSION_2 || version == ChronicleLog.VERSION_1) {
             long timestamp = in.readLong();
             ChronicleLogLevel level = ChronicleLogLevel.readBinary(in);
-            String threadName = in.readUTFΔ();
-            String loggerName = in.readUTFΔ();
-            String message = in.readUTFΔ();
+            String threadName = dictionary.readString(in);
+            String loggerName = dictionary.readString(in);
+            String message = dictionary.readString(in);
 
             // Args
             long argsLen = in.readStopBit();
@@ -42,14 +50,17 @@ final class BinaryChronicleLogEvent implements ChronicleLogEvent {
             if (argsLen != 0) {
                 args = new Object[(int) argsLen];
                 for (int i = 0; i < argsLen; i++) {
-                    args[i] = in.readObject();
+                    args[i] = version == ChronicleLog.VERSION_1
+                        ? in.readObject()
+                        : ChronicleLogCodec.readArg(in);
                 }
             }
 
-            final Throwable throwable = in.readBoolean() ? in.readObject(Throwable.class) : null;
+            final Throwable throwable = dictionary.readThrowable(in);
             return new BinaryChronicleLogEvent(
                 version,
                 timestamp,
+                0,
                 level,
                 threadName,
                 loggerName,
@@ -62,12 +73,101 @@ final class BinaryChronicleLogEvent implements ChronicleLogEvent {
         }
     }
 
+    /**
+     * Version 3 layout, sections in brackets are only present when their flag is set:
+     * <pre>
+     *   version, flags, timestamp, [nanos], level, thread, logger, message,
+     *   [args count, args], [throwable], [context length, context]
+     * </pre>
+     */
+    private static BinaryChronicleLogEvent readV3(@NotNull Bytes in, @NotNull ChronicleLogDictionary dictionary)
+            throws IllegalStateException {
+        final int flags = in.readUnsignedByte();
+        final long timestamp = dictionary.readTimestamp(in, flags);
+        final int nanos = (flags & ChronicleLog.FLAG_NANOS) != 0 ? readNanos(in) : 0;
+        final ChronicleLogLevel level = ChronicleLogLevel.readBinary(in);
+        final String threadName = dictionary.readString(in);
+        final String loggerName = dictionary.readString(in);
+        final String message = dictionary.readString(in);
+
+        Object[] args = null;
+        if ((flags & ChronicleLog.FLAG_ARGS) != 0) {
+            final long argsLen = in.readStopBit();
+            if (argsLen <= 0 || argsLen > Integer.MAX_VALUE) {
+                throw new IllegalStateException("args= " + argsLen);
+            }
+
+            args = new Object[(int) argsLen];
+            for (int i = 0; i < argsLen; i++) {
+                args[i] = ChronicleLogCodec.readArg(in);
+            }
+        }
+
+        final Throwable throwable = (flags & ChronicleLog.FLAG_THROWABLE) != 0
+            ? dictionary.readThrowable(in)
+            : null;
+
+        if ((flags & ChronicleLog.FLAG_CONTEXT) != 0) {
+            // not written yet, skipped so that events carrying one stay readable
+            final long contextLen = in.readStopBit();
+            if (contextLen < 0 || contextLen > in.remaining()) {
+                throw new IllegalStateException("context= " + contextLen);
+            }
+
+            in.position(in.position() + contextLen);
+        }
+
+        return new BinaryChronicleLogEvent(
+            ChronicleLog.VERSION_3,
+            timestamp,
+            nanos,
+            level,
+            threadName,
+            loggerName,
+            message,
+            args,
+            throwable);
+    }
+
+    /**
+     * Read the nanoseconds section of a version 3 event, following its time stamp.
+     *
+     * @throws IllegalStateException if the value is not within a millisecond
+     */
+    static int readNanos(@NotNull Bytes in) throws IllegalStateException {
+        final long nanos = in.readStopBit();
+        if (nanos < 0 || nanos >= ChronicleLog.NANOS_PER_MILLI) {
+            throw new IllegalStateException("nanos= " + nanos);
+        }
+
+        return (int) nanos;
+    }
+
+    static long readTimestamp(@NotNull Bytes in) throws IllegalStateException {
+        return readTimestamp(in, ChronicleLogDictionary.local());
+    }
+
+    static long readTimestamp(@NotNull Bytes in, @NotNull ChronicleLogDictionary dictionary)
+            throws IllegalStateException {
+        byte version = in.readByte();
+        if(version == ChronicleLog.VERSION_3) {
+            return dictionary.readTimestamp(in, in.readUnsignedByte());
+
+        } else if(version == ChronicleLog.VERSION_2 || version == ChronicleLog.VERSION_1) {
+            return in.readLong();
+
+        } else {
+            throw new IllegalStateException("message version= " + version);
+        }
+    }
+
     // *********************************************************************
     //
     // *********************************************************************
 
     private final byte version;
     private final long timestamp;
+    private final int nanos;
     private final ChronicleLogLevel level;
     private final String threadName;
     private final String loggerName;
@@ -75,11 +175,12 @@ final class BinaryChronicleLogEvent implements ChronicleLogEvent {
     private final Object[] args;
     private final Throwable throwable;
 
-    private BinaryChronicleLogEvent(byte version, long timestamp,
+    BinaryChronicleLogEvent(byte version, long timestamp, int nanos,
         ChronicleLogLevel level, String threadName, String loggerName,
         String message, Object[] args, Throwable throwable) {
         this.version = version;
         this.timestamp = timestamp;
+        this.nanos = nanos;
         this.level = level;
         this.threadName = threadName;
         this.loggerName = loggerName;
@@ -102,6 +203,13 @@ final class BinaryChronicleLogEvent implements ChronicleLogEvent {
         return this.timestamp;
     }
 
+    /**
+     * @return the nanoseconds within the millisecond of the time stamp, 0 if not recorded
+     */
+    public int getNanos() {
+        return this.nanos;
+    }
+
     @Override
     public String getThreadName() {
         return this.threadName;
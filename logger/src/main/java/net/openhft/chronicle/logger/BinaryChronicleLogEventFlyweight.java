@@ -0,0 +1,410 @@
+/*
+ * Copyright 2014 Higher Frequency Trading
+ *
+ * http://www.higherfrequencytrading.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.logger;
+
+import net.openhft.lang.io.Bytes;
+import net.openhft.lang.model.constraints.NotNull;
+
+/**
+ * A reusable view of the binary event the bytes are positioned at, meant
+ * for scans which only look at a few fields of each event.
+ *
+ * Wrapping an event reads its header, i.e. version, flags, time stamp and
+ * level, and resolves the thread name, the logger name and the message:
+ * dictionary encoded strings are looked up, inline ones are skipped and only
+ * decoded when accessed, into buffers owned by the flyweight without creating
+ * a String. They can also be searched without being decoded with a
+ * ChronicleLogMatcher, see {@link #findInMessage(ChronicleLogMatcher)}. Arguments and
+ * throwables are only deserialized when accessed, except for the throwable
+ * definitions the following events may reference and for the arguments of
+ * format version 1 events which have to be read to reach the throwable.
+ *
+ * The flyweight reads back from the bytes when a field is accessed, so it is
+ * only valid until the bytes move to another excerpt and it must not be
+ * shared between threads. Use {@link #copy()} to keep an event.
+ */
+public final class BinaryChronicleLogEventFlyweight implements ChronicleLogEvent {
+    private final Symbol threadName;
+    private final Symbol loggerName;
+    private final Symbol message;
+    private final StringBuilder scratch;
+
+    private Bytes in;
+    private ChronicleLogDictionary dictionary;
+    private byte version;
+    private long timestamp;
+    private int nanos;
+    private ChronicleLogLevel level;
+    private int argc;
+    private long argsPosition;
+    private Object[] args;
+    private long throwablePosition;
+    private Throwable throwable;
+
+    public BinaryChronicleLogEventFlyweight() {
+        this.threadName = new Symbol();
+        this.loggerName = new Symbol();
+        this.message = new Symbol();
+        this.scratch = new StringBuilder();
+    }
+
+    /**
+     * Bind the flyweight to the event the bytes are positioned at, resolving
+     * dictionary encoded strings with the dictionary of the calling thread.
+     *
+     * @param in    the source of event in binary form (i. e. Excerpt)
+     * @return      this flyweight
+     */
+    public BinaryChronicleLogEventFlyweight wrap(@NotNull final Bytes in) throws IllegalStateException {
+        return wrap(in, ChronicleLogDictionary.local());
+    }
+
+    /**
+     * Bind the flyweight to the event the bytes are positioned at, the
+     * position of the bytes afterwards is unspecified.
+     *
+     * @param in            the source of event in binary form (i. e. Excerpt)
+     * @param dictionary    the strings defined by the events read so far
+     * @return              this flyweight
+     */
+    public BinaryChronicleLogEventFlyweight wrap(
+            @NotNull final Bytes in, @NotNull final ChronicleLogDictionary dictionary) throws IllegalStateException {
+        this.in = in;
+        this.dictionary = dictionary;
+        this.args = null;
+        this.throwable = null;
+        this.throwablePosition = -1;
+
+        int flags;
+        this.version = in.readByte();
+        if (this.version == ChronicleLog.VERSION_3) {
+            flags = in.readUnsignedByte();
+            this.timestamp = dictionary.readTimestamp(in, flags);
+            this.nanos = (flags & ChronicleLog.FLAG_NANOS) != 0 ? BinaryChronicleLogEvent.readNanos(in) : 0;
+
+        } else if (this.version == ChronicleLog.VERSION_2 || this.version == ChronicleLog.VERSION_1) {
+            // both sections are always present, the argument count may be 0
+            flags = ChronicleLog.FLAG_ARGS | ChronicleLog.FLAG_THROWABLE;
+            this.timestamp = in.readLong();
+            this.nanos = 0;
+
+        } else {
+            throw new IllegalStateException("message version= " + this.version);
+        }
+
+        this.level = ChronicleLogLevel.readBinary(in);
+        readSymbol(in, this.threadName);
+        readSymbol(in, this.loggerName);
+        readSymbol(in, this.message);
+
+        this.argc = 0;
+        if ((flags & ChronicleLog.FLAG_ARGS) != 0) {
+            final long argsLen = in.readStopBit();
+            final long min = this.version == ChronicleLog.VERSION_3 ? 1 : 0;
+            if (argsLen < min || argsLen > Integer.MAX_VALUE) {
+                throw new IllegalStateException("args= " + argsLen);
+            }
+
+            this.argc = (int) argsLen;
+        }
+
+        this.argsPosition = in.position();
+        if ((flags & ChronicleLog.FLAG_THROWABLE) != 0) {
+            skipArgs(in);
+            skipThrowable(in);
+        }
+
+        return this;
+    }
+
+    /**
+     * @return a standalone copy of the event, all its fields decoded
+     */
+    public ChronicleLogEvent copy() {
+        return new BinaryChronicleLogEvent(
+            this.version,
+            this.timestamp,
+            this.nanos,
+            this.level,
+            getThreadName(),
+            getLoggerName(),
+            getMessage(),
+            hasArguments() ? getArgumentArray() : null,
+            getThrowable());
+    }
+
+    // *********************************************************************
+    //
+    // *********************************************************************
+
+    @Override
+    public byte getVersion() {
+        return this.version;
+    }
+
+    @Override
+    public long getTimeStamp() {
+        return this.timestamp;
+    }
+
+    /**
+     * @return the nanoseconds within the millisecond of the time stamp, 0 if not recorded
+     */
+    public int getNanos() {
+        return this.nanos;
+    }
+
+    @Override
+    public ChronicleLogLevel getLevel() {
+        return this.level;
+    }
+
+    @Override
+    public String getThreadName() {
+        return this.threadName.toStringValue();
+    }
+
+    @Override
+    public String getLoggerName() {
+        return this.loggerName.toStringValue();
+    }
+
+    @Override
+    public String getMessage() {
+        return this.message.toStringValue();
+    }
+
+    /**
+     * @return the thread name, only valid until the next wrap
+     */
+    public CharSequence threadName() {
+        return this.threadName.chars();
+    }
+
+    /**
+     * @param matcher   the literals to look for
+     * @return          true if the thread name holds any of them, an inline
+     *                  name is searched without being decoded
+     */
+    public boolean findInThreadName(@NotNull final ChronicleLogMatcher matcher) {
+        return this.threadName.find(matcher);
+    }
+
+    /**
+     * @param matcher   the literals to look for
+     * @return          true if the logger name holds any of them, an inline
+     *                  name is searched without being decoded
+     */
+    public boolean findInLoggerName(@NotNull final ChronicleLogMatcher matcher) {
+        return this.loggerName.find(matcher);
+    }
+
+    /**
+     * @param matcher   the literals to look for
+     * @return          true if the message holds any of them, an inline
+     *                  message is searched without being decoded
+     */
+    public boolean findInMessage(@NotNull final ChronicleLogMatcher matcher) {
+        return this.message.find(matcher);
+    }
+
+    /**
+     * @return the logger name, only valid until the next wrap
+     */
+    public CharSequence loggerName() {
+        return this.loggerName.chars();
+    }
+
+    /**
+     * @return the message, only valid until the next wrap
+     */
+    public CharSequence message() {
+        return this.message.chars();
+    }
+
+    @Override
+    public Object[] getArgumentArray() {
+        if (this.args == null && this.argc > 0) {
+            final long position = this.in.position();
+            try {
+                this.in.position(this.argsPosition);
+                final Object[] values = new Object[this.argc];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = ChronicleLogCodec.readArg(this.in);
+                }
+
+                this.args = values;
+            } finally {
+                this.in.position(position);
+            }
+        }
+
+        return this.args != null ? this.args : EMPTY_ARGS;
+    }
+
+    @Override
+    public boolean hasArguments() {
+        return this.argc > 0;
+    }
+
+    /**
+     * @return true if the event carries a throwable, without decoding it
+     */
+    public boolean hasThrowable() {
+        return this.throwable != null || this.throwablePosition >= 0;
+    }
+
+    @Override
+    public Throwable getThrowable() {
+        if (this.throwablePosition >= 0) {
+            final long position = this.in.position();
+            try {
+                this.in.position(this.throwablePosition);
+                this.throwable = this.dictionary.readThrowable(this.in);
+                this.throwablePosition = -1;
+            } finally {
+                this.in.position(position);
+            }
+        }
+
+        return this.throwable;
+    }
+
+    // *********************************************************************
+    //
+    // *********************************************************************
+
+    private void readSymbol(@NotNull final Bytes in, @NotNull final Symbol symbol) {
+        final long position = in.position();
+        final long code = in.readStopBit();
+
+        if (code >= -1) {
+            in.position(position);
+            symbol.inline(in);
+        } else {
+            symbol.value(this.dictionary.readSymbol(in, code));
+        }
+    }
+
+    private void skipArgs(@NotNull final Bytes in) {
+        if (this.version == ChronicleLog.VERSION_1) {
+            // written with writeObject, there is no way past them but reading them
+            this.args = this.argc > 0 ? new Object[this.argc] : null;
+            for (int i = 0; i < this.argc; i++) {
+                this.args[i] = in.readObject();
+            }
+
+        } else {
+            for (int i = 0; i < this.argc; i++) {
+                ChronicleLogCodec.skipArg(in, this.scratch);
+            }
+        }
+    }
+
+    private void skipThrowable(@NotNull final Bytes in) {
+        final long position = in.position();
+        final byte tag = in.readByte();
+
+        if (tag == ChronicleLogSymbols.THROWABLE_DEFINITION) {
+            // following events may reference it, it is recorded right away
+            in.position(position);
+            this.throwable = this.dictionary.readThrowable(in);
+
+        } else if (tag != ChronicleLogSymbols.THROWABLE_NONE) {
+            this.throwablePosition = position;
+        }
+    }
+
+    // *********************************************************************
+    //
+    // *********************************************************************
+
+    /**
+     * A string field, either a dictionary entry or an inline string skipped
+     * on wrap, decoded into a reused buffer when first accessed and turned
+     * into a String on demand.
+     */
+    private static final class Symbol {
+        private final StringBuilder buffer = new StringBuilder();
+        private Bytes in;
+        private long position;
+        private String value;
+        private boolean inline;
+        private boolean decoded;
+        private boolean nullValue;
+
+        void inline(@NotNull final Bytes in) {
+            this.in = in;
+            this.position = in.position();
+            this.nullValue = !ChronicleLogMatcher.skipUTF(in);
+            this.value = null;
+            this.inline = true;
+            this.decoded = false;
+        }
+
+        void value(String value) {
+            this.in = null;
+            this.value = value;
+            this.inline = false;
+            this.nullValue = value == null;
+        }
+
+        CharSequence chars() {
+            if (!this.inline || this.nullValue) {
+                return this.value;
+            }
+
+            if (!this.decoded) {
+                final long position = this.in.position();
+                try {
+                    this.in.position(this.position);
+                    this.buffer.setLength(0);
+                    this.in.readUTFΔ(this.buffer);
+                    this.decoded = true;
+                } finally {
+                    this.in.position(position);
+                }
+            }
+
+            return this.buffer;
+        }
+
+        String toStringValue() {
+            if (this.inline && this.value == null && !this.nullValue) {
+                this.value = chars().toString();
+            }
+
+            return this.value;
+        }
+
+        boolean find(@NotNull final ChronicleLogMatcher matcher) {
+            if (!this.inline || this.decoded || this.nullValue) {
+                return matcher.find(chars());
+            }
+
+            final long position = this.in.position();
+            try {
+                this.in.position(this.position);
+                return matcher.findUTF(this.in);
+            } finally {
+                this.in.position(position);
+            }
+        }
+    }
+}
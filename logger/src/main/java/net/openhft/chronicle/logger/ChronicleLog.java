@@ -25,7 +25,24 @@ public final class ChronicleLog {
     public static final String STR_TRUE = "true";
     public static final String DEFAULT_DATE_FORMAT = "yyyy.MM.dd-HH:mm:ss.SSS";
     
-    public static final byte VERSION = 1;
+    public static final byte VERSION_1 = 1;
+    public static final byte VERSION_2 = 2;
+    public static final byte VERSION_3 = 3;
+    public static final byte VERSION = VERSION_3;
+
+    /**
+     * Flags of a binary event (format version 3), telling which optional
+     * sections follow the version byte.
+     */
+    public static final int FLAG_ARGS = 0x01;
+    public static final int FLAG_THROWABLE = 0x02;
+    public static final int FLAG_NANOS = 0x04;
+    public static final int FLAG_CONTEXT = 0x08;
+    public static final int FLAG_TIMESTAMP_BASE = 0x10;
+    public static final int FLAG_TIMESTAMP_DELTA = 0x20;
+
+    public static final int NANOS_PER_MILLI = 1000000;
+
     private static final int CASE_DIFF = 'A' - 'a';
 
     // *************************************************************************
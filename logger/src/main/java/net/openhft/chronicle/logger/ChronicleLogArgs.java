@@ -0,0 +1,279 @@
+/*
+ * Copyright 2014 Higher Frequency Trading
+ *
+ * http://www.higherfrequencytrading.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.logger;
+
+import net.openhft.lang.io.Bytes;
+import net.openhft.lang.io.RandomDataOutput;
+import net.openhft.lang.model.constraints.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * A reusable list of log arguments which keeps primitive values unboxed.
+ *
+ * A per-thread instance is returned by {@link #get()}, arguments are appended
+ * with the add methods and the binary writer encodes them straight into the
+ * excerpt, so in steady state a log call does not allocate:
+ *
+ * <pre>
+ *   writer.write(level, ts, thread, logger, "px={} qty={}", null,
+ *       ChronicleLogArgs.get().add(px).add(qty));
+ * </pre>
+ *
+ * The instance returned by {@link #get()} must not be retained nor shared
+ * with other threads, writers that hand events over to other threads copy it.
+ */
+public final class ChronicleLogArgs {
+    private static final int DEFAULT_CAPACITY = 8;
+
+    private static final ThreadLocal<ChronicleLogArgs> LOCAL = new ThreadLocal<ChronicleLogArgs>() {
+        @Override
+        protected ChronicleLogArgs initialValue() {
+            return new ChronicleLogArgs();
+        }
+    };
+
+    /**
+     * @return the cleared argument list of the calling thread
+     */
+    public static ChronicleLogArgs get() {
+        return LOCAL.get().clear();
+    }
+
+    // *************************************************************************
+    //
+    // *************************************************************************
+
+    private byte[] types;
+    private long[] values;
+    private Object[] objects;
+    private int size;
+
+    public ChronicleLogArgs() {
+        this.types = new byte[DEFAULT_CAPACITY];
+        this.values = new long[DEFAULT_CAPACITY];
+        this.objects = new Object[DEFAULT_CAPACITY];
+        this.size = 0;
+    }
+
+    public ChronicleLogArgs clear() {
+        Arrays.fill(this.objects, 0, this.size, null);
+        this.size = 0;
+
+        return this;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public ChronicleLogArgs add(int arg) {
+        return add(ChronicleLogCodec.TAG_INT, arg, null);
+    }
+
+    public ChronicleLogArgs add(long arg) {
+        return add(ChronicleLogCodec.TAG_LONG, arg, null);
+    }
+
+    public ChronicleLogArgs add(double arg) {
+        return add(ChronicleLogCodec.TAG_DOUBLE, Double.doubleToRawLongBits(arg), null);
+    }
+
+    public ChronicleLogArgs add(boolean arg) {
+        return add(ChronicleLogCodec.TAG_BOOLEAN, arg ? 1 : 0, null);
+    }
+
+    public ChronicleLogArgs add(char arg) {
+        return add(ChronicleLogCodec.TAG_CHAR, arg, null);
+    }
+
+    public ChronicleLogArgs add(Object arg) {
+        return add(ChronicleLogCodec.TAG_OBJECT, 0, arg);
+    }
+
+    /**
+     * Boxes the argument at the given position, meant for writers which do
+     * not encode primitives natively.
+     */
+    public Object get(int index) {
+        if (index < 0 || index >= this.size) {
+            throw new IndexOutOfBoundsException("index= " + index + ", size= " + this.size);
+        }
+
+        final long value = this.values[index];
+        switch (this.types[index]) {
+            case ChronicleLogCodec.TAG_INT:
+                return (int) value;
+            case ChronicleLogCodec.TAG_LONG:
+                return value;
+            case ChronicleLogCodec.TAG_DOUBLE:
+                return Double.longBitsToDouble(value);
+            case ChronicleLogCodec.TAG_BOOLEAN:
+                return value != 0;
+            case ChronicleLogCodec.TAG_CHAR:
+                return (char) value;
+            default:
+                return this.objects[index];
+        }
+    }
+
+    public Object[] toArray() {
+        final Object[] array = new Object[this.size];
+        for (int i = 0; i < this.size; i++) {
+            array[i] = get(i);
+        }
+
+        return array;
+    }
+
+    public ChronicleLogArgs copyFrom(@NotNull final ChronicleLogArgs other) {
+        clear();
+        ensureCapacity(other.size);
+
+        System.arraycopy(other.types, 0, this.types, 0, other.size);
+        System.arraycopy(other.values, 0, this.values, 0, other.size);
+        System.arraycopy(other.objects, 0, this.objects, 0, other.size);
+        this.size = other.size;
+
+        return this;
+    }
+
+    /**
+     * Copies the arguments of another list, the objects being replaced by a
+     * snapshot for the writers rendering them on another thread, see
+     * {@link ChronicleLogWriters.AsyncWriter}.
+     */
+    ChronicleLogArgs snapshotFrom(@NotNull final ChronicleLogArgs other) {
+        copyFrom(other);
+        for (int i = 0; i < this.size; i++) {
+            this.objects[i] = ChronicleLogWriters.AsyncWriter.snapshot(this.objects[i]);
+        }
+
+        return this;
+    }
+
+    /**
+     * Writes the arguments, without their count, using the same tags as the
+     * Object based write methods so events read back the same way.
+     */
+    void writeTo(@NotNull final RandomDataOutput out) {
+        for (int i = 0; i < this.size; i++) {
+            final long value = this.values[i];
+            switch (this.types[i]) {
+                case ChronicleLogCodec.TAG_INT:
+                    ChronicleLogCodec.writeInt(out, (int) value);
+                    break;
+                case ChronicleLogCodec.TAG_LONG:
+                    ChronicleLogCodec.writeLong(out, value);
+                    break;
+                case ChronicleLogCodec.TAG_DOUBLE:
+                    ChronicleLogCodec.writeDouble(out, Double.longBitsToDouble(value));
+                    break;
+                case ChronicleLogCodec.TAG_BOOLEAN:
+                    ChronicleLogCodec.writeBoolean(out, value != 0);
+                    break;
+                case ChronicleLogCodec.TAG_CHAR:
+                    ChronicleLogCodec.writeChar(out, (char) value);
+                    break;
+                default:
+                    ChronicleLogCodec.writeArg(out, this.objects[i]);
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Appends the text form of the argument at the given position, primitive
+     * values are appended without being boxed.
+     */
+    void appendTo(int index, @NotNull final Bytes out) {
+        final long value = this.values[index];
+        switch (this.types[index]) {
+            case ChronicleLogCodec.TAG_INT:
+            case ChronicleLogCodec.TAG_LONG:
+                out.append(value);
+                break;
+            case ChronicleLogCodec.TAG_DOUBLE:
+                ChronicleLogFormatter.appendDouble(out, Double.longBitsToDouble(value));
+                break;
+            case ChronicleLogCodec.TAG_BOOLEAN:
+                out.append(value != 0 ? "true" : "false");
+                break;
+            case ChronicleLogCodec.TAG_CHAR:
+                ChronicleLogFormatter.appendChar(out, (char) value);
+                break;
+            default:
+                ChronicleLogFormatter.appendArg(out, this.objects[index]);
+                break;
+        }
+    }
+
+    /**
+     * Adds the terms of the argument at the given position to a block filter,
+     * integers are hashed without being boxed.
+     *
+     * @param formatted true if the argument is formatted in the message, as
+     *                  done by text writers
+     */
+    void addTo(int index, @NotNull final ChronicleLogBlocks.Block block, boolean formatted) {
+        final long value = this.values[index];
+        switch (this.types[index]) {
+            case ChronicleLogCodec.TAG_INT:
+            case ChronicleLogCodec.TAG_LONG:
+                block.addArg(value);
+                break;
+            case ChronicleLogCodec.TAG_DOUBLE:
+                block.addArg(Double.longBitsToDouble(value), formatted);
+                break;
+            case ChronicleLogCodec.TAG_BOOLEAN:
+                block.addArg(value != 0 ? Boolean.TRUE : Boolean.FALSE, formatted);
+                break;
+            case ChronicleLogCodec.TAG_CHAR:
+                block.addArg((char) value, formatted);
+                break;
+            default:
+                block.addArg(this.objects[index], formatted);
+                break;
+        }
+    }
+
+    // *************************************************************************
+    //
+    // *************************************************************************
+
+    private ChronicleLogArgs add(byte type, long value, Object object) {
+        ensureCapacity(this.size + 1);
+
+        this.types[this.size] = type;
+        this.values[this.size] = value;
+        this.objects[this.size] = object;
+        this.size++;
+
+        return this;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > this.types.length) {
+            final int newCapacity = Math.max(capacity, this.types.length << 1);
+            this.types = Arrays.copyOf(this.types, newCapacity);
+            this.values = Arrays.copyOf(this.values, newCapacity);
+            this.objects = Arrays.copyOf(this.objects, newCapacity);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2014 Higher Frequency Trading
+ *
+ * http://www.higherfrequencytrading.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.logger;
+
+/**
+ * A ChronicleLogWriter writing the arguments held by a ChronicleLogArgs
+ * without boxing them. The overload lives in its own interface as the
+ * ChronicleLogWriters of other implementors do not have it, they are written
+ * to with {@link ChronicleLogWriters#write(ChronicleLogWriter, ChronicleLogLevel, long, String, String, String, Throwable, ChronicleLogArgs)}
+ * which boxes the arguments for them.
+ */
+public interface ChronicleLogArgsWriter extends ChronicleLogWriter {
+
+        /**
+         * Writes an event whose arguments are held by a {@link ChronicleLogArgs},
+         * primitive arguments are written without being boxed.
+         */
+        void write(
+                ChronicleLogLevel level,
+                long timestamp,
+                String threadName,
+                String loggerName,
+                String message,
+                Throwable throwable,
+                ChronicleLogArgs args);
+
+        /**
+         * Writes an event time stamped below the millisecond, the nanoseconds
+         * are kept by binary writers and dropped by the others.
+         *
+         * @param timestamp the time stamp in milliseconds since the epoch
+         * @param nanos     the nanoseconds within the millisecond, from 0 to 999999
+         */
+        void write(
+                ChronicleLogLevel level,
+                long timestamp,
+                int nanos,
+                String threadName,
+                String loggerName,
+                String message,
+                Throwable throwable,
+                ChronicleLogArgs args);
+}
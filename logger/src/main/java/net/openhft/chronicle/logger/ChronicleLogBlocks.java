@@ -0,0 +1,832 @@
+/*
+ * Copyright 2014 Higher Frequency Trading
+ *
+ * http://www.higherfrequencytrading.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.logger;
+
+import net.openhft.lang.model.constraints.NotNull;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Block filters of a log chronicle, a lighter alternative to the term index of
+ * ChronicleLogTerms maintained by the writer itself: for each block of
+ * blockSize consecutive excerpt indexes a Bloom filter of the terms of the
+ * events (as tokenized by ChronicleLogTerms: thread name, logger name, level,
+ * message and arguments) and a bitmap of the levels present.
+ *
+ * The blocks are stored in a sidecar directory next to the chronicle,
+ * {@code path.blocks}, appended to one file per cycle as fixed layout records:
+ * <pre>
+ *   first index, block size, count, flags, words, min time stamp,
+ *   max time stamp, words * 64 bits of Bloom filter
+ * </pre>
+ * A block is written once blockSize events were added to it, or once a later
+ * block is started or the writer closed when some of its indexes were written
+ * by someone else. A block may be written more than once, i.e. by a restarted
+ * writer, the records of a block are merged on read.
+ *
+ * A Filter tells which blocks can not hold the events looked for so that a
+ * reader can skip them without decoding them. Blocks holding dictionary
+ * definitions (see ChronicleLogSymbols) are never skipped as the following
+ * events depend on them, nor are blocks whose terms are not all known, i.e.
+ * holding throwables or array arguments, unless their levels or time stamps
+ * rule them out.
+ *
+ * @see ChronicleLogWriters.BlockFilterWriter
+ */
+public final class ChronicleLogBlocks implements Closeable {
+    public static final String DIRECTORY_SUFFIX = ".blocks";
+    public static final String FILE_SUFFIX = ".blocks";
+    public static final int DEFAULT_BLOCK_SIZE = 256;
+    public static final int DEFAULT_BLOOM_BITS = 8192;
+
+    static final int FLAG_DEFINITIONS = 1 << 30;
+    static final int FLAG_TERMS_UNKNOWN = 1 << 29;
+
+    private static final int MAGIC = 0x434c4231;
+    private static final int HEADER_SIZE = 40;
+    private static final int HASHES = 3;
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private static final ChronicleLogLevel[] LEVELS = ChronicleLogLevel.values();
+    private static final long[] LEVEL_HASHES = new long[LEVELS.length];
+    private static final long NULL_HASH = hash("null", 0, 4);
+    private static final long TRUE_HASH = hash("true", 0, 4);
+    private static final long FALSE_HASH = hash("false", 0, 5);
+
+    static {
+        for (ChronicleLogLevel level : LEVELS) {
+            LEVEL_HASHES[level.ordinal()] = hash(level.name(), 0, level.name().length());
+        }
+    }
+
+    private final String path;
+    private final long cycleLength;
+    private final int blockSize;
+    private final int blockBits;
+    private final int bloomBits;
+    private final ConcurrentHashMap<Long, Block> blocks;
+
+    private FileChannel channel;
+    private long channelCycle;
+
+    /**
+     * @param path          the path of the chronicle
+     * @param cycleLength   the length in ms of the cycles of the files
+     */
+    public ChronicleLogBlocks(@NotNull String path, long cycleLength) {
+        this(path, cycleLength, DEFAULT_BLOCK_SIZE, DEFAULT_BLOOM_BITS);
+    }
+
+    /**
+     * @param path          the path of the chronicle
+     * @param cycleLength   the length in ms of the cycles of the files
+     * @param blockSize     the number of indexes of a block, a power of two
+     * @param bloomBits     the number of bits of the Bloom filter of a block, a power of two of at least 64
+     */
+    public ChronicleLogBlocks(@NotNull String path, long cycleLength, int blockSize, int bloomBits) {
+        if (cycleLength <= 0) {
+            throw new IllegalArgumentException("cycleLength should be positive, got " + cycleLength);
+        }
+        if (blockSize <= 0 || Integer.bitCount(blockSize) != 1) {
+            throw new IllegalArgumentException("blockSize should be a power of two, got " + blockSize);
+        }
+        if (bloomBits < 64 || Integer.bitCount(bloomBits) != 1) {
+            throw new IllegalArgumentException("bloomBits should be a power of two of at least 64, got " + bloomBits);
+        }
+
+        this.path = path;
+        this.cycleLength = cycleLength;
+        this.blockSize = blockSize;
+        this.blockBits = Integer.numberOfTrailingZeros(blockSize);
+        this.bloomBits = bloomBits;
+        this.blocks = new ConcurrentHashMap<>();
+        this.channel = null;
+        this.channelCycle = -1;
+    }
+
+    public int getBlockSize() {
+        return this.blockSize;
+    }
+
+    public int getBloomBits() {
+        return this.bloomBits;
+    }
+
+    // *************************************************************************
+    //
+    // *************************************************************************
+
+    /**
+     * Return the open block holding an index, once the event is added to the
+     * block it should be committed, see {@link #commit(Block)}.
+     *
+     * @param index the index of the excerpt of the event
+     * @return      the block
+     */
+    Block block(long index) {
+        final long number = index >> this.blockBits;
+
+        Block block = this.blocks.get(number);
+        if (block == null) {
+            final Block created = new Block(number << this.blockBits, this.bloomBits);
+            block = this.blocks.putIfAbsent(number, created);
+            if (block == null) {
+                block = created;
+
+                // the blocks left behind were not completed by this writer
+                for (Block open : this.blocks.values()) {
+                    if (open.first < block.first - this.blockSize) {
+                        seal(open, Block.FLUSHED);
+                    }
+                }
+            }
+        }
+
+        return block;
+    }
+
+    /**
+     * Count an event added to a block, the block is written once it is full.
+     *
+     * @param block the block
+     * @return      false if the block was flushed while the event was added,
+     *              the event should then be added again to a new block
+     */
+    boolean commit(@NotNull Block block) {
+        final int count = block.count.incrementAndGet();
+        if (block.state.get() == Block.FLUSHED) {
+            return false;
+        }
+
+        if (count == this.blockSize) {
+            seal(block, Block.FULL);
+        }
+
+        return true;
+    }
+
+    /**
+     * Write the blocks which are still open.
+     */
+    public void flush() {
+        for (Block block : this.blocks.values()) {
+            seal(block, Block.FLUSHED);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        flush();
+
+        if (this.channel != null) {
+            this.channel.close();
+            this.channel = null;
+        }
+    }
+
+    private void seal(@NotNull Block block, int state) {
+        if (block.state.compareAndSet(Block.OPEN, state)) {
+            this.blocks.remove(block.first >> this.blockBits, block);
+            if (block.count.get() > 0) {
+                try {
+                    write(block);
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+    private synchronized void write(@NotNull Block block) throws IOException {
+        final long cycle = block.minTimestamp.get() / this.cycleLength;
+        if (this.channel == null || this.channelCycle != cycle) {
+            if (this.channel != null) {
+                this.channel.close();
+            }
+
+            this.channel = open(file(this.path, cycle));
+            this.channelCycle = cycle;
+        }
+
+        final int words = block.bits.length();
+        final ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + words * 8);
+        buffer.putLong(block.first);
+        buffer.putInt(this.blockSize);
+        buffer.putInt(block.count.get());
+        buffer.putInt(block.flags.get());
+        buffer.putInt(words);
+        buffer.putLong(block.minTimestamp.get());
+        buffer.putLong(block.maxTimestamp.get());
+        for (int i = 0; i < words; i++) {
+            buffer.putLong(block.bits.get(i));
+        }
+
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            this.channel.write(buffer);
+        }
+    }
+
+    /**
+     * Open the file of a cycle for appending, a record left partially
+     * written by a writer which died is truncated.
+     */
+    private static FileChannel open(@NotNull File file) throws IOException {
+        final File dir = file.getParentFile();
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Unable to create " + dir);
+        }
+
+        final FileChannel channel = new RandomAccessFile(file, "rw").getChannel();
+        if (channel.size() == 0) {
+            final ByteBuffer magic = ByteBuffer.allocate(4);
+            magic.putInt(0, MAGIC);
+            channel.write(magic);
+
+        } else {
+            final long length = validLength(file);
+            if (length < 4) {
+                channel.close();
+                throw new IOException(file + " is not a block file");
+            }
+
+            channel.truncate(length);
+            channel.position(length);
+        }
+
+        return channel;
+    }
+
+    // *************************************************************************
+    //
+    // *************************************************************************
+
+    /**
+     * @param path  the path of a chronicle
+     * @return      the directory holding the blocks of the chronicle
+     */
+    public static File directory(@NotNull String path) {
+        return new File(path + DIRECTORY_SUFFIX);
+    }
+
+    /**
+     * @param path  the path of a chronicle
+     * @param cycle the cycle
+     * @return      the file holding the blocks of a cycle of the chronicle
+     */
+    public static File file(@NotNull String path, long cycle) {
+        return new File(directory(path), cycle + FILE_SUFFIX);
+    }
+
+    /**
+     * @return the length of the complete records of a file, 0 if it is not a block file
+     */
+    static long validLength(@NotNull File file) throws IOException {
+        final List<Record> records = new ArrayList<>();
+        return read(file, records);
+    }
+
+    /**
+     * Read the records of a file.
+     *
+     * @return the length of the complete records read, 0 if it is not a block file
+     */
+    private static long read(@NotNull File file, @NotNull List<Record> records) throws IOException {
+        try (FileInputStream in = new FileInputStream(file)) {
+            final FileChannel channel = in.getChannel();
+            final ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(channel.size(), Integer.MAX_VALUE));
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // read the whole file
+            }
+
+            buffer.flip();
+            if (buffer.remaining() < 4 || buffer.getInt() != MAGIC) {
+                return 0;
+            }
+
+            while (buffer.remaining() >= HEADER_SIZE) {
+                final int start = buffer.position();
+                final long first = buffer.getLong();
+                final int size = buffer.getInt();
+                final int count = buffer.getInt();
+                final int flags = buffer.getInt();
+                final int words = buffer.getInt();
+                final long minTimestamp = buffer.getLong();
+                final long maxTimestamp = buffer.getLong();
+
+                if (words <= 0 || size <= 0 || buffer.remaining() < words * 8L) {
+                    buffer.position(start);
+                    break;
+                }
+
+                final long[] bits = new long[words];
+                for (int i = 0; i < words; i++) {
+                    bits[i] = buffer.getLong();
+                }
+
+                records.add(new Record(first, size, count, flags, minTimestamp, maxTimestamp, bits));
+            }
+
+            return buffer.position();
+        }
+    }
+
+    /**
+     * Read the blocks of a chronicle and make a filter of the blocks which
+     * may hold events of the given level or above, holding all the terms of
+     * one of the given literals and logged between two times.
+     *
+     * @param path      the path of the chronicle
+     * @param level     the lowest level of the events looked for, null for any
+     * @param literals  the texts looked for, as whole words, null or empty for any
+     * @param from      the time of the first events looked for, Long.MIN_VALUE for no bound
+     * @param to        the time of the last events looked for, Long.MAX_VALUE for no bound
+     * @return          the filter, empty if the chronicle has no blocks
+     * @throws IOException
+     */
+    public static Filter filter(
+            @NotNull String path,
+            ChronicleLogLevel level,
+            Collection<String> literals,
+            long from,
+            long to) throws IOException {
+
+        final List<Record> records = new ArrayList<>();
+        final File[] files = directory(path).listFiles();
+        if (files != null) {
+            for (File file : files) {
+                if (file.getName().endsWith(FILE_SUFFIX)) {
+                    read(file, records);
+                }
+            }
+        }
+
+        int levels = 0;
+        for (ChronicleLogLevel l : LEVELS) {
+            if (level == null || l.isHigherOrEqualTo(level)) {
+                levels |= 1 << l.ordinal();
+            }
+        }
+
+        long[][] hashes = null;
+        if (literals != null && !literals.isEmpty()) {
+            hashes = new long[literals.size()][];
+            int i = 0;
+            for (String literal : literals) {
+                hashes[i] = hashes(literal);
+                if (hashes[i].length == 0) {
+                    // a literal without terms is found in any block
+                    hashes = null;
+                    break;
+                }
+
+                i++;
+            }
+        }
+
+        return new Filter(merge(records), levels, hashes, from, to);
+    }
+
+    /**
+     * Merge the records of the same block, records overlapping records of
+     * another block size can not be trusted and are never skipped.
+     */
+    private static NavigableMap<Long, Record> merge(@NotNull List<Record> records) {
+        final NavigableMap<Long, Record> merged = new TreeMap<>();
+        for (Record record : records) {
+            final Record existing = merged.get(record.first);
+            if (existing != null) {
+                existing.merge(record);
+                continue;
+            }
+
+            final Map.Entry<Long, Record> lower = merged.lowerEntry(record.first);
+            if (lower != null && lower.getValue().end() > record.first) {
+                lower.getValue().flags |= FLAG_DEFINITIONS;
+                record.flags |= FLAG_DEFINITIONS;
+            }
+
+            final Map.Entry<Long, Record> higher = merged.higherEntry(record.first);
+            if (higher != null && record.end() > higher.getKey()) {
+                higher.getValue().flags |= FLAG_DEFINITIONS;
+                record.flags |= FLAG_DEFINITIONS;
+            }
+
+            merged.put(record.first, record);
+        }
+
+        return merged;
+    }
+
+    // *************************************************************************
+    //
+    // *************************************************************************
+
+    /**
+     * @return the hashes of the terms of a text, as tokenized by ChronicleLogTerms
+     */
+    static long[] hashes(@NotNull CharSequence text) {
+        final List<Long> hashes = new ArrayList<>();
+        final int length = text.length();
+        for (int i = 0; i < length; i++) {
+            if (Character.isLetterOrDigit(text.charAt(i))) {
+                final int end = termEnd(text, i);
+                hashes.add(hash(text, i, end));
+                i = end;
+            }
+        }
+
+        final long[] result = new long[hashes.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = hashes.get(i);
+        }
+
+        return result;
+    }
+
+    private static int termEnd(@NotNull CharSequence text, int start) {
+        final int length = text.length();
+        int end = start;
+        while (end < length && Character.isLetterOrDigit(text.charAt(end))) {
+            end++;
+        }
+
+        return end;
+    }
+
+    /**
+     * Hash a term, lower cased and truncated to MAX_TERM_LENGTH characters as
+     * ChronicleLogTerms does, with FNV-1a followed by the MurmurHash3 finalizer.
+     */
+    static long hash(@NotNull CharSequence text, int start, int end) {
+        long hash = FNV_OFFSET;
+        final int limit = Math.min(end, start + ChronicleLogTerms.MAX_TERM_LENGTH);
+        for (int i = start; i < limit; i++) {
+            hash ^= Character.toLowerCase(text.charAt(i));
+            hash *= FNV_PRIME;
+        }
+
+        return mix(hash);
+    }
+
+    /**
+     * Hash the decimal digits of a number without formatting it.
+     */
+    static long hash(long value) {
+        if (value == Long.MIN_VALUE) {
+            return hash("9223372036854775808", 0, 19);
+        }
+
+        final long abs = Math.abs(value);
+        long divisor = 1;
+        while (divisor <= abs / 10) {
+            divisor *= 10;
+        }
+
+        long hash = FNV_OFFSET;
+        for (; divisor > 0; divisor /= 10) {
+            hash ^= '0' + (abs / divisor) % 10;
+            hash *= FNV_PRIME;
+        }
+
+        return mix(hash);
+    }
+
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+
+        return hash;
+    }
+
+    private static boolean mightContain(@NotNull long[] bits, long hash) {
+        final int mask = bits.length * 64 - 1;
+        final int h1 = (int) hash;
+        final int h2 = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < HASHES; i++) {
+            final int bit = (h1 + i * h2) & mask;
+            if ((bits[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    // *************************************************************************
+    //
+    // *************************************************************************
+
+    /**
+     * An open block, the events are added concurrently by the threads which
+     * wrote them. A block written early, once it was FLUSHED, is not added to
+     * any longer, the events added meanwhile are added again to a new block.
+     */
+    static final class Block {
+        static final int OPEN = 0;
+        static final int FULL = 1;
+        static final int FLUSHED = 2;
+
+        private final long first;
+        private final AtomicLongArray bits;
+        private final AtomicInteger flags;
+        private final AtomicInteger count;
+        private final AtomicInteger state;
+        private final AtomicLong minTimestamp;
+        private final AtomicLong maxTimestamp;
+
+        Block(long first, int bloomBits) {
+            this.first = first;
+            this.bits = new AtomicLongArray(bloomBits / 64);
+            this.flags = new AtomicInteger(0);
+            this.count = new AtomicInteger(0);
+            this.state = new AtomicInteger(OPEN);
+            this.minTimestamp = new AtomicLong(Long.MAX_VALUE);
+            this.maxTimestamp = new AtomicLong(Long.MIN_VALUE);
+        }
+
+        /**
+         * Add the level and the time stamp of an event.
+         *
+         * @param definitions   true if the event holds dictionary definitions
+         */
+        void add(@NotNull ChronicleLogLevel level, long timestamp, boolean definitions) {
+            set((1 << level.ordinal()) | (definitions ? FLAG_DEFINITIONS : 0));
+            add(LEVEL_HASHES[level.ordinal()]);
+
+            long value;
+            while (timestamp < (value = this.minTimestamp.get())
+                    && !this.minTimestamp.compareAndSet(value, timestamp)) {
+                // retry
+            }
+            while (timestamp > (value = this.maxTimestamp.get())
+                    && !this.maxTimestamp.compareAndSet(value, timestamp)) {
+                // retry
+            }
+        }
+
+        /**
+         * Add the terms of a message.
+         *
+         * @param formatted true if the arguments are formatted in the message,
+         *                  a placeholder next to a letter or a digit then makes
+         *                  terms which are not known
+         */
+        void addMessage(final CharSequence message, boolean formatted) {
+            addTerms(message);
+
+            if (formatted && message != null) {
+                final int length = message.length();
+                for (int i = 0; i < length - 1; i++) {
+                    if (message.charAt(i) == '{' && message.charAt(i + 1) == '}'
+                            && ((i > 0 && Character.isLetterOrDigit(message.charAt(i - 1)))
+                                || (i + 2 < length && Character.isLetterOrDigit(message.charAt(i + 2))))) {
+                        set(FLAG_TERMS_UNKNOWN);
+                        return;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Add the terms of a text.
+         */
+        void addTerms(final CharSequence text) {
+            if (text == null) {
+                return;
+            }
+
+            final int length = text.length();
+            for (int i = 0; i < length; i++) {
+                if (Character.isLetterOrDigit(text.charAt(i))) {
+                    final int end = termEnd(text, i);
+                    add(hash(text, i, end));
+                    i = end;
+                }
+            }
+        }
+
+        /**
+         * Add the terms of an argument as printed by the tools, integers are
+         * not formatted.
+         *
+         * @param formatted true if the argument is formatted in the message,
+         *                  floating point numbers are then formatted differently
+         */
+        void addArg(final Object arg, boolean formatted) {
+            if (arg == null) {
+                add(NULL_HASH);
+
+            } else if (arg instanceof CharSequence) {
+                addTerms((CharSequence) arg);
+
+            } else if (arg instanceof Integer || arg instanceof Long || arg instanceof Short || arg instanceof Byte) {
+                add(hash(((Number) arg).longValue()));
+
+            } else if (arg instanceof Boolean) {
+                add((Boolean) arg ? TRUE_HASH : FALSE_HASH);
+
+            } else if (arg instanceof Throwable
+                    || arg.getClass().isArray()
+                    || (formatted && (arg instanceof Double || arg instanceof Float))) {
+                set(FLAG_TERMS_UNKNOWN);
+
+            } else {
+                try {
+                    addTerms(arg.toString());
+                } catch (Throwable t) {
+                    set(FLAG_TERMS_UNKNOWN);
+                }
+            }
+        }
+
+        void addArg(long value) {
+            add(hash(value));
+        }
+
+        /**
+         * Mark the block as holding terms which were not added.
+         */
+        void addUnknownTerms() {
+            set(FLAG_TERMS_UNKNOWN);
+        }
+
+        private void add(long hash) {
+            final int mask = this.bits.length() * 64 - 1;
+            final int h1 = (int) hash;
+            final int h2 = (int) (hash >>> 32) | 1;
+            for (int i = 0; i < HASHES; i++) {
+                final int bit = (h1 + i * h2) & mask;
+                final long word = 1L << bit;
+
+                long value;
+                while (((value = this.bits.get(bit >>> 6)) & word) == 0
+                        && !this.bits.compareAndSet(bit >>> 6, value, value | word)) {
+                    // retry
+                }
+            }
+        }
+
+        private void set(int flags) {
+            int value;
+            while (((value = this.flags.get()) & flags) != flags
+                    && !this.flags.compareAndSet(value, value | flags)) {
+                // retry
+            }
+        }
+    }
+
+    /**
+     * A block as read from the files.
+     */
+    private static final class Record {
+        private final long first;
+        private int size;
+        private int count;
+        private int flags;
+        private long minTimestamp;
+        private long maxTimestamp;
+        private final long[] bits;
+
+        Record(long first, int size, int count, int flags, long minTimestamp, long maxTimestamp, long[] bits) {
+            this.first = first;
+            this.size = size;
+            this.count = count;
+            this.flags = flags;
+            this.minTimestamp = minTimestamp;
+            this.maxTimestamp = maxTimestamp;
+            this.bits = bits;
+        }
+
+        long end() {
+            return this.first + this.size;
+        }
+
+        void merge(@NotNull Record other) {
+            this.size = Math.max(this.size, other.size);
+            this.count += other.count;
+            this.flags |= other.flags;
+            this.minTimestamp = Math.min(this.minTimestamp, other.minTimestamp);
+            this.maxTimestamp = Math.max(this.maxTimestamp, other.maxTimestamp);
+
+            if (this.bits.length == other.bits.length) {
+                for (int i = 0; i < this.bits.length; i++) {
+                    this.bits[i] |= other.bits[i];
+                }
+            } else {
+                this.flags |= FLAG_TERMS_UNKNOWN;
+            }
+        }
+    }
+
+    /**
+     * Tells the blocks which can not hold the events looked for.
+     */
+    public static final class Filter {
+        private final NavigableMap<Long, Record> records;
+        private final int levels;
+        private final long[][] literals;
+        private final long from;
+        private final long to;
+
+        Filter(NavigableMap<Long, Record> records, int levels, long[][] literals, long from, long to) {
+            this.records = records;
+            this.levels = levels;
+            this.literals = literals;
+            this.from = from;
+            this.to = to;
+        }
+
+        /**
+         * @return true if no block was written for the chronicle
+         */
+        public boolean isEmpty() {
+            return this.records.isEmpty();
+        }
+
+        /**
+         * Skip the blocks which can not hold the events looked for, starting
+         * with the block holding an index.
+         *
+         * @param index the index of an excerpt
+         * @return      the index following the blocks skipped, the given
+         *              index if its block may hold events looked for or is not known
+         */
+        public long skip(long index) {
+            long next = index;
+            for (;;) {
+                final Map.Entry<Long, Record> entry = this.records.floorEntry(next);
+                if (entry == null || next >= entry.getValue().end() || mayMatch(entry.getValue())) {
+                    return next;
+                }
+
+                next = entry.getValue().end();
+            }
+        }
+
+        private boolean mayMatch(@NotNull Record record) {
+            if ((record.flags & FLAG_DEFINITIONS) != 0) {
+                return true;
+            }
+
+            if ((record.flags & this.levels) == 0
+                    || record.maxTimestamp < this.from
+                    || record.minTimestamp > this.to) {
+                return false;
+            }
+
+            if (this.literals == null || (record.flags & FLAG_TERMS_UNKNOWN) != 0) {
+                return true;
+            }
+
+            for (long[] hashes : this.literals) {
+                boolean all = true;
+                for (int i = 0; i < hashes.length && all; i++) {
+                    all = mightContain(record.bits, hashes[i]);
+                }
+
+                if (all) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright 2014 Higher Frequency Trading
+ *
+ * http://www.higherfrequencytrading.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.logger;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+public final class ChronicleLogClocks {
+    public static final int DEFAULT_RESOLUTION = 1;
+
+    private static final SystemClock SYSTEM = new SystemClock();
+    private static final Map<Integer, CachedClock> CACHED = new ConcurrentHashMap<>();
+
+    // *************************************************************************
+    //
+    // *************************************************************************
+
+    /**
+     * Reads System.currentTimeMillis on each event.
+     */
+    public static final class SystemClock implements ChronicleLogClock {
+        @Override
+        public long currentTimeMillis() {
+            return System.currentTimeMillis();
+        }
+
+        @Override
+        public long currentTimeNanos() {
+            return TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis());
+        }
+    }
+
+    // *************************************************************************
+    //
+    // *************************************************************************
+
+    /**
+     * Reads a volatile field refreshed by a daemon thread every resolution
+     * milliseconds, so time stamps lag behind the system clock by up to the
+     * resolution and the scheduling latency of the thread.
+     */
+    public static final class CachedClock implements ChronicleLogClock, Runnable {
+        private final int resolution;
+        private volatile long millis;
+
+        public CachedClock(int resolution) {
+            if (resolution <= 0) {
+                throw new IllegalArgumentException("resolution should be positive, got " + resolution);
+            }
+
+            this.resolution = resolution;
+            this.millis = System.currentTimeMillis();
+
+            final Thread thread = new Thread(this, "chronicle-logger-clock-" + resolution + "ms");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        public int getResolution() {
+            return this.resolution;
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
+                    this.millis = System.currentTimeMillis();
+                    Thread.sleep(this.resolution);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public long currentTimeMillis() {
+            return this.millis;
+        }
+
+        @Override
+        public long currentTimeNanos() {
+            return TimeUnit.MILLISECONDS.toNanos(this.millis);
+        }
+    }
+
+    // *************************************************************************
+    //
+    // *************************************************************************
+
+    /**
+     * Adds the System.nanoTime elapsed since an anchor to the wall clock time
+     * of that anchor. The anchor is renewed every second so the clock follows
+     * adjustments of the system clock instead of drifting away from it.
+     */
+    public static final class NanoClock implements ChronicleLogClock {
+        private static final long ANCHOR_PERIOD = TimeUnit.SECONDS.toNanos(1);
+
+        private volatile Anchor anchor;
+
+        public NanoClock() {
+            this.anchor = new Anchor();
+        }
+
+        @Override
+        public long currentTimeMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(currentTimeNanos());
+        }
+
+        @Override
+        public long currentTimeNanos() {
+            final long now = System.nanoTime();
+
+            Anchor anchor = this.anchor;
+            if (now - anchor.nanos >= ANCHOR_PERIOD) {
+                this.anchor = anchor = new Anchor();
+            }
+
+            return anchor.wallNanos + (now - anchor.nanos);
+        }
+
+        private static final class Anchor {
+            final long wallNanos;
+            final long nanos;
+
+            Anchor() {
+                this.wallNanos = TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis());
+                this.nanos = System.nanoTime();
+            }
+        }
+    }
+
+    // *************************************************************************
+    //
+    // *************************************************************************
+
+    public static ChronicleLogClock system() {
+        return SYSTEM;
+    }
+
+    /**
+     * @param resolution    the refresh period in milliseconds
+     * @return              the cached clock of the given resolution, shared by its users
+     */
+    public static ChronicleLogClock cached(int resolution) {
+        CachedClock clock = CACHED.get(resolution);
+        if (clock == null) {
+            synchronized (CACHED) {
+                clock = CACHED.get(resolution);
+                if (clock == null) {
+                    clock = new CachedClock(resolution);
+                    CACHED.put(resolution, clock);
+                }
+            }
+        }
+
+        return clock;
+    }
+
+    public static ChronicleLogClock nano() {
+        return new NanoClock();
+    }
+
+    private ChronicleLogClocks() {
+    }
+}
@@ -0,0 +1,269 @@
+/*
+ * Copyright 2014 Higher Frequency Trading
+ *
+ * http://www.higherfrequencytrading.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.logger;
+
+import net.openhft.lang.io.Bytes;
+import net.openhft.lang.io.RandomDataOutput;
+import net.openhft.lang.model.constraints.NotNull;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compact, type-tagged encoding of log arguments.
+ *
+ * Common JDK types are written as a one byte tag followed by their value so
+ * they do not go through the object serializer, only unknown types fall back
+ * to {@code writeObject}. Integral values are stop-bit encoded, other
+ * CharSequences are read back as String and enums whose class can not be
+ * loaded by the reader are read back as their name.
+ */
+final class ChronicleLogCodec {
+    static final byte TAG_NULL = 'N';
+    static final byte TAG_BOOLEAN = 'Z';
+    static final byte TAG_BYTE = 'B';
+    static final byte TAG_SHORT = 'S';
+    static final byte TAG_CHAR = 'C';
+    static final byte TAG_INT = 'I';
+    static final byte TAG_LONG = 'J';
+    static final byte TAG_FLOAT = 'F';
+    static final byte TAG_DOUBLE = 'D';
+    static final byte TAG_STRING = 'T';
+    static final byte TAG_ENUM = 'E';
+    static final byte TAG_UUID = 'U';
+    static final byte TAG_BYTES = 'A';
+    static final byte TAG_OBJECT = 'O';
+
+    private static final Map<String, Class<?>> ENUM_TYPES = new ConcurrentHashMap<>();
+
+    // *************************************************************************
+    //
+    // *************************************************************************
+
+    static void writeArg(@NotNull final RandomDataOutput out, final Object arg) {
+        if (arg == null) {
+            out.writeByte(TAG_NULL);
+
+        } else if (arg instanceof String) {
+            out.writeByte(TAG_STRING);
+            out.writeUTFΔ((String) arg);
+
+        } else if (arg instanceof Integer) {
+            writeInt(out, (Integer) arg);
+
+        } else if (arg instanceof Long) {
+            writeLong(out, (Long) arg);
+
+        } else if (arg instanceof Double) {
+            writeDouble(out, (Double) arg);
+
+        } else if (arg instanceof Boolean) {
+            writeBoolean(out, (Boolean) arg);
+
+        } else if (arg instanceof Enum) {
+            out.writeByte(TAG_ENUM);
+            out.writeUTFΔ(((Enum<?>) arg).getDeclaringClass().getName());
+            out.writeUTFΔ(((Enum<?>) arg).name());
+
+        } else if (arg instanceof Character) {
+            writeChar(out, (Character) arg);
+
+        } else if (arg instanceof Float) {
+            out.writeByte(TAG_FLOAT);
+            out.writeFloat((Float) arg);
+
+        } else if (arg instanceof Short) {
+            out.writeByte(TAG_SHORT);
+            out.writeShort((Short) arg);
+
+        } else if (arg instanceof Byte) {
+            out.writeByte(TAG_BYTE);
+            out.writeByte((Byte) arg);
+
+        } else if (arg instanceof UUID) {
+            out.writeByte(TAG_UUID);
+            out.writeLong(((UUID) arg).getMostSignificantBits());
+            out.writeLong(((UUID) arg).getLeastSignificantBits());
+
+        } else if (arg instanceof byte[]) {
+            out.writeByte(TAG_BYTES);
+            out.writeStopBit(((byte[]) arg).length);
+            out.write((byte[]) arg);
+
+        } else if (arg instanceof CharSequence) {
+            out.writeByte(TAG_STRING);
+            out.writeUTFΔ((CharSequence) arg);
+
+        } else {
+            out.writeByte(TAG_OBJECT);
+            out.writeObject(arg);
+        }
+    }
+
+    static void writeInt(@NotNull final RandomDataOutput out, int arg) {
+        out.writeByte(TAG_INT);
+        out.writeStopBit(arg);
+    }
+
+    static void writeLong(@NotNull final RandomDataOutput out, long arg) {
+        out.writeByte(TAG_LONG);
+        out.writeStopBit(arg);
+    }
+
+    static void writeDouble(@NotNull final RandomDataOutput out, double arg) {
+        out.writeByte(TAG_DOUBLE);
+        out.writeDouble(arg);
+    }
+
+    static void writeBoolean(@NotNull final RandomDataOutput out, boolean arg) {
+        out.writeByte(TAG_BOOLEAN);
+        out.writeByte(arg ? 1 : 0);
+    }
+
+    static void writeChar(@NotNull final RandomDataOutput out, char arg) {
+        out.writeByte(TAG_CHAR);
+        out.writeChar(arg);
+    }
+
+    static Object readArg(@NotNull final Bytes in) throws IllegalStateException {
+        final byte tag = in.readByte();
+        switch (tag) {
+            case TAG_NULL:
+                return null;
+            case TAG_STRING:
+                return in.readUTFΔ();
+            case TAG_INT:
+                return (int) in.readStopBit();
+            case TAG_LONG:
+                return in.readStopBit();
+            case TAG_DOUBLE:
+                return in.readDouble();
+            case TAG_BOOLEAN:
+                return in.readByte() != 0;
+            case TAG_ENUM:
+                return readEnum(in.readUTFΔ(), in.readUTFΔ());
+            case TAG_CHAR:
+                return in.readChar();
+            case TAG_FLOAT:
+                return in.readFloat();
+            case TAG_SHORT:
+                return in.readShort();
+            case TAG_BYTE:
+                return in.readByte();
+            case TAG_UUID:
+                return new UUID(in.readLong(), in.readLong());
+            case TAG_BYTES:
+                final long length = in.readStopBit();
+                if (length < 0 || length > in.remaining()) {
+                    throw new IllegalStateException("byte[] length= " + length);
+                }
+
+                final byte[] bytes = new byte[(int) length];
+                in.readFully(bytes);
+                return bytes;
+            case TAG_OBJECT:
+                return in.readObject();
+            default:
+                throw new IllegalStateException("argument tag= " + tag);
+        }
+    }
+
+    /**
+     * Move past an argument, only arguments written with writeObject are
+     * deserialized.
+     *
+     * @param scratch   the builder strings are read into
+     */
+    static void skipArg(@NotNull final Bytes in, @NotNull final StringBuilder scratch) throws IllegalStateException {
+        final byte tag = in.readByte();
+        switch (tag) {
+            case TAG_NULL:
+                break;
+            case TAG_STRING:
+                skipUTF(in, scratch);
+                break;
+            case TAG_INT:
+            case TAG_LONG:
+                in.readStopBit();
+                break;
+            case TAG_BOOLEAN:
+            case TAG_BYTE:
+                skip(in, 1);
+                break;
+            case TAG_CHAR:
+            case TAG_SHORT:
+                skip(in, 2);
+                break;
+            case TAG_FLOAT:
+                skip(in, 4);
+                break;
+            case TAG_DOUBLE:
+                skip(in, 8);
+                break;
+            case TAG_UUID:
+                skip(in, 16);
+                break;
+            case TAG_ENUM:
+                skipUTF(in, scratch);
+                skipUTF(in, scratch);
+                break;
+            case TAG_BYTES:
+                skip(in, in.readStopBit());
+                break;
+            case TAG_OBJECT:
+                in.readObject();
+                break;
+            default:
+                throw new IllegalStateException("argument tag= " + tag);
+        }
+    }
+
+    private static void skipUTF(@NotNull final Bytes in, @NotNull final StringBuilder scratch) {
+        scratch.setLength(0);
+        in.readUTFΔ(scratch);
+    }
+
+    private static void skip(@NotNull final Bytes in, long length) throws IllegalStateException {
+        if (length < 0 || length > in.remaining()) {
+            throw new IllegalStateException("length= " + length);
+        }
+
+        in.position(in.position() + length);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object readEnum(String type, String name) {
+        try {
+            Class<?> enumType = ENUM_TYPES.get(type);
+            if (enumType == null) {
+                final ClassLoader loader = Thread.currentThread().getContextClassLoader();
+                enumType = Class.forName(type, true, loader != null ? loader : ChronicleLogCodec.class.getClassLoader());
+                ENUM_TYPES.put(type, enumType);
+            }
+
+            return Enum.valueOf((Class) enumType, name);
+        } catch (Exception e) {
+            // the type is not available to the reader, fall back to the constant name
+            return name;
+        }
+    }
+
+    private ChronicleLogCodec() {}
+}
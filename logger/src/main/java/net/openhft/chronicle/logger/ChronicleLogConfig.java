@@ -62,10 +62,30 @@ public class ChronicleLogConfig {
     public static final String KEY_TYPE = "type";
     public static final String KEY_DATE_FORMAT = "dateFormat";
     public static final String KEY_STACK_TRACE_DEPTH = "stackTraceDepth";
+    public static final String KEY_ASYNC = "async";
+    public static final String KEY_ASYNC_CAPACITY = "asyncCapacity";
+    public static final String KEY_STRIPES = "stripes";
+    public static final String KEY_DICTIONARY = "dictionary";
+    public static final String KEY_TEMPLATES = "templates";
+    public static final String KEY_DEDUP_THROWABLES = "dedupThrowables";
+    public static final String KEY_CLOCK = "clock";
+    public static final String KEY_CLOCK_RESOLUTION = "clockResolution";
+    public static final String KEY_RATE_LIMIT = "rateLimit";
+    public static final String KEY_RATE_BURST = "rateBurst";
+    public static final String KEY_SAMPLING = "sampling";
+    public static final String KEY_THROTTLE_WINDOW = "throttleWindow";
+    public static final String KEY_SUMMARY = "summary";
+    public static final String KEY_BLOCK_FILTER = "blockFilter";
+    public static final String KEY_BLOCK_SIZE = "blockSize";
+    public static final String KEY_BLOOM_BITS = "bloomBits";
     public static final String FORMAT_BINARY = "binary";
     public static final String FORMAT_TEXT = "text";
     public static final String TYPE_VANILLA = "vanilla";
     public static final String TYPE_INDEXED = "indexed";
+    public static final String TYPE_STRIPED = "striped";
+    public static final String CLOCK_SYSTEM = "system";
+    public static final String CLOCK_CACHED = "cached";
+    public static final String CLOCK_NANO = "nano";
     public static final String BINARY_MODE_FORMATTED = "formatted";
     public static final String BINARY_MODE_SERIALIZED = "serialized";
     public static final String PLACEHOLDER_START = "${";
@@ -250,7 +270,8 @@ public class ChronicleLogConfig {
      * @return
      */
     private static IndexedLogAppenderConfig loadIndexedConfig(final Properties properties) {
-        if(!TYPE_INDEXED.equalsIgnoreCase(properties.getProperty(KEY_CHRONICLE_TYPE))) {
+        final String type = properties.getProperty(KEY_CHRONICLE_TYPE);
+        if(!TYPE_INDEXED.equalsIgnoreCase(type) && !TYPE_STRIPED.equalsIgnoreCase(type)) {
             return null;
         }
 
@@ -296,6 +317,20 @@ public class ChronicleLogConfig {
         return this.vanillaConfig;
     }
 
+    /**
+     * The length of the cycles on which dictionaries, summaries and block
+     * filters are cut. Those of the VanillaChronicles when the loggers are
+     * vanilla, the VanillaChronicle default otherwise as IndexedChronicles
+     * have no cycles of their own.
+     *
+     * @return  the cycle length in ms
+     */
+    public long getCycleLength() {
+        return this.vanillaConfig != null
+            ? this.vanillaConfig.getCycleLength()
+            : new VanillaLogAppenderConfig().getCycleLength();
+    }
+
     /**
      * @param loggerName
      * @return
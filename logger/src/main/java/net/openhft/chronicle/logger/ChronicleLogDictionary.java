@@ -0,0 +1,385 @@
+/*
+ * Copyright 2014 Higher Frequency Trading
+ *
+ * http://www.higherfrequencytrading.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.logger;
+
+import net.openhft.lang.io.Bytes;
+import net.openhft.lang.model.constraints.NotNull;
+
+import java.lang.reflect.Constructor;
+import java.util.Arrays;
+
+/**
+ * Reader side of the dictionary encoding of binary log events, it keeps the
+ * strings defined by the events read so far so that the following events can
+ * resolve their references.
+ *
+ * Definitions are written once per thread and per cycle, so a reader which
+ * does not start from the beginning of a cycle may meet references it can not
+ * resolve yet, they are read back as "#" followed by the id. Likewise time
+ * stamps written as a delta from a cycle start the reader has not seen yet
+ * are read back relative to the epoch.
+ *
+ * Deduplicated throwables are rebuilt from their first occurrence: a new
+ * instance of the same class carrying the message of the event and the
+ * stack trace and cause of the first occurrence.
+ *
+ * @see ChronicleLogSymbols
+ */
+public final class ChronicleLogDictionary {
+    private static final ThreadLocal<ChronicleLogDictionary> LOCAL = new ThreadLocal<ChronicleLogDictionary>() {
+        @Override
+        protected ChronicleLogDictionary initialValue() {
+            return new ChronicleLogDictionary();
+        }
+    };
+
+    /**
+     * @return the dictionary used by the calling thread when none is given
+     */
+    public static ChronicleLogDictionary local() {
+        return LOCAL.get();
+    }
+
+    /**
+     * Make the given dictionary the one of the calling thread, i.e. to read
+     * events of chronicles written by different processes, each with its own
+     * dictionary, on one thread.
+     *
+     * @param dictionary    the dictionary to use
+     * @return              the dictionary used so far
+     */
+    static ChronicleLogDictionary swap(@NotNull final ChronicleLogDictionary dictionary) {
+        final ChronicleLogDictionary previous = LOCAL.get();
+        LOCAL.set(dictionary);
+        return previous;
+    }
+
+    // *************************************************************************
+    //
+    // *************************************************************************
+
+    private String[] strings;
+    private Throwable[] throwables;
+    private String[] traces;
+    private long timestampBase;
+    private long definitions;
+
+    public ChronicleLogDictionary() {
+        this.strings = new String[64];
+        this.throwables = new Throwable[16];
+        this.traces = new String[16];
+    }
+
+    public String getString(int id) {
+        return id >= 0 && id < this.strings.length ? this.strings[id] : null;
+    }
+
+    public Throwable getThrowable(int id) {
+        return id >= 0 && id < this.throwables.length ? this.throwables[id] : null;
+    }
+
+    public void clear() {
+        Arrays.fill(this.strings, null);
+        Arrays.fill(this.throwables, null);
+        Arrays.fill(this.traces, null);
+        this.timestampBase = 0;
+    }
+
+    /**
+     * @return the start of the cycle the time stamp deltas are read from
+     */
+    long timestampBase() {
+        return this.timestampBase;
+    }
+
+    /**
+     * Set the start of the cycle the time stamp deltas are read from, i.e. to
+     * read the stripes of a striped logger, which share their symbols but may
+     * not roll their cycle at the same event, with one dictionary.
+     *
+     * @param timestampBase the start of the cycle
+     */
+    void timestampBase(long timestampBase) {
+        this.timestampBase = timestampBase;
+    }
+
+    /**
+     * @return the number of definitions and time stamp bases read so far, an
+     *         event carries some if reading it changed the number
+     */
+    long definitions() {
+        return this.definitions;
+    }
+
+    /**
+     * Apply the definitions recorded by another dictionary, as if the events
+     * it read were read by this one after its own.
+     *
+     * @param other the dictionary of the events following the ones read by this one
+     */
+    void putAll(@NotNull final ChronicleLogDictionary other) {
+        for (int i = 0; i < other.strings.length; i++) {
+            if (other.strings[i] != null) {
+                putString(i, other.strings[i]);
+            }
+        }
+
+        this.throwables = putAll(this.throwables, other.throwables);
+        this.traces = putAll(this.traces, other.traces);
+        if (other.timestampBase != 0) {
+            this.timestampBase = other.timestampBase;
+        }
+    }
+
+    private static <T> T[] putAll(T[] values, final T[] others) {
+        for (int i = 0; i < others.length; i++) {
+            if (others[i] != null) {
+                if (i >= values.length) {
+                    values = Arrays.copyOf(values, Math.max(i + 1, values.length << 1));
+                }
+
+                values[i] = others[i];
+            }
+        }
+
+        return values;
+    }
+
+    // *************************************************************************
+    //
+    // *************************************************************************
+
+    String readString(@NotNull final Bytes in) {
+        final long position = in.position();
+        final long code = in.readStopBit();
+
+        if (code >= -1) {
+            in.position(position);
+            return in.readUTFΔ();
+        }
+
+        return readSymbol(in, code);
+    }
+
+    /**
+     * Resolve a dictionary reference or record a definition.
+     *
+     * @param code  the code read before, lower than -1
+     * @return      the string the code stands for
+     */
+    String readSymbol(@NotNull final Bytes in, final long code) {
+        final long entry = -code - 2;
+        final long id = entry >>> 1;
+        if (id >= ChronicleLogSymbols.MAX_SYMBOLS) {
+            throw new IllegalStateException("symbol id= " + id);
+        }
+
+        if ((entry & 1) != 0) {
+            final String value = in.readUTFΔ();
+            putString((int) id, value);
+            this.definitions++;
+            return value;
+        }
+
+        final String value = getString((int) id);
+        return value != null ? value : "#" + id;
+    }
+
+    /**
+     * Read the time stamp of a binary event (format version 3).
+     *
+     * @param flags the flags of the event
+     */
+    long readTimestamp(@NotNull final Bytes in, final int flags) {
+        if ((flags & ChronicleLog.FLAG_TIMESTAMP_BASE) != 0) {
+            this.timestampBase = in.readLong();
+            this.definitions++;
+            return this.timestampBase + in.readStopBit();
+        }
+
+        if ((flags & ChronicleLog.FLAG_TIMESTAMP_DELTA) != 0) {
+            return this.timestampBase + in.readStopBit();
+        }
+
+        return in.readLong();
+    }
+
+    Throwable readThrowable(@NotNull final Bytes in) {
+        final byte tag = in.readByte();
+        switch (tag) {
+            case ChronicleLogSymbols.THROWABLE_NONE:
+                return null;
+
+            case ChronicleLogSymbols.THROWABLE_DEFINITION: {
+                final int id = readThrowableId(in);
+                final Throwable throwable = in.readObject(Throwable.class);
+                if (id >= this.throwables.length) {
+                    this.throwables = Arrays.copyOf(this.throwables, Math.max(id + 1, this.throwables.length << 1));
+                }
+
+                this.throwables[id] = throwable;
+                this.definitions++;
+                return throwable;
+            }
+
+            case ChronicleLogSymbols.THROWABLE_REFERENCE: {
+                final int id = readThrowableId(in);
+                return rebuild(id, getThrowable(id), in.readUTFΔ());
+            }
+
+            default:
+                // THROWABLE_INLINE or any value written by writeBoolean(true)
+                return in.readObject(Throwable.class);
+        }
+    }
+
+    /**
+     * Expand the throwable of a text event if it references a stack trace
+     * defined by a previous event, see ChronicleLogSymbols.Encoder#appendThrowable.
+     *
+     * @param line  the text following the logger name
+     * @return      the line as it would be written without deduplication
+     */
+    String readTrace(final String line) {
+        final int start = line != null ? line.lastIndexOf(" - " + ChronicleLogSymbols.TRACE_MARKER) : -1;
+        if (start < 0) {
+            return line;
+        }
+
+        final int head = start + 3;
+        final int end = line.indexOf("] ", head);
+        if (end < 0) {
+            return line;
+        }
+
+        try {
+            final String marker = line.substring(head + ChronicleLogSymbols.TRACE_MARKER.length(), end);
+            final String trace = line.substring(end + 2);
+            final int colon = marker.indexOf(':');
+
+            if (colon >= 0) {
+                final int id = checkThrowableId(Integer.parseInt(marker.substring(0, colon)));
+                final int length = Integer.parseInt(marker.substring(colon + 1));
+                if (id >= this.traces.length) {
+                    this.traces = Arrays.copyOf(this.traces, Math.max(id + 1, this.traces.length << 1));
+                }
+
+                this.traces[id] = trace.substring(length);
+                this.definitions++;
+                return line.substring(0, head) + trace;
+            }
+
+            final int id = checkThrowableId(Integer.parseInt(marker));
+            final String frames = id < this.traces.length ? this.traces[id] : null;
+
+            return line.substring(0, head) + trace + (frames != null ? frames : "");
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            // not a reference written by the logger, leave the text as is
+            return line;
+        }
+    }
+
+    private static int readThrowableId(@NotNull final Bytes in) {
+        final long id = in.readStopBit();
+        if (id < 0 || id >= ChronicleLogSymbols.MAX_THROWABLES) {
+            throw new IllegalStateException("throwable id= " + id);
+        }
+
+        return (int) id;
+    }
+
+    private static int checkThrowableId(int id) {
+        if (id < 0 || id >= ChronicleLogSymbols.MAX_THROWABLES) {
+            throw new IndexOutOfBoundsException("throwable id= " + id);
+        }
+
+        return id;
+    }
+
+    private static Throwable rebuild(int id, Throwable original, String message) {
+        if (original == null) {
+            return new ThrowableReference("#" + id, message);
+        }
+
+        if (message == null ? original.getMessage() == null : message.equals(original.getMessage())) {
+            return original;
+        }
+
+        Throwable throwable;
+        try {
+            final Constructor<? extends Throwable> constructor = original.getClass().getConstructor(String.class);
+            throwable = constructor.newInstance(message);
+        } catch (Exception e) {
+            throwable = new ThrowableReference(original.getClass().getName(), message);
+        }
+
+        throwable.setStackTrace(original.getStackTrace());
+        if (original.getCause() != null) {
+            try {
+                throwable.initCause(original.getCause());
+            } catch (IllegalStateException e) {
+                // the cause was set by the constructor
+            }
+        }
+
+        return throwable;
+    }
+
+    private void putString(int id, String value) {
+        if (id >= this.strings.length) {
+            this.strings = Arrays.copyOf(this.strings, Math.max(id + 1, this.strings.length << 1));
+        }
+
+        this.strings[id] = value;
+    }
+
+    // *************************************************************************
+    //
+    // *************************************************************************
+
+    /**
+     * Stands for a deduplicated throwable whose class can not be instantiated
+     * or whose first occurrence has not been read.
+     */
+    public static final class ThrowableReference extends Throwable {
+        private static final long serialVersionUID = 1L;
+
+        private final String className;
+
+        public ThrowableReference(String className, String message) {
+            super(message);
+            this.className = className;
+        }
+
+        public String getClassName() {
+            return this.className;
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            final String message = getLocalizedMessage();
+            return message != null ? this.className + ": " + message : this.className;
+        }
+    }
+}
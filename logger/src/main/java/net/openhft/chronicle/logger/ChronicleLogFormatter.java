@@ -0,0 +1,323 @@
+/*
+ * Copyright 2014 Higher Frequency Trading
+ *
+ * http://www.higherfrequencytrading.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.logger;
+
+import net.openhft.lang.io.Bytes;
+import net.openhft.lang.model.constraints.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * Substitutes the {} placeholders of a message with its arguments directly
+ * into an excerpt, following the rules of the SLF4J MessageFormatter:
+ * "\{}" is a literal "{}" and "\\{}" a backslash followed by an argument.
+ *
+ * Strings, CharSequences, numbers, booleans and characters are appended
+ * without intermediate objects, other arguments go through toString().
+ * Characters are encoded as ByteStringAppender.append(CharSequence) does, so
+ * that a formatted message reads back as one written without arguments.
+ */
+final class ChronicleLogFormatter {
+    private static final String NULL = "null";
+    private static final String TRUE = "true";
+    private static final String FALSE = "false";
+    private static final String FAILED_TO_STRING = "[FAILED toString()]";
+
+    // renders floating point numbers as Double.toString and Float.toString do,
+    // without creating a String
+    private static final ThreadLocal<StringBuilder> NUMBER = new ThreadLocal<StringBuilder>() {
+        @Override
+        protected StringBuilder initialValue() {
+            return new StringBuilder(32);
+        }
+    };
+
+    /**
+     * @return the number of arguments substituted
+     */
+    static int append(@NotNull final Bytes out, final String pattern, final Object arg1) {
+        return append(out, pattern, 1, arg1, null, null, null);
+    }
+
+    /**
+     * @return the number of arguments substituted
+     */
+    static int append(
+            @NotNull final Bytes out, final String pattern, final Object arg1, final Object arg2) {
+        return append(out, pattern, 2, arg1, arg2, null, null);
+    }
+
+    /**
+     * @return the number of arguments substituted
+     */
+    static int append(
+            @NotNull final Bytes out, final String pattern, final Object[] args, int count) {
+        return append(out, pattern, count, null, null, args, null);
+    }
+
+    /**
+     * @return the number of arguments substituted
+     */
+    static int append(
+            @NotNull final Bytes out, final String pattern, @NotNull final ChronicleLogArgs args) {
+        return append(out, pattern, args.size(), null, null, null, args);
+    }
+
+    /**
+     * Substitute the placeholders into a StringBuilder, for the writers which
+     * do not write to an excerpt.
+     *
+     * @return the number of arguments substituted
+     */
+    static int append(@NotNull final StringBuilder out, final String pattern, final Object[] args, int count) {
+        if (pattern == null) {
+            out.append(NULL);
+            return 0;
+        }
+
+        int from = 0;
+        int used = 0;
+
+        while (used < count) {
+            final int at = pattern.indexOf("{}", from);
+            if (at < 0) {
+                break;
+            }
+
+            if (at > 0 && pattern.charAt(at - 1) == '\\') {
+                if (at > 1 && pattern.charAt(at - 2) == '\\') {
+                    // escaped backslash, the placeholder is substituted
+                    out.append(pattern, from, at - 1);
+                    appendArg(out, args[used++]);
+                    from = at + 2;
+
+                } else {
+                    // escaped placeholder, written as is
+                    out.append(pattern, from, at - 1);
+                    out.append('{');
+                    from = at + 1;
+                }
+
+            } else {
+                out.append(pattern, from, at);
+                appendArg(out, args[used++]);
+                from = at + 2;
+            }
+        }
+
+        out.append(pattern, from, pattern.length());
+
+        return used;
+    }
+
+    /**
+     * As with SLF4J, a trailing Throwable argument that has no placeholder
+     * is the throwable of the event.
+     *
+     * @param last  the last argument
+     * @param used  the number of arguments substituted
+     * @param count the number of arguments
+     * @return      the throwable of the event, null if there is none
+     */
+    static Throwable unused(final Object last, int used, int count) {
+        return used < count && last instanceof Throwable ? (Throwable) last : null;
+    }
+
+    static void appendArg(@NotNull final Bytes out, final Object arg) {
+        if (arg == null) {
+            out.append(NULL);
+
+        } else if (arg instanceof CharSequence) {
+            out.append((CharSequence) arg);
+
+        } else if (arg instanceof Integer || arg instanceof Long || arg instanceof Short || arg instanceof Byte) {
+            out.append(((Number) arg).longValue());
+
+        } else if (arg instanceof Double) {
+            appendDouble(out, (Double) arg);
+
+        } else if (arg instanceof Float) {
+            appendFloat(out, (Float) arg);
+
+        } else if (arg instanceof Boolean) {
+            out.append((Boolean) arg ? TRUE : FALSE);
+
+        } else if (arg instanceof Character) {
+            appendChar(out, (Character) arg);
+
+        } else if (arg.getClass().isArray()) {
+            out.append(arrayToString(arg));
+
+        } else {
+            try {
+                out.append(arg.toString());
+            } catch (Throwable t) {
+                out.append(FAILED_TO_STRING);
+            }
+        }
+    }
+
+    // *************************************************************************
+    //
+    // *************************************************************************
+
+    private static int append(
+            @NotNull final Bytes out,
+            final String pattern,
+            final int count,
+            final Object arg1,
+            final Object arg2,
+            final Object[] args,
+            final ChronicleLogArgs logArgs) {
+
+        if (pattern == null) {
+            out.append(NULL);
+            return 0;
+        }
+
+        final int length = pattern.length();
+
+        int from = 0;
+        int used = 0;
+
+        while (used < count) {
+            final int at = pattern.indexOf("{}", from);
+            if (at < 0) {
+                break;
+            }
+
+            if (at > 0 && pattern.charAt(at - 1) == '\\') {
+                if (at > 1 && pattern.charAt(at - 2) == '\\') {
+                    // escaped backslash, the placeholder is substituted
+                    appendRange(out, pattern, from, at - 1);
+                    appendArg(out, used++, arg1, arg2, args, logArgs);
+                    from = at + 2;
+
+                } else {
+                    // escaped placeholder, written as is
+                    appendRange(out, pattern, from, at - 1);
+                    appendChar(out, '{');
+                    from = at + 1;
+                }
+
+            } else {
+                appendRange(out, pattern, from, at);
+                appendArg(out, used++, arg1, arg2, args, logArgs);
+                from = at + 2;
+            }
+        }
+
+        appendRange(out, pattern, from, length);
+
+        return used;
+    }
+
+    private static void appendArg(
+            @NotNull final Bytes out,
+            final int index,
+            final Object arg1,
+            final Object arg2,
+            final Object[] args,
+            final ChronicleLogArgs logArgs) {
+
+        if (logArgs != null) {
+            logArgs.appendTo(index, out);
+        } else if (args != null) {
+            appendArg(out, args[index]);
+        } else {
+            appendArg(out, index == 0 ? arg1 : arg2);
+        }
+    }
+
+    private static void appendArg(@NotNull final StringBuilder out, final Object arg) {
+        if (arg == null) {
+            out.append(NULL);
+
+        } else if (arg.getClass().isArray()) {
+            out.append(arrayToString(arg));
+
+        } else {
+            try {
+                out.append(arg.toString());
+            } catch (Throwable t) {
+                out.append(FAILED_TO_STRING);
+            }
+        }
+    }
+
+    static void appendDouble(@NotNull final Bytes out, final double value) {
+        final StringBuilder number = NUMBER.get();
+        number.setLength(0);
+        out.append(number.append(value));
+    }
+
+    static void appendFloat(@NotNull final Bytes out, final float value) {
+        final StringBuilder number = NUMBER.get();
+        number.setLength(0);
+        out.append(number.append(value));
+    }
+
+    /**
+     * Append a char with the encoding of ByteStringAppender.append(CharSequence),
+     * append(char) and append(CharSequence, int, int) keep the low byte only.
+     */
+    static void appendChar(@NotNull final Bytes out, final char c) {
+        if (c < 0x80) {
+            out.writeByte(c);
+        } else if (c < 0x800) {
+            out.writeByte(0xC0 | (c >> 6));
+            out.writeByte(0x80 | (c & 0x3F));
+        } else {
+            out.writeByte(0xE0 | (c >> 12));
+            out.writeByte(0x80 | ((c >> 6) & 0x3F));
+            out.writeByte(0x80 | (c & 0x3F));
+        }
+    }
+
+    private static void appendRange(
+            @NotNull final Bytes out, @NotNull final String value, int from, int to) {
+        for (int i = from; i < to; i++) {
+            appendChar(out, value.charAt(i));
+        }
+    }
+
+    private static String arrayToString(final Object array) {
+        if (array instanceof Object[]) {
+            return Arrays.deepToString((Object[]) array);
+        } else if (array instanceof int[]) {
+            return Arrays.toString((int[]) array);
+        } else if (array instanceof long[]) {
+            return Arrays.toString((long[]) array);
+        } else if (array instanceof double[]) {
+            return Arrays.toString((double[]) array);
+        } else if (array instanceof byte[]) {
+            return Arrays.toString((byte[]) array);
+        } else if (array instanceof char[]) {
+            return Arrays.toString((char[]) array);
+        } else if (array instanceof boolean[]) {
+            return Arrays.toString((boolean[]) array);
+        } else if (array instanceof short[]) {
+            return Arrays.toString((short[]) array);
+        } else {
+            return Arrays.toString((float[]) array);
+        }
+    }
+
+    private ChronicleLogFormatter() {}
+}
@@ -19,6 +19,7 @@
 package net.openhft.chronicle.logger;
 
 import net.openhft.chronicle.ExcerptAppender;
+import net.openhft.chronicle.ExcerptTailer;
 import net.openhft.lang.io.Bytes;
 
 public final class ChronicleLogHelper {
@@ -33,6 +34,62 @@ public final class ChronicleLogHelper {
         return BinaryChronicleLogEvent.read(in);
     }
 
+    /**
+     * Decode a binary stream, i. e. Excerpt, resolving dictionary encoded
+     * strings with the given dictionary
+     *
+     * @param in            the source of event in binary form (i. e. Excerpt)
+     * @param dictionary    the strings defined by the events read so far
+     * @return              the ChronicleLogEvent
+     */
+    public static ChronicleLogEvent decodeBinary(final Bytes in, final ChronicleLogDictionary dictionary) {
+        return BinaryChronicleLogEvent.read(in, dictionary);
+    }
+
+    /**
+     * Move a tailer to the end of a binary chronicle decoding the events on
+     * the way, so the dictionary of the calling thread knows the strings
+     * defined by the events skipped. Only what the dictionary needs is decoded.
+     *
+     * @param tailer    the tailer
+     * @return          the tailer
+     */
+    public static ExcerptTailer skipBinary(final ExcerptTailer tailer) {
+        return skipBinary(tailer, ChronicleLogDictionary.local());
+    }
+
+    /**
+     * Move a tailer to the end of a binary chronicle reading the definitions
+     * of the events on the way into the given dictionary.
+     *
+     * @param tailer        the tailer
+     * @param dictionary    the dictionary the following events will be read with
+     * @return              the tailer
+     */
+    public static ExcerptTailer skipBinary(final ExcerptTailer tailer, final ChronicleLogDictionary dictionary) {
+        final BinaryChronicleLogEventFlyweight event = new BinaryChronicleLogEventFlyweight();
+        while (tailer.nextIndex()) {
+            event.wrap(tailer, dictionary);
+            tailer.finish();
+        }
+
+        return tailer;
+    }
+
+    /**
+     * Bind a reusable flyweight to a binary stream, i. e. Excerpt, the fields
+     * of the event are only decoded when accessed.
+     *
+     * @param in        the source of event in binary form (i. e. Excerpt)
+     * @param event     the flyweight to bind
+     * @return          the flyweight
+     * @see BinaryChronicleLogEventFlyweight
+     */
+    public static BinaryChronicleLogEventFlyweight decodeBinary(
+            final Bytes in, final BinaryChronicleLogEventFlyweight event) {
+        return event.wrap(in);
+    }
+
     /**
      * Decode a text stream, i. e. Excerpt
      *
@@ -43,6 +100,126 @@ public final class ChronicleLogHelper {
         return TextChronicleLogEvent.read(in);
     }
 
+    /**
+     * Decode a text stream, i. e. Excerpt, expanding deduplicated stack traces
+     * with the given dictionary
+     *
+     * @param in            the source of event in text form (i. e. Excerpt)
+     * @param dictionary    the stack traces defined by the events read so far
+     * @return              the ChronicleLogEvent
+     */
+    public static ChronicleLogEvent decodeText(final Bytes in, final ChronicleLogDictionary dictionary) {
+        return TextChronicleLogEvent.read(in, dictionary);
+    }
+
+    /**
+     * Read the timestamp of a binary event without consuming the stream
+     *
+     * @param in        the source of event in binary form (i. e. Excerpt)
+     * @return          the timestamp of the event
+     */
+    public static long peekBinaryTimestamp(final Bytes in) {
+        return peekBinaryTimestamp(in, ChronicleLogDictionary.local());
+    }
+
+    /**
+     * Read the timestamp of a binary event without consuming the stream,
+     * resolving timestamps relative to a cycle start with the given dictionary
+     *
+     * @param in            the source of event in binary form (i. e. Excerpt)
+     * @param dictionary    the dictionary the event will be read with
+     * @return              the timestamp of the event
+     */
+    public static long peekBinaryTimestamp(final Bytes in, final ChronicleLogDictionary dictionary) {
+        final long position = in.position();
+        try {
+            return BinaryChronicleLogEvent.readTimestamp(in, dictionary);
+        } finally {
+            in.position(position);
+        }
+    }
+
+    /**
+     * Tell without consuming the stream whether a binary event is written
+     * with symbols, i.e. its time stamp is relative to the start of its cycle
+     * or one of its names or message is a dictionary definition or reference.
+     * Such an event can only be read with the dictionary of its chronicle.
+     *
+     * @param in    the source of event in binary form (i. e. Excerpt)
+     * @return      true if the event is written with symbols
+     */
+    public static boolean peekBinarySymbols(final Bytes in) {
+        final long position = in.position();
+        try {
+            final byte version = in.readByte();
+            if (version == ChronicleLog.VERSION_3) {
+                final int flags = in.readUnsignedByte();
+                if ((flags & (ChronicleLog.FLAG_TIMESTAMP_BASE | ChronicleLog.FLAG_TIMESTAMP_DELTA)) != 0) {
+                    return true;
+                }
+
+                in.readLong();
+                if ((flags & ChronicleLog.FLAG_NANOS) != 0) {
+                    in.readStopBit();
+                }
+
+            } else if (version == ChronicleLog.VERSION_2 || version == ChronicleLog.VERSION_1) {
+                in.readLong();
+            } else {
+                throw new IllegalStateException("message version= " + version);
+            }
+
+            ChronicleLogLevel.readBinary(in);
+
+            // thread name, logger name and message
+            for (int i = 0; i < 3; i++) {
+                final long start = in.position();
+                if (in.readStopBit() < -1) {
+                    return true;
+                }
+
+                in.position(start);
+                in.readUTFΔ();
+            }
+
+            return false;
+        } finally {
+            in.position(position);
+        }
+    }
+
+    /**
+     * Get the nanoseconds of the millisecond an event was written at
+     *
+     * @param event     a decoded event
+     * @return          the nanoseconds from 0 to 999999, 0 if not recorded
+     */
+    public static int getNanos(final ChronicleLogEvent event) {
+        if (event instanceof BinaryChronicleLogEvent) {
+            return ((BinaryChronicleLogEvent) event).getNanos();
+        }
+        if (event instanceof BinaryChronicleLogEventFlyweight) {
+            return ((BinaryChronicleLogEventFlyweight) event).getNanos();
+        }
+
+        return 0;
+    }
+
+    /**
+     * Read the timestamp of a text event without consuming the stream
+     *
+     * @param in        the source of event in text form (i. e. Excerpt)
+     * @return          the timestamp of the event
+     */
+    public static long peekTextTimestamp(final Bytes in) {
+        final long position = in.position();
+        try {
+            return TextChronicleLogEvent.readTimestamp(in);
+        } finally {
+            in.position(position);
+        }
+    }
+
     /**
      * Append a string representation of Throwable to Excerpt
      *
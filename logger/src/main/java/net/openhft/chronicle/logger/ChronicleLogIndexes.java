@@ -0,0 +1,132 @@
+/*
+ * Copyright 2014 Higher Frequency Trading
+ *
+ * http://www.higherfrequencytrading.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.logger;
+
+import net.openhft.chronicle.Chronicle;
+import net.openhft.chronicle.ExcerptTailer;
+import net.openhft.chronicle.VanillaChronicle;
+import net.openhft.lang.model.constraints.NotNull;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Index layout of log chronicles, taken from the settings the VanillaChronicles
+ * were written with, the VanillaChronicle defaults unless told otherwise.
+ *
+ * The index of a VanillaChronicle excerpt is made of its cycle, the index
+ * file of the cycle holding it and its position in that file, so indexes are
+ * only contiguous within an index file. Those of an IndexedChronicle are
+ * contiguous from 0.
+ */
+final class ChronicleLogIndexes {
+    private final long cycleLength;
+    private final int cycleBits;
+    private final int indexFileBits;
+
+    ChronicleLogIndexes() {
+        this(new VanillaLogAppenderConfig());
+    }
+
+    /**
+     * @param vanilla   the settings the VanillaChronicles were written with
+     */
+    ChronicleLogIndexes(@NotNull final VanillaLogAppenderConfig vanilla) {
+        this.cycleLength = vanilla.getCycleLength();
+        this.cycleBits = Long.numberOfTrailingZeros(vanilla.getEntriesPerCycle());
+        this.indexFileBits = Long.numberOfTrailingZeros(vanilla.getIndexBlockSize() / 8);
+    }
+
+    /**
+     * @return the length in ms of the cycles on which dictionary definitions are written again
+     */
+    long cycleLength() {
+        return this.cycleLength;
+    }
+
+    /**
+     * Cut a chronicle into ranges of contiguous indexes, in index order: one
+     * per index file of each cycle of a VanillaChronicle, ranges of at most
+     * the given size for an IndexedChronicle. Only the last range may end
+     * after the last excerpt.
+     *
+     * @param chronicle the chronicle
+     * @param size      the maximum size of the ranges of an IndexedChronicle
+     * @return          the ranges
+     */
+    List<Range> ranges(@NotNull final Chronicle chronicle, long size) throws IOException {
+        final List<Range> ranges = new ArrayList<>();
+        final ExcerptTailer tailer = chronicle.createTailer();
+
+        try {
+            if (!tailer.toStart().nextIndex()) {
+                return ranges;
+            }
+
+            final long first = tailer.index();
+            final long last = tailer.toEnd().index();
+
+            if (chronicle instanceof VanillaChronicle) {
+                for (long cycle = first >>> this.cycleBits; cycle <= last >>> this.cycleBits; cycle++) {
+                    final long end = Math.min((cycle + 1) << this.cycleBits, last + 1);
+
+                    long start = Math.max(cycle << this.cycleBits, first);
+                    for (boolean head = true; start < end && tailer.index(start); head = false) {
+                        final long next = Math.min(((start >>> this.indexFileBits) + 1) << this.indexFileBits, end);
+                        ranges.add(new Range(start, next, head));
+                        start = next;
+                    }
+                }
+
+            } else {
+                for (long start = first; start <= last; ) {
+                    final long next = start + Math.min(size, last + 1 - start);
+                    ranges.add(new Range(start, next, start == first));
+                    start = next;
+                }
+            }
+        } finally {
+            tailer.close();
+        }
+
+        return ranges;
+    }
+
+    // *************************************************************************
+    //
+    // *************************************************************************
+
+    static final class Range {
+        final long start;
+        final long end;
+        final boolean head;
+
+        /**
+         * @param start the first index
+         * @param end   the index following the last one
+         * @param head  true if the range starts a cycle
+         */
+        Range(long start, long end, boolean head) {
+            this.start = start;
+            this.end = end;
+            this.head = head;
+        }
+    }
+}
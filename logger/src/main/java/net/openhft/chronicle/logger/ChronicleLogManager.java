@@ -22,6 +22,7 @@ import net.openhft.chronicle.IndexedChronicle;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Collection;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -39,14 +40,31 @@ public class ChronicleLogManager {
     }
 
     public void clear() {
-        for(final ChronicleLogWriter writer : writers.values()) {
+        close(detach());
+    }
+
+    /**
+     * Forget the writers created so far without closing them, so that a
+     * caller can close them outside of a lock their threads may need: the
+     * drainer of an AsyncWriter asks for a logger when a library it calls
+     * logs, i.e. Affinity.
+     *
+     * @return the writers to close with {@link #close(Collection)}
+     */
+    public Collection<ChronicleLogWriter> detach() {
+        final Map<String, ChronicleLogWriter> detached = this.writers;
+        this.writers = new ConcurrentHashMap<>();
+
+        return detached.values();
+    }
+
+    public static void close(Collection<ChronicleLogWriter> writers) {
+        for(final ChronicleLogWriter writer : writers) {
             try {
                 writer.close();
             } catch (IOException e) {
             }
         }
-
-        writers.clear();
     }
 
     public void reload() {
@@ -78,6 +96,28 @@ public class ChronicleLogManager {
         return false;
     }
 
+    /**
+     * Make the clock time stamping the events of a logger, according to its
+     * clock and clockResolution settings.
+     *
+     * @param name
+     * @return the clock, the system clock if none is configured
+     */
+    public ChronicleLogClock getClock(String name) {
+        final String clock = cfg.getString(name, ChronicleLogConfig.KEY_CLOCK);
+        if (ChronicleLogConfig.CLOCK_CACHED.equalsIgnoreCase(clock)) {
+            final Integer resolution = cfg.getInteger(name, ChronicleLogConfig.KEY_CLOCK_RESOLUTION);
+            return ChronicleLogClocks.cached(
+                resolution != null ? resolution : ChronicleLogClocks.DEFAULT_RESOLUTION);
+        }
+
+        if (ChronicleLogConfig.CLOCK_NANO.equalsIgnoreCase(clock)) {
+            return ChronicleLogClocks.nano();
+        }
+
+        return ChronicleLogClocks.system();
+    }
+
     /**
      * @param name
      * @param name
@@ -97,17 +137,10 @@ public class ChronicleLogManager {
                 final String type = cfg.getString(name, ChronicleLogConfig.KEY_TYPE);
 
                 if (!isSimple(name)) {
-                    if (isBinary(name)) {
-                        appender = new ChronicleLogWriters.BinaryWriter(
-                            newChronicle(type, path, name)
-                        );
-
-                    } else if (isText(name)) {
-                        appender = new ChronicleLogWriters.TextWriter(
-                            newChronicle(type, path, name),
-                            ChronicleLogConfig.DEFAULT_DATE_FORMAT,
-                            stDepth
-                        );
+                    if (isBinary(name) || isText(name)) {
+                        appender = ChronicleLogConfig.TYPE_STRIPED.equalsIgnoreCase(type)
+                            ? newStripedWriter(path, name, stDepth)
+                            : newWriter(newChronicle(type, path, name), path, name, stDepth, newSymbols(name));
                     }
                 } else {
                     appender = new ChronicleLogWriters.SimpleWriter(
@@ -115,10 +148,22 @@ public class ChronicleLogManager {
                     );
                 }
 
-                if (appender.getChronicle() instanceof IndexedChronicle) {
+                if (!isSimple(name) && cfg.getBoolean(name, ChronicleLogConfig.KEY_ASYNC, false)) {
+                    final Integer capacity = cfg.getInteger(name, ChronicleLogConfig.KEY_ASYNC_CAPACITY);
+                    appender = capacity != null
+                        ? ChronicleLogWriters.async(appender, capacity)
+                        : ChronicleLogWriters.async(appender);
+
+                } else if (appender.getChronicle() instanceof IndexedChronicle
+                        && !(appender instanceof ChronicleLogWriters.StripedWriter)) {
                     appender = new ChronicleLogWriters.SynchronizedWriter(appender);
                 }
 
+                final ChronicleLogThrottle throttle = !isSimple(name) ? newThrottle(name) : null;
+                if (throttle != null) {
+                    appender = new ChronicleLogWriters.ThrottledWriter(appender, throttle, getClock(name));
+                }
+
                 this.writers.put(path, appender);
             }
 
@@ -136,6 +181,152 @@ public class ChronicleLogManager {
         }
     }
 
+    /**
+     * Make the writer of a chronicle, wrapped in a BlockFilterWriter and in a
+     * SummaryWriter if block filters and summaries are enabled so that they
+     * see the index written by each event.
+     *
+     * @param chronicle
+     * @param path
+     * @param name
+     * @param stDepth
+     * @param symbols
+     * @return
+     * @throws java.io.IOException
+     */
+    private ChronicleLogWriter newWriter(
+            Chronicle chronicle, String path, String name, Integer stDepth, ChronicleLogSymbols symbols)
+            throws IOException {
+        ChronicleLogWriter writer = isBinary(name)
+            ? new ChronicleLogWriters.BinaryWriter(chronicle, symbols, cfg.getCycleLength())
+            : new ChronicleLogWriters.TextWriter(
+                chronicle,
+                ChronicleLogConfig.DEFAULT_DATE_FORMAT,
+                stDepth,
+                symbols,
+                cfg.getCycleLength());
+
+        if (cfg.getBoolean(name, ChronicleLogConfig.KEY_BLOCK_FILTER, false)) {
+            final Integer blockSize = cfg.getInteger(name, ChronicleLogConfig.KEY_BLOCK_SIZE);
+            final Integer bloomBits = cfg.getInteger(name, ChronicleLogConfig.KEY_BLOOM_BITS);
+            writer = new ChronicleLogWriters.BlockFilterWriter(
+                writer,
+                new ChronicleLogBlocks(
+                    path,
+                    cfg.getCycleLength(),
+                    blockSize != null ? blockSize : ChronicleLogBlocks.DEFAULT_BLOCK_SIZE,
+                    bloomBits != null ? bloomBits : ChronicleLogBlocks.DEFAULT_BLOOM_BITS));
+        }
+
+        if (cfg.getBoolean(name, ChronicleLogConfig.KEY_SUMMARY, false)) {
+            writer = new ChronicleLogWriters.SummaryWriter(
+                writer,
+                path,
+                cfg.getCycleLength());
+        }
+
+        return writer;
+    }
+
+    /**
+     * Make a StripedWriter sharding events across IndexedChronicles, one per stripe.
+     *
+     * @param path
+     * @param name
+     * @param stDepth
+     * @return
+     * @throws java.io.IOException
+     */
+    private ChronicleLogWriter newStripedWriter(String path, String name, Integer stDepth) throws IOException {
+        final Integer count = cfg.getInteger(name, ChronicleLogConfig.KEY_STRIPES);
+        final int nbStripes = count != null ? count : Runtime.getRuntime().availableProcessors();
+
+        if (!cfg.getBoolean(name, ChronicleLogConfig.KEY_APPEND, true)) {
+            // stripes left over by a previous run with more stripes would be merged on read
+            for (String stripe : ChronicleLogStripes.paths(path)) {
+                new File(stripe + ".data").delete();
+                new File(stripe + ".index").delete();
+            }
+        }
+
+        // the stripes share the symbol table so ids are the same across stripes when merged
+        final ChronicleLogSymbols symbols = newSymbols(name);
+        final ChronicleLogWriter[] stripes = new ChronicleLogWriter[nbStripes];
+        for (int i = 0; i < nbStripes; i++) {
+            stripes[i] = new ChronicleLogWriters.SynchronizedWriter(
+                newWriter(
+                    newIndexedChronicle(ChronicleLogStripes.path(path, i), name),
+                    ChronicleLogStripes.path(path, i),
+                    name,
+                    stDepth,
+                    symbols)
+            );
+        }
+
+        return new ChronicleLogWriters.StripedWriter(stripes);
+    }
+
+    /**
+     * Make the symbol table of a logger if dictionary, template or throwable encoding is enabled.
+     *
+     * @param name
+     * @return the symbol table or null
+     */
+    private ChronicleLogSymbols newSymbols(String name) {
+        final boolean names = cfg.getBoolean(name, ChronicleLogConfig.KEY_DICTIONARY, false);
+        final boolean templates = cfg.getBoolean(name, ChronicleLogConfig.KEY_TEMPLATES, false);
+        final boolean throwables = cfg.getBoolean(name, ChronicleLogConfig.KEY_DEDUP_THROWABLES, false);
+
+        if (!names && !templates && !throwables) {
+            return null;
+        }
+
+        return new ChronicleLogSymbols(
+            cfg.getCycleLength(),
+            names,
+            templates,
+            throwables);
+    }
+
+    /**
+     * Make the throttle of a logger from its rateLimit, rateBurst and sampling
+     * settings, each of which can be overridden per level by suffixing the key
+     * with the level, i.e. rateLimit.warn.
+     *
+     * @param name
+     * @return the throttle or null if no level is throttled
+     */
+    private ChronicleLogThrottle newThrottle(String name) {
+        final Long window = cfg.getLong(name, ChronicleLogConfig.KEY_THROTTLE_WINDOW);
+        final ChronicleLogThrottle throttle = new ChronicleLogThrottle(
+            window != null ? window : ChronicleLogThrottle.DEFAULT_WINDOW);
+
+        for (ChronicleLogLevel level : ChronicleLogLevel.values()) {
+            final String suffix = "." + level.name().toLowerCase();
+
+            final String rate = getString(name, ChronicleLogConfig.KEY_RATE_LIMIT, suffix);
+            if (rate != null && Double.parseDouble(rate) > 0) {
+                final String burst = getString(name, ChronicleLogConfig.KEY_RATE_BURST, suffix);
+                throttle.limit(
+                    level,
+                    Double.parseDouble(rate),
+                    burst != null ? Integer.parseInt(burst) : (int) Math.ceil(Double.parseDouble(rate)));
+            }
+
+            final String sampling = getString(name, ChronicleLogConfig.KEY_SAMPLING, suffix);
+            if (sampling != null && Integer.parseInt(sampling) > 1) {
+                throttle.sample(level, Integer.parseInt(sampling));
+            }
+        }
+
+        return throttle.isEnabled() ? throttle : null;
+    }
+
+    private String getString(String name, String key, String suffix) {
+        final String value = cfg.getString(name, key + suffix);
+        return value != null ? value : cfg.getString(name, key);
+    }
+
     /**
      * @param type
      * @param path
@@ -151,7 +342,7 @@ public class ChronicleLogManager {
             return newVanillaChronicle(path, name);
         }
 
-        throw new IllegalArgumentException("type should be indexed or vanilla");
+        throw new IllegalArgumentException("type should be indexed, vanilla or striped");
     }
 
     /**
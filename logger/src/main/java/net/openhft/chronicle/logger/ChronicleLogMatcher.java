@@ -0,0 +1,241 @@
+/*
+ * Copyright 2014 Higher Frequency Trading
+ *
+ * http://www.higherfrequencytrading.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.logger;
+
+import net.openhft.lang.io.Bytes;
+import net.openhft.lang.model.constraints.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+
+/**
+ * Finds any of a set of literals in a text with an Aho-Corasick automaton.
+ *
+ * The automaton runs on the bytes of the literals encoded the way strings
+ * are written by writeUTFΔ, so it can look into the strings of an excerpt
+ * without decoding them, see {@link #findUTF(Bytes)} and
+ * BinaryChronicleLogEventFlyweight#findInMessage. Texts given as chars are
+ * encoded on the fly. The failure links are folded into a table of 256
+ * transitions per state, one lookup per byte, which is fine for the handful
+ * of literals given on a command line.
+ *
+ * A matcher is immutable and can be shared between threads.
+ */
+public final class ChronicleLogMatcher {
+    private static final int ALPHABET = 256;
+
+    private final int[] transitions;
+    private final boolean[] matches;
+    private final boolean empty;
+
+    /**
+     * @param literals  the literals to look for, matched case sensitively
+     */
+    public ChronicleLogMatcher(@NotNull Collection<String> literals) {
+        final List<int[]> trie = new ArrayList<>();
+        final List<Boolean> ends = new ArrayList<>();
+        trie.add(newState());
+        ends.add(false);
+
+        boolean empty = false;
+        final byte[] buffer = new byte[3];
+        for (String literal : literals) {
+            if (literal.isEmpty()) {
+                empty = true;
+                continue;
+            }
+
+            int state = 0;
+            for (int i = 0; i < literal.length(); i++) {
+                final int length = encode(literal.charAt(i), buffer);
+                for (int j = 0; j < length; j++) {
+                    final int b = buffer[j] & 0xff;
+                    if (trie.get(state)[b] < 0) {
+                        trie.get(state)[b] = trie.size();
+                        trie.add(newState());
+                        ends.add(false);
+                    }
+
+                    state = trie.get(state)[b];
+                }
+            }
+
+            ends.set(state, true);
+        }
+
+        this.empty = empty;
+        this.transitions = new int[trie.size() * ALPHABET];
+        this.matches = new boolean[trie.size()];
+
+        // breadth first, the failure state of a state is always resolved before it
+        final int[] failures = new int[trie.size()];
+        final Queue<Integer> queue = new LinkedList<>();
+        for (int b = 0; b < ALPHABET; b++) {
+            final int child = trie.get(0)[b];
+            this.transitions[b] = child > 0 ? child : 0;
+            if (child > 0) {
+                failures[child] = 0;
+                queue.add(child);
+            }
+        }
+
+        this.matches[0] = false;
+        while (!queue.isEmpty()) {
+            final int state = queue.poll();
+            this.matches[state] = ends.get(state) || this.matches[failures[state]];
+
+            for (int b = 0; b < ALPHABET; b++) {
+                final int child = trie.get(state)[b];
+                final int fallback = this.transitions[failures[state] * ALPHABET + b];
+                if (child > 0) {
+                    failures[child] = fallback;
+                    this.transitions[state * ALPHABET + b] = child;
+                    queue.add(child);
+                } else {
+                    this.transitions[state * ALPHABET + b] = fallback;
+                }
+            }
+        }
+    }
+
+    private static int[] newState() {
+        final int[] state = new int[ALPHABET];
+        Arrays.fill(state, -1);
+        return state;
+    }
+
+    // *************************************************************************
+    //
+    // *************************************************************************
+
+    /**
+     * @param text  the text, null is taken as an empty text
+     * @return      true if the text holds any of the literals
+     */
+    public boolean find(final CharSequence text) {
+        if (this.empty) {
+            return true;
+        }
+        if (text == null) {
+            return false;
+        }
+
+        final int[] transitions = this.transitions;
+        final boolean[] matches = this.matches;
+        final int length = text.length();
+
+        int state = 0;
+        for (int i = 0; i < length; i++) {
+            final char c = text.charAt(i);
+            if (c < 0x80 && c != 0) {
+                state = transitions[state * ALPHABET + c];
+            } else if (c < 0x800) {
+                state = transitions[state * ALPHABET + (0xc0 | (c >> 6))];
+                state = transitions[state * ALPHABET + (0x80 | (c & 0x3f))];
+            } else {
+                state = transitions[state * ALPHABET + (0xe0 | (c >> 12))];
+                state = transitions[state * ALPHABET + (0x80 | ((c >> 6) & 0x3f))];
+                state = transitions[state * ALPHABET + (0x80 | (c & 0x3f))];
+            }
+
+            if (matches[state]) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Look for the literals in a string written with writeUTFΔ at the
+     * position of the bytes, without decoding it. The bytes are positioned
+     * after the string afterwards.
+     *
+     * @param in    the bytes
+     * @return      true if the string holds any of the literals, a null
+     *              string is taken as an empty one
+     * @throws IllegalStateException if the length of the string is not valid
+     */
+    public boolean findUTF(@NotNull final Bytes in) throws IllegalStateException {
+        final long length = in.readStopBit();
+        if (length < -1 || length > in.remaining()) {
+            throw new IllegalStateException("length= " + length);
+        }
+
+        // the length is the number of bytes, the automaton runs on bytes too
+        final long end = in.position() + Math.max(length, 0);
+        final int[] transitions = this.transitions;
+        final boolean[] matches = this.matches;
+
+        boolean found = this.empty;
+        int state = 0;
+        while (!found && in.position() < end) {
+            state = transitions[state * ALPHABET + in.readUnsignedByte()];
+            found = matches[state];
+        }
+
+        in.position(end);
+        return found;
+    }
+
+    /**
+     * Move the bytes past a string written with writeUTFΔ without decoding it.
+     *
+     * @param in    the bytes
+     * @return      false if the string is null
+     * @throws IllegalStateException if the length of the string is not valid
+     */
+    static boolean skipUTF(@NotNull final Bytes in) throws IllegalStateException {
+        final long length = in.readStopBit();
+        if (length < -1 || length > in.remaining()) {
+            throw new IllegalStateException("length= " + length);
+        }
+
+        if (length > 0) {
+            in.position(in.position() + length);
+        }
+
+        return length >= 0;
+    }
+
+    /**
+     * Encode a char the way writeUTFΔ does.
+     *
+     * @return the number of bytes
+     */
+    private static int encode(char c, @NotNull byte[] out) {
+        if (c < 0x80 && c != 0) {
+            out[0] = (byte) c;
+            return 1;
+        } else if (c < 0x800) {
+            out[0] = (byte) (0xc0 | (c >> 6));
+            out[1] = (byte) (0x80 | (c & 0x3f));
+            return 2;
+        } else {
+            out[0] = (byte) (0xe0 | (c >> 12));
+            out[1] = (byte) (0x80 | ((c >> 6) & 0x3f));
+            out[2] = (byte) (0x80 | (c & 0x3f));
+            return 3;
+        }
+    }
+}
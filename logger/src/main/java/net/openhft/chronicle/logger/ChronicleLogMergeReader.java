@@ -0,0 +1,254 @@
+/*
+ * Copyright 2014 Higher Frequency Trading
+ *
+ * http://www.higherfrequencytrading.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.logger;
+
+import net.openhft.chronicle.Chronicle;
+import net.openhft.chronicle.ExcerptTailer;
+import net.openhft.lang.model.constraints.NotNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * A k-way merge of several log chronicles, i.e. the stripes of a striped
+ * logger, into a single stream ordered by event timestamp.
+ *
+ * Each chronicle is tailed independently and the excerpt with the lowest
+ * timestamp among the chronicles having data available is handed to the
+ * ChronicleLogReader. Only the timestamp of the pending excerpts is decoded
+ * to order them. When tailing live data, an event written to a stripe after
+ * a newer event has already been returned from another stripe is returned
+ * as soon as it is available, so ordering is best effort in that case.
+ *
+ * The stripes of a striped logger share their symbol table, so they are read
+ * with the dictionary of the calling thread. Chronicles written by different
+ * processes number their symbols independently and are merged with isolated
+ * dictionaries: each chronicle is read with its own dictionary, which is made
+ * the dictionary of the calling thread while its events are handed to the
+ * ChronicleLogReader. Either way the start of the cycle time stamp deltas are
+ * read from is kept per chronicle, as a stripe may hold events of the next
+ * cycle while another one still holds events of the previous one.
+ *
+ * The merge reader owns the chronicles it merges, i.e. those opened for
+ * each stripe path, they are closed along with it.
+ */
+public final class ChronicleLogMergeReader implements Closeable {
+    private final List<Chronicle> chronicles;
+    private final List<Head> heads;
+    private final List<Head> idle;
+    private final PriorityQueue<Head> ready;
+    private final boolean binary;
+
+    /**
+     * @param chronicles    the chronicles to merge
+     * @param binary        true if the chronicles contain binary events, false for text
+     * @param fromEnd       true to start from the end of the chronicles
+     * @throws IOException
+     */
+    public ChronicleLogMergeReader(
+            @NotNull final List<Chronicle> chronicles, boolean binary, boolean fromEnd) throws IOException {
+        this(chronicles, binary, fromEnd, null, Long.MIN_VALUE, false);
+    }
+
+    /**
+     * @param chronicles    the chronicles to merge
+     * @param binary        true if the chronicles contain binary events, false for text
+     * @param seeker        the seeker used to find the events
+     * @param from          the time to start from, the chronicles holding no
+     *                      event at or after it are read from their end
+     * @throws IOException
+     */
+    public ChronicleLogMergeReader(
+            @NotNull final List<Chronicle> chronicles,
+            boolean binary,
+            @NotNull final ChronicleLogSeeker seeker,
+            long from) throws IOException {
+        this(chronicles, binary, false, seeker, from, false);
+    }
+
+    /**
+     * @param chronicles    the chronicles to merge
+     * @param binary        true if the chronicles contain binary events, false for text
+     * @param fromEnd       true to start from the end of the chronicles, ignored when a seeker is given
+     * @param seeker        the seeker used to find the events, null to start
+     *                      from the start or the end of the chronicles
+     * @param from          the time to start from when a seeker is given, the
+     *                      chronicles holding no event at or after it are read from their end
+     * @param isolated      true to read each chronicle with its own dictionary,
+     *                      i.e. for chronicles written by different processes
+     * @throws IOException
+     */
+    public ChronicleLogMergeReader(
+            @NotNull final List<Chronicle> chronicles,
+            boolean binary,
+            boolean fromEnd,
+            final ChronicleLogSeeker seeker,
+            long from,
+            boolean isolated) throws IOException {
+        this.chronicles = new ArrayList<>(chronicles);
+        this.heads = new ArrayList<>(chronicles.size());
+        this.idle = new ArrayList<>(chronicles.size());
+        this.ready = new PriorityQueue<>(Math.max(1, chronicles.size()));
+        this.binary = binary;
+
+        for (int i = 0; i < chronicles.size(); i++) {
+            final ChronicleLogDictionary dictionary = isolated ? new ChronicleLogDictionary() : null;
+            final ChronicleLogDictionary definitions = isolated ? dictionary : ChronicleLogDictionary.local();
+
+            ExcerptTailer tailer = chronicles.get(i).createTailer().toStart();
+            definitions.timestampBase(0);
+            boolean pending = false;
+            if (seeker != null) {
+                pending = seeker.seek(chronicles.get(i), tailer, from, definitions);
+            }
+
+            if ((fromEnd && seeker == null) || (seeker != null && !pending)) {
+                // the definitions of the last cycle are read so the following events can be resolved
+                tailer = (seeker != null ? seeker : new ChronicleLogSeeker(binary)).toEnd(
+                    chronicles.get(i), tailer, definitions);
+            }
+
+            final Head head = new Head(i, tailer, dictionary);
+            head.pending = pending;
+            head.timestampBase = definitions.timestampBase();
+            this.heads.add(head);
+            this.idle.add(head);
+        }
+    }
+
+    /**
+     * Read the next event in timestamp order.
+     *
+     * @param reader    the reader the event is handed to
+     * @return          false if none of the chronicles has data available
+     */
+    public boolean read(@NotNull final ChronicleLogReader reader) {
+        poll();
+
+        final Head head = this.ready.poll();
+        if (head == null) {
+            return false;
+        }
+
+        final ChronicleLogDictionary dictionary = head.dictionary != null
+            ? head.dictionary
+            : ChronicleLogDictionary.local();
+
+        dictionary.timestampBase(head.timestampBase);
+        if (head.dictionary != null) {
+            final ChronicleLogDictionary previous = ChronicleLogDictionary.swap(head.dictionary);
+            try {
+                reader.read(head.tailer);
+            } finally {
+                ChronicleLogDictionary.swap(previous);
+            }
+        } else {
+            reader.read(head.tailer);
+        }
+
+        head.timestampBase = dictionary.timestampBase();
+
+        head.tailer.finish();
+
+        this.idle.add(head);
+
+        return true;
+    }
+
+    /**
+     * Close the tailers and the merged chronicles.
+     */
+    @Override
+    public void close() {
+        for (Head head : this.heads) {
+            head.tailer.close();
+        }
+
+        for (Chronicle chronicle : this.chronicles) {
+            try {
+                chronicle.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+
+        this.chronicles.clear();
+        this.heads.clear();
+        this.idle.clear();
+        this.ready.clear();
+    }
+
+    private void poll() {
+        for (Iterator<Head> it = this.idle.iterator(); it.hasNext(); ) {
+            final Head head = it.next();
+            if (head.pending || head.tailer.nextIndex()) {
+                head.pending = false;
+                if (this.binary) {
+                    final ChronicleLogDictionary dictionary = head.dictionary != null
+                        ? head.dictionary
+                        : ChronicleLogDictionary.local();
+
+                    dictionary.timestampBase(head.timestampBase);
+                    head.timestamp = ChronicleLogHelper.peekBinaryTimestamp(head.tailer, dictionary);
+                    head.timestampBase = dictionary.timestampBase();
+                } else {
+                    head.timestamp = ChronicleLogHelper.peekTextTimestamp(head.tailer);
+                }
+
+                this.ready.add(head);
+                it.remove();
+            }
+        }
+    }
+
+    // *************************************************************************
+    //
+    // *************************************************************************
+
+    private static final class Head implements Comparable<Head> {
+        final int id;
+        final ExcerptTailer tailer;
+        final ChronicleLogDictionary dictionary;
+        long timestamp;
+        long timestampBase;
+        boolean pending;
+
+        Head(int id, ExcerptTailer tailer, ChronicleLogDictionary dictionary) {
+            this.id = id;
+            this.tailer = tailer;
+            this.dictionary = dictionary;
+            this.timestamp = 0;
+            this.timestampBase = 0;
+            this.pending = false;
+        }
+
+        @Override
+        public int compareTo(Head other) {
+            if (this.timestamp != other.timestamp) {
+                return this.timestamp < other.timestamp ? -1 : 1;
+            }
+
+            return this.id < other.id ? -1 : (this.id == other.id ? 0 : 1);
+        }
+    }
+}
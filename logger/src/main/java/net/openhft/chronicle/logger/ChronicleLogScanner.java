@@ -0,0 +1,597 @@
+/*
+ * Copyright 2014 Higher Frequency Trading
+ *
+ * http://www.higherfrequencytrading.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.logger;
+
+import net.openhft.chronicle.Chronicle;
+import net.openhft.chronicle.ExcerptTailer;
+import net.openhft.lang.io.Bytes;
+import net.openhft.lang.model.constraints.NotNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Scans log chronicles on a fork-join pool.
+ *
+ * A chronicle is cut into splits, i.e. index ranges: one per index file of
+ * each cycle of a VanillaChronicle, ranges of a fixed number of excerpts for
+ * an IndexedChronicle. Splits are decoded and mapped on the pool and their
+ * results are handed to a sink on the calling thread, either in index order,
+ * chronicle after chronicle, or split by split as soon as they are done. At
+ * most twice as many splits as the pool has threads are scanned ahead of the
+ * results handed to the sink, so that a slow sink does not make the results
+ * of every split pile up.
+ *
+ * Dictionary encoded strings, time stamp bases and deduplicated throwables
+ * are defined once per thread and per cycle, so a split which does not start
+ * a cycle can not be decoded on its own. The splits following another split
+ * of the same cycle, or of the same IndexedChronicle, are decoded with the
+ * definitions of the splits preceding them, which are collected by a first
+ * parallel pass that only decodes what the dictionary needs.
+ *
+ * Rather than mapping events, a scan can aggregate them: each split is
+ * folded into its own Accumulator, which is merged on the calling thread
+ * once the split is done.
+ *
+ * @see ChronicleLogIndexes
+ */
+public final class ChronicleLogScanner implements Closeable {
+    public static final long DEFAULT_SPLIT_SIZE = 1 << 20;
+
+    private final ForkJoinPool pool;
+    private final long splitSize;
+    private final VanillaLogAppenderConfig vanilla;
+    private final ChronicleLogIndexes indexes;
+
+    /**
+     * @param threads   the number of threads of the pool
+     */
+    public ChronicleLogScanner(int threads) {
+        this(threads, DEFAULT_SPLIT_SIZE);
+    }
+
+    /**
+     * @param threads   the number of threads of the pool
+     * @param splitSize the number of excerpts of a split of an IndexedChronicle
+     */
+    public ChronicleLogScanner(int threads, long splitSize) {
+        this(threads, splitSize, new VanillaLogAppenderConfig());
+    }
+
+    /**
+     * @param threads   the number of threads of the pool
+     * @param splitSize the number of excerpts of a split of an IndexedChronicle
+     * @param vanilla   the settings VanillaChronicles were written with, which
+     *                  tell how they are cut into splits
+     */
+    public ChronicleLogScanner(int threads, long splitSize, @NotNull final VanillaLogAppenderConfig vanilla) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("threads should be positive, got " + threads);
+        }
+
+        if (splitSize <= 0) {
+            throw new IllegalArgumentException("splitSize should be positive, got " + splitSize);
+        }
+
+        this.pool = new ForkJoinPool(threads);
+        this.splitSize = splitSize;
+        this.vanilla = vanilla;
+        this.indexes = new ChronicleLogIndexes(vanilla);
+    }
+
+    /**
+     * Scan the given chronicles.
+     *
+     * @param chronicles    the chronicles to scan
+     * @param binary        true if the chronicles contain binary events, false for text
+     * @param mappers       creates the mapper of each split
+     * @param sink          receives the results, on the calling thread
+     * @param ordered       true to hand the results in index order
+     * @throws IOException
+     * @throws InterruptedException
+     */
+    public <T> void scan(
+            @NotNull final List<Chronicle> chronicles,
+            boolean binary,
+            @NotNull final MapperFactory<T> mappers,
+            @NotNull final Sink<T> sink,
+            boolean ordered) throws IOException, InterruptedException {
+
+        scan(chronicles, binary, Long.MIN_VALUE, Long.MAX_VALUE, mappers, sink, ordered);
+    }
+
+    /**
+     * Scan the events of the given chronicles logged between two times, the
+     * splits outside of the times are found with a ChronicleLogSeeker using
+     * the default skew tolerance.
+     *
+     * @param chronicles    the chronicles to scan
+     * @param binary        true if the chronicles contain binary events, false for text
+     * @param from          the time of the first events to scan, Long.MIN_VALUE for no bound
+     * @param to            the time of the last events to scan, Long.MAX_VALUE for no bound
+     * @param mappers       creates the mapper of each split
+     * @param sink          receives the results, on the calling thread
+     * @param ordered       true to hand the results in index order
+     * @throws IOException
+     * @throws InterruptedException
+     */
+    public <T> void scan(
+            @NotNull final List<Chronicle> chronicles,
+            boolean binary,
+            long from,
+            long to,
+            @NotNull final MapperFactory<T> mappers,
+            @NotNull final Sink<T> sink,
+            boolean ordered) throws IOException, InterruptedException {
+
+        final List<Split> splits = splits(chronicles, binary, from, to);
+        final List<Split> scanned = new ArrayList<>(splits.size());
+        for (Split split : splits) {
+            if (split.scanned) {
+                scanned.add(split);
+            }
+        }
+
+        final int window = 2 * this.pool.getParallelism();
+        final List<Future<?>> futures = new ArrayList<>(splits.size());
+        try {
+            prepare(splits, binary, futures);
+            futures.clear();
+
+            if (ordered) {
+                // the splits scanned ahead of the one handed to the sink, in index order
+                final Deque<Future<List<T>>> pending = new ArrayDeque<>(window);
+                int submitted = 0;
+                for (int i = 0; i < scanned.size(); i++) {
+                    for (; submitted < scanned.size() && submitted < i + window; submitted++) {
+                        final Future<List<T>> future = this.pool.submit(
+                            new Scan<>(scanned.get(submitted), binary, from, to, mappers.newMapper()));
+                        pending.addLast(future);
+                        futures.add(future);
+                    }
+
+                    final Future<List<T>> future = pending.removeFirst();
+                    futures.remove(future);
+                    emit(future, sink);
+                }
+
+            } else {
+                final CompletionService<List<T>> completion = new ExecutorCompletionService<>(this.pool);
+                int submitted = 0;
+                for (int i = 0; i < scanned.size(); i++) {
+                    for (; submitted < scanned.size() && submitted < i + window; submitted++) {
+                        futures.add(completion.submit(
+                            new Scan<>(scanned.get(submitted), binary, from, to, mappers.newMapper())));
+                    }
+
+                    final Future<List<T>> future = completion.take();
+                    futures.remove(future);
+                    emit(future, sink);
+                }
+            }
+        } finally {
+            for (Future<?> future : futures) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Aggregate the events of the given chronicles logged between two times,
+     * see {@link #scan(List, boolean, long, long, MapperFactory, Sink, boolean)}.
+     *
+     * @param chronicles    the chronicles to scan
+     * @param binary        true if the chronicles contain binary events, false for text
+     * @param from          the time of the first events to scan, Long.MIN_VALUE for no bound
+     * @param to            the time of the last events to scan, Long.MAX_VALUE for no bound
+     * @param accumulators  creates the accumulator of each split and the one they are merged into
+     * @return              the accumulator all the splits were merged into
+     * @throws IOException
+     * @throws InterruptedException
+     */
+    public <A extends Accumulator<A>> A aggregate(
+            @NotNull final List<Chronicle> chronicles,
+            boolean binary,
+            long from,
+            long to,
+            @NotNull final AccumulatorFactory<A> accumulators) throws IOException, InterruptedException {
+
+        final List<Split> splits = splits(chronicles, binary, from, to);
+        final A result = accumulators.newAccumulator();
+
+        final List<Future<?>> futures = new ArrayList<>(splits.size());
+        try {
+            prepare(splits, binary, futures);
+            futures.clear();
+
+            final CompletionService<A> completion = new ExecutorCompletionService<>(this.pool);
+            for (Split split : splits) {
+                if (split.scanned) {
+                    futures.add(completion.submit(
+                        new Aggregate<>(split, binary, from, to, accumulators.newAccumulator())));
+                }
+            }
+
+            for (int i = 0; i < futures.size(); i++) {
+                result.merge(get(completion.take()));
+            }
+        } finally {
+            for (Future<?> future : futures) {
+                future.cancel(true);
+            }
+        }
+
+        return result;
+    }
+
+    @Override
+    public void close() {
+        this.pool.shutdown();
+    }
+
+    // *************************************************************************
+    //
+    // *************************************************************************
+
+    /**
+     * Cut the chronicles into splits, those holding no event logged between
+     * the given times are left out.
+     */
+    private List<Split> splits(@NotNull final List<Chronicle> chronicles, boolean binary, long from, long to)
+            throws IOException {
+
+        final ChronicleLogSeeker seeker = new ChronicleLogSeeker(binary, ChronicleLogSeeker.DEFAULT_SKEW, this.vanilla);
+        final List<Split> splits = new ArrayList<>();
+        for (Chronicle chronicle : chronicles) {
+            final long start = from != Long.MIN_VALUE ? seeker.search(chronicle, from - seeker.getSkew()) : 0;
+            final long end = to != Long.MAX_VALUE ? seeker.search(chronicle, to + seeker.getSkew() + 1) : -1;
+            if (start >= 0) {
+                split(chronicle, splits, start, end);
+            }
+        }
+
+        return splits;
+    }
+
+    /**
+     * Cut a chronicle into splits, in index order. The splits preceding the
+     * given start in its cycle are only kept for their definitions.
+     *
+     * @param start the first index to scan
+     * @param end   the index following the last one to scan, -1 for no bound
+     */
+    private void split(@NotNull final Chronicle chronicle, @NotNull final List<Split> splits, long start, long end)
+            throws IOException {
+
+        final List<Split> preceding = new ArrayList<>();
+        for (ChronicleLogIndexes.Range range : this.indexes.ranges(chronicle, this.splitSize)) {
+            if (end >= 0 && range.start >= end) {
+                break;
+            }
+
+            if (range.head) {
+                preceding.clear();
+            }
+
+            final Split split = new Split(chronicle, range.start, range.end, range.head, range.end > start);
+            if (split.scanned) {
+                splits.addAll(preceding);
+                splits.add(split);
+                preceding.clear();
+            } else {
+                preceding.add(split);
+            }
+        }
+    }
+
+    /**
+     * Give each split the definitions of the splits preceding it in its cycle.
+     */
+    private void prepare(@NotNull final List<Split> splits, boolean binary, @NotNull final List<Future<?>> futures)
+            throws IOException, InterruptedException {
+
+        final List<Future<ChronicleLogDictionary>> definitions = new ArrayList<>(splits.size());
+        for (int i = 0; i < splits.size(); i++) {
+            final boolean followed = i + 1 < splits.size() && !splits.get(i + 1).head;
+            final Future<ChronicleLogDictionary> future = followed
+                ? this.pool.submit(new Collect(splits.get(i), binary))
+                : null;
+
+            definitions.add(future);
+            if (future != null) {
+                futures.add(future);
+            }
+        }
+
+        ChronicleLogDictionary seed = null;
+        for (int i = 0; i < splits.size(); i++) {
+            final Split split = splits.get(i);
+            if (split.head) {
+                seed = new ChronicleLogDictionary();
+            } else {
+                seed.putAll(get(definitions.get(i - 1)));
+                split.dictionary.putAll(seed);
+            }
+        }
+    }
+
+    private static <T> void emit(@NotNull final Future<?> future, @NotNull final Sink<T> sink)
+            throws IOException, InterruptedException {
+        @SuppressWarnings("unchecked")
+        final List<T> results = (List<T>) get(future);
+        for (T result : results) {
+            sink.accept(result);
+        }
+    }
+
+    private static <T> T get(@NotNull final Future<T> future) throws IOException, InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * Hand the excerpts of a split to a reader.
+     */
+    private static void read(@NotNull final Split split, @NotNull final ChronicleLogReader reader)
+            throws IOException {
+        final ExcerptTailer tailer = split.chronicle.createTailer();
+
+        try {
+            if (tailer.index(split.start)) {
+                do {
+                    if (tailer.index() >= split.end || Thread.currentThread().isInterrupted()) {
+                        break;
+                    }
+
+                    reader.read(tailer);
+                    tailer.finish();
+                } while (tailer.nextIndex());
+            }
+        } finally {
+            tailer.close();
+        }
+    }
+
+    // *************************************************************************
+    //
+    // *************************************************************************
+
+    /**
+     * Turns the events of a split into results, a mapper is only used by the
+     * thread scanning its split.
+     */
+    public interface Mapper<T> {
+        /**
+         * @param event the event, only valid during the call
+         * @return      the result, null to drop the event
+         */
+        T map(@NotNull ChronicleLogEvent event);
+    }
+
+    public interface MapperFactory<T> {
+        Mapper<T> newMapper();
+    }
+
+    public interface Sink<T> {
+        void accept(T result);
+    }
+
+    /**
+     * Folds the events of a split, a folder is only used by the thread
+     * scanning its split.
+     */
+    public interface Folder {
+        /**
+         * @param event the event, only valid during the call
+         * @param size  the size of the excerpt of the event, in bytes
+         */
+        void add(@NotNull ChronicleLogEvent event, long size);
+    }
+
+    /**
+     * A Folder whose result is merged with those of the other splits, an
+     * accumulator is only used by the thread scanning its split until it is
+     * merged on the calling thread.
+     */
+    public interface Accumulator<A> extends Folder {
+        /**
+         * @param other the accumulator of another split, to add to this one
+         */
+        void merge(@NotNull A other);
+    }
+
+    public interface AccumulatorFactory<A> {
+        A newAccumulator();
+    }
+
+    // *************************************************************************
+    //
+    // *************************************************************************
+
+    private static final class Split {
+        final Chronicle chronicle;
+        final long start;
+        final long end;
+        final boolean head;
+        final boolean scanned;
+        final ChronicleLogDictionary dictionary;
+
+        /**
+         * @param head      true if the split starts a cycle
+         * @param scanned   false if the split is only read for its definitions
+         */
+        Split(Chronicle chronicle, long start, long end, boolean head, boolean scanned) {
+            this.chronicle = chronicle;
+            this.start = start;
+            this.end = end;
+            this.head = head;
+            this.scanned = scanned;
+            this.dictionary = new ChronicleLogDictionary();
+        }
+    }
+
+    /**
+     * Collect the definitions of a split.
+     */
+    private static final class Collect implements Callable<ChronicleLogDictionary> {
+        private final Split split;
+        private final boolean binary;
+
+        Collect(Split split, boolean binary) {
+            this.split = split;
+            this.binary = binary;
+        }
+
+        @Override
+        public ChronicleLogDictionary call() throws IOException {
+            final ChronicleLogDictionary dictionary = new ChronicleLogDictionary();
+            final BinaryChronicleLogEventFlyweight event = new BinaryChronicleLogEventFlyweight();
+
+            read(this.split, new ChronicleLogReader() {
+                @Override
+                public void read(final Bytes bytes) {
+                    if (binary) {
+                        event.wrap(bytes, dictionary);
+                    } else {
+                        TextChronicleLogEvent.read(bytes, dictionary);
+                    }
+                }
+            });
+
+            return dictionary;
+        }
+    }
+
+    /**
+     * Decode the events of a split logged between two times into a folder.
+     */
+    private static void decode(
+            @NotNull final Split split,
+            final boolean binary,
+            final long from,
+            final long to,
+            @NotNull final Folder folder) throws IOException {
+
+        final ChronicleLogDictionary dictionary = split.dictionary;
+        final BinaryChronicleLogEventFlyweight event = new BinaryChronicleLogEventFlyweight();
+
+        read(split, new ChronicleLogReader() {
+            @Override
+            public void read(final Bytes bytes) {
+                final long size = bytes.remaining();
+                final ChronicleLogEvent decoded = binary
+                    ? event.wrap(bytes, dictionary)
+                    : TextChronicleLogEvent.read(bytes, dictionary);
+
+                if (decoded.getTimeStamp() < from || decoded.getTimeStamp() > to) {
+                    return;
+                }
+
+                folder.add(decoded, size);
+            }
+        });
+    }
+
+    /**
+     * Decode and map the events of a split.
+     */
+    private static final class Scan<T> implements Callable<List<T>> {
+        private final Split split;
+        private final boolean binary;
+        private final long from;
+        private final long to;
+        private final Mapper<T> mapper;
+
+        Scan(Split split, boolean binary, long from, long to, Mapper<T> mapper) {
+            this.split = split;
+            this.binary = binary;
+            this.from = from;
+            this.to = to;
+            this.mapper = mapper;
+        }
+
+        @Override
+        public List<T> call() throws IOException {
+            final List<T> results = new ArrayList<>();
+
+            decode(this.split, this.binary, this.from, this.to, new Folder() {
+                @Override
+                public void add(@NotNull final ChronicleLogEvent event, long size) {
+                    final T result = mapper.map(event);
+                    if (result != null) {
+                        results.add(result);
+                    }
+                }
+            });
+
+            return results;
+        }
+    }
+
+    /**
+     * Decode the events of a split into an accumulator.
+     */
+    private static final class Aggregate<A extends Accumulator<A>> implements Callable<A> {
+        private final Split split;
+        private final boolean binary;
+        private final long from;
+        private final long to;
+        private final A accumulator;
+
+        Aggregate(Split split, boolean binary, long from, long to, A accumulator) {
+            this.split = split;
+            this.binary = binary;
+            this.from = from;
+            this.to = to;
+            this.accumulator = accumulator;
+        }
+
+        @Override
+        public A call() throws IOException {
+            decode(this.split, this.binary, this.from, this.to, this.accumulator);
+            return this.accumulator;
+        }
+    }
+}
@@ -0,0 +1,352 @@
+/*
+ * Copyright 2014 Higher Frequency Trading
+ *
+ * http://www.higherfrequencytrading.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.logger;
+
+import net.openhft.chronicle.Chronicle;
+import net.openhft.chronicle.ExcerptTailer;
+import net.openhft.lang.model.constraints.NotNull;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Finds the events of a log chronicle logged from a given time by a binary
+ * search of the excerpt indexes on the time stamp of the events.
+ *
+ * Events are indexed in the order they are written, which is only roughly
+ * the order of their time stamps when several threads log, so the search
+ * assumes an event is never indexed after an event more than the skew
+ * tolerance younger than itself. It returns the first index holding an event
+ * logged at or after the given time minus the skew, it is up to the reader to
+ * drop the events older than the time it looks for.
+ *
+ * Binary events whose time stamp is a delta from the start of their cycle
+ * are resolved by walking back to the closest event carrying the start of
+ * the cycle, which writers repeat every ChronicleLogSymbols#BASE_INTERVAL
+ * events of a thread so the walk stays short. As dictionary definitions are only written at the beginning of
+ * a cycle, the seek of a tailer reads the events of the cycle preceding the
+ * index found into the dictionary.
+ *
+ * @see ChronicleLogIndexes
+ */
+public final class ChronicleLogSeeker {
+    public static final long DEFAULT_SKEW = 1000;
+
+    private final boolean binary;
+    private final long skew;
+    private final ChronicleLogIndexes indexes;
+
+    /**
+     * @param binary    true if the chronicles contain binary events, false for text
+     */
+    public ChronicleLogSeeker(boolean binary) {
+        this(binary, DEFAULT_SKEW);
+    }
+
+    /**
+     * @param binary    true if the chronicles contain binary events, false for text
+     * @param skew      the tolerance in ms on the order of the time stamps
+     */
+    public ChronicleLogSeeker(boolean binary, long skew) {
+        this(binary, skew, new VanillaLogAppenderConfig());
+    }
+
+    /**
+     * @param binary    true if the chronicles contain binary events, false for text
+     * @param skew      the tolerance in ms on the order of the time stamps
+     * @param vanilla   the settings VanillaChronicles were written with, which
+     *                  tell how their indexes are laid out
+     */
+    public ChronicleLogSeeker(boolean binary, long skew, @NotNull final VanillaLogAppenderConfig vanilla) {
+        if (skew < 0) {
+            throw new IllegalArgumentException("skew should not be negative, got " + skew);
+        }
+
+        this.binary = binary;
+        this.skew = skew;
+        this.indexes = new ChronicleLogIndexes(vanilla);
+    }
+
+    public long getSkew() {
+        return this.skew;
+    }
+
+    /**
+     * @param chronicle the chronicle
+     * @param timestamp the time to look for
+     * @return          the index of the first event at or after the given time,
+     *                  within the skew tolerance, -1 if there is none
+     */
+    public long seek(@NotNull final Chronicle chronicle, long timestamp) throws IOException {
+        return search(chronicle, timestamp - this.skew);
+    }
+
+    /**
+     * Position a tailer of the chronicle on the index returned by
+     * {@link #seek(Chronicle, long)} and read the definitions of the events
+     * of the same cycle preceding it into the dictionary.
+     *
+     * @param chronicle     the chronicle
+     * @param tailer        a tailer of the chronicle
+     * @param timestamp     the time to look for
+     * @param dictionary    the dictionary the events will be read with
+     * @return              true if the tailer is positioned on an event which
+     *                      has not been read yet, false if there is none
+     */
+    public boolean seek(
+            @NotNull final Chronicle chronicle,
+            @NotNull final ExcerptTailer tailer,
+            long timestamp,
+            @NotNull final ChronicleLogDictionary dictionary) throws IOException {
+
+        final List<ChronicleLogIndexes.Range> ranges = this.indexes.ranges(chronicle, Long.MAX_VALUE);
+        final TreeMap<Long, long[]> bases = new TreeMap<>();
+
+        final long target = timestamp - this.skew;
+        final long start = search(tailer, ranges, target, bases);
+        if (start < 0) {
+            return false;
+        }
+
+        final long cycleStart = target - mod(target, this.indexes.cycleLength());
+        final long from = search(tailer, ranges, cycleStart - this.skew, bases);
+        if (from >= 0 && from < start && tailer.index(from)) {
+            final BinaryChronicleLogEventFlyweight event = new BinaryChronicleLogEventFlyweight();
+            do {
+                if (tailer.index() >= start) {
+                    break;
+                }
+
+                if (this.binary) {
+                    event.wrap(tailer, dictionary);
+                } else {
+                    TextChronicleLogEvent.read(tailer, dictionary);
+                }
+
+                tailer.finish();
+            } while (tailer.nextIndex());
+        }
+
+        return tailer.index(start);
+    }
+
+    /**
+     * Move a tailer of the chronicle to its end. As dictionary definitions are
+     * written again on each cycle, only the definitions of the events of the
+     * last cycle are read into the dictionary, and none at all if the last
+     * event carries its time stamp inline, i.e. it is not written with
+     * symbols, or the chronicle does not contain binary events.
+     *
+     * @param chronicle     the chronicle
+     * @param tailer        a tailer of the chronicle
+     * @param dictionary    the dictionary the following events will be read with
+     * @return              the tailer
+     */
+    public ExcerptTailer toEnd(
+            @NotNull final Chronicle chronicle,
+            @NotNull final ExcerptTailer tailer,
+            @NotNull final ChronicleLogDictionary dictionary) throws IOException {
+
+        if (!this.binary) {
+            return tailer.toEnd();
+        }
+
+        final List<ChronicleLogIndexes.Range> ranges = this.indexes.ranges(chronicle, Long.MAX_VALUE);
+        if (ranges.isEmpty()) {
+            return tailer.toEnd();
+        }
+
+        final long last = tailer.toEnd().index();
+        if (!tailer.index(last) || !hasSymbols(tailer) || !tailer.index(last)) {
+            return tailer.toEnd();
+        }
+
+        final TreeMap<Long, long[]> bases = new TreeMap<>();
+        final long timestamp = timestamp(tailer, last, bases);
+        final long cycleStart = timestamp - mod(timestamp, this.indexes.cycleLength());
+        final long from = search(tailer, ranges, cycleStart - this.skew, bases);
+        if (from < 0 || !tailer.index(from)) {
+            return tailer.toEnd();
+        }
+
+        final BinaryChronicleLogEventFlyweight event = new BinaryChronicleLogEventFlyweight();
+        do {
+            event.wrap(tailer, dictionary);
+            tailer.finish();
+        } while (tailer.nextIndex());
+
+        return tailer;
+    }
+
+    /**
+     * @return the index of the first event logged at or after the given time,
+     *         -1 if there is none
+     */
+    long search(@NotNull final Chronicle chronicle, long target) throws IOException {
+        final List<ChronicleLogIndexes.Range> ranges = this.indexes.ranges(chronicle, Long.MAX_VALUE);
+        final ExcerptTailer tailer = chronicle.createTailer();
+
+        try {
+            return search(tailer, ranges, target, new TreeMap<Long, long[]>());
+        } finally {
+            tailer.close();
+        }
+    }
+
+    // *************************************************************************
+    //
+    // *************************************************************************
+
+    private long search(
+            @NotNull final ExcerptTailer tailer,
+            @NotNull final List<ChronicleLogIndexes.Range> ranges,
+            long target,
+            @NotNull final TreeMap<Long, long[]> bases) {
+
+        // the first range whose first event is not older than the target
+        int lo = 0;
+        int hi = ranges.size();
+        while (lo < hi) {
+            final int mid = (lo + hi) >>> 1;
+            final long start = ranges.get(mid).start;
+            if (tailer.index(start) && timestamp(tailer, start, bases) < target) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+
+        if (lo > 0) {
+            final long index = search(tailer, ranges.get(lo - 1), target, bases);
+            if (index >= 0) {
+                return index;
+            }
+        }
+
+        return lo < ranges.size() ? ranges.get(lo).start : -1;
+    }
+
+    /**
+     * Search a range whose first event is older than the target, the indexes
+     * following the last excerpt count as younger.
+     */
+    private long search(
+            @NotNull final ExcerptTailer tailer,
+            @NotNull final ChronicleLogIndexes.Range range,
+            long target,
+            @NotNull final TreeMap<Long, long[]> bases) {
+
+        long lo = range.start + 1;
+        long hi = range.end;
+        while (lo < hi) {
+            final long mid = lo + ((hi - lo) >>> 1);
+            if (!tailer.index(mid) || timestamp(tailer, mid, bases) >= target) {
+                hi = mid;
+            } else {
+                lo = mid + 1;
+            }
+        }
+
+        return lo < range.end && tailer.index(lo) ? lo : -1;
+    }
+
+    /**
+     * Read the time stamp of the event the tailer is positioned on.
+     */
+    private long timestamp(
+            @NotNull final ExcerptTailer tailer, long index, @NotNull final TreeMap<Long, long[]> bases) {
+        if (!this.binary) {
+            return TextChronicleLogEvent.readTimestamp(tailer);
+        }
+
+        final byte version = tailer.readByte();
+        if (version == ChronicleLog.VERSION_2 || version == ChronicleLog.VERSION_1) {
+            return tailer.readLong();
+        }
+
+        if (version != ChronicleLog.VERSION_3) {
+            throw new IllegalStateException("message version= " + version);
+        }
+
+        final int flags = tailer.readUnsignedByte();
+        if ((flags & ChronicleLog.FLAG_TIMESTAMP_BASE) != 0) {
+            return tailer.readLong() + tailer.readStopBit();
+        }
+
+        if ((flags & ChronicleLog.FLAG_TIMESTAMP_DELTA) != 0) {
+            final long delta = tailer.readStopBit();
+            return base(tailer, index, bases) + delta;
+        }
+
+        return tailer.readLong();
+    }
+
+    /**
+     * Walk back from an event whose time stamp is a delta to the closest event
+     * carrying the start of the cycle, the walks are recorded as intervals
+     * keyed on their first index so that they are not walked again.
+     *
+     * @return the start of the cycle, 0 if not found
+     */
+    private static long base(
+            @NotNull final ExcerptTailer tailer, long index, @NotNull final TreeMap<Long, long[]> bases) {
+        long base = 0;
+        long first = index;
+        for (long i = index - 1; i >= 0; i--) {
+            final Map.Entry<Long, long[]> known = bases.floorEntry(i);
+            if (known != null && known.getValue()[0] >= i) {
+                base = known.getValue()[1];
+                first = known.getKey();
+                break;
+            }
+
+            if (!tailer.index(i)) {
+                break;
+            }
+
+            first = i;
+            if (tailer.readByte() == ChronicleLog.VERSION_3
+                    && (tailer.readUnsignedByte() & ChronicleLog.FLAG_TIMESTAMP_BASE) != 0) {
+                base = tailer.readLong();
+                break;
+            }
+        }
+
+        bases.put(first, new long[] { index, base });
+        return base;
+    }
+
+    /**
+     * @return true if the event the tailer is positioned on has its time stamp
+     *         written relative to the start of its cycle, as done by writers
+     *         using symbols
+     */
+    private static boolean hasSymbols(@NotNull final ExcerptTailer tailer) {
+        return tailer.readByte() == ChronicleLog.VERSION_3
+            && (tailer.readUnsignedByte()
+                & (ChronicleLog.FLAG_TIMESTAMP_BASE | ChronicleLog.FLAG_TIMESTAMP_DELTA)) != 0;
+    }
+
+    private static long mod(long value, long divisor) {
+        final long mod = value % divisor;
+        return mod < 0 ? mod + divisor : mod;
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2014 Higher Frequency Trading
+ *
+ * http://www.higherfrequencytrading.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.logger;
+
+import net.openhft.lang.model.constraints.NotNull;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Naming of the IndexedChronicles used by a striped logger: the stripe N of
+ * the base path {@code path} is the IndexedChronicle {@code path.N}, i.e.
+ * the files {@code path.N.data} and {@code path.N.index}.
+ */
+public final class ChronicleLogStripes {
+    public static final String STRIPE_SEPARATOR = ".";
+    public static final String INDEX_SUFFIX = ".index";
+
+    /**
+     * @param path      the base path of the striped chronicle
+     * @param stripe    the stripe number
+     * @return          the path of the IndexedChronicle backing the stripe
+     */
+    public static String path(@NotNull String path, int stripe) {
+        return path + STRIPE_SEPARATOR + stripe;
+    }
+
+    /**
+     * Discover the stripes of a striped chronicle.
+     *
+     * @param path      the base path of the striped chronicle
+     * @return          the paths of the existing stripes ordered by stripe
+     *                  number, empty if the path is not a striped chronicle
+     */
+    public static List<String> paths(@NotNull String path) {
+        final File base = new File(path).getAbsoluteFile();
+        final File dir = base.getParentFile();
+        final String prefix = base.getName() + STRIPE_SEPARATOR;
+        final Map<Integer, String> stripes = new TreeMap<>();
+
+        final String[] names = dir != null ? dir.list() : null;
+        if (names != null) {
+            for (String name : names) {
+                // path.index, the index of an unstriped chronicle, also
+                // starts with the prefix and ends with the suffix
+                if (name.length() > prefix.length() + INDEX_SUFFIX.length()
+                        && name.startsWith(prefix)
+                        && name.endsWith(INDEX_SUFFIX)) {
+                    final String stripe = name.substring(prefix.length(), name.length() - INDEX_SUFFIX.length());
+                    if (isNumber(stripe)) {
+                        stripes.put(Integer.parseInt(stripe), path(path, Integer.parseInt(stripe)));
+                    }
+                }
+            }
+        }
+
+        return new ArrayList<>(stripes.values());
+    }
+
+    /**
+     * @param path      the base path of a chronicle
+     * @return          true if stripes exist for the given path
+     */
+    public static boolean isStriped(@NotNull String path) {
+        return !paths(path).isEmpty();
+    }
+
+    private static boolean isNumber(String value) {
+        if (value.isEmpty() || value.length() > 9) {
+            return false;
+        }
+
+        for (int i = 0; i < value.length(); i++) {
+            if (!Character.isDigit(value.charAt(i))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private ChronicleLogStripes() {}
+}
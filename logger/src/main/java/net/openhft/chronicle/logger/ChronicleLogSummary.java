@@ -0,0 +1,459 @@
+/*
+ * Copyright 2014 Higher Frequency Trading
+ *
+ * http://www.higherfrequencytrading.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.logger;
+
+import net.openhft.lang.model.constraints.NotNull;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The summary of the events written to a chronicle during a cycle: the
+ * number of events per logger and level, the lowest and highest time stamps
+ * and the first and last indexes.
+ *
+ * Summaries are kept in memory by a SummaryWriter and stored in a sidecar
+ * directory next to the chronicle, {@code path.summary}, one small file per
+ * cycle, when the cycle rolls and when the writer is closed. Aggregates such
+ * as the number of errors per logger and per hour can then be computed from
+ * the summaries without reading the chronicle.
+ *
+ * The cycles have the length of the cycles of a VanillaChronicle, they are
+ * used for IndexedChronicles too. An event is counted in the cycle of its
+ * time stamp, except for the events of earlier cycles written once the
+ * cycle rolled, i.e. by other threads or drained late by an AsyncWriter:
+ * they are counted in the current cycle as late events, see
+ * {@link #getLate()}, with their time stamps clamped to its start so that
+ * the time stamps of a summary stay within its cycle.
+ *
+ * @see ChronicleLogWriters.SummaryWriter
+ */
+public final class ChronicleLogSummary {
+    public static final String DIRECTORY_SUFFIX = ".summary";
+    public static final String FILE_SUFFIX = ".summary";
+
+    private static final int MAGIC_V1 = 0x434c5331;
+    private static final int MAGIC = 0x434c5332;
+    private static final ChronicleLogLevel[] LEVELS = ChronicleLogLevel.values();
+
+    private final long cycle;
+    private final long cycleLength;
+    private final ConcurrentHashMap<String, AtomicLongArray> loggers;
+    private final AtomicLong minTimestamp;
+    private final AtomicLong maxTimestamp;
+    private final AtomicLong firstIndex;
+    private final AtomicLong lastIndex;
+    private final AtomicLong late;
+
+    /**
+     * @param cycle         the cycle, i.e. the start of the cycle divided by its length
+     * @param cycleLength   the length in ms of the cycle
+     */
+    public ChronicleLogSummary(long cycle, long cycleLength) {
+        if (cycleLength <= 0) {
+            throw new IllegalArgumentException("cycleLength should be positive, got " + cycleLength);
+        }
+
+        this.cycle = cycle;
+        this.cycleLength = cycleLength;
+        this.loggers = new ConcurrentHashMap<>();
+        this.minTimestamp = new AtomicLong(Long.MAX_VALUE);
+        this.maxTimestamp = new AtomicLong(Long.MIN_VALUE);
+        this.firstIndex = new AtomicLong(Long.MAX_VALUE);
+        this.lastIndex = new AtomicLong(-1);
+        this.late = new AtomicLong(0);
+    }
+
+    // *************************************************************************
+    //
+    // *************************************************************************
+
+    /**
+     * Count an event, may be called concurrently. An event of an earlier
+     * cycle is counted as late and its time stamp clamped to the start of
+     * the cycle.
+     *
+     * @param level         the level of the event
+     * @param timestamp     the time stamp of the event
+     * @param loggerName    the name of the logger
+     * @param index         the index of the excerpt, -1 if not known
+     */
+    public void add(
+            @NotNull ChronicleLogLevel level,
+            long timestamp,
+            @NotNull String loggerName,
+            long index) {
+
+        counts(loggerName).incrementAndGet(level.ordinal());
+
+        final long start = getStart();
+        if (timestamp < start) {
+            this.late.incrementAndGet();
+            timestamp = start;
+        }
+
+        min(this.minTimestamp, timestamp);
+        max(this.maxTimestamp, timestamp);
+
+        if (index >= 0) {
+            min(this.firstIndex, index);
+            max(this.lastIndex, index);
+        }
+    }
+
+    /**
+     * Add the counts of another summary, i.e. of another stripe of a striped
+     * chronicle. The indexes are only meaningful if both summaries are of the
+     * same chronicle.
+     *
+     * @param other     the summary to add
+     */
+    public void add(@NotNull ChronicleLogSummary other) {
+        for (Map.Entry<String, AtomicLongArray> entry : other.loggers.entrySet()) {
+            for (int i = 0; i < LEVELS.length; i++) {
+                final long count = entry.getValue().get(i);
+                if (count != 0) {
+                    counts(entry.getKey()).addAndGet(i, count);
+                }
+            }
+        }
+
+        min(this.minTimestamp, other.minTimestamp.get());
+        max(this.maxTimestamp, other.maxTimestamp.get());
+        min(this.firstIndex, other.firstIndex.get());
+        max(this.lastIndex, other.lastIndex.get());
+        this.late.addAndGet(other.late.get());
+    }
+
+    private AtomicLongArray counts(final String loggerName) {
+        AtomicLongArray counts = this.loggers.get(loggerName);
+        if (counts == null) {
+            counts = new AtomicLongArray(LEVELS.length);
+            final AtomicLongArray previous = this.loggers.putIfAbsent(loggerName, counts);
+            if (previous != null) {
+                counts = previous;
+            }
+        }
+
+        return counts;
+    }
+
+    private static void min(final AtomicLong value, long candidate) {
+        for (long current = value.get(); candidate < current; current = value.get()) {
+            if (value.compareAndSet(current, candidate)) {
+                return;
+            }
+        }
+    }
+
+    private static void max(final AtomicLong value, long candidate) {
+        for (long current = value.get(); candidate > current; current = value.get()) {
+            if (value.compareAndSet(current, candidate)) {
+                return;
+            }
+        }
+    }
+
+    // *************************************************************************
+    //
+    // *************************************************************************
+
+    public long getCycle() {
+        return this.cycle;
+    }
+
+    public long getCycleLength() {
+        return this.cycleLength;
+    }
+
+    /**
+     * @return the time in ms of the start of the cycle
+     */
+    public long getStart() {
+        return this.cycle * this.cycleLength;
+    }
+
+    /**
+     * @return the time in ms of the end of the cycle, exclusive
+     */
+    public long getEnd() {
+        return (this.cycle + 1) * this.cycleLength;
+    }
+
+    /**
+     * @return the lowest time stamp, Long.MAX_VALUE if no event was counted
+     */
+    public long getMinTimestamp() {
+        return this.minTimestamp.get();
+    }
+
+    /**
+     * @return the highest time stamp, Long.MIN_VALUE if no event was counted
+     */
+    public long getMaxTimestamp() {
+        return this.maxTimestamp.get();
+    }
+
+    /**
+     * @return the lowest index, -1 if not known
+     */
+    public long getFirstIndex() {
+        final long index = this.firstIndex.get();
+        return index != Long.MAX_VALUE ? index : -1;
+    }
+
+    /**
+     * @return the highest index, -1 if not known
+     */
+    public long getLastIndex() {
+        return this.lastIndex.get();
+    }
+
+    /**
+     * @return the number of events of earlier cycles counted in the cycle
+     */
+    public long getLate() {
+        return this.late.get();
+    }
+
+    /**
+     * @return the names of the loggers which logged in the cycle
+     */
+    public Set<String> getLoggers() {
+        return Collections.unmodifiableSet(this.loggers.keySet());
+    }
+
+    /**
+     * @return the number of events
+     */
+    public long count() {
+        long count = 0;
+        for (AtomicLongArray counts : this.loggers.values()) {
+            for (int i = 0; i < LEVELS.length; i++) {
+                count += counts.get(i);
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * @param level     the level
+     * @return          the number of events of the level
+     */
+    public long count(@NotNull ChronicleLogLevel level) {
+        long count = 0;
+        for (AtomicLongArray counts : this.loggers.values()) {
+            count += counts.get(level.ordinal());
+        }
+
+        return count;
+    }
+
+    /**
+     * @param loggerName    the name of the logger
+     * @param level         the level
+     * @return              the number of events of the level logged by the logger
+     */
+    public long count(@NotNull String loggerName, @NotNull ChronicleLogLevel level) {
+        final AtomicLongArray counts = this.loggers.get(loggerName);
+        return counts != null ? counts.get(level.ordinal()) : 0;
+    }
+
+    // *************************************************************************
+    //
+    // *************************************************************************
+
+    /**
+     * @param path  the path of a chronicle
+     * @return      the directory holding the summaries of the chronicle
+     */
+    public static File directory(@NotNull String path) {
+        return new File(path + DIRECTORY_SUFFIX);
+    }
+
+    /**
+     * @param path  the path of a chronicle
+     * @param cycle the cycle
+     * @return      the file holding the summary of a cycle of the chronicle
+     */
+    public static File file(@NotNull String path, long cycle) {
+        return new File(directory(path), cycle + FILE_SUFFIX);
+    }
+
+    /**
+     * Store the summary, the file is written aside and renamed so that
+     * readers never see a partially written summary.
+     *
+     * @param path  the path of the chronicle
+     * @throws IOException
+     */
+    public void write(@NotNull String path) throws IOException {
+        final File dir = directory(path);
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Unable to create " + dir);
+        }
+
+        final File file = file(path, this.cycle);
+        final File tmp = new File(dir, this.cycle + FILE_SUFFIX + ".tmp");
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+            out.writeInt(MAGIC);
+            out.writeLong(this.cycle);
+            out.writeLong(this.cycleLength);
+            out.writeLong(this.minTimestamp.get());
+            out.writeLong(this.maxTimestamp.get());
+            out.writeLong(this.firstIndex.get());
+            out.writeLong(this.lastIndex.get());
+            out.writeLong(this.late.get());
+            out.writeByte(LEVELS.length);
+            out.writeInt(this.loggers.size());
+
+            for (Map.Entry<String, AtomicLongArray> entry : this.loggers.entrySet()) {
+                out.writeUTF(entry.getKey());
+                for (int i = 0; i < LEVELS.length; i++) {
+                    out.writeLong(entry.getValue().get(i));
+                }
+            }
+        }
+
+        if (!tmp.renameTo(file) && !(file.delete() && tmp.renameTo(file))) {
+            throw new IOException("Unable to rename " + tmp + " to " + file);
+        }
+    }
+
+    /**
+     * @param file  the file of a summary
+     * @return      the summary
+     * @throws IOException if the file can not be read or is not a summary
+     */
+    public static ChronicleLogSummary read(@NotNull File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            // the summaries written before late events were counted have none
+            final int magic = in.readInt();
+            if (magic != MAGIC && magic != MAGIC_V1) {
+                throw new IOException(file + " is not a summary");
+            }
+
+            final ChronicleLogSummary summary = new ChronicleLogSummary(in.readLong(), in.readLong());
+            summary.minTimestamp.set(in.readLong());
+            summary.maxTimestamp.set(in.readLong());
+            summary.firstIndex.set(in.readLong());
+            summary.lastIndex.set(in.readLong());
+            summary.late.set(magic != MAGIC_V1 ? in.readLong() : 0);
+
+            final int levels = in.readByte();
+            for (int n = in.readInt(); n > 0; n--) {
+                final String loggerName = in.readUTF();
+                for (int i = 0; i < levels; i++) {
+                    final long count = in.readLong();
+                    if (i < LEVELS.length && count != 0) {
+                        summary.counts(loggerName).addAndGet(i, count);
+                    }
+                }
+            }
+
+            return summary;
+        }
+    }
+
+    /**
+     * Read the summaries of a chronicle.
+     *
+     * @param path  the path of the chronicle
+     * @return      the summaries ordered by cycle, empty if there are none
+     * @throws IOException
+     */
+    public static List<ChronicleLogSummary> read(@NotNull String path) throws IOException {
+        return read(path, Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Read the summaries of the cycles of a chronicle overlapping a time range.
+     *
+     * @param path  the path of the chronicle
+     * @param from  the start of the range in ms
+     * @param to    the end of the range in ms, inclusive
+     * @return      the summaries ordered by cycle, empty if there are none
+     * @throws IOException
+     */
+    public static List<ChronicleLogSummary> read(@NotNull String path, long from, long to) throws IOException {
+        final List<ChronicleLogSummary> summaries = new ArrayList<>();
+        final File[] files = directory(path).listFiles();
+
+        if (files != null) {
+            for (File file : files) {
+                if (file.getName().endsWith(FILE_SUFFIX)) {
+                    final ChronicleLogSummary summary = read(file);
+                    if (summary.getStart() <= to && summary.getEnd() > from) {
+                        summaries.add(summary);
+                    }
+                }
+            }
+        }
+
+        Collections.sort(summaries, BY_CYCLE);
+        return summaries;
+    }
+
+    /**
+     * Sum summaries by cycle, i.e. the summaries of the stripes of a striped
+     * chronicle.
+     *
+     * @param summaries the summaries
+     * @return          one summary per cycle ordered by cycle
+     */
+    public static List<ChronicleLogSummary> merge(@NotNull List<ChronicleLogSummary> summaries) {
+        final Map<Long, ChronicleLogSummary> merged = new TreeMap<>();
+        for (ChronicleLogSummary summary : summaries) {
+            ChronicleLogSummary cycle = merged.get(summary.cycle);
+            if (cycle == null) {
+                cycle = new ChronicleLogSummary(summary.cycle, summary.cycleLength);
+                merged.put(summary.cycle, cycle);
+            }
+
+            cycle.add(summary);
+        }
+
+        return new ArrayList<>(merged.values());
+    }
+
+    private static final Comparator<ChronicleLogSummary> BY_CYCLE = new Comparator<ChronicleLogSummary>() {
+        @Override
+        public int compare(ChronicleLogSummary s1, ChronicleLogSummary s2) {
+            return Long.compare(s1.cycle, s2.cycle);
+        }
+    };
+}
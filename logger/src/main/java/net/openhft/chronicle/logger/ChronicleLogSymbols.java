@@ -0,0 +1,431 @@
+/*
+ * Copyright 2014 Higher Frequency Trading
+ *
+ * http://www.higherfrequencytrading.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.logger;
+
+import net.openhft.chronicle.ExcerptAppender;
+import net.openhft.lang.io.RandomDataOutput;
+import net.openhft.lang.model.constraints.NotNull;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Writer side of the dictionary encoding of binary log events.
+ *
+ * Repeated strings such as thread and logger names or message templates are
+ * replaced by a stop-bit encoded id. A string is written inline with its id (a definition) the first
+ * time a thread writes it in a cycle, later events of that thread in the same
+ * cycle only write the id (a reference). As threads do not rely on each other
+ * definitions, the ids resolve whatever the order in which events of different
+ * threads are indexed, and as definitions are written again on each cycle
+ * every cycle of a VanillaChronicle can be decoded on its own.
+ *
+ * A field is encoded as a stop-bit code, followed by the string for inline
+ * values and definitions:
+ * <ul>
+ *   <li>code &gt;= -1, the string written by writeUTFΔ (-1 for null)</li>
+ *   <li>code = -(2 * id + 2), a reference to id</li>
+ *   <li>code = -(2 * id + 3), the definition of id followed by writeUTFΔ</li>
+ * </ul>
+ *
+ * so events without dictionary entries read back as plain events.
+ *
+ * Time stamps are written as a stop-bit delta from the start of the cycle,
+ * which is written along the first event of each thread in a cycle, so like
+ * strings they can only be decoded by a reader starting at the beginning of a
+ * cycle. The start of the cycle is written again every {@link #BASE_INTERVAL}
+ * events of a thread, so that a reader looking up the time stamp of a single
+ * event, i.e. ChronicleLogSeeker, only walks back a few events to find it.
+ *
+ * Throwables can be deduplicated the same way, keyed on their class, their
+ * stack frames and their cause chain (the class, message and frames of each
+ * cause): the first occurrence is written in full and later ones only carry
+ * the id and their own message, the cause being that of the first one. Strings
+ * longer than {@link #MAX_SYMBOL_LENGTH} and strings seen once the table holds
+ * {@link #MAX_SYMBOLS} entries are always written inline. The ids are only
+ * consistent within a writer, so a chronicle should not be written by several
+ * processes at the same time when the dictionary encoding is enabled.
+ *
+ * @see ChronicleLogDictionary
+ */
+public final class ChronicleLogSymbols {
+    public static final int MAX_SYMBOLS = 1 << 16;
+    public static final int MAX_SYMBOL_LENGTH = 1024;
+    public static final int MAX_THROWABLES = 1 << 12;
+    public static final int BASE_INTERVAL = 256;
+
+    static final byte THROWABLE_NONE = 0;
+    static final byte THROWABLE_INLINE = 'Y';
+    static final byte THROWABLE_DEFINITION = 'D';
+    static final byte THROWABLE_REFERENCE = 'R';
+
+    static final String TRACE_MARKER = "[trace#";
+
+    private final long cycleLength;
+    private final boolean names;
+    private final boolean templates;
+    private final boolean throwables;
+    private final Map<String, Integer> ids;
+    private final AtomicInteger nextId;
+    private final Map<Fingerprint, Integer> throwableIds;
+    private final AtomicInteger nextThrowableId;
+    private final ThreadLocal<Encoder> encoders;
+
+    /**
+     * @param cycleLength   the length in ms of the cycle on which definitions are written again
+     * @param names         true to encode thread and logger names
+     * @param templates     true to encode the message of events having arguments
+     * @param throwables    true to deduplicate throwables
+     */
+    public ChronicleLogSymbols(long cycleLength, boolean names, boolean templates, boolean throwables) {
+        if (cycleLength <= 0) {
+            throw new IllegalArgumentException("cycleLength should be positive, got " + cycleLength);
+        }
+
+        this.cycleLength = cycleLength;
+        this.names = names;
+        this.templates = templates;
+        this.throwables = throwables;
+        this.ids = new ConcurrentHashMap<>();
+        this.nextId = new AtomicInteger(0);
+        this.throwableIds = new ConcurrentHashMap<>();
+        this.nextThrowableId = new AtomicInteger(0);
+        this.encoders = new ThreadLocal<Encoder>() {
+            @Override
+            protected Encoder initialValue() {
+                return new Encoder();
+            }
+        };
+    }
+
+    /**
+     * @return the number of strings in the table
+     */
+    public int size() {
+        return this.ids.size();
+    }
+
+    // *************************************************************************
+    //
+    // *************************************************************************
+
+    /**
+     * @return the number of definitions, of strings, throwables and time stamp
+     *         bases, written so far by the calling thread; an excerpt written
+     *         while it changed holds definitions later events depend on
+     */
+    long definitions() {
+        return this.encoders.get().definitions;
+    }
+
+    /**
+     * Start an excerpt and return the encoder of the calling thread for it.
+     */
+    Encoder startExcerpt(@NotNull final ExcerptAppender appender) {
+        final long cycle = cycle();
+        appender.startExcerpt();
+
+        return encoder(cycle);
+    }
+
+    private long cycle() {
+        return System.currentTimeMillis() / this.cycleLength;
+    }
+
+    /**
+     * Prepare the encoder of the calling thread for an excerpt started after
+     * {@link #cycle()} returned the given value. If the cycle rolled while the
+     * excerpt was started it is not known which cycle the excerpt belongs to,
+     * so all the strings of this event are written inline.
+     */
+    private Encoder encoder(long cycle) {
+        final Encoder encoder = this.encoders.get();
+        final long now = cycle();
+
+        if (now != cycle) {
+            encoder.inline = true;
+
+        } else {
+            encoder.inline = false;
+            if (encoder.cycle != now) {
+                encoder.cycle = now;
+                encoder.defined.clear();
+                encoder.definedThrowables.clear();
+                encoder.definedBase = false;
+            }
+        }
+
+        return encoder;
+    }
+
+    private int id(String value) {
+        Integer id = this.ids.get(value);
+        if (id == null) {
+            if (this.nextId.get() >= MAX_SYMBOLS) {
+                return -1;
+            }
+
+            synchronized (this.ids) {
+                id = this.ids.get(value);
+                if (id == null) {
+                    id = this.nextId.get();
+                    if (id >= MAX_SYMBOLS) {
+                        return -1;
+                    }
+
+                    this.ids.put(value, id);
+                    this.nextId.incrementAndGet();
+                }
+            }
+        }
+
+        return id;
+    }
+
+    private int throwableId(Throwable throwable) {
+        final Fingerprint fingerprint = new Fingerprint(throwable);
+
+        Integer id = this.throwableIds.get(fingerprint);
+        if (id == null) {
+            if (this.nextThrowableId.get() >= MAX_THROWABLES) {
+                return -1;
+            }
+
+            synchronized (this.throwableIds) {
+                id = this.throwableIds.get(fingerprint);
+                if (id == null) {
+                    id = this.nextThrowableId.get();
+                    if (id >= MAX_THROWABLES) {
+                        return -1;
+                    }
+
+                    this.throwableIds.put(fingerprint, id);
+                    this.nextThrowableId.incrementAndGet();
+                }
+            }
+        }
+
+        return id;
+    }
+
+    // *************************************************************************
+    //
+    // *************************************************************************
+
+    final class Encoder {
+        private final BitSet defined = new BitSet();
+        private final BitSet definedThrowables = new BitSet();
+        private long cycle = -1;
+        private boolean inline = false;
+        private boolean definedBase = false;
+        private int sinceBase = 0;
+        private long definitions = 0;
+
+        /**
+         * Write the flags and the time stamp of a binary event, the time stamp
+         * being a delta from the start of the cycle unless the event is written
+         * inline or is older than the cycle.
+         */
+        void writeHeader(@NotNull final RandomDataOutput out, final int flags, final long timestamp) {
+            final long base = this.cycle * cycleLength;
+            final long delta = timestamp - base;
+
+            if (this.inline || delta < 0) {
+                out.writeByte(flags);
+                out.writeLong(timestamp);
+
+            } else if (this.definedBase && ++this.sinceBase < BASE_INTERVAL) {
+                out.writeByte(flags | ChronicleLog.FLAG_TIMESTAMP_DELTA);
+                out.writeStopBit(delta);
+
+            } else {
+                this.definedBase = true;
+                this.sinceBase = 0;
+                this.definitions++;
+                out.writeByte(flags | ChronicleLog.FLAG_TIMESTAMP_BASE);
+                out.writeLong(base);
+                out.writeStopBit(delta);
+            }
+        }
+
+        void writeName(@NotNull final RandomDataOutput out, final String value) {
+            if (names) {
+                writeSymbol(out, value);
+            } else {
+                out.writeUTFΔ(value);
+            }
+        }
+
+        /**
+         * Only messages of events with arguments are expected to be format
+         * strings, others are often built per event and would fill the table.
+         */
+        void writeMessage(@NotNull final RandomDataOutput out, final String value, boolean template) {
+            if (templates && template) {
+                writeSymbol(out, value);
+            } else {
+                out.writeUTFΔ(value);
+            }
+        }
+
+        /**
+         * Write the throwable of a binary event as a tag byte, THROWABLE_NONE
+         * and THROWABLE_INLINE being the values written by writeBoolean.
+         */
+        void writeThrowable(@NotNull final RandomDataOutput out, final Throwable throwable) {
+            if (throwable == null) {
+                out.writeByte(THROWABLE_NONE);
+                return;
+            }
+
+            final int id = (throwables && !this.inline) ? throwableId(throwable) : -1;
+            if (id < 0) {
+                out.writeByte(THROWABLE_INLINE);
+                out.writeObject(throwable);
+
+            } else if (this.definedThrowables.get(id)) {
+                out.writeByte(THROWABLE_REFERENCE);
+                out.writeStopBit(id);
+                out.writeUTFΔ(throwable.getMessage());
+
+            } else {
+                this.definedThrowables.set(id);
+                this.definitions++;
+                out.writeByte(THROWABLE_DEFINITION);
+                out.writeStopBit(id);
+                out.writeObject(throwable);
+            }
+        }
+
+        /**
+         * Append the throwable of a text event, the stack trace of a repeated
+         * throwable is replaced by a reference to its first occurrence:
+         * <pre>
+         *   [trace#id:length] throwable.toString(), frames...
+         *   [trace#id] throwable.toString()
+         * </pre>
+         * where length is the length of throwable.toString() in the definition.
+         */
+        void appendThrowable(
+                @NotNull final ExcerptAppender appender,
+                @NotNull final Throwable throwable,
+                final String separator,
+                int depth) {
+            final int id = (throwables && !this.inline) ? throwableId(throwable) : -1;
+            if (id < 0) {
+                ChronicleLogHelper.appendStackTraceAsString(appender, throwable, separator, depth);
+
+            } else if (this.definedThrowables.get(id)) {
+                appender.append(TRACE_MARKER);
+                appender.append(id);
+                appender.append("] ");
+                appender.append(throwable.toString());
+
+            } else {
+                this.definedThrowables.set(id);
+                this.definitions++;
+                appender.append(TRACE_MARKER);
+                appender.append(id);
+                appender.append(':');
+                appender.append(throwable.toString().length());
+                appender.append("] ");
+                ChronicleLogHelper.appendStackTraceAsString(appender, throwable, separator, depth);
+            }
+        }
+
+        private void writeSymbol(@NotNull final RandomDataOutput out, final String value) {
+            final int id = (value == null || this.inline || value.length() > MAX_SYMBOL_LENGTH)
+                ? -1
+                : id(value);
+
+            if (id < 0) {
+                out.writeUTFΔ(value);
+
+            } else if (this.defined.get(id)) {
+                out.writeStopBit(-(2L * id + 2));
+
+            } else {
+                this.defined.set(id);
+                this.definitions++;
+                out.writeStopBit(-(2L * id + 3));
+                out.writeUTFΔ(value);
+            }
+        }
+    }
+
+    private static final class Fingerprint {
+        // bounds cause chains, which may loop
+        private static final int MAX_CAUSES = 16;
+
+        private final Class<?> type;
+        private final String message;
+        private final StackTraceElement[] frames;
+        private final Fingerprint cause;
+        private final int hash;
+
+        Fingerprint(@NotNull final Throwable throwable) {
+            // the message of the throwable logged is written with each event
+            this(throwable, null, 0);
+        }
+
+        private Fingerprint(@NotNull final Throwable throwable, final String message, int depth) {
+            final Throwable cause = throwable.getCause();
+
+            this.type = throwable.getClass();
+            this.message = message;
+            this.frames = throwable.getStackTrace();
+            this.cause = cause != null && depth < MAX_CAUSES
+                ? new Fingerprint(cause, cause.getMessage(), depth + 1)
+                : null;
+
+            int hash = this.type.hashCode();
+            hash = 31 * hash + Objects.hashCode(this.message);
+            hash = 31 * hash + Arrays.hashCode(this.frames);
+            hash = 31 * hash + Objects.hashCode(this.cause);
+            this.hash = hash;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+
+            if (!(other instanceof Fingerprint)) {
+                return false;
+            }
+
+            final Fingerprint that = (Fingerprint) other;
+            return this.hash == that.hash
+                && this.type == that.type
+                && Objects.equals(this.message, that.message)
+                && Arrays.equals(this.frames, that.frames)
+                && Objects.equals(this.cause, that.cause);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+    }
+}
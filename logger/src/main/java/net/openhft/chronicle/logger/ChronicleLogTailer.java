@@ -0,0 +1,298 @@
+/*
+ * Copyright 2014 Higher Frequency Trading
+ *
+ * http://www.higherfrequencytrading.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.logger;
+
+import net.openhft.chronicle.Chronicle;
+import net.openhft.chronicle.ExcerptTailer;
+import net.openhft.lang.model.constraints.NotNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Follows a log chronicle, or the stripes of a striped logger merged by
+ * timestamp, handing the events to a ChronicleLogReader as they are written.
+ *
+ * The tailer starts from the start or the end of the chronicles, or from the
+ * first event logged at a given time found with a ChronicleLogSeeker. When
+ * starting anywhere but the start of a binary chronicle the definitions of
+ * the events skipped in the same cycle are read so dictionary encoded
+ * strings can be resolved.
+ * While no event is available the thread reading waits with a
+ * ChronicleLogWaitStrategy. A tailer is read by a single thread, it can be
+ * stopped from any thread.
+ */
+public final class ChronicleLogTailer implements Closeable {
+    private final ExcerptTailer tailer;
+    private final ChronicleLogMergeReader merger;
+    private final ChronicleLogBlocks.Filter blocks;
+    private boolean pending;
+    private long unskippable;
+    private volatile boolean stopped;
+    private volatile Thread waiter;
+
+    /**
+     * @param chronicle     the chronicle to follow
+     * @param binary        true if the chronicle contains binary events, false for text
+     * @param fromEnd       true to start from the end of the chronicle
+     * @throws IOException
+     */
+    public ChronicleLogTailer(@NotNull final Chronicle chronicle, boolean binary, boolean fromEnd)
+            throws IOException {
+        this(Collections.singletonList(chronicle), binary, fromEnd, Long.MIN_VALUE, null);
+    }
+
+    /**
+     * @param chronicles    the chronicles to follow, i.e. the stripes of a striped logger
+     * @param binary        true if the chronicles contain binary events, false for text
+     * @param fromEnd       true to start from the end of the chronicles
+     * @throws IOException
+     */
+    public ChronicleLogTailer(@NotNull final List<Chronicle> chronicles, boolean binary, boolean fromEnd)
+            throws IOException {
+        this(chronicles, binary, fromEnd, Long.MIN_VALUE, null);
+    }
+
+    /**
+     * @param chronicles    the chronicles to follow, i.e. the stripes of a striped logger
+     * @param binary        true if the chronicles contain binary events, false for text
+     * @param fromEnd       true to start from the end of the chronicles, ignored when a time is given
+     * @param from          the time of the first events to read, Long.MIN_VALUE to
+     *                      start from the start or the end of the chronicles
+     * @param blocks        the block filters of a single chronicle, see
+     *                      ChronicleLogBlocks#filter, the blocks of excerpts
+     *                      they tell can be skipped are not read, null to read
+     *                      all the excerpts
+     * @throws IOException
+     */
+    public ChronicleLogTailer(
+            @NotNull final List<Chronicle> chronicles,
+            boolean binary,
+            boolean fromEnd,
+            long from,
+            final ChronicleLogBlocks.Filter blocks) throws IOException {
+        this(chronicles, binary, fromEnd, from, blocks, false);
+    }
+
+    /**
+     * @param chronicles    the chronicles to follow
+     * @param binary        true if the chronicles contain binary events, false for text
+     * @param fromEnd       true to start from the end of the chronicles, ignored when a time is given
+     * @param from          the time of the first events to read, Long.MIN_VALUE to
+     *                      start from the start or the end of the chronicles
+     * @param blocks        the block filters of a single chronicle, null to read all the excerpts
+     * @param isolated      true to read each of several chronicles with its own
+     *                      dictionary, i.e. for chronicles written by different
+     *                      processes, see ChronicleLogMergeReader
+     * @throws IOException
+     */
+    public ChronicleLogTailer(
+            @NotNull final List<Chronicle> chronicles,
+            boolean binary,
+            boolean fromEnd,
+            long from,
+            final ChronicleLogBlocks.Filter blocks,
+            boolean isolated) throws IOException {
+        this(chronicles, binary, fromEnd, from, blocks, isolated, new VanillaLogAppenderConfig());
+    }
+
+    /**
+     * @param chronicles    the chronicles to follow
+     * @param binary        true if the chronicles contain binary events, false for text
+     * @param fromEnd       true to start from the end of the chronicles, ignored when a time is given
+     * @param from          the time of the first events to read, Long.MIN_VALUE to
+     *                      start from the start or the end of the chronicles
+     * @param blocks        the block filters of a single chronicle, null to read all the excerpts
+     * @param isolated      true to read each of several chronicles with its own dictionary
+     * @param vanilla       the settings VanillaChronicles were written with, used
+     *                      to seek the given time
+     * @throws IOException
+     */
+    public ChronicleLogTailer(
+            @NotNull final List<Chronicle> chronicles,
+            boolean binary,
+            boolean fromEnd,
+            long from,
+            final ChronicleLogBlocks.Filter blocks,
+            boolean isolated,
+            @NotNull final VanillaLogAppenderConfig vanilla) throws IOException {
+
+        if (blocks != null && chronicles.size() != 1) {
+            throw new IllegalArgumentException("block filters apply to a single chronicle, got " + chronicles.size());
+        }
+
+        this.blocks = blocks;
+        this.unskippable = Long.MIN_VALUE;
+        this.stopped = false;
+
+        final ChronicleLogSeeker seeker = new ChronicleLogSeeker(binary, ChronicleLogSeeker.DEFAULT_SKEW, vanilla);
+        if (chronicles.size() != 1) {
+            // no event is found from Long.MAX_VALUE, the merge reader then
+            // starts from the end reading the definitions of the last cycle
+            this.tailer = null;
+            this.merger = new ChronicleLogMergeReader(
+                chronicles,
+                binary,
+                fromEnd,
+                from != Long.MIN_VALUE || fromEnd ? seeker : null,
+                from != Long.MIN_VALUE ? from : Long.MAX_VALUE,
+                isolated);
+            return;
+        }
+
+        final Chronicle chronicle = chronicles.get(0);
+        ExcerptTailer tailer = chronicle.createTailer();
+        try {
+            if (from != Long.MIN_VALUE) {
+                this.pending = seeker.seek(chronicle, tailer, from, ChronicleLogDictionary.local());
+                if (!this.pending) {
+                    tailer = seeker.toEnd(chronicle, tailer, ChronicleLogDictionary.local());
+                }
+            } else if (!fromEnd) {
+                tailer = tailer.toStart();
+            } else {
+                tailer = seeker.toEnd(chronicle, tailer, ChronicleLogDictionary.local());
+            }
+        } catch (IOException | RuntimeException e) {
+            tailer.close();
+            throw e;
+        }
+
+        this.tailer = tailer;
+        this.merger = null;
+    }
+
+    /**
+     * Read the next event if one is available.
+     *
+     * @param reader    the reader the event is handed to
+     * @return          false if no event is available
+     */
+    public boolean read(@NotNull final ChronicleLogReader reader) {
+        if (this.merger != null) {
+            return this.merger.read(reader);
+        }
+
+        while (this.pending || this.tailer.nextIndex()) {
+            this.pending = false;
+
+            final long index = this.tailer.index();
+            if (this.blocks != null && index >= this.unskippable) {
+                final long next = this.blocks.skip(index);
+                if (next != index) {
+                    this.tailer.finish();
+                    if (this.tailer.index(next)) {
+                        this.pending = true;
+                        continue;
+                    }
+
+                    // the blocks end where nothing was written yet, read them
+                    this.unskippable = next;
+                    this.tailer.index(index);
+                }
+            }
+
+            reader.read(this.tailer);
+            this.tailer.finish();
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Read the next event, waiting for it with the given strategy.
+     *
+     * @param reader    the reader the event is handed to
+     * @param wait      the wait strategy used while no event is available
+     * @return          false if the tailer was stopped or the thread interrupted
+     *                  before an event is available
+     */
+    public boolean read(@NotNull final ChronicleLogReader reader, @NotNull final ChronicleLogWaitStrategy wait) {
+        this.waiter = Thread.currentThread();
+        try {
+            for (int tries = 0; !this.stopped; ) {
+                if (read(reader)) {
+                    return true;
+                }
+
+                if (Thread.currentThread().isInterrupted()) {
+                    return false;
+                }
+
+                wait.idle(tries);
+                if (tries < Integer.MAX_VALUE) {
+                    tries++;
+                }
+            }
+
+            return false;
+        } finally {
+            this.waiter = null;
+        }
+    }
+
+    /**
+     * Read the events as they are written until the tailer is stopped or the
+     * thread interrupted.
+     *
+     * @param reader    the reader the events are handed to
+     * @param wait      the wait strategy used while no event is available
+     */
+    public void tail(@NotNull final ChronicleLogReader reader, @NotNull final ChronicleLogWaitStrategy wait) {
+        while (read(reader, wait)) {
+        }
+    }
+
+    /**
+     * Make the thread reading the tailer return, i.e. from
+     * {@link #tail(ChronicleLogReader, ChronicleLogWaitStrategy)}, waking it
+     * up if it is waiting.
+     */
+    public void stop() {
+        this.stopped = true;
+
+        final Thread waiter = this.waiter;
+        if (waiter != null) {
+            LockSupport.unpark(waiter);
+        }
+    }
+
+    public boolean isStopped() {
+        return this.stopped;
+    }
+
+    /**
+     * Stop the tailer and close it, several chronicles are closed along with
+     * the ChronicleLogMergeReader merging them.
+     */
+    @Override
+    public void close() {
+        this.stopped = true;
+
+        if (this.merger != null) {
+            this.merger.close();
+        } else {
+            this.tailer.close();
+        }
+    }
+}
@@ -0,0 +1,356 @@
+/*
+ * Copyright 2014 Higher Frequency Trading
+ *
+ * http://www.higherfrequencytrading.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.logger;
+
+import net.openhft.chronicle.Chronicle;
+import net.openhft.chronicle.ExcerptTailer;
+import net.openhft.lang.model.constraints.NotNull;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.RandomAccessFile;
+import java.io.StringWriter;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Tails a log chronicle and adds the terms of its events to the index read by
+ * ChronicleLogTerms.
+ *
+ * The terms are gathered in memory and appended as a segment to the file of
+ * the cycle every batchSize events, every flushInterval ms when the chronicle
+ * is idle and when the cycle rolls, at which point the segments of the cycle
+ * which rolled are compacted in one. An indexer restarted on an existing index
+ * resumes after the last excerpt indexed.
+ *
+ * As with ChronicleLogSummary the cycle of an event is the cycle of its time
+ * stamp, the few events of the previous cycle found once the cycle rolled are
+ * indexed with the current cycle.
+ *
+ * The indexer can be run on its own thread, or polled.
+ *
+ * @see ChronicleLogTerms
+ */
+public final class ChronicleLogTermIndexer implements Runnable, Closeable {
+    public static final int DEFAULT_BATCH_SIZE = 1 << 16;
+    public static final long DEFAULT_FLUSH_INTERVAL = 1000;
+
+    private static final long IDLE_SLEEP = 50;
+
+    private final Chronicle chronicle;
+    private final String path;
+    private final boolean binary;
+    private final VanillaLogAppenderConfig vanilla;
+    private final long cycleLength;
+    private final int batchSize;
+    private final long flushInterval;
+    private final ChronicleLogDictionary dictionary;
+    private final BinaryChronicleLogEventFlyweight event;
+    private final ChronicleLogTerms.Batch batch;
+    private final Set<String> terms;
+    private final StringWriter trace;
+
+    private ExcerptTailer tailer;
+    private boolean pending;
+    private long cycle;
+    private int batched;
+    private long lastFlush;
+    private volatile boolean closed;
+
+    /**
+     * @param chronicle the chronicle to index
+     * @param path      the path of the chronicle, the index is stored next to it
+     * @param binary    true if the chronicle contains binary events, false for text
+     */
+    public ChronicleLogTermIndexer(@NotNull Chronicle chronicle, @NotNull String path, boolean binary) {
+        this(chronicle, path, binary, new VanillaLogAppenderConfig());
+    }
+
+    /**
+     * @param chronicle     the chronicle to index
+     * @param path          the path of the chronicle, the index is stored next to it
+     * @param binary        true if the chronicle contains binary events, false for text
+     * @param vanilla       the settings the chronicle was written with if it is a
+     *                      VanillaChronicle, the cycles of the index are its cycles
+     */
+    public ChronicleLogTermIndexer(
+            @NotNull Chronicle chronicle,
+            @NotNull String path,
+            boolean binary,
+            @NotNull VanillaLogAppenderConfig vanilla) {
+        this(chronicle, path, binary, vanilla, DEFAULT_BATCH_SIZE, DEFAULT_FLUSH_INTERVAL);
+    }
+
+    /**
+     * @param chronicle     the chronicle to index
+     * @param path          the path of the chronicle, the index is stored next to it
+     * @param binary        true if the chronicle contains binary events, false for text
+     * @param vanilla       the settings the chronicle was written with if it is a
+     *                      VanillaChronicle, the cycles of the index are its cycles
+     * @param batchSize     the maximum number of events per segment
+     * @param flushInterval the time in ms after which indexed events are flushed
+     */
+    public ChronicleLogTermIndexer(
+            @NotNull Chronicle chronicle,
+            @NotNull String path,
+            boolean binary,
+            @NotNull VanillaLogAppenderConfig vanilla,
+            int batchSize,
+            long flushInterval) {
+        final long cycleLength = vanilla.getCycleLength();
+        if (cycleLength <= 0 || batchSize <= 0 || flushInterval <= 0) {
+            throw new IllegalArgumentException(
+                "cycleLength, batchSize and flushInterval should be positive, got "
+                    + cycleLength + ", " + batchSize + ", " + flushInterval);
+        }
+
+        this.chronicle = chronicle;
+        this.path = path;
+        this.binary = binary;
+        this.vanilla = vanilla;
+        this.cycleLength = cycleLength;
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+        this.dictionary = new ChronicleLogDictionary();
+        this.event = new BinaryChronicleLogEventFlyweight();
+        this.batch = new ChronicleLogTerms.Batch(cycleLength);
+        this.terms = new HashSet<>();
+        this.trace = new StringWriter();
+        this.tailer = null;
+        this.pending = false;
+        this.cycle = Long.MIN_VALUE;
+        this.batched = 0;
+        this.lastFlush = System.currentTimeMillis();
+        this.closed = false;
+    }
+
+    // *************************************************************************
+    //
+    // *************************************************************************
+
+    /**
+     * Index the events available, up to batchSize.
+     *
+     * @return the number of events indexed
+     * @throws IOException
+     */
+    public synchronized int poll() throws IOException {
+        if (this.closed) {
+            return 0;
+        }
+
+        if (this.tailer == null) {
+            open();
+        }
+
+        int count = 0;
+        while (count < this.batchSize && (this.pending || this.tailer.nextIndex())) {
+            this.pending = false;
+            index(this.tailer.index());
+            this.tailer.finish();
+            count++;
+        }
+
+        if (this.batched > 0 && System.currentTimeMillis() - this.lastFlush >= this.flushInterval) {
+            flush();
+        }
+
+        return count;
+    }
+
+    /**
+     * Append the events indexed so far to the index.
+     *
+     * @throws IOException
+     */
+    public synchronized void flush() throws IOException {
+        if (!this.batch.isEmpty()) {
+            this.batch.append(this.path);
+            this.batch.clear(this.batch.cycle());
+        }
+
+        this.batched = 0;
+        this.lastFlush = System.currentTimeMillis();
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (!this.closed) {
+                if (poll() == 0) {
+                    Thread.sleep(IDLE_SLEEP);
+                }
+            }
+        } catch (InterruptedException ignored) {
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Flush the events indexed and stop indexing, the chronicle is not closed.
+     *
+     * @throws IOException
+     */
+    @Override
+    public void close() throws IOException {
+        this.closed = true;
+
+        synchronized (this) {
+            if (this.tailer != null) {
+                flush();
+                this.tailer.close();
+                this.tailer = null;
+            }
+        }
+    }
+
+    // *************************************************************************
+    //
+    // *************************************************************************
+
+    /**
+     * Position the tailer after the last excerpt indexed, dropping the segment
+     * an indexer which died may have left partially written.
+     */
+    private void open() throws IOException {
+        final File[] files = ChronicleLogTerms.directory(this.path).listFiles();
+        if (files != null) {
+            for (File file : files) {
+                if (file.getName().endsWith(ChronicleLogTerms.FILE_SUFFIX)) {
+                    final long length = ChronicleLogTerms.validLength(file);
+                    if (length < file.length()) {
+                        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                            raf.setLength(length);
+                        }
+                    }
+                }
+            }
+        }
+
+        final ChronicleLogTerms index = new ChronicleLogTerms(this.path);
+        final long last = index.lastIndex();
+
+        this.tailer = this.chronicle.createTailer();
+        this.pending = false;
+
+        if (last >= 0) {
+            // read the events already indexed following the position found
+            // for their definitions
+            this.pending = new ChronicleLogSeeker(this.binary, ChronicleLogSeeker.DEFAULT_SKEW, this.vanilla)
+                .seek(this.chronicle, this.tailer, index.lastTimestamp(), this.dictionary);
+            if (!this.pending) {
+                this.tailer.toStart();
+            }
+
+            while (this.pending || this.tailer.nextIndex()) {
+                if (this.tailer.index() > last) {
+                    this.pending = true;
+                    break;
+                }
+
+                this.pending = false;
+                decode();
+                this.tailer.finish();
+            }
+        } else {
+            this.tailer.toStart();
+        }
+    }
+
+    private ChronicleLogEvent decode() {
+        return this.binary
+            ? this.event.wrap(this.tailer, this.dictionary)
+            : TextChronicleLogEvent.read(this.tailer, this.dictionary);
+    }
+
+    private void index(long index) throws IOException {
+        final long definitions = this.dictionary.definitions();
+        final ChronicleLogEvent event = decode();
+
+        this.terms.clear();
+        ChronicleLogTerms.terms(event.getLevel().name(), this.terms);
+        ChronicleLogTerms.terms(event.getThreadName(), this.terms);
+        ChronicleLogTerms.terms(event.getLoggerName(), this.terms);
+        ChronicleLogTerms.terms(event.getMessage(), this.terms);
+
+        final Object[] args = event.getArgumentArray();
+        if (args != null) {
+            for (Object arg : args) {
+                ChronicleLogTerms.terms(Objects.toString(arg), this.terms);
+            }
+        }
+
+        final Throwable throwable = event.getThrowable();
+        if (throwable != null) {
+            this.trace.getBuffer().setLength(0);
+            throwable.printStackTrace(new PrintWriter(this.trace));
+            ChronicleLogTerms.terms(this.trace.getBuffer(), this.terms);
+        }
+
+        if (this.dictionary.definitions() != definitions) {
+            this.terms.add(ChronicleLogTerms.DEFINITIONS);
+        }
+
+        final long cycle = Math.max(event.getTimeStamp() / this.cycleLength, this.cycle);
+        if (cycle != this.cycle) {
+            if (this.cycle != Long.MIN_VALUE) {
+                flush();
+                compact(this.cycle);
+            }
+
+            this.cycle = cycle;
+        }
+
+        if (this.batch.isEmpty()) {
+            this.batch.clear(cycle);
+        }
+
+        this.batch.add(this.terms, index, event.getTimeStamp());
+
+        if (++this.batched >= this.batchSize) {
+            flush();
+        }
+    }
+
+    /**
+     * Merge the segments of a cycle in one, a cycle whose segment would be
+     * too large is left as is.
+     */
+    private void compact(long cycle) throws IOException {
+        final List<ChronicleLogTerms.Segment> segments =
+            ChronicleLogTerms.map(ChronicleLogTerms.file(this.path, cycle));
+
+        if (segments.size() > 1) {
+            final ChronicleLogTerms.Batch merged = new ChronicleLogTerms.Batch(this.cycleLength);
+            merged.clear(cycle);
+            merged.addAll(segments);
+
+            try {
+                merged.replace(this.path);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+}
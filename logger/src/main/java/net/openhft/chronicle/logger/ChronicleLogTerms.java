@@ -0,0 +1,751 @@
+/*
+ * Copyright 2014 Higher Frequency Trading
+ *
+ * http://www.higherfrequencytrading.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.logger;
+
+import net.openhft.lang.model.constraints.NotNull;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * An inverted index of the terms of the events of a chronicle: for each term
+ * the indexes of the excerpts holding it, built by a ChronicleLogTermIndexer.
+ *
+ * The terms are the runs of letters and digits, in lower case and truncated to
+ * MAX_TERM_LENGTH characters, of the level, thread name, logger name, message,
+ * arguments and throwable of the events, but not of their time stamp.
+ *
+ * The index is stored next to the chronicle in {@code path.terms}, one file per
+ * cycle (of the time stamps, as for ChronicleLogSummary). Each file is a
+ * sequence of segments appended by the indexer, a segment being:
+ * <pre>
+ *   header   : magic, length, number of terms, cycle length, first index, last index,
+ *              last time stamp
+ *   table    : per term, sorted by UTF-8 bytes, the offset of the term and of its postings
+ *   terms    : per term, the length and the UTF-8 bytes of the term
+ *   postings : per term, the number of indexes then the indexes as stop bit deltas
+ * </pre>
+ * so a term is found with a binary search in each segment of the memory mapped
+ * files. The segments of a cycle are compacted in one once the cycle rolled.
+ *
+ * The indexes of the events defining dictionary symbols or time stamp bases
+ * are recorded under the reserved DEFINITIONS term, so that the events found
+ * can be decoded without reading their cycle from the start.
+ *
+ * @see ChronicleLogTermIndexer
+ */
+public final class ChronicleLogTerms {
+    public static final String DIRECTORY_SUFFIX = ".terms";
+    public static final String FILE_SUFFIX = ".terms";
+    public static final int MAX_TERM_LENGTH = 64;
+
+    /**
+     * The term of the events defining dictionary symbols, can not be the term of a text.
+     */
+    public static final String DEFINITIONS = "";
+
+    static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private static final int MAGIC = 0x434c5431;
+    private static final int HEADER_SIZE = 44;
+    private static final long[] NONE = new long[0];
+
+    private final Map<Long, List<Segment>> cycles;
+    private final long cycleLength;
+
+    /**
+     * Map the index of a chronicle as it is, segments appended later are not seen.
+     *
+     * @param path  the path of the chronicle
+     * @throws IOException
+     */
+    public ChronicleLogTerms(@NotNull String path) throws IOException {
+        this.cycles = new TreeMap<>();
+
+        long length = 0;
+        final File[] files = directory(path).listFiles();
+        if (files != null) {
+            for (File file : files) {
+                final String name = file.getName();
+                if (name.endsWith(FILE_SUFFIX) && isNumber(name.substring(0, name.length() - FILE_SUFFIX.length()))) {
+                    final long cycle = Long.parseLong(name.substring(0, name.length() - FILE_SUFFIX.length()));
+                    final List<Segment> segments = map(file);
+                    if (!segments.isEmpty()) {
+                        this.cycles.put(cycle, segments);
+                        length = segments.get(0).cycleLength;
+                    }
+                }
+            }
+        }
+
+        this.cycleLength = length;
+    }
+
+    /**
+     * @return true if nothing was indexed
+     */
+    public boolean isEmpty() {
+        return this.cycles.isEmpty();
+    }
+
+    /**
+     * @return the highest index of the excerpts indexed, -1 if none
+     */
+    public long lastIndex() {
+        long index = -1;
+        for (List<Segment> segments : this.cycles.values()) {
+            for (Segment segment : segments) {
+                index = Math.max(index, segment.lastIndex);
+            }
+        }
+
+        return index;
+    }
+
+    /**
+     * @return the highest time stamp of the events indexed, Long.MIN_VALUE if none
+     */
+    public long lastTimestamp() {
+        long timestamp = Long.MIN_VALUE;
+        for (List<Segment> segments : this.cycles.values()) {
+            for (Segment segment : segments) {
+                timestamp = Math.max(timestamp, segment.lastTimestamp);
+            }
+        }
+
+        return timestamp;
+    }
+
+    /**
+     * @param term  a term
+     * @return      the sorted indexes of the excerpts holding the term
+     */
+    public long[] lookup(@NotNull String term) {
+        return lookup(Collections.singleton(term), Long.MIN_VALUE, Long.MAX_VALUE, false);
+    }
+
+    /**
+     * Find the excerpts holding all the given terms in the cycles overlapping
+     * a time range.
+     *
+     * @param terms         the terms, an empty collection matches nothing
+     * @param from          the start of the range in ms
+     * @param to            the end of the range in ms, inclusive
+     * @param definitions   true to add the excerpts defining the symbols which
+     *                      may be used by the excerpts found, in their cycle
+     *                      and the previous one
+     * @return              the sorted indexes of the excerpts
+     */
+    public long[] lookup(@NotNull Collection<String> terms, long from, long to, boolean definitions) {
+        if (terms.isEmpty()) {
+            return NONE;
+        }
+
+        final List<long[]> found = new ArrayList<>();
+        int size = 0;
+
+        for (Map.Entry<Long, List<Segment>> entry : this.cycles.entrySet()) {
+            final long start = entry.getKey() * this.cycleLength;
+            if (start > to || start + this.cycleLength <= from) {
+                continue;
+            }
+
+            long[] indexes = null;
+            for (String term : terms) {
+                final long[] postings = postings(entry.getValue(), term(term));
+                indexes = indexes == null ? postings : intersect(indexes, postings);
+                if (indexes.length == 0) {
+                    break;
+                }
+            }
+
+            if (indexes.length > 0) {
+                found.add(indexes);
+                size += indexes.length;
+
+                if (definitions) {
+                    final long[] defined = postings(entry.getValue(), DEFINITIONS);
+                    final long last = indexes[indexes.length - 1];
+
+                    int n = 0;
+                    while (n < defined.length && defined[n] < last) {
+                        n++;
+                    }
+
+                    found.add(Arrays.copyOf(defined, n));
+                    size += n;
+
+                    // an event indexed with the cycle following the one of its time stamp
+                    // may have been defined in the previous cycle
+                    final List<Segment> previous = this.cycles.get(entry.getKey() - 1);
+                    if (previous != null) {
+                        final long[] carried = postings(previous, DEFINITIONS);
+                        found.add(carried);
+                        size += carried.length;
+                    }
+                }
+            }
+        }
+
+        final long[] indexes = new long[size];
+        int n = 0;
+        for (long[] values : found) {
+            System.arraycopy(values, 0, indexes, n, values.length);
+            n += values.length;
+        }
+
+        Arrays.sort(indexes);
+        return distinct(indexes);
+    }
+
+    private static long[] postings(final List<Segment> segments, final String term) {
+        final byte[] bytes = term.getBytes(UTF8);
+
+        long[] postings = NONE;
+        for (Segment segment : segments) {
+            final long[] values = segment.postings(bytes);
+            if (values.length > 0) {
+                final long[] merged = Arrays.copyOf(postings, postings.length + values.length);
+                System.arraycopy(values, 0, merged, postings.length, values.length);
+                postings = merged;
+            }
+        }
+
+        Arrays.sort(postings);
+        return postings;
+    }
+
+    private static long[] intersect(final long[] a, final long[] b) {
+        final long[] result = new long[Math.min(a.length, b.length)];
+        int n = 0;
+        for (int i = 0, j = 0; i < a.length && j < b.length; ) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                result[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+
+        return Arrays.copyOf(result, n);
+    }
+
+    private static long[] distinct(final long[] sorted) {
+        int n = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (n == 0 || sorted[n - 1] != sorted[i]) {
+                sorted[n++] = sorted[i];
+            }
+        }
+
+        return n == sorted.length ? sorted : Arrays.copyOf(sorted, n);
+    }
+
+    // *************************************************************************
+    //
+    // *************************************************************************
+
+    /**
+     * Split a text in terms.
+     *
+     * @param text  the text
+     * @param terms the collection the terms are added to
+     */
+    public static void terms(@NotNull CharSequence text, @NotNull Collection<String> terms) {
+        final int length = text.length();
+        for (int i = 0; i < length; ) {
+            if (!Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+                continue;
+            }
+
+            final int start = i;
+            while (i < length && Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+            }
+
+            terms.add(term(text.subSequence(start, Math.min(i, start + MAX_TERM_LENGTH)).toString()));
+        }
+    }
+
+    /**
+     * @param text  the text
+     * @return      the distinct terms of the text in order of appearance
+     */
+    public static List<String> terms(@NotNull CharSequence text) {
+        final Set<String> terms = new LinkedHashSet<>();
+        terms(text, terms);
+        return new ArrayList<>(terms);
+    }
+
+    /**
+     * Split a text looked for in the terms of any text holding it, i.e. the
+     * runs of letters and digits it bounds on both sides: its first and last
+     * runs may be parts of longer terms unless another character precedes or
+     * follows them, e.g. 7f3a is held by req-7f3a9c whose terms are req and 7f3a9c.
+     *
+     * @param literal   the text looked for
+     * @return          the distinct whole terms of the text in order of appearance
+     */
+    public static List<String> wholeTerms(@NotNull CharSequence literal) {
+        final Set<String> terms = new LinkedHashSet<>();
+        final int length = literal.length();
+        for (int i = 0; i < length; ) {
+            if (!Character.isLetterOrDigit(literal.charAt(i))) {
+                i++;
+                continue;
+            }
+
+            final int start = i;
+            while (i < length && Character.isLetterOrDigit(literal.charAt(i))) {
+                i++;
+            }
+
+            if (start > 0 && i < length) {
+                terms.add(term(literal.subSequence(start, Math.min(i, start + MAX_TERM_LENGTH)).toString()));
+            }
+        }
+
+        return new ArrayList<>(terms);
+    }
+
+    private static String term(final String term) {
+        return (term.length() > MAX_TERM_LENGTH ? term.substring(0, MAX_TERM_LENGTH) : term).toLowerCase();
+    }
+
+    // *************************************************************************
+    //
+    // *************************************************************************
+
+    /**
+     * @param path  the path of a chronicle
+     * @return      the directory holding the index of the chronicle
+     */
+    public static File directory(@NotNull String path) {
+        return new File(path + DIRECTORY_SUFFIX);
+    }
+
+    /**
+     * @param path  the path of a chronicle
+     * @param cycle the cycle
+     * @return      the file holding the index of a cycle of the chronicle
+     */
+    public static File file(@NotNull String path, long cycle) {
+        return new File(directory(path), cycle + FILE_SUFFIX);
+    }
+
+    private static boolean isNumber(final String value) {
+        if (value.isEmpty() || value.length() > 18) {
+            return false;
+        }
+
+        for (int i = 0; i < value.length(); i++) {
+            if (!Character.isDigit(value.charAt(i))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Map the complete segments of a file, a segment left partially written
+     * by an indexer which died is ignored.
+     */
+    static List<Segment> map(@NotNull final File file) throws IOException {
+        final List<Segment> segments = new ArrayList<>();
+
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            final long size = raf.length();
+            if (size == 0) {
+                return segments;
+            }
+
+            final MappedByteBuffer buffer = raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+            for (int position = 0; position + HEADER_SIZE <= size; ) {
+                if (buffer.getInt(position) != MAGIC) {
+                    break;
+                }
+
+                final int length = buffer.getInt(position + 4);
+                if (length < HEADER_SIZE || position + (long) length > size) {
+                    break;
+                }
+
+                buffer.limit(position + length).position(position);
+                segments.add(new Segment(buffer.slice()));
+                buffer.limit((int) size);
+
+                position += length;
+            }
+        }
+
+        return segments;
+    }
+
+    /**
+     * @return the length of the complete segments of a file
+     */
+    static long validLength(@NotNull final File file) throws IOException {
+        long length = 0;
+        for (Segment segment : map(file)) {
+            length += segment.buffer.capacity();
+        }
+
+        return length;
+    }
+
+    // *************************************************************************
+    //
+    // *************************************************************************
+
+    /**
+     * The terms of a batch of events, written as a segment.
+     */
+    static final class Batch {
+        private final Map<String, Postings> postings;
+        private final long cycleLength;
+        private long cycle;
+        private long firstIndex;
+        private long lastIndex;
+        private long lastTimestamp;
+
+        Batch(long cycleLength) {
+            this.postings = new HashMap<>();
+            this.cycleLength = cycleLength;
+            clear(0);
+        }
+
+        void clear(long cycle) {
+            this.postings.clear();
+            this.cycle = cycle;
+            this.firstIndex = -1;
+            this.lastIndex = -1;
+            this.lastTimestamp = Long.MIN_VALUE;
+        }
+
+        boolean isEmpty() {
+            return this.lastIndex < 0;
+        }
+
+        long cycle() {
+            return this.cycle;
+        }
+
+        /**
+         * Record an event, must be called in index order.
+         */
+        void add(final Collection<String> terms, long index, long timestamp) {
+            for (String term : terms) {
+                Postings values = this.postings.get(term);
+                if (values == null) {
+                    values = new Postings();
+                    this.postings.put(term, values);
+                }
+
+                values.add(index);
+            }
+
+            if (this.firstIndex < 0) {
+                this.firstIndex = index;
+            }
+
+            this.lastIndex = index;
+            this.lastTimestamp = Math.max(this.lastTimestamp, timestamp);
+        }
+
+        /**
+         * Add the segments of an index file, in order.
+         */
+        void addAll(final List<Segment> segments) {
+            for (Segment segment : segments) {
+                for (int i = 0; i < segment.terms; i++) {
+                    final String term = segment.term(i);
+                    Postings values = this.postings.get(term);
+                    if (values == null) {
+                        values = new Postings();
+                        this.postings.put(term, values);
+                    }
+
+                    segment.postings(i, values);
+                }
+
+                if (this.firstIndex < 0) {
+                    this.firstIndex = segment.firstIndex;
+                }
+
+                this.lastIndex = Math.max(this.lastIndex, segment.lastIndex);
+                this.lastTimestamp = Math.max(this.lastTimestamp, segment.lastTimestamp);
+            }
+        }
+
+        /**
+         * Encode the batch as a segment.
+         *
+         * @throws IOException if the segment would be larger than 2GB
+         */
+        ByteBuffer encode() throws IOException {
+            final List<Map.Entry<byte[], Postings>> entries = new ArrayList<>(this.postings.size());
+            long size = HEADER_SIZE;
+            for (Map.Entry<String, Postings> entry : this.postings.entrySet()) {
+                final byte[] term = entry.getKey().getBytes(UTF8);
+                entries.add(new AbstractMap.SimpleImmutableEntry<>(term, entry.getValue()));
+                size += 8 + 2 + term.length + 10 + entry.getValue().size * 10L;
+            }
+
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Segment too large: " + size);
+            }
+
+            Collections.sort(entries, BY_TERM);
+
+            final ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            final int terms = HEADER_SIZE;
+            int position = terms + entries.size() * 8;
+
+            for (int i = 0; i < entries.size(); i++) {
+                final byte[] term = entries.get(i).getKey();
+                buffer.putInt(terms + i * 8, position);
+                buffer.position(position);
+                buffer.putShort((short) term.length);
+                buffer.put(term);
+                position = buffer.position();
+            }
+
+            for (int i = 0; i < entries.size(); i++) {
+                final Postings values = entries.get(i).getValue();
+                buffer.putInt(terms + i * 8 + 4, position);
+                buffer.position(position);
+                writeStopBit(buffer, values.size);
+
+                long previous = this.firstIndex;
+                for (int n = 0; n < values.size; n++) {
+                    writeStopBit(buffer, values.values[n] - previous);
+                    previous = values.values[n];
+                }
+
+                position = buffer.position();
+            }
+
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, position);
+            buffer.putInt(8, entries.size());
+            buffer.putLong(12, this.cycleLength);
+            buffer.putLong(20, this.firstIndex);
+            buffer.putLong(28, this.lastIndex);
+            buffer.putLong(36, this.lastTimestamp);
+
+            buffer.position(0);
+            buffer.limit(position);
+            return buffer;
+        }
+
+        /**
+         * Append the batch as a segment to the file of its cycle.
+         */
+        void append(@NotNull final String path) throws IOException {
+            final File dir = directory(path);
+            if (!dir.isDirectory() && !dir.mkdirs()) {
+                throw new IOException("Unable to create " + dir);
+            }
+
+            final ByteBuffer segment = encode();
+            try (FileOutputStream out = new FileOutputStream(file(path, this.cycle), true)) {
+                final FileChannel channel = out.getChannel();
+                while (segment.hasRemaining()) {
+                    channel.write(segment);
+                }
+            }
+        }
+
+        /**
+         * Replace the file of the cycle by a single segment.
+         */
+        void replace(@NotNull final String path) throws IOException {
+            final File file = file(path, this.cycle);
+            final File tmp = new File(file.getPath() + ".tmp");
+
+            final ByteBuffer segment = encode();
+            try (FileOutputStream out = new FileOutputStream(tmp)) {
+                final FileChannel channel = out.getChannel();
+                while (segment.hasRemaining()) {
+                    channel.write(segment);
+                }
+            }
+
+            if (!tmp.renameTo(file) && !(file.delete() && tmp.renameTo(file))) {
+                throw new IOException("Unable to rename " + tmp + " to " + file);
+            }
+        }
+
+        private static final Comparator<Map.Entry<byte[], Postings>> BY_TERM =
+            new Comparator<Map.Entry<byte[], Postings>>() {
+                @Override
+                public int compare(Map.Entry<byte[], Postings> e1, Map.Entry<byte[], Postings> e2) {
+                    final byte[] t1 = e1.getKey();
+                    final byte[] t2 = e2.getKey();
+                    for (int i = 0; i < t1.length && i < t2.length; i++) {
+                        final int c = (t1[i] & 0xff) - (t2[i] & 0xff);
+                        if (c != 0) {
+                            return c;
+                        }
+                    }
+
+                    return t1.length - t2.length;
+                }
+            };
+    }
+
+    /**
+     * A growable sorted list of distinct indexes.
+     */
+    static final class Postings {
+        long[] values = new long[4];
+        int size = 0;
+
+        void add(long index) {
+            if (this.size > 0 && this.values[this.size - 1] == index) {
+                return;
+            }
+
+            if (this.size == this.values.length) {
+                this.values = Arrays.copyOf(this.values, this.size << 1);
+            }
+
+            this.values[this.size++] = index;
+        }
+    }
+
+    /**
+     * A segment mapped from an index file.
+     */
+    static final class Segment {
+        final ByteBuffer buffer;
+        final long cycleLength;
+        final int terms;
+        final long firstIndex;
+        final long lastIndex;
+        final long lastTimestamp;
+
+        Segment(final ByteBuffer buffer) {
+            this.buffer = buffer;
+            this.terms = buffer.getInt(8);
+            this.cycleLength = buffer.getLong(12);
+            this.firstIndex = buffer.getLong(20);
+            this.lastIndex = buffer.getLong(28);
+            this.lastTimestamp = buffer.getLong(36);
+        }
+
+        String term(int i) {
+            final int offset = this.buffer.getInt(HEADER_SIZE + i * 8);
+            final byte[] bytes = new byte[this.buffer.getShort(offset) & 0xffff];
+            for (int n = 0; n < bytes.length; n++) {
+                bytes[n] = this.buffer.get(offset + 2 + n);
+            }
+
+            return new String(bytes, UTF8);
+        }
+
+        long[] postings(final byte[] term) {
+            int low = 0;
+            int high = this.terms - 1;
+
+            while (low <= high) {
+                final int mid = (low + high) >>> 1;
+                final int c = compare(this.buffer.getInt(HEADER_SIZE + mid * 8), term);
+                if (c < 0) {
+                    low = mid + 1;
+                } else if (c > 0) {
+                    high = mid - 1;
+                } else {
+                    final Postings values = new Postings();
+                    postings(mid, values);
+                    return Arrays.copyOf(values.values, values.size);
+                }
+            }
+
+            return NONE;
+        }
+
+        void postings(int i, final Postings values) {
+            final ByteBuffer in = this.buffer.duplicate();
+            in.position(this.buffer.getInt(HEADER_SIZE + i * 8 + 4));
+
+            long index = this.firstIndex;
+            for (long n = readStopBit(in); n > 0; n--) {
+                index += readStopBit(in);
+                values.add(index);
+            }
+        }
+
+        private int compare(int offset, final byte[] term) {
+            final int length = this.buffer.getShort(offset) & 0xffff;
+            for (int i = 0; i < length && i < term.length; i++) {
+                final int c = (this.buffer.get(offset + 2 + i) & 0xff) - (term[i] & 0xff);
+                if (c != 0) {
+                    return c;
+                }
+            }
+
+            return length - term.length;
+        }
+    }
+
+    private static void writeStopBit(final ByteBuffer out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+
+        out.put((byte) value);
+    }
+
+    private static long readStopBit(final ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            final byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2014 Higher Frequency Trading
+ *
+ * http://www.higherfrequencytrading.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.logger;
+
+import java.lang.reflect.Field;
+
+/**
+ * Per thread cache of the name of the current thread.
+ *
+ * Thread.getName allocates a String on each call on Java 7 and 8, where the
+ * name is kept as a char[]. The cached name is checked against that field,
+ * which a rename replaces, so it is invalidated whenever the thread is
+ * renamed. From Java 9 the field is the String returned by Thread.getName,
+ * so it is not read by reflection, which would also print an illegal
+ * reflective access warning: as when the field can not be read, the name is
+ * asked to the thread on each call.
+ */
+public final class ChronicleLogThreadNames {
+    private static final Field NAME_FIELD = nameField();
+
+    private static final ThreadLocal<Entry> ENTRIES = new ThreadLocal<Entry>() {
+        @Override
+        protected Entry initialValue() {
+            return new Entry();
+        }
+    };
+
+    private static final class Entry {
+        private Object raw;
+        private String name;
+    }
+
+    private static Field nameField() {
+        try {
+            final Field field = Thread.class.getDeclaredField("name");
+            if (field.getType() != char[].class) {
+                return null;
+            }
+
+            field.setAccessible(true);
+            return field.get(Thread.currentThread()) != null ? field : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return the name of the current thread
+     */
+    public static String current() {
+        final Thread thread = Thread.currentThread();
+        if (NAME_FIELD == null) {
+            return thread.getName();
+        }
+
+        final Entry entry = ENTRIES.get();
+        try {
+            final Object raw = NAME_FIELD.get(thread);
+            if (raw != entry.raw) {
+                entry.raw = raw;
+                entry.name = thread.getName();
+            }
+        } catch (IllegalAccessException e) {
+            return thread.getName();
+        }
+
+        return entry.name;
+    }
+
+    private ChronicleLogThreadNames() {
+    }
+}
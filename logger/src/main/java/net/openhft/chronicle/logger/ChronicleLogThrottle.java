@@ -0,0 +1,279 @@
+/*
+ * Copyright 2014 Higher Frequency Trading
+ *
+ * http://www.higherfrequencytrading.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.logger;
+
+import net.openhft.lang.model.constraints.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rate limits and samples log events per logger and level.
+ *
+ * Each logger gets a bucket per throttled level. A bucket keeps 1 in N events
+ * (picked at random) and then applies a token bucket of the given rate and
+ * burst, implemented as a single compare-and-set on the time the bucket will
+ * next be full, so admitting an event never takes a lock. The events dropped
+ * by either are counted and reported as one "N events suppressed" record
+ * once the reporting window closed: by the next event of the bucket or, for
+ * a bucket gone quiet, by the next event of any logger of the writer.
+ *
+ * @see ChronicleLogWriters.ThrottledWriter
+ */
+public final class ChronicleLogThrottle {
+    public static final long DEFAULT_WINDOW = 1000;
+
+    private static final ChronicleLogLevel[] LEVELS = ChronicleLogLevel.values();
+
+    private final long window;
+    private final double[] rates;
+    private final int[] bursts;
+    private final int[] samplings;
+    private final Map<String, Bucket[]> buckets;
+    private final AtomicLong nextSweep;
+
+    /**
+     * @param window    the period in ms after which suppressed events are reported
+     */
+    public ChronicleLogThrottle(long window) {
+        if (window <= 0) {
+            throw new IllegalArgumentException("window should be positive, got " + window);
+        }
+
+        this.window = TimeUnit.MILLISECONDS.toNanos(window);
+        this.rates = new double[LEVELS.length];
+        this.bursts = new int[LEVELS.length];
+        this.samplings = new int[LEVELS.length];
+        this.buckets = new ConcurrentHashMap<>();
+        this.nextSweep = new AtomicLong(System.nanoTime() + this.window);
+    }
+
+    /**
+     * Limit the events of a level, per logger.
+     *
+     * @param level     the level
+     * @param rate      the sustained number of events per second
+     * @param burst     the number of events which can be written at once
+     * @return          this throttle
+     */
+    public ChronicleLogThrottle limit(@NotNull ChronicleLogLevel level, double rate, int burst) {
+        if (rate <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("rate and burst should be positive, got " + rate + ", " + burst);
+        }
+
+        this.rates[level.ordinal()] = rate;
+        this.bursts[level.ordinal()] = burst;
+        return this;
+    }
+
+    /**
+     * Keep 1 in n events of a level, per logger.
+     *
+     * @param level     the level
+     * @param n         the sampling ratio, 1 to keep every event
+     * @return          this throttle
+     */
+    public ChronicleLogThrottle sample(@NotNull ChronicleLogLevel level, int n) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("n should be positive, got " + n);
+        }
+
+        this.samplings[level.ordinal()] = n;
+        return this;
+    }
+
+    /**
+     * @return true if any level is rate limited or sampled
+     */
+    public boolean isEnabled() {
+        for (int i = 0; i < LEVELS.length; i++) {
+            if (this.rates[i] > 0 || this.samplings[i] > 1) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    // *************************************************************************
+    //
+    // *************************************************************************
+
+    /**
+     * @return the bucket of a logger and level, null if the level is not throttled
+     */
+    Bucket bucket(final String loggerName, final ChronicleLogLevel level) {
+        final int index = level.ordinal();
+        if (this.rates[index] <= 0 && this.samplings[index] <= 1) {
+            return null;
+        }
+
+        final String key = loggerName != null ? loggerName : "";
+        Bucket[] buckets = this.buckets.get(key);
+        if (buckets == null) {
+            synchronized (this.buckets) {
+                buckets = this.buckets.get(key);
+                if (buckets == null) {
+                    buckets = new Bucket[LEVELS.length];
+                    for (int i = 0; i < LEVELS.length; i++) {
+                        if (this.rates[i] > 0 || this.samplings[i] > 1) {
+                            buckets[i] = new Bucket(this.rates[i], this.bursts[i], this.samplings[i], this.window);
+                        }
+                    }
+
+                    this.buckets.put(key, buckets);
+                }
+            }
+        }
+
+        return buckets[index];
+    }
+
+    /**
+     * Report the buckets whose window closed, looking at them at most once
+     * per window so that events do not scan every bucket.
+     *
+     * @param writer    the writer the "events suppressed" records are written to
+     * @param clock     the clock time stamping the records
+     * @param now       the System.nanoTime of the event
+     */
+    void sweep(@NotNull final ChronicleLogWriter writer, @NotNull final ChronicleLogClock clock, final long now) {
+        final long next = this.nextSweep.get();
+        if (now - next < 0 || !this.nextSweep.compareAndSet(next, now + this.window)) {
+            return;
+        }
+
+        for (Map.Entry<String, Bucket[]> entry : this.buckets.entrySet()) {
+            final Bucket[] buckets = entry.getValue();
+            for (int i = 0; i < buckets.length; i++) {
+                if (buckets[i] != null) {
+                    report(writer, clock, LEVELS[i], entry.getKey(), buckets[i].closeWindow(now));
+                }
+            }
+        }
+    }
+
+    /**
+     * Report the events suppressed so far, i.e. when closing.
+     *
+     * @param writer    the writer the "events suppressed" records are written to
+     * @param clock     the clock time stamping the records
+     */
+    void flush(@NotNull final ChronicleLogWriter writer, @NotNull final ChronicleLogClock clock) {
+        final List<Map.Entry<String, Bucket[]>> entries = new ArrayList<>(this.buckets.entrySet());
+        for (Map.Entry<String, Bucket[]> entry : entries) {
+            final Bucket[] buckets = entry.getValue();
+            for (int i = 0; i < buckets.length; i++) {
+                if (buckets[i] != null) {
+                    report(writer, clock, LEVELS[i], entry.getKey(), buckets[i].drain());
+                }
+            }
+        }
+    }
+
+    static void report(
+            @NotNull final ChronicleLogWriter writer,
+            @NotNull final ChronicleLogClock clock,
+            final ChronicleLogLevel level,
+            final String loggerName,
+            final long suppressed) {
+        if (suppressed > 0) {
+            writer.write(
+                level,
+                clock.currentTimeMillis(),
+                ChronicleLogThreadNames.current(),
+                loggerName,
+                suppressed + " events suppressed");
+        }
+    }
+
+    // *************************************************************************
+    //
+    // *************************************************************************
+
+    static final class Bucket {
+        private final long interval;
+        private final long tolerance;
+        private final int sampling;
+        private final long window;
+        private final AtomicLong full;
+        private final AtomicLong windowEnd;
+        private final AtomicLong suppressed;
+
+        Bucket(double rate, int burst, int sampling, long window) {
+            final long now = System.nanoTime();
+
+            this.interval = rate > 0 ? Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / rate)) : 0;
+            this.tolerance = this.interval * burst;
+            this.sampling = sampling;
+            this.window = window;
+            this.full = new AtomicLong(now);
+            this.windowEnd = new AtomicLong(now + window);
+            this.suppressed = new AtomicLong(0);
+        }
+
+        /**
+         * @return true if an event seen at the given time should be written
+         */
+        boolean acquire(final long now) {
+            if (this.sampling > 1 && ThreadLocalRandom.current().nextInt(this.sampling) != 0) {
+                this.suppressed.incrementAndGet();
+                return false;
+            }
+
+            if (this.interval == 0) {
+                return true;
+            }
+
+            for (;;) {
+                final long full = this.full.get();
+                final long next = (full - now > 0 ? full : now) + this.interval;
+                if (next - now > this.tolerance) {
+                    this.suppressed.incrementAndGet();
+                    return false;
+                }
+
+                if (this.full.compareAndSet(full, next)) {
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * @return the number of events suppressed if the reporting window closed, 0 otherwise
+         */
+        long closeWindow(final long now) {
+            final long end = this.windowEnd.get();
+            if (now - end < 0 || !this.windowEnd.compareAndSet(end, now + this.window)) {
+                return 0;
+            }
+
+            return drain();
+        }
+
+        long drain() {
+            return this.suppressed.get() != 0 ? this.suppressed.getAndSet(0) : 0;
+        }
+    }
+}
@@ -0,0 +1,245 @@
+/*
+ * Copyright 2014 Higher Frequency Trading
+ *
+ * http://www.higherfrequencytrading.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.logger;
+
+import net.openhft.lang.model.constraints.NotNull;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+public final class ChronicleLogWaitStrategies {
+    public static final String SPIN    = "spin";
+    public static final String YIELD   = "yield";
+    public static final String BACKOFF = "backoff";
+    public static final String BLOCK   = "block";
+
+    public static final int  SPIN_TRIES               = 100;
+    public static final int  YIELD_TRIES              = 100;
+    public static final long DEFAULT_MIN_PARK_NANOS   = TimeUnit.MICROSECONDS.toNanos(1);
+    public static final long DEFAULT_MAX_PARK_NANOS   = TimeUnit.MILLISECONDS.toNanos(10);
+    public static final long DEFAULT_BLOCK_NANOS      = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private static final BusySpin SPINNING = new BusySpin();
+    private static final Yielding YIELDING = new Yielding();
+
+    // *************************************************************************
+    //
+    // *************************************************************************
+
+    /**
+     * Polls again right away, the lowest latency at the cost of a core kept
+     * busy while no event is logged.
+     */
+    public static final class BusySpin implements ChronicleLogWaitStrategy {
+        @Override
+        public void idle(int tries) {
+        }
+    }
+
+    // *************************************************************************
+    //
+    // *************************************************************************
+
+    /**
+     * Spins for a few polls then yields the processor between polls, the
+     * thread stays runnable so a core is still used when nothing else runs.
+     */
+    public static final class Yielding implements ChronicleLogWaitStrategy {
+        @Override
+        public void idle(int tries) {
+            if (tries >= SPIN_TRIES) {
+                Thread.yield();
+            }
+        }
+    }
+
+    // *************************************************************************
+    //
+    // *************************************************************************
+
+    /**
+     * Spins, yields, then parks for a time doubling from the minimum up to the
+     * maximum park time, so an idle consumer wakes up rarely while a busy one
+     * picks up events with the latency of the last wait only.
+     */
+    public static final class Backoff implements ChronicleLogWaitStrategy {
+        private final long minParkNanos;
+        private final long maxParkNanos;
+
+        public Backoff(long minParkNanos, long maxParkNanos) {
+            if (minParkNanos <= 0 || maxParkNanos < minParkNanos) {
+                throw new IllegalArgumentException(
+                    "park times should be positive and ordered, got " + minParkNanos + " and " + maxParkNanos);
+            }
+
+            this.minParkNanos = minParkNanos;
+            this.maxParkNanos = maxParkNanos;
+        }
+
+        public long getMinParkNanos() {
+            return this.minParkNanos;
+        }
+
+        public long getMaxParkNanos() {
+            return this.maxParkNanos;
+        }
+
+        @Override
+        public void idle(int tries) {
+            if (tries < SPIN_TRIES) {
+                return;
+            }
+
+            if (tries < SPIN_TRIES + YIELD_TRIES) {
+                Thread.yield();
+                return;
+            }
+
+            LockSupport.parkNanos(parkNanos(tries - SPIN_TRIES - YIELD_TRIES));
+        }
+
+        long parkNanos(int parks) {
+            final int shift = Math.min(parks, 62);
+            final long nanos = this.minParkNanos << shift;
+            return nanos <= 0 || (nanos >>> shift) != this.minParkNanos
+                ? this.maxParkNanos
+                : Math.min(nanos, this.maxParkNanos);
+        }
+    }
+
+    // *************************************************************************
+    //
+    // *************************************************************************
+
+    /**
+     * Parks for a fixed time between polls, the latency is bounded by the
+     * park time and an idle consumer wakes up once per park time.
+     */
+    public static final class Blocking implements ChronicleLogWaitStrategy {
+        private final long parkNanos;
+
+        public Blocking(long parkNanos) {
+            if (parkNanos <= 0) {
+                throw new IllegalArgumentException("park time should be positive, got " + parkNanos);
+            }
+
+            this.parkNanos = parkNanos;
+        }
+
+        public long getParkNanos() {
+            return this.parkNanos;
+        }
+
+        @Override
+        public void idle(int tries) {
+            LockSupport.parkNanos(this.parkNanos);
+        }
+    }
+
+    // *************************************************************************
+    //
+    // *************************************************************************
+
+    public static ChronicleLogWaitStrategy busySpin() {
+        return SPINNING;
+    }
+
+    public static ChronicleLogWaitStrategy yielding() {
+        return YIELDING;
+    }
+
+    public static ChronicleLogWaitStrategy backoff() {
+        return new Backoff(DEFAULT_MIN_PARK_NANOS, DEFAULT_MAX_PARK_NANOS);
+    }
+
+    /**
+     * @param maxPark   the longest time to park between two polls
+     * @param unit      the unit of the time
+     * @return          a backoff strategy parking from 1 microsecond up to the given time
+     */
+    public static ChronicleLogWaitStrategy backoff(long maxPark, @NotNull TimeUnit unit) {
+        final long maxParkNanos = unit.toNanos(maxPark);
+        return new Backoff(Math.min(DEFAULT_MIN_PARK_NANOS, maxParkNanos), maxParkNanos);
+    }
+
+    public static ChronicleLogWaitStrategy blocking() {
+        return new Blocking(DEFAULT_BLOCK_NANOS);
+    }
+
+    /**
+     * @param park      the time to park between two polls, the bound of the latency
+     * @param unit      the unit of the time
+     * @return          a blocking strategy
+     */
+    public static ChronicleLogWaitStrategy blocking(long park, @NotNull TimeUnit unit) {
+        return new Blocking(unit.toNanos(park));
+    }
+
+    /**
+     * Parse a wait strategy given as one of:
+     * <pre>
+     *   spin
+     *   yield
+     *   backoff[:max park time in microseconds]
+     *   block[:park time in milliseconds]
+     * </pre>
+     *
+     * @param spec  the strategy
+     * @return      the wait strategy
+     * @throws IllegalArgumentException if the strategy is not recognized
+     */
+    public static ChronicleLogWaitStrategy parse(@NotNull String spec) throws IllegalArgumentException {
+        final int separator = spec.indexOf(':');
+        final String name = separator < 0 ? spec.trim() : spec.substring(0, separator).trim();
+
+        long time = -1;
+        if (separator >= 0) {
+            try {
+                time = Long.parseLong(spec.substring(separator + 1).trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid wait strategy: " + spec, e);
+            }
+
+            if (time <= 0) {
+                throw new IllegalArgumentException("Invalid wait strategy: " + spec);
+            }
+        }
+
+        if (SPIN.equalsIgnoreCase(name) && separator < 0) {
+            return busySpin();
+        }
+
+        if (YIELD.equalsIgnoreCase(name) && separator < 0) {
+            return yielding();
+        }
+
+        if (BACKOFF.equalsIgnoreCase(name)) {
+            return time < 0 ? backoff() : backoff(time, TimeUnit.MICROSECONDS);
+        }
+
+        if (BLOCK.equalsIgnoreCase(name)) {
+            return time < 0 ? blocking() : blocking(time, TimeUnit.MILLISECONDS);
+        }
+
+        throw new IllegalArgumentException("Invalid wait strategy: " + spec);
+    }
+
+    private ChronicleLogWaitStrategies() {
+    }
+}
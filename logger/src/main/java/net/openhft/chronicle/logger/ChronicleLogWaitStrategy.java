@@ -0,0 +1,36 @@
+/*
+ * Copyright 2014 Higher Frequency Trading
+ *
+ * http://www.higherfrequencytrading.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.logger;
+
+/**
+ * How a consumer tailing a chronicle waits while no new event is available.
+ *
+ * @see ChronicleLogWaitStrategies
+ * @see ChronicleLogTailer
+ */
+public interface ChronicleLogWaitStrategy {
+
+    /**
+     * Wait before polling the chronicle again.
+     *
+     * @param tries the number of polls in a row which found no event, 0 on the
+     *              first one, the consumer resets it once an event is read
+     */
+    void idle(int tries);
+}
@@ -19,13 +19,28 @@
 package net.openhft.chronicle.logger;
 
 import net.openhft.chronicle.Chronicle;
+import net.openhft.chronicle.ChronicleQueueBuilder;
 import net.openhft.chronicle.ExcerptAppender;
 import net.openhft.chronicle.VanillaChronicle;
 import net.openhft.lang.model.constraints.NotNull;
 
 import java.io.Closeable;
+import java.io.File;
 import java.io.IOException;
 import java.io.PrintStream;
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 public class ChronicleLogWriters {
 
@@ -56,38 +71,181 @@ public class ChronicleLogWriters {
         }
     }
 
-    public static class VanillaExcerptAppenderProvider implements ExcerptAppenderProvider {
+    /**
+     * Caches the ExcerptAppender of each logging thread so the hot path does not
+     * go through Chronicle.createAppender() on every write. VanillaChronicle only
+     * keeps a weak reference to the appender of a thread, so without a strong one
+     * it may be collected and its files mapped again.
+     *
+     * Appenders are created on first use and registered so they can be released
+     * when the owning thread dies or when the provider is closed. The appender of
+     * a live thread moves to the files of the next cycle on its own, so on cycle
+     * roll the appenders of the threads that died during the cycle are released.
+     * Dead threads are swept whenever a new thread registers itself and on cycle
+     * roll, which is checked every {@link #ROLL_CHECK_INTERVAL} writes
+     * per thread to keep the clock off the hot path. An appender is closed by
+     * whoever releases it first, the sweep or close, the others see it released.
+     */
+    public static class VanillaExcerptAppenderProvider implements ExcerptAppenderProvider, Closeable {
+        public static final int ROLL_CHECK_INTERVAL = 1024;
+
         private final Chronicle chronicle;
+        private final long cycleLength;
+        private final ThreadLocal<CachedAppender> cache;
+        private final Map<Thread, CachedAppender> registry;
+        private final AtomicLong cycle;
+
+        private volatile boolean closed;
 
+        /**
+         * @param chronicle     the chronicle, with the default cycle length, see
+         *                      {@link #VanillaExcerptAppenderProvider(Chronicle, long)}
+         */
         public VanillaExcerptAppenderProvider(@NotNull final Chronicle chronicle) {
+            this(chronicle, ChronicleQueueBuilder.vanilla((File) null).cycleLength());
+        }
+
+        /**
+         * @param chronicle     the chronicle
+         * @param cycleLength   the length in ms of the cycles of the chronicle
+         */
+        public VanillaExcerptAppenderProvider(@NotNull final Chronicle chronicle, long cycleLength) {
+            if (cycleLength <= 0) {
+                throw new IllegalArgumentException("cycleLength should be positive, got " + cycleLength);
+            }
+
             this.chronicle = chronicle;
+            this.cycleLength = cycleLength;
+            this.cache = new ThreadLocal<>();
+            this.registry = new ConcurrentHashMap<>();
+            this.cycle = new AtomicLong(System.currentTimeMillis() / cycleLength);
+            this.closed = false;
         }
 
         @Override
         public ExcerptAppender get() {
+            CachedAppender cached = this.cache.get();
+            if (cached == null || cached.isReleased()) {
+                cached = register();
+                if (cached == null) {
+                    return null;
+                }
+
+            } else if (++cached.writes % ROLL_CHECK_INTERVAL == 0) {
+                checkCycle();
+            }
+
+            return cached.appender;
+        }
+
+        @Override
+        public void close() {
+            this.closed = true;
+
+            for (final CachedAppender cached : this.registry.values()) {
+                cached.release();
+            }
+
+            this.registry.clear();
+        }
+
+        /**
+         * @return the number of appenders currently cached
+         */
+        public int size() {
+            return this.registry.size();
+        }
+
+        private CachedAppender register() {
+            if (this.closed) {
+                return null;
+            }
+
             try {
-                return this.chronicle.createAppender();
+                final Thread thread = Thread.currentThread();
+                final CachedAppender cached = new CachedAppender(this.chronicle.createAppender());
+
+                sweep();
+
+                this.registry.put(thread, cached);
+                this.cache.set(cached);
+
+                return cached;
             } catch (IOException e) {
                 e.printStackTrace();
             }
 
             return null;
         }
+
+        private void checkCycle() {
+            final long current = this.cycle.get();
+            final long now = System.currentTimeMillis() / this.cycleLength;
+
+            if (now != current && this.cycle.compareAndSet(current, now)) {
+                sweep();
+            }
+        }
+
+        private void sweep() {
+            for (final Map.Entry<Thread, CachedAppender> entry : this.registry.entrySet()) {
+                if (!entry.getKey().isAlive()) {
+                    entry.getValue().release();
+                    this.registry.remove(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+
+        private static final class CachedAppender {
+            final ExcerptAppender appender;
+            final AtomicBoolean released;
+            long writes;
+
+            CachedAppender(final ExcerptAppender appender) {
+                this.appender = appender;
+                this.released = new AtomicBoolean(false);
+                this.writes = 0;
+            }
+
+            boolean isReleased() {
+                return this.released.get();
+            }
+
+            void release() {
+                // the sweep and close may release the same appender concurrently
+                if (this.released.compareAndSet(false, true)) {
+                    this.appender.close();
+                }
+            }
+        }
     }
 
     // *************************************************************************
     //
     // *************************************************************************
 
-    public abstract static class AbstractChronicleLogWriter implements ChronicleLogWriter {
+    public abstract static class AbstractChronicleLogWriter implements ChronicleLogArgsWriter {
 
         private final ExcerptAppenderProvider appenderProvider;
         private final Chronicle chronicle;
 
+        /**
+         * @param chronicle     the chronicle, a VanillaChronicle having the default cycle length
+         * @throws IOException
+         */
         public AbstractChronicleLogWriter(@NotNull Chronicle chronicle) throws IOException {
+            this(chronicle, ChronicleQueueBuilder.vanilla((File) null).cycleLength());
+        }
+
+        /**
+         * @param chronicle     the chronicle
+         * @param cycleLength   the length in ms of the cycles of a VanillaChronicle
+         * @throws IOException
+         */
+        public AbstractChronicleLogWriter(@NotNull Chronicle chronicle, long cycleLength) throws IOException {
             this.chronicle = chronicle;
             this.appenderProvider = (chronicle instanceof VanillaChronicle)
-                ? new VanillaExcerptAppenderProvider(chronicle)
+                ? new VanillaExcerptAppenderProvider(chronicle, cycleLength)
                 : new IndexedExcerptAppenderProvider(chronicle);
         }
 
@@ -98,6 +256,10 @@ public class ChronicleLogWriters {
 
         @Override
         public void close() throws IOException {
+            if (this.appenderProvider instanceof Closeable) {
+                ((Closeable) this.appenderProvider).close();
+            }
+
             if (this.chronicle != null) {
                 this.chronicle.close();
             }
@@ -106,6 +268,40 @@ public class ChronicleLogWriters {
         protected ExcerptAppender getAppender() {
             return this.appenderProvider.get();
         }
+
+        /**
+         * @return the index of the last excerpt written by the appender of
+         *         the calling thread, -1 if none
+         */
+        public long lastWrittenIndex() {
+            final ExcerptAppender appender = this.appenderProvider.get();
+            return appender != null ? appender.lastWrittenIndex() : -1;
+        }
+
+        /**
+         * @return the symbol table of the writer, null if strings are written inline
+         */
+        ChronicleLogSymbols symbols() {
+            return null;
+        }
+    }
+
+    /**
+     * @return the writer appending the excerpts beneath a SummaryWriter or a
+     *         BlockFilterWriter, null if it is not known
+     */
+    static AbstractChronicleLogWriter appending(ChronicleLogWriter writer) {
+        while (true) {
+            if (writer instanceof AbstractChronicleLogWriter) {
+                return (AbstractChronicleLogWriter) writer;
+            } else if (writer instanceof SummaryWriter) {
+                writer = ((SummaryWriter) writer).writer();
+            } else if (writer instanceof BlockFilterWriter) {
+                writer = ((BlockFilterWriter) writer).writer();
+            } else {
+                return null;
+            }
+        }
     }
 
     // *************************************************************************
@@ -114,23 +310,108 @@ public class ChronicleLogWriters {
 
     public static final class BinaryWriter extends AbstractChronicleLogWriter {
 
+        private final ChronicleLogSymbols symbols;
+
         public BinaryWriter(@NotNull Chronicle chronicle) throws IOException {
+            this(chronicle, null);
+        }
+
+        /**
+         * @param chronicle the chronicle
+         * @param symbols   the symbol table used to encode repeated strings, null to write them inline
+         * @throws IOException
+         */
+        public BinaryWriter(@NotNull Chronicle chronicle, ChronicleLogSymbols symbols) throws IOException {
             super(chronicle);
+
+            this.symbols = symbols;
+        }
+
+        /**
+         * @param chronicle     the chronicle
+         * @param symbols       the symbol table used to encode repeated strings, null to write them inline
+         * @param cycleLength   the length in ms of the cycles of a VanillaChronicle
+         * @throws IOException
+         */
+        public BinaryWriter(@NotNull Chronicle chronicle, ChronicleLogSymbols symbols, long cycleLength)
+                throws IOException {
+            super(chronicle, cycleLength);
+
+            this.symbols = symbols;
+        }
+
+        @Override
+        ChronicleLogSymbols symbols() {
+            return this.symbols;
+        }
+
+        private ChronicleLogSymbols.Encoder startExcerpt(final ExcerptAppender appender) {
+            if (this.symbols == null) {
+                appender.startExcerpt();
+                return null;
+            }
+
+            return this.symbols.startExcerpt(appender);
         }
 
         private void logCommon(
                 final ExcerptAppender appender,
+                final ChronicleLogSymbols.Encoder encoder,
+                final int flags,
                 final ChronicleLogLevel level,
                 final long timestamp,
+                final int nanos,
                 final String threadName,
                 final String loggerName,
-                final String message) {
+                final String message,
+                final boolean template) {
             appender.writeByte(ChronicleLog.VERSION);
-            appender.writeLong(timestamp);
+
+            // the nanos section is left out when there is nothing below the millisecond
+            final int header = nanos != 0 ? flags | ChronicleLog.FLAG_NANOS : flags;
+            if (encoder != null) {
+                encoder.writeHeader(appender, header, timestamp);
+            } else {
+                appender.writeByte(header);
+                appender.writeLong(timestamp);
+            }
+
+            if (nanos != 0) {
+                appender.writeStopBit(nanos);
+            }
+
             level.writeTo(appender);
-            appender.writeUTFΔ(threadName);
-            appender.writeUTFΔ(loggerName);
-            appender.writeUTFΔ(message);
+
+            if (encoder != null) {
+                encoder.writeName(appender, threadName);
+                encoder.writeName(appender, loggerName);
+                encoder.writeMessage(appender, message, template);
+            } else {
+                appender.writeUTFΔ(threadName);
+                appender.writeUTFΔ(loggerName);
+                appender.writeUTFΔ(message);
+            }
+        }
+
+        private static int flags(final int argc, final Throwable throwable) {
+            return (argc > 0 ? ChronicleLog.FLAG_ARGS : 0)
+                | (throwable != null ? ChronicleLog.FLAG_THROWABLE : 0);
+        }
+
+        private void writeThrowable(
+                final ExcerptAppender appender,
+                final ChronicleLogSymbols.Encoder encoder,
+                final Throwable throwable) {
+            if (throwable == null) {
+                return;
+            }
+
+            if (encoder != null) {
+                encoder.writeThrowable(appender, throwable);
+            } else {
+                appender.writeBoolean(true);
+                appender.writeObject(throwable);
+            }
         }
 
         @Override
@@ -142,8 +423,8 @@ public class ChronicleLogWriters {
             final String message) {
             final ExcerptAppender appender = getAppender();
             if (appender != null) {
-                appender.startExcerpt();
-                logCommon(appender, level, timestamp, threadName, loggerName, message);
+                final ChronicleLogSymbols.Encoder encoder = startExcerpt(appender);
+                logCommon(appender, encoder, 0, level, timestamp, 0, threadName, loggerName, message, false);
                 appender.finish();
             }
         }
@@ -158,19 +439,12 @@ public class ChronicleLogWriters {
             final Throwable throwable) {
             final ExcerptAppender appender = getAppender();
             if (appender != null) {
-                appender.startExcerpt();
-
-                logCommon(appender, level, timestamp, threadName, loggerName, message);
+                final ChronicleLogSymbols.Encoder encoder = startExcerpt(appender);
 
-                appender.writeStopBit(0);
+                logCommon(appender, encoder, flags(0, throwable),
+                    level, timestamp, 0, threadName, loggerName, message, false);
 
-                if(throwable != null) {
-                    appender.writeBoolean(true);
-                    appender.writeObject(throwable);
-
-                } else {
-                    appender.writeBoolean(false);
-                }
+                writeThrowable(appender, encoder, throwable);
 
                 appender.finish();
             }
@@ -187,20 +461,15 @@ public class ChronicleLogWriters {
             final Object arg1) {
             final ExcerptAppender appender = getAppender();
             if (appender != null) {
-                appender.startExcerpt();
+                final ChronicleLogSymbols.Encoder encoder = startExcerpt(appender);
 
-                logCommon(appender, level, timestamp, threadName, loggerName, message);
+                logCommon(appender, encoder, flags(1, throwable),
+                    level, timestamp, 0, threadName, loggerName, message, true);
 
                 appender.writeStopBit(1);
-                appender.writeObject(arg1);
+                ChronicleLogCodec.writeArg(appender, arg1);
 
-                if(throwable != null) {
-                    appender.writeBoolean(true);
-                    appender.writeObject(throwable);
-
-                } else {
-                    appender.writeBoolean(false);
-                }
+                writeThrowable(appender, encoder, throwable);
 
                 appender.finish();
             }
@@ -218,21 +487,16 @@ public class ChronicleLogWriters {
             final Object arg2) {
             final ExcerptAppender appender = getAppender();
             if (appender != null) {
-                appender.startExcerpt();
+                final ChronicleLogSymbols.Encoder encoder = startExcerpt(appender);
 
-                logCommon(appender, level, timestamp, threadName, loggerName, message);
+                logCommon(appender, encoder, flags(2, throwable),
+                    level, timestamp, 0, threadName, loggerName, message, true);
 
                 appender.writeStopBit(2);
-                appender.writeObject(arg1);
-                appender.writeObject(arg2);
+                ChronicleLogCodec.writeArg(appender, arg1);
+                ChronicleLogCodec.writeArg(appender, arg2);
 
-                if(throwable != null) {
-                    appender.writeBoolean(true);
-                    appender.writeObject(throwable);
-
-                } else {
-                    appender.writeBoolean(false);
-                }
+                writeThrowable(appender, encoder, throwable);
 
                 appender.finish();
             }
@@ -249,152 +513,134 @@ public class ChronicleLogWriters {
             final Object[] args) {
             final ExcerptAppender appender = getAppender();
             if (appender != null) {
-                appender.startExcerpt();
+                final ChronicleLogSymbols.Encoder encoder = startExcerpt(appender);
 
-                logCommon(appender, level, timestamp, threadName, loggerName, message);
+                final int argc = args != null ? args.length : 0;
+                logCommon(appender, encoder, flags(argc, throwable),
+                    level, timestamp, 0, threadName, loggerName, message, argc > 0);
 
-                if(args != null) {
-                    appender.writeStopBit(args.length);
-                    for(int i=0;i <args.length; i++) {
-                        appender.writeObject(args[i]);
+                if(argc > 0) {
+                    appender.writeStopBit(argc);
+                    for(int i=0;i <argc; i++) {
+                        ChronicleLogCodec.writeArg(appender, args[i]);
                     }
-                } else {
-                    appender.writeStopBit(0);
                 }
 
-                if(throwable != null) {
-                    appender.writeBoolean(true);
-                    appender.writeObject(throwable);
-
-                } else {
-                    appender.writeBoolean(false);
-                }
+                writeThrowable(appender, encoder, throwable);
 
                 appender.finish();
             }
         }
-    }
-
-    // *************************************************************************
-    //
-    // *************************************************************************
-
-    public static class TextWriter extends AbstractChronicleLogWriter {
-        private final TimeStampFormatter timeStampFormatter;
-        private final int stackTraceDepth;
-
-        public TextWriter(
-                @NotNull Chronicle chronicle,
-                String dateFormat,
-                Integer stackTraceDepth) throws IOException {
-
-            super(chronicle);
-
-            this.stackTraceDepth = stackTraceDepth != null ? stackTraceDepth : -1;
-            this.timeStampFormatter = TimeStampFormatter.fromDateFormat(dateFormat);
-        }
 
         @Override
         public void write(
             final ChronicleLogLevel level,
-            long timestamp,
+            final long timestamp,
             final String threadName,
             final String loggerName,
-            final String message) {
-            write(level, timestamp, threadName, loggerName, message, null);
+            final String message,
+            final Throwable throwable,
+            final ChronicleLogArgs args) {
+            write(level, timestamp, 0, threadName, loggerName, message, throwable, args);
         }
 
         @Override
         public void write(
             final ChronicleLogLevel level,
-            long timestamp,
+            final long timestamp,
+            final int nanos,
             final String threadName,
             final String loggerName,
             final String message,
-            final Throwable throwable) {
+            final Throwable throwable,
+            final ChronicleLogArgs args) {
+            if (nanos < 0 || nanos >= ChronicleLog.NANOS_PER_MILLI) {
+                throw new IllegalArgumentException("nanos should be within a millisecond, got " + nanos);
+            }
+
             final ExcerptAppender appender = getAppender();
             if (appender != null) {
-                appender.startExcerpt();
-                timeStampFormatter.format(timestamp, appender);
-                appender.append('|');
-                level.printTo(appender);
-                appender.append('|');
-                appender.append(threadName);
-                appender.append('|');
-                appender.append(loggerName);
-                appender.append('|');
-                appender.append(message);
+                final ChronicleLogSymbols.Encoder encoder = startExcerpt(appender);
 
-                if (throwable != null) {
-                    appender.append(" - ");
-                    ChronicleLogHelper.appendStackTraceAsString(
-                        appender,
-                        throwable,
-                        ChronicleLog.COMMA,
-                        this.stackTraceDepth);
+                final int argc = args != null ? args.size() : 0;
+                logCommon(appender, encoder, flags(argc, throwable),
+                    level, timestamp, nanos, threadName, loggerName, message, argc > 0);
+
+                if(argc > 0) {
+                    appender.writeStopBit(argc);
+                    args.writeTo(appender);
                 }
 
-                appender.append('\n');
+                writeThrowable(appender, encoder, throwable);
+
                 appender.finish();
             }
         }
-
-        @Override
-        public void write(
-            ChronicleLogLevel level,
-            long timestamp,
-            String threadName,
-            String loggerName,
-            String message,
-            Throwable throwable,
-            Object arg1) {
-            throw new UnsupportedOperationException();
-        }
-
-        @Override
-        public void write(
-            ChronicleLogLevel level,
-            long timestamp,
-            String threadName,
-            String loggerName,
-            String message,
-            Throwable throwable,
-            Object arg1,
-            Object arg2) {
-            throw new UnsupportedOperationException();
-        }
-
-        @Override
-        public void write(
-            ChronicleLogLevel level,
-            long timestamp,
-            String threadName,
-            String loggerName,
-            String message, Throwable throwable, Object[] args) {
-        }
     }
 
     // *************************************************************************
     //
     // *************************************************************************
 
-    public static class SimpleWriter implements ChronicleLogWriter {
+    public static class TextWriter extends AbstractChronicleLogWriter {
         private final TimeStampFormatter timeStampFormatter;
-        private final PrintStream stream;
+        private final int stackTraceDepth;
+        private final ChronicleLogSymbols symbols;
 
-        public SimpleWriter(
-                @NotNull PrintStream stream) throws IOException {
-            this.timeStampFormatter = TimeStampFormatter.fromDateFormat(ChronicleLog.DEFAULT_DATE_FORMAT);
-            this.stream = stream;
+        public TextWriter(
+                @NotNull Chronicle chronicle,
+                String dateFormat,
+                Integer stackTraceDepth) throws IOException {
+
+            this(chronicle, dateFormat, stackTraceDepth, null);
         }
 
-        @Override
-        public Chronicle getChronicle() {
-            return null;
+        /**
+         * @param chronicle         the chronicle
+         * @param dateFormat        the date format
+         * @param stackTraceDepth   the number of stack frames to write, null for all
+         * @param symbols           the symbol table used to deduplicate throwables, may be null
+         * @throws IOException
+         */
+        public TextWriter(
+                @NotNull Chronicle chronicle,
+                String dateFormat,
+                Integer stackTraceDepth,
+                ChronicleLogSymbols symbols) throws IOException {
+
+            this(
+                chronicle,
+                dateFormat,
+                stackTraceDepth,
+                symbols,
+                ChronicleQueueBuilder.vanilla((File) null).cycleLength());
+        }
+
+        /**
+         * @param chronicle         the chronicle
+         * @param dateFormat        the date format
+         * @param stackTraceDepth   the number of stack frames to write, null for all
+         * @param symbols           the symbol table used to deduplicate throwables, may be null
+         * @param cycleLength       the length in ms of the cycles of a VanillaChronicle
+         * @throws IOException
+         */
+        public TextWriter(
+                @NotNull Chronicle chronicle,
+                String dateFormat,
+                Integer stackTraceDepth,
+                ChronicleLogSymbols symbols,
+                long cycleLength) throws IOException {
+
+            super(chronicle, cycleLength);
+
+            this.stackTraceDepth = stackTraceDepth != null ? stackTraceDepth : -1;
+            this.timeStampFormatter = TimeStampFormatter.fromDateFormat(dateFormat);
+            this.symbols = symbols;
         }
 
         @Override
-        public void close() throws IOException {
+        ChronicleLogSymbols symbols() {
+            return this.symbols;
         }
 
         @Override
@@ -403,35 +649,27 @@ public class ChronicleLogWriters {
             long timestamp,
             final String threadName,
             final String loggerName,
-            final String message,
-            final Throwable throwable) {
-            if (throwable == null) {
-                stream.printf("%s|%s|%s|%s|%s%n",
-                    timeStampFormatter.format(timestamp),
-                    level.toString(),
-                    threadName,
-                    loggerName,
-                    message);
-
-            } else {
-                stream.printf("%s|%s|%s|%s|%s|%s%n",
-                    timeStampFormatter.format(timestamp),
-                    level.toString(),
-                    threadName,
-                    loggerName,
-                    message,
-                    throwable.toString());
-            }
+            final String message) {
+            write(level, timestamp, threadName, loggerName, message, null);
         }
 
         @Override
         public void write(
             final ChronicleLogLevel level,
-            final long timestamp,
+            long timestamp,
             final String threadName,
             final String loggerName,
-            final String message) {
-            write(level, timestamp, threadName, loggerName, message, null);
+            final String message,
+            final Throwable throwable) {
+            final ExcerptAppender appender = getAppender();
+            if (appender != null) {
+                final ChronicleLogSymbols.Encoder encoder =
+                    startEvent(appender, level, timestamp, threadName, loggerName);
+
+                appender.append(message);
+
+                endEvent(appender, encoder, throwable);
+            }
         }
 
         @Override
@@ -443,7 +681,17 @@ public class ChronicleLogWriters {
             final String message,
             final Throwable throwable,
             final Object arg1) {
-            write(level, timestamp, threadName, loggerName, message, throwable);
+            final ExcerptAppender appender = getAppender();
+            if (appender != null) {
+                final ChronicleLogSymbols.Encoder encoder =
+                    startEvent(appender, level, timestamp, threadName, loggerName);
+
+                final int used = ChronicleLogFormatter.append(appender, message, arg1);
+
+                endEvent(appender, encoder, throwable != null
+                    ? throwable
+                    : ChronicleLogFormatter.unused(arg1, used, 1));
+            }
         }
 
         @Override
@@ -456,7 +704,17 @@ public class ChronicleLogWriters {
             final Throwable throwable,
             final Object arg1,
             final Object arg2) {
-            write(level, timestamp, threadName, loggerName, message, throwable);
+            final ExcerptAppender appender = getAppender();
+            if (appender != null) {
+                final ChronicleLogSymbols.Encoder encoder =
+                    startEvent(appender, level, timestamp, threadName, loggerName);
+
+                final int used = ChronicleLogFormatter.append(appender, message, arg1, arg2);
+
+                endEvent(appender, encoder, throwable != null
+                    ? throwable
+                    : ChronicleLogFormatter.unused(arg2, used, 2));
+            }
         }
 
         @Override
@@ -468,27 +726,1278 @@ public class ChronicleLogWriters {
             final String message,
             final Throwable throwable,
             final Object[] args) {
-            write(level, timestamp, threadName, loggerName, message, throwable);
-        }
-    }
+            final ExcerptAppender appender = getAppender();
+            if (appender != null) {
+                final ChronicleLogSymbols.Encoder encoder =
+                    startEvent(appender, level, timestamp, threadName, loggerName);
+
+                final int count = args != null ? args.length : 0;
+                final int used = ChronicleLogFormatter.append(appender, message, args, count);
+
+                endEvent(appender, encoder, throwable != null || count == 0
+                    ? throwable
+                    : ChronicleLogFormatter.unused(args[count - 1], used, count));
+            }
+        }
+
+        @Override
+        public void write(
+            final ChronicleLogLevel level,
+            final long timestamp,
+            final String threadName,
+            final String loggerName,
+            final String message,
+            final Throwable throwable,
+            final ChronicleLogArgs args) {
+            final ExcerptAppender appender = getAppender();
+            if (appender != null) {
+                final ChronicleLogSymbols.Encoder encoder =
+                    startEvent(appender, level, timestamp, threadName, loggerName);
+
+                if (args != null) {
+                    ChronicleLogFormatter.append(appender, message, args);
+                } else {
+                    appender.append(message);
+                }
+
+                endEvent(appender, encoder, throwable);
+            }
+        }
+
+        @Override
+        public void write(
+            final ChronicleLogLevel level,
+            final long timestamp,
+            final int nanos,
+            final String threadName,
+            final String loggerName,
+            final String message,
+            final Throwable throwable,
+            final ChronicleLogArgs args) {
+            // the time stamp is printed to the millisecond
+            write(level, timestamp, threadName, loggerName, message, throwable, args);
+        }
+
+        private ChronicleLogSymbols.Encoder startEvent(
+                final ExcerptAppender appender,
+                final ChronicleLogLevel level,
+                final long timestamp,
+                final String threadName,
+                final String loggerName) {
+            final ChronicleLogSymbols.Encoder encoder = this.symbols != null
+                ? this.symbols.startExcerpt(appender)
+                : null;
+
+            if (encoder == null) {
+                appender.startExcerpt();
+            }
+
+            timeStampFormatter.format(timestamp, appender);
+            appender.append('|');
+            level.printTo(appender);
+            appender.append('|');
+            appender.append(threadName);
+            appender.append('|');
+            appender.append(loggerName);
+            appender.append('|');
+
+            return encoder;
+        }
+
+        private void endEvent(
+                final ExcerptAppender appender,
+                final ChronicleLogSymbols.Encoder encoder,
+                final Throwable throwable) {
+            if (throwable != null) {
+                appender.append(" - ");
+                if (encoder != null) {
+                    encoder.appendThrowable(
+                        appender,
+                        throwable,
+                        ChronicleLog.COMMA,
+                        this.stackTraceDepth);
+                } else {
+                    ChronicleLogHelper.appendStackTraceAsString(
+                        appender,
+                        throwable,
+                        ChronicleLog.COMMA,
+                        this.stackTraceDepth);
+                }
+            }
+
+            appender.append('\n');
+            appender.finish();
+        }
+    }
+
+    // *************************************************************************
+    //
+    // *************************************************************************
+
+    public static class SimpleWriter implements ChronicleLogArgsWriter {
+        private final TimeStampFormatter timeStampFormatter;
+        private final PrintStream stream;
+
+        public SimpleWriter(
+                @NotNull PrintStream stream) throws IOException {
+            this.timeStampFormatter = TimeStampFormatter.fromDateFormat(ChronicleLog.DEFAULT_DATE_FORMAT);
+            this.stream = stream;
+        }
+
+        @Override
+        public Chronicle getChronicle() {
+            return null;
+        }
+
+        @Override
+        public void close() throws IOException {
+        }
+
+        @Override
+        public void write(
+            final ChronicleLogLevel level,
+            long timestamp,
+            final String threadName,
+            final String loggerName,
+            final String message,
+            final Throwable throwable) {
+            if (throwable == null) {
+                stream.printf("%s|%s|%s|%s|%s%n",
+                    timeStampFormatter.format(timestamp),
+                    level.toString(),
+                    threadName,
+                    loggerName,
+                    message);
+
+            } else {
+                stream.printf("%s|%s|%s|%s|%s|%s%n",
+                    timeStampFormatter.format(timestamp),
+                    level.toString(),
+                    threadName,
+                    loggerName,
+                    message,
+                    throwable.toString());
+            }
+        }
+
+        @Override
+        public void write(
+            final ChronicleLogLevel level,
+            final long timestamp,
+            final String threadName,
+            final String loggerName,
+            final String message) {
+            write(level, timestamp, threadName, loggerName, message, null);
+        }
+
+        @Override
+        public void write(
+            final ChronicleLogLevel level,
+            final long timestamp,
+            final String threadName,
+            final String loggerName,
+            final String message,
+            final Throwable throwable,
+            final Object arg1) {
+            format(level, timestamp, threadName, loggerName, message, throwable, new Object[] { arg1 });
+        }
+
+        @Override
+        public void write(
+            final ChronicleLogLevel level,
+            final long timestamp,
+            final String threadName,
+            final String loggerName,
+            final String message,
+            final Throwable throwable,
+            final Object arg1,
+            final Object arg2) {
+            format(level, timestamp, threadName, loggerName, message, throwable, new Object[] { arg1, arg2 });
+        }
+
+        @Override
+        public void write(
+            final ChronicleLogLevel level,
+            final long timestamp,
+            final String threadName,
+            final String loggerName,
+            final String message,
+            final Throwable throwable,
+            final Object[] args) {
+            format(level, timestamp, threadName, loggerName, message, throwable, args);
+        }
+
+        @Override
+        public void write(
+            final ChronicleLogLevel level,
+            final long timestamp,
+            final String threadName,
+            final String loggerName,
+            final String message,
+            final Throwable throwable,
+            final ChronicleLogArgs args) {
+            format(level, timestamp, threadName, loggerName, message, throwable, args != null ? args.toArray() : null);
+        }
+
+        @Override
+        public void write(
+            final ChronicleLogLevel level,
+            final long timestamp,
+            final int nanos,
+            final String threadName,
+            final String loggerName,
+            final String message,
+            final Throwable throwable,
+            final ChronicleLogArgs args) {
+            // the time stamp is printed to the millisecond
+            write(level, timestamp, threadName, loggerName, message, throwable, args);
+        }
+
+        /**
+         * Substitute the placeholders of the message, the trailing Throwable
+         * argument being the throwable of the event as with SLF4J.
+         */
+        private void format(
+            final ChronicleLogLevel level,
+            final long timestamp,
+            final String threadName,
+            final String loggerName,
+            final String message,
+            final Throwable throwable,
+            final Object[] args) {
+            final int count = args != null ? args.length : 0;
+            if (count == 0) {
+                write(level, timestamp, threadName, loggerName, message, throwable);
+                return;
+            }
+
+            final StringBuilder formatted = new StringBuilder(message != null ? message.length() + 16 * count : 4);
+            final int used = ChronicleLogFormatter.append(formatted, message, args, count);
+
+            write(level, timestamp, threadName, loggerName, formatted.toString(), throwable != null
+                ? throwable
+                : ChronicleLogFormatter.unused(args[count - 1], used, count));
+        }
+    }
+
+    // *************************************************************************
+    //
+    // *************************************************************************
+
+    public static final class SynchronizedWriter implements ChronicleLogArgsWriter, Closeable {
+        private final ChronicleLogWriter writer;
+        private final Object sync;
+
+        public SynchronizedWriter(final ChronicleLogWriter writer) {
+            this.writer = writer;
+            this.sync = new Object();
+        }
+
+        public ChronicleLogWriter writer() {
+            return writer;
+        }
+
+        @Override
+        public Chronicle getChronicle() {
+            return this.writer.getChronicle();
+        }
+
+        @Override
+        public void close() throws IOException {
+            synchronized(this.sync) {
+                this.writer.close();
+            }
+        }
+
+        @Override
+        public void write(
+            ChronicleLogLevel level,
+            long timestamp,
+            String threadName,
+            String loggerName,
+            String message) {
+            synchronized (this.sync) {
+                this.writer.write(level, timestamp, threadName, loggerName, message);
+            }
+        }
+
+        @Override
+        public void write(
+            ChronicleLogLevel level,
+            long timestamp,
+            String threadName,
+            String loggerName,
+            String message,
+            Throwable throwable) {
+            synchronized (this.sync) {
+                this.writer.write(level, timestamp, threadName, loggerName, message, throwable);
+            }
+        }
+
+        @Override
+        public void write(
+            ChronicleLogLevel level,
+            long timestamp,
+            String threadName,
+            String loggerName,
+            String message,
+            Throwable throwable,
+            Object arg1) {
+            synchronized (this.sync) {
+                this.writer.write(level, timestamp, threadName, loggerName, message, throwable, arg1);
+            }
+        }
+
+        @Override
+        public void write(
+            ChronicleLogLevel level,
+            long timestamp,
+            String threadName,
+            String loggerName,
+            String message,
+            Throwable throwable,
+            Object arg1,
+            Object arg2) {
+            synchronized (this.sync) {
+                this.writer.write(level, timestamp, threadName, loggerName, message, throwable, arg1, arg2);
+            }
+        }
+
+        @Override
+        public void write(
+            ChronicleLogLevel level,
+            long timestamp,
+            String threadName,
+            String loggerName,
+            String message,
+            Throwable throwable,
+            Object[] args) {
+            synchronized (this.sync) {
+                this.writer.write(level, timestamp, threadName, loggerName, message, throwable, args);
+            }
+        }
+
+        @Override
+        public void write(
+            ChronicleLogLevel level,
+            long timestamp,
+            String threadName,
+            String loggerName,
+            String message,
+            Throwable throwable,
+            ChronicleLogArgs args) {
+            write(level, timestamp, 0, threadName, loggerName, message, throwable, args);
+        }
+
+        @Override
+        public void write(
+            ChronicleLogLevel level,
+            long timestamp,
+            int nanos,
+            String threadName,
+            String loggerName,
+            String message,
+            Throwable throwable,
+            ChronicleLogArgs args) {
+            synchronized (this.sync) {
+                ChronicleLogWriters.write(
+                    this.writer, level, timestamp, nanos, threadName, loggerName, message, throwable, args);
+            }
+        }
+    }
+
+    // *************************************************************************
+    //
+    // *************************************************************************
+
+    /**
+     * A writer that shards events across several underlying writers, i.e. one
+     * per IndexedChronicle stripe, so logging threads do not contend on a
+     * single lock.
+     *
+     * Each thread is bound to a stripe on its first write, stripes are handed
+     * out round robin so as long as there are no more logging threads than
+     * stripes each stripe is only written by one thread. The stripes should be
+     * thread safe (i.e. a SynchronizedWriter) as a stripe may be shared when
+     * there are more threads than stripes. The stripes can be read back as a
+     * single stream with a {@link ChronicleLogMergeReader}.
+     */
+    public static final class StripedWriter implements ChronicleLogArgsWriter, Closeable {
+        private final ChronicleLogWriter[] stripes;
+        private final ThreadLocal<ChronicleLogWriter> stripe;
+        private final AtomicInteger next;
+
+        public StripedWriter(@NotNull final ChronicleLogWriter[] stripes) {
+            if (stripes.length == 0) {
+                throw new IllegalArgumentException("At least one stripe is required");
+            }
+
+            this.stripes = stripes;
+            this.stripe = new ThreadLocal<>();
+            this.next = new AtomicInteger(0);
+        }
+
+        public ChronicleLogWriter[] stripes() {
+            return this.stripes;
+        }
+
+        /**
+         * @return the chronicles of the stripes, in stripe order
+         */
+        public List<Chronicle> chronicles() {
+            final List<Chronicle> chronicles = new ArrayList<>(this.stripes.length);
+            for (ChronicleLogWriter writer : this.stripes) {
+                chronicles.add(writer.getChronicle());
+            }
+
+            return chronicles;
+        }
+
+        /**
+         * @return the chronicle of the first stripe, the events are spread
+         *         over the chronicles of all the stripes, see {@link #chronicles()}
+         */
+        @Override
+        public Chronicle getChronicle() {
+            return this.stripes[0].getChronicle();
+        }
+
+        @Override
+        public void close() throws IOException {
+            for (ChronicleLogWriter writer : this.stripes) {
+                writer.close();
+            }
+        }
+
+        @Override
+        public void write(
+            ChronicleLogLevel level,
+            long timestamp,
+            String threadName,
+            String loggerName,
+            String message) {
+            writer().write(level, timestamp, threadName, loggerName, message);
+        }
+
+        @Override
+        public void write(
+            ChronicleLogLevel level,
+            long timestamp,
+            String threadName,
+            String loggerName,
+            String message,
+            Throwable throwable) {
+            writer().write(level, timestamp, threadName, loggerName, message, throwable);
+        }
+
+        @Override
+        public void write(
+            ChronicleLogLevel level,
+            long timestamp,
+            String threadName,
+            String loggerName,
+            String message,
+            Throwable throwable,
+            Object arg1) {
+            writer().write(level, timestamp, threadName, loggerName, message, throwable, arg1);
+        }
+
+        @Override
+        public void write(
+            ChronicleLogLevel level,
+            long timestamp,
+            String threadName,
+            String loggerName,
+            String message,
+            Throwable throwable,
+            Object arg1,
+            Object arg2) {
+            writer().write(level, timestamp, threadName, loggerName, message, throwable, arg1, arg2);
+        }
+
+        @Override
+        public void write(
+            ChronicleLogLevel level,
+            long timestamp,
+            String threadName,
+            String loggerName,
+            String message,
+            Throwable throwable,
+            Object[] args) {
+            writer().write(level, timestamp, threadName, loggerName, message, throwable, args);
+        }
+
+        @Override
+        public void write(
+            ChronicleLogLevel level,
+            long timestamp,
+            String threadName,
+            String loggerName,
+            String message,
+            Throwable throwable,
+            ChronicleLogArgs args) {
+            write(level, timestamp, 0, threadName, loggerName, message, throwable, args);
+        }
+
+        @Override
+        public void write(
+            ChronicleLogLevel level,
+            long timestamp,
+            int nanos,
+            String threadName,
+            String loggerName,
+            String message,
+            Throwable throwable,
+            ChronicleLogArgs args) {
+            ChronicleLogWriters.write(
+                writer(), level, timestamp, nanos, threadName, loggerName, message, throwable, args);
+        }
+
+        private ChronicleLogWriter writer() {
+            ChronicleLogWriter writer = this.stripe.get();
+            if (writer == null) {
+                writer = this.stripes[(this.next.getAndIncrement() & Integer.MAX_VALUE) % this.stripes.length];
+                this.stripe.set(writer);
+            }
+
+            return writer;
+        }
+    }
+
+    // *************************************************************************
+    //
+    // *************************************************************************
+
+    /**
+     * A writer that hands events over to a dedicated thread through a
+     * preallocated multi-producer/single-consumer ring of reusable slots.
+     *
+     * The calling thread only pays for a slot claim and a copy of the event
+     * fields, the serialization into the Chronicle is done by the drainer
+     * thread. As there is a single consumer, the wrapped writer does not
+     * need to be synchronized. When the ring is full, producers wait for
+     * the drainer to free a slot rather than dropping events.
+     *
+     * Closing the writer marks the claim sequence as closed, so no slot can
+     * be claimed afterwards, and drains every slot claimed before that up to
+     * its publication. Events written once the writer is closed are dropped
+     * and counted, see {@link #dropped()}; those dropped while it drains are
+     * reported to the wrapped writer before it is closed.
+     *
+     * As the arguments are rendered by the drainer thread, the slots keep a
+     * snapshot of them taken on the calling thread: the argument arrays are
+     * copied, mutable character sequences such as a StringBuilder are turned
+     * into a String and arrays passed as an argument are cloned, which all
+     * read back the same. Any other argument is kept by reference and its
+     * toString() deferred, so it should not be mutated once logged.
+     */
+    public static final class AsyncWriter implements ChronicleLogArgsWriter, Closeable {
+        public static final int DEFAULT_CAPACITY = 1 << 14;
+
+        private static final int KIND_MESSAGE   = 0;
+        private static final int KIND_THROWABLE = 1;
+        private static final int KIND_ARG1      = 2;
+        private static final int KIND_ARG2      = 3;
+        private static final int KIND_ARGS      = 4;
+        private static final int KIND_LOG_ARGS  = 5;
+
+        private static final int  SPIN_TRIES     = 100;
+        private static final int  YIELD_TRIES    = 100;
+        private static final long MAX_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+        // set on the claim sequence once the writer is closed
+        private static final long CLOSED = Long.MIN_VALUE;
+
+        private final ChronicleLogWriter writer;
+        private final Slot[] slots;
+        private final AtomicLongArray sequences;
+        private final AtomicLong tail;
+        private final AtomicLong dropped;
+        private final int mask;
+        private final Thread drainer;
+
+        private volatile boolean running;
+
+        public AsyncWriter(@NotNull final ChronicleLogWriter writer) {
+            this(writer, DEFAULT_CAPACITY);
+        }
+
+        public AsyncWriter(@NotNull final ChronicleLogWriter writer, int capacity) {
+            if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+                throw new IllegalArgumentException("capacity should be a power of two, got " + capacity);
+            }
+
+            this.writer = writer;
+            this.slots = new Slot[capacity];
+            this.sequences = new AtomicLongArray(capacity);
+            this.tail = new AtomicLong(0);
+            this.dropped = new AtomicLong(0);
+            this.mask = capacity - 1;
+
+            for (int i = 0; i < capacity; i++) {
+                this.slots[i] = new Slot();
+                this.sequences.set(i, i);
+            }
+
+            this.running = true;
+            this.drainer = new Thread(new Drainer(), "chronicle-logger-async-writer");
+            this.drainer.setDaemon(true);
+            this.drainer.start();
+        }
+
+        public ChronicleLogWriter writer() {
+            return this.writer;
+        }
+
+        /**
+         * @return the number of events dropped because the writer was closed
+         */
+        public long dropped() {
+            return this.dropped.get();
+        }
+
+        @Override
+        public Chronicle getChronicle() {
+            return this.writer.getChronicle();
+        }
+
+        @Override
+        public void close() throws IOException {
+            long seq;
+            do {
+                seq = this.tail.get();
+                if ((seq & CLOSED) != 0) {
+                    return;
+                }
+            } while (!this.tail.compareAndSet(seq, seq | CLOSED));
+
+            this.running = false;
+
+            try {
+                this.drainer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            final long dropped = this.dropped.get();
+            if (dropped > 0) {
+                this.writer.write(
+                    ChronicleLogLevel.WARN,
+                    System.currentTimeMillis(),
+                    ChronicleLogThreadNames.current(),
+                    AsyncWriter.class.getName(),
+                    dropped + " events dropped on close");
+            }
+
+            this.writer.close();
+        }
+
+        @Override
+        public void write(
+            ChronicleLogLevel level,
+            long timestamp,
+            String threadName,
+            String loggerName,
+            String message) {
+            final long seq = claim();
+            if (seq != -1) {
+                fill(seq, KIND_MESSAGE, level, timestamp, threadName, loggerName, message, null);
+                publish(seq);
+            }
+        }
+
+        @Override
+        public void write(
+            ChronicleLogLevel level,
+            long timestamp,
+            String threadName,
+            String loggerName,
+            String message,
+            Throwable throwable) {
+            final long seq = claim();
+            if (seq != -1) {
+                fill(seq, KIND_THROWABLE, level, timestamp, threadName, loggerName, message, throwable);
+                publish(seq);
+            }
+        }
+
+        @Override
+        public void write(
+            ChronicleLogLevel level,
+            long timestamp,
+            String threadName,
+            String loggerName,
+            String message,
+            Throwable throwable,
+            Object arg1) {
+            final long seq = claim();
+            if (seq != -1) {
+                final Slot slot = fill(seq, KIND_ARG1, level, timestamp, threadName, loggerName, message, throwable);
+                slot.arg1 = snapshot(arg1);
+                publish(seq);
+            }
+        }
+
+        @Override
+        public void write(
+            ChronicleLogLevel level,
+            long timestamp,
+            String threadName,
+            String loggerName,
+            String message,
+            Throwable throwable,
+            Object arg1,
+            Object arg2) {
+            final long seq = claim();
+            if (seq != -1) {
+                final Slot slot = fill(seq, KIND_ARG2, level, timestamp, threadName, loggerName, message, throwable);
+                slot.arg1 = snapshot(arg1);
+                slot.arg2 = snapshot(arg2);
+                publish(seq);
+            }
+        }
+
+        @Override
+        public void write(
+            ChronicleLogLevel level,
+            long timestamp,
+            String threadName,
+            String loggerName,
+            String message,
+            Throwable throwable,
+            Object[] args) {
+            final long seq = claim();
+            if (seq != -1) {
+                final Slot slot = fill(seq, KIND_ARGS, level, timestamp, threadName, loggerName, message, throwable);
+                slot.args = snapshot(args);
+                publish(seq);
+            }
+        }
+
+        @Override
+        public void write(
+            ChronicleLogLevel level,
+            long timestamp,
+            String threadName,
+            String loggerName,
+            String message,
+            Throwable throwable,
+            ChronicleLogArgs args) {
+            write(level, timestamp, 0, threadName, loggerName, message, throwable, args);
+        }
+
+        @Override
+        public void write(
+            ChronicleLogLevel level,
+            long timestamp,
+            int nanos,
+            String threadName,
+            String loggerName,
+            String message,
+            Throwable throwable,
+            ChronicleLogArgs args) {
+            final long seq = claim();
+            if (seq != -1) {
+                final Slot slot = fill(seq, KIND_LOG_ARGS, level, timestamp, threadName, loggerName, message, throwable);
+                slot.nanos = nanos;
+                if (args != null) {
+                    // the caller reuses its instance, so copy into the one owned by the slot
+                    slot.logArgs().snapshotFrom(args);
+                } else {
+                    slot.logArgs().clear();
+                }
+
+                publish(seq);
+            }
+        }
+
+        /**
+         * @return the claimed sequence or -1 if the writer has been closed
+         */
+        private long claim() {
+            for (int tries = 0; ; ) {
+                final long seq = this.tail.get();
+                if ((seq & CLOSED) != 0) {
+                    this.dropped.incrementAndGet();
+                    return -1;
+                }
+
+                final long available = this.sequences.get((int) seq & this.mask);
+
+                if (available == seq) {
+                    if (this.tail.compareAndSet(seq, seq + 1)) {
+                        return seq;
+                    }
+                } else if (available < seq) {
+                    // the ring is full, wait for the drainer to release the slot
+                    tries = idle(tries);
+                }
+            }
+        }
+
+        /**
+         * @return an argument which renders the same once the caller
+         *         mutates the given one, see the class documentation
+         */
+        static Object snapshot(final Object arg) {
+            if (arg == null || arg instanceof String) {
+                return arg;
+            }
+
+            if (arg instanceof CharSequence) {
+                return arg.toString();
+            }
+
+            if (arg.getClass().isArray()) {
+                final int length = Array.getLength(arg);
+                final Object copy = Array.newInstance(arg.getClass().getComponentType(), length);
+                System.arraycopy(arg, 0, copy, 0, length);
+
+                return copy;
+            }
+
+            return arg;
+        }
+
+        private static Object[] snapshot(final Object[] args) {
+            if (args == null) {
+                return null;
+            }
+
+            final Object[] copy = new Object[args.length];
+            for (int i = 0; i < args.length; i++) {
+                copy[i] = snapshot(args[i]);
+            }
+
+            return copy;
+        }
+
+        private Slot fill(
+            long seq,
+            int kind,
+            ChronicleLogLevel level,
+            long timestamp,
+            String threadName,
+            String loggerName,
+            String message,
+            Throwable throwable) {
+            final Slot slot = this.slots[(int) seq & this.mask];
+            slot.kind = kind;
+            slot.level = level;
+            slot.timestamp = timestamp;
+            slot.nanos = 0;
+            slot.threadName = threadName;
+            slot.loggerName = loggerName;
+            slot.message = message;
+            slot.throwable = throwable;
+
+            return slot;
+        }
+
+        private void publish(long seq) {
+            this.sequences.lazySet((int) seq & this.mask, seq + 1);
+        }
+
+        private static int idle(int tries) {
+            if (tries < SPIN_TRIES) {
+                return tries + 1;
+            }
+
+            if (tries < SPIN_TRIES + YIELD_TRIES) {
+                Thread.yield();
+                return tries + 1;
+            }
+
+            LockSupport.parkNanos(MAX_PARK_NANOS);
+            return tries;
+        }
+
+        private final class Drainer implements Runnable {
+            private long head = 0;
+
+            @Override
+            public void run() {
+                for (int tries = 0; ; ) {
+                    if (drain()) {
+                        tries = 0;
+
+                    } else if (running) {
+                        tries = idle(tries);
+
+                    } else {
+                        // producers may still be publishing slots claimed before close
+                        final long claimed = tail.get() & ~CLOSED;
+                        while (head < claimed) {
+                            if (!drain()) {
+                                Thread.yield();
+                            }
+                        }
+
+                        break;
+                    }
+                }
+            }
+
+            private boolean drain() {
+                boolean drained = false;
+                for (int idx = (int) head & mask; sequences.get(idx) == head + 1; idx = (int) head & mask) {
+                    final Slot slot = slots[idx];
+
+                    try {
+                        slot.writeTo(writer);
+                    } catch (Exception e) {
+                        e.printStackTrace();
+                    }
+
+                    slot.clear();
+                    sequences.lazySet(idx, head + slots.length);
+
+                    head++;
+                    drained = true;
+                }
+
+                return drained;
+            }
+        }
+
+        private static final class Slot {
+            int kind;
+            ChronicleLogLevel level;
+            long timestamp;
+            int nanos;
+            String threadName;
+            String loggerName;
+            String message;
+            Throwable throwable;
+            Object arg1;
+            Object arg2;
+            Object[] args;
+            ChronicleLogArgs logArgs;
+
+            ChronicleLogArgs logArgs() {
+                if (logArgs == null) {
+                    logArgs = new ChronicleLogArgs();
+                }
+
+                return logArgs;
+            }
+
+            void writeTo(final ChronicleLogWriter writer) {
+                switch (kind) {
+                    case KIND_MESSAGE:
+                        writer.write(level, timestamp, threadName, loggerName, message);
+                        break;
+                    case KIND_THROWABLE:
+                        writer.write(level, timestamp, threadName, loggerName, message, throwable);
+                        break;
+                    case KIND_ARG1:
+                        writer.write(level, timestamp, threadName, loggerName, message, throwable, arg1);
+                        break;
+                    case KIND_ARG2:
+                        writer.write(level, timestamp, threadName, loggerName, message, throwable, arg1, arg2);
+                        break;
+                    case KIND_ARGS:
+                        writer.write(level, timestamp, threadName, loggerName, message, throwable, args);
+                        break;
+                    case KIND_LOG_ARGS:
+                        ChronicleLogWriters.write(
+                            writer, level, timestamp, nanos, threadName, loggerName, message, throwable, logArgs);
+                        break;
+                    default:
+                        throw new IllegalStateException("Unknown event kind " + kind);
+                }
+            }
+
+            void clear() {
+                level = null;
+                threadName = null;
+                loggerName = null;
+                message = null;
+                throwable = null;
+                arg1 = null;
+                arg2 = null;
+                args = null;
+                if (logArgs != null) {
+                    logArgs.clear();
+                }
+            }
+        }
+    }
+
+    // *************************************************************************
+    //
+    // *************************************************************************
+
+    /**
+     * Drop the events exceeding the rate limits or sampling of a
+     * ChronicleLogThrottle before they reach the wrapped writer, reporting
+     * the number of events dropped once per window.
+     */
+    public static final class ThrottledWriter implements ChronicleLogArgsWriter, Closeable {
+        private final ChronicleLogWriter writer;
+        private final ChronicleLogThrottle throttle;
+        private final ChronicleLogClock clock;
+
+        public ThrottledWriter(final ChronicleLogWriter writer, final ChronicleLogThrottle throttle) {
+            this(writer, throttle, ChronicleLogClocks.system());
+        }
+
+        /**
+         * @param writer    the writer
+         * @param throttle  the throttle
+         * @param clock     the clock time stamping the "events suppressed" records
+         */
+        public ThrottledWriter(
+                final ChronicleLogWriter writer,
+                final ChronicleLogThrottle throttle,
+                final ChronicleLogClock clock) {
+            this.writer = writer;
+            this.throttle = throttle;
+            this.clock = clock;
+        }
+
+        public ChronicleLogWriter writer() {
+            return writer;
+        }
+
+        private boolean admit(final ChronicleLogLevel level, final String loggerName) {
+            final ChronicleLogThrottle.Bucket bucket = this.throttle.bucket(loggerName, level);
+
+            // any event reports the buckets gone quiet since their window closed
+            final long now = System.nanoTime();
+            this.throttle.sweep(this.writer, this.clock, now);
+
+            if (bucket == null) {
+                return true;
+            }
+
+            ChronicleLogThrottle.report(this.writer, this.clock, level, loggerName, bucket.closeWindow(now));
+
+            return bucket.acquire(now);
+        }
+
+        @Override
+        public Chronicle getChronicle() {
+            return this.writer.getChronicle();
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.throttle.flush(this.writer, this.clock);
+            this.writer.close();
+        }
+
+        @Override
+        public void write(
+            ChronicleLogLevel level,
+            long timestamp,
+            String threadName,
+            String loggerName,
+            String message) {
+            if (admit(level, loggerName)) {
+                this.writer.write(level, timestamp, threadName, loggerName, message);
+            }
+        }
+
+        @Override
+        public void write(
+            ChronicleLogLevel level,
+            long timestamp,
+            String threadName,
+            String loggerName,
+            String message,
+            Throwable throwable) {
+            if (admit(level, loggerName)) {
+                this.writer.write(level, timestamp, threadName, loggerName, message, throwable);
+            }
+        }
+
+        @Override
+        public void write(
+            ChronicleLogLevel level,
+            long timestamp,
+            String threadName,
+            String loggerName,
+            String message,
+            Throwable throwable,
+            Object arg1) {
+            if (admit(level, loggerName)) {
+                this.writer.write(level, timestamp, threadName, loggerName, message, throwable, arg1);
+            }
+        }
+
+        @Override
+        public void write(
+            ChronicleLogLevel level,
+            long timestamp,
+            String threadName,
+            String loggerName,
+            String message,
+            Throwable throwable,
+            Object arg1,
+            Object arg2) {
+            if (admit(level, loggerName)) {
+                this.writer.write(level, timestamp, threadName, loggerName, message, throwable, arg1, arg2);
+            }
+        }
+
+        @Override
+        public void write(
+            ChronicleLogLevel level,
+            long timestamp,
+            String threadName,
+            String loggerName,
+            String message,
+            Throwable throwable,
+            Object[] args) {
+            if (admit(level, loggerName)) {
+                this.writer.write(level, timestamp, threadName, loggerName, message, throwable, args);
+            }
+        }
+
+        @Override
+        public void write(
+            ChronicleLogLevel level,
+            long timestamp,
+            String threadName,
+            String loggerName,
+            String message,
+            Throwable throwable,
+            ChronicleLogArgs args) {
+            write(level, timestamp, 0, threadName, loggerName, message, throwable, args);
+        }
+
+        @Override
+        public void write(
+            ChronicleLogLevel level,
+            long timestamp,
+            int nanos,
+            String threadName,
+            String loggerName,
+            String message,
+            Throwable throwable,
+            ChronicleLogArgs args) {
+            if (admit(level, loggerName)) {
+                ChronicleLogWriters.write(
+                    this.writer, level, timestamp, nanos, threadName, loggerName, message, throwable, args);
+            }
+        }
+    }
 
     // *************************************************************************
     //
     // *************************************************************************
 
-    public static final class SynchronizedWriter implements ChronicleLogWriter, Closeable {
+    /**
+     * Count the events handed to the wrapped writer in a ChronicleLogSummary
+     * per cycle, which is stored next to the chronicle when the cycle rolls
+     * and when the writer is closed.
+     *
+     * The index of an event is the last index written by the appender of the
+     * calling thread, so the wrapped writer should be a BinaryWriter or a
+     * TextWriter, possibly wrapped in a BlockFilterWriter, and any
+     * synchronization should wrap this writer, otherwise the indexes are not known.
+     */
+    public static final class SummaryWriter implements ChronicleLogArgsWriter, Closeable {
         private final ChronicleLogWriter writer;
-        private final Object sync;
+        private final AbstractChronicleLogWriter appending;
+        private final String path;
+        private final long cycleLength;
+        private final ReadWriteLock lock;
+        private volatile ChronicleLogSummary summary;
+
+        /**
+         * @param writer        the writer
+         * @param path          the path of the chronicle of the writer
+         * @param cycleLength   the length in ms of the summarized cycles
+         */
+        public SummaryWriter(final ChronicleLogWriter writer, final String path, long cycleLength) {
+            if (cycleLength <= 0) {
+                throw new IllegalArgumentException("cycleLength should be positive, got " + cycleLength);
+            }
 
-        public SynchronizedWriter(final ChronicleLogWriter writer) {
             this.writer = writer;
-            this.sync = new Object();
+            this.appending = appending(writer);
+            this.path = path;
+            this.cycleLength = cycleLength;
+            this.lock = new ReentrantReadWriteLock();
+            this.summary = null;
         }
 
         public ChronicleLogWriter writer() {
             return writer;
         }
 
+        /**
+         * @return the summary of the current cycle, null if nothing was written yet
+         */
+        public ChronicleLogSummary summary() {
+            return this.summary;
+        }
+
+        /**
+         * Events are counted under the read lock, the summaries are flushed
+         * and swapped under the write lock, so no event is added to a summary
+         * once it is stored. The events of earlier cycles are counted as late
+         * in the current summary.
+         */
+        private void count(final ChronicleLogLevel level, long timestamp, final String loggerName) {
+            final long index = this.appending != null ? this.appending.lastWrittenIndex() : -1;
+            final long cycle = timestamp / this.cycleLength;
+
+            this.lock.readLock().lock();
+            try {
+                final ChronicleLogSummary current = this.summary;
+                if (current != null && cycle <= current.getCycle()) {
+                    current.add(level, timestamp, loggerName, index);
+                    return;
+                }
+            } finally {
+                this.lock.readLock().unlock();
+            }
+
+            this.lock.writeLock().lock();
+            try {
+                roll(cycle).add(level, timestamp, loggerName, index);
+            } finally {
+                this.lock.writeLock().unlock();
+            }
+        }
+
+        // called with the write lock held
+        private ChronicleLogSummary roll(long cycle) {
+            final ChronicleLogSummary current = this.summary;
+            if (current != null && cycle <= current.getCycle()) {
+                return current;
+            }
+
+            flush(current);
+
+            // carry on with the summary left by a previous writer appending to the same cycle
+            ChronicleLogSummary next = null;
+            final File file = ChronicleLogSummary.file(this.path, cycle);
+            if (file.exists()) {
+                try {
+                    next = ChronicleLogSummary.read(file);
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+
+            this.summary = next != null ? next : new ChronicleLogSummary(cycle, this.cycleLength);
+            return this.summary;
+        }
+
+        private void flush(final ChronicleLogSummary summary) {
+            if (summary != null) {
+                try {
+                    summary.write(this.path);
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+
         @Override
         public Chronicle getChronicle() {
             return this.writer.getChronicle();
@@ -496,9 +2005,14 @@ public class ChronicleLogWriters {
 
         @Override
         public void close() throws IOException {
-            synchronized(this.sync) {
-                this.writer.close();
+            this.lock.writeLock().lock();
+            try {
+                flush(this.summary);
+            } finally {
+                this.lock.writeLock().unlock();
             }
+
+            this.writer.close();
         }
 
         @Override
@@ -508,9 +2022,8 @@ public class ChronicleLogWriters {
             String threadName,
             String loggerName,
             String message) {
-            synchronized (this.sync) {
-                this.writer.write(level, timestamp, threadName, loggerName, message);
-            }
+            this.writer.write(level, timestamp, threadName, loggerName, message);
+            count(level, timestamp, loggerName);
         }
 
         @Override
@@ -521,9 +2034,8 @@ public class ChronicleLogWriters {
             String loggerName,
             String message,
             Throwable throwable) {
-            synchronized (this.sync) {
-                this.writer.write(level, timestamp, threadName, loggerName, message, throwable);
-            }
+            this.writer.write(level, timestamp, threadName, loggerName, message, throwable);
+            count(level, timestamp, loggerName);
         }
 
         @Override
@@ -535,9 +2047,8 @@ public class ChronicleLogWriters {
             String message,
             Throwable throwable,
             Object arg1) {
-            synchronized (this.sync) {
-                this.writer.write(level, timestamp, threadName, loggerName, message, throwable, arg1);
-            }
+            this.writer.write(level, timestamp, threadName, loggerName, message, throwable, arg1);
+            count(level, timestamp, loggerName);
         }
 
         @Override
@@ -550,9 +2061,8 @@ public class ChronicleLogWriters {
             Throwable throwable,
             Object arg1,
             Object arg2) {
-            synchronized (this.sync) {
-                this.writer.write(level, timestamp, threadName, loggerName, message, throwable, arg1, arg2);
-            }
+            this.writer.write(level, timestamp, threadName, loggerName, message, throwable, arg1, arg2);
+            count(level, timestamp, loggerName);
         }
 
         @Override
@@ -564,16 +2074,320 @@ public class ChronicleLogWriters {
             String message,
             Throwable throwable,
             Object[] args) {
-            synchronized (this.sync) {
-                this.writer.write(level, timestamp, threadName, loggerName, message, throwable, args);
+            this.writer.write(level, timestamp, threadName, loggerName, message, throwable, args);
+            count(level, timestamp, loggerName);
+        }
+
+        @Override
+        public void write(
+            ChronicleLogLevel level,
+            long timestamp,
+            String threadName,
+            String loggerName,
+            String message,
+            Throwable throwable,
+            ChronicleLogArgs args) {
+            write(level, timestamp, 0, threadName, loggerName, message, throwable, args);
+        }
+
+        @Override
+        public void write(
+            ChronicleLogLevel level,
+            long timestamp,
+            int nanos,
+            String threadName,
+            String loggerName,
+            String message,
+            Throwable throwable,
+            ChronicleLogArgs args) {
+            ChronicleLogWriters.write(
+                this.writer, level, timestamp, nanos, threadName, loggerName, message, throwable, args);
+            count(level, timestamp, loggerName);
+        }
+    }
+
+    // *************************************************************************
+    //
+    // *************************************************************************
+
+    /**
+     * Add the events handed to the wrapped writer to the block filters of the
+     * chronicle, see ChronicleLogBlocks, which are stored next to the chronicle
+     * as blocks complete and when the writer is closed.
+     *
+     * As with SummaryWriter the index of an event is the last index written by
+     * the appender of the calling thread, so the wrapped writer should be a
+     * BinaryWriter or a TextWriter, possibly wrapped in a SummaryWriter, and
+     * any synchronization should wrap this writer. The definitions written by the symbol table of the wrapped
+     * writer are seen the same way.
+     */
+    public static final class BlockFilterWriter implements ChronicleLogArgsWriter, Closeable {
+        private final ChronicleLogWriter writer;
+        private final AbstractChronicleLogWriter appending;
+        private final ChronicleLogBlocks blocks;
+        private final ChronicleLogSymbols symbols;
+        private final boolean formatted;
+
+        /**
+         * @param writer        the writer
+         * @param blocks        the block filters of the chronicle of the writer
+         */
+        public BlockFilterWriter(final ChronicleLogWriter writer, final ChronicleLogBlocks blocks) {
+            this.writer = writer;
+            this.appending = appending(writer);
+            this.blocks = blocks;
+            this.symbols = this.appending != null ? this.appending.symbols() : null;
+            this.formatted = this.appending instanceof TextWriter;
+        }
+
+        public ChronicleLogWriter writer() {
+            return writer;
+        }
+
+        public ChronicleLogBlocks blocks() {
+            return blocks;
+        }
+
+        private long definitions() {
+            return this.symbols != null ? this.symbols.definitions() : 0;
+        }
+
+        private void add(
+                long definitions,
+                final ChronicleLogLevel level,
+                long timestamp,
+                final String threadName,
+                final String loggerName,
+                final String message,
+                final Throwable throwable,
+                int nbArgs,
+                final Object arg1,
+                final Object arg2,
+                final Object[] args,
+                final ChronicleLogArgs logArgs) {
+
+            final long index = this.appending != null ? this.appending.lastWrittenIndex() : -1;
+            if (index < 0) {
+                return;
+            }
+
+            final boolean formatted = this.formatted && nbArgs > 0;
+            final boolean defines = definitions != definitions();
+
+            ChronicleLogBlocks.Block block;
+            do {
+                block = this.blocks.block(index);
+                block.add(level, timestamp, defines);
+                block.addTerms(threadName);
+                block.addTerms(loggerName);
+                block.addMessage(message, formatted);
+
+                if (throwable != null) {
+                    block.addUnknownTerms();
+                }
+
+                for (int i = 0; i < nbArgs; i++) {
+                    if (logArgs != null) {
+                        logArgs.addTo(i, block, formatted);
+                    } else if (args != null) {
+                        block.addArg(args[i], formatted);
+                    } else {
+                        block.addArg(i == 0 ? arg1 : arg2, formatted);
+                    }
+                }
+            } while (!this.blocks.commit(block));
+        }
+
+        @Override
+        public Chronicle getChronicle() {
+            return this.writer.getChronicle();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                this.blocks.close();
+            } finally {
+                this.writer.close();
             }
         }
+
+        @Override
+        public void write(
+            ChronicleLogLevel level,
+            long timestamp,
+            String threadName,
+            String loggerName,
+            String message) {
+            final long definitions = definitions();
+            this.writer.write(level, timestamp, threadName, loggerName, message);
+            add(definitions, level, timestamp, threadName, loggerName, message, null, 0, null, null, null, null);
+        }
+
+        @Override
+        public void write(
+            ChronicleLogLevel level,
+            long timestamp,
+            String threadName,
+            String loggerName,
+            String message,
+            Throwable throwable) {
+            final long definitions = definitions();
+            this.writer.write(level, timestamp, threadName, loggerName, message, throwable);
+            add(definitions, level, timestamp, threadName, loggerName, message, throwable, 0, null, null, null, null);
+        }
+
+        @Override
+        public void write(
+            ChronicleLogLevel level,
+            long timestamp,
+            String threadName,
+            String loggerName,
+            String message,
+            Throwable throwable,
+            Object arg1) {
+            final long definitions = definitions();
+            this.writer.write(level, timestamp, threadName, loggerName, message, throwable, arg1);
+            add(definitions, level, timestamp, threadName, loggerName, message, throwable, 1, arg1, null, null, null);
+        }
+
+        @Override
+        public void write(
+            ChronicleLogLevel level,
+            long timestamp,
+            String threadName,
+            String loggerName,
+            String message,
+            Throwable throwable,
+            Object arg1,
+            Object arg2) {
+            final long definitions = definitions();
+            this.writer.write(level, timestamp, threadName, loggerName, message, throwable, arg1, arg2);
+            add(definitions, level, timestamp, threadName, loggerName, message, throwable, 2, arg1, arg2, null, null);
+        }
+
+        @Override
+        public void write(
+            ChronicleLogLevel level,
+            long timestamp,
+            String threadName,
+            String loggerName,
+            String message,
+            Throwable throwable,
+            Object[] args) {
+            final long definitions = definitions();
+            this.writer.write(level, timestamp, threadName, loggerName, message, throwable, args);
+            add(definitions, level, timestamp, threadName, loggerName, message, throwable,
+                args != null ? args.length : 0, null, null, args, null);
+        }
+
+        @Override
+        public void write(
+            ChronicleLogLevel level,
+            long timestamp,
+            String threadName,
+            String loggerName,
+            String message,
+            Throwable throwable,
+            ChronicleLogArgs args) {
+            write(level, timestamp, 0, threadName, loggerName, message, throwable, args);
+        }
+
+        @Override
+        public void write(
+            ChronicleLogLevel level,
+            long timestamp,
+            int nanos,
+            String threadName,
+            String loggerName,
+            String message,
+            Throwable throwable,
+            ChronicleLogArgs args) {
+            final long definitions = definitions();
+            ChronicleLogWriters.write(
+                this.writer, level, timestamp, nanos, threadName, loggerName, message, throwable, args);
+            add(definitions, level, timestamp, threadName, loggerName, message, throwable,
+                args != null ? args.size() : 0, null, null, null, args);
+        }
     }
 
     // *************************************************************************
     //
     // *************************************************************************
 
+    /**
+     * Write an event whose arguments are held by a ChronicleLogArgs, without
+     * boxing them if the writer is a ChronicleLogArgsWriter, as an array of
+     * arguments otherwise.
+     */
+    public static void write(
+            @NotNull ChronicleLogWriter writer,
+            ChronicleLogLevel level,
+            long timestamp,
+            String threadName,
+            String loggerName,
+            String message,
+            Throwable throwable,
+            ChronicleLogArgs args) {
+        if (writer instanceof ChronicleLogArgsWriter) {
+            ((ChronicleLogArgsWriter) writer).write(level, timestamp, threadName, loggerName, message, throwable, args);
+        } else if (args != null && args.size() > 0) {
+            writer.write(level, timestamp, threadName, loggerName, message, throwable, args.toArray());
+        } else {
+            writer.write(level, timestamp, threadName, loggerName, message, throwable);
+        }
+    }
+
+    /**
+     * Write an event time stamped below the millisecond, see
+     * {@link #write(ChronicleLogWriter, ChronicleLogLevel, long, String, String, String, Throwable, ChronicleLogArgs)},
+     * the nanoseconds are dropped if the writer is not a ChronicleLogArgsWriter.
+     */
+    public static void write(
+            @NotNull ChronicleLogWriter writer,
+            ChronicleLogLevel level,
+            long timestamp,
+            int nanos,
+            String threadName,
+            String loggerName,
+            String message,
+            Throwable throwable,
+            ChronicleLogArgs args) {
+        if (writer instanceof ChronicleLogArgsWriter) {
+            ((ChronicleLogArgsWriter) writer).write(
+                level, timestamp, nanos, threadName, loggerName, message, throwable, args);
+        } else {
+            write(writer, level, timestamp, threadName, loggerName, message, throwable, args);
+        }
+    }
+
+    /**
+     * Write an event time stamped by a clock, the nanoseconds of the
+     * millisecond are kept when the clock has them, see
+     * {@link ChronicleLogClocks.NanoClock}.
+     */
+    public static void write(
+            @NotNull ChronicleLogWriter writer,
+            @NotNull ChronicleLogClock clock,
+            ChronicleLogLevel level,
+            String threadName,
+            String loggerName,
+            String message,
+            Throwable throwable,
+            ChronicleLogArgs args) {
+        final long nanos = clock.currentTimeNanos();
+        write(
+            writer,
+            level,
+            nanos / ChronicleLog.NANOS_PER_MILLI,
+            (int) (nanos % ChronicleLog.NANOS_PER_MILLI),
+            threadName,
+            loggerName,
+            message,
+            throwable,
+            args);
+    }
+
     public static ChronicleLogWriter binary(
         @NotNull Chronicle chronicle) throws IOException {
 
@@ -605,4 +2419,68 @@ public class ChronicleLogWriters {
             throws IOException {
         return text(cfg.build(path), dateFormat, stackTraceDepth);
     }
+
+    // *************************************************************************
+    //
+    // *************************************************************************
+
+    public static ChronicleLogWriter async(
+            @NotNull ChronicleLogWriter writer) {
+
+        return new AsyncWriter(writer);
+    }
+
+    public static ChronicleLogWriter async(
+            @NotNull ChronicleLogWriter writer, int capacity) {
+
+        return new AsyncWriter(writer, capacity);
+    }
+
+    // *************************************************************************
+    //
+    // *************************************************************************
+
+    public static ChronicleLogWriter striped(
+            @NotNull ChronicleLogWriter[] stripes) {
+
+        return new StripedWriter(stripes);
+    }
+
+    // *************************************************************************
+    //
+    // *************************************************************************
+
+    public static ChronicleLogWriter throttled(
+            @NotNull ChronicleLogWriter writer, @NotNull ChronicleLogThrottle throttle) {
+
+        return new ThrottledWriter(writer, throttle);
+    }
+
+    public static ChronicleLogWriter throttled(
+            @NotNull ChronicleLogWriter writer,
+            @NotNull ChronicleLogThrottle throttle,
+            @NotNull ChronicleLogClock clock) {
+
+        return new ThrottledWriter(writer, throttle, clock);
+    }
+
+    // *************************************************************************
+    //
+    // *************************************************************************
+
+    public static ChronicleLogWriter summarized(
+            @NotNull ChronicleLogWriter writer, @NotNull String path, long cycleLength) {
+
+        return new SummaryWriter(writer, path, cycleLength);
+    }
+
+    // *************************************************************************
+    //
+    // *************************************************************************
+
+    public static ChronicleLogWriter blockFiltered(
+            @NotNull ChronicleLogWriter writer, @NotNull String path, long cycleLength) {
+
+        return new BlockFilterWriter(writer, new ChronicleLogBlocks(path, cycleLength));
+    }
 }
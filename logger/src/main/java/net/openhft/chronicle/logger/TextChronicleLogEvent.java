@@ -22,13 +22,12 @@ import net.openhft.lang.io.Bytes;
 import net.openhft.lang.io.StopCharTester;
 import net.openhft.lang.model.constraints.NotNull;
 
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
+import java.util.TimeZone;
 
 final class TextChronicleLogEvent implements ChronicleLogEvent {
 
-    //TODO: check
-    private static final DateFormat DATE_FORMAT = new SimpleDateFormat(ChronicleLog.DEFAULT_DATE_FORMAT);
+    private static final TimeStampParser TIMESTAMP_PARSER =
+        new TimeStampParser(ChronicleLog.DEFAULT_DATE_FORMAT, TimeZone.getDefault());
 
     private static final StopCharTester PIPE_TESTER = new StopCharTester() {
         @Override
@@ -37,6 +36,13 @@ final class TextChronicleLogEvent implements ChronicleLogEvent {
         }
     };
 
+    private static final StopCharTester EOL_TESTER = new StopCharTester() {
+        @Override
+        public boolean isStopChar(int ch) throws IllegalStateException {
+            return ch == '\n';
+        }
+    };
+
     private static final ThreadLocal<StringBuilder> sbCache = new ThreadLocal<StringBuilder>() {
         @Override
         protected StringBuilder initialValue() {
@@ -62,20 +68,21 @@ final class TextChronicleLogEvent implements ChronicleLogEvent {
         this.message = message;
     }
 
+    static long readTimestamp(@NotNull Bytes in) {
+        return TIMESTAMP_PARSER.parse(in, PIPE_TESTER);
+    }
+
     static TextChronicleLogEvent read(@NotNull Bytes in) throws IllegalStateException {
+        return read(in, ChronicleLogDictionary.local());
+    }
+
+    static TextChronicleLogEvent read(@NotNull Bytes in, @NotNull ChronicleLogDictionary dictionary)
+            throws IllegalStateException {
         StringBuilder sb = sbCache.get();
         sb.setLength(0);
 
         // timestamp
-        in.parseUtf8(sb, PIPE_TESTER);
-        long timestamp = 0;
-        try {
-            //TODO: store date as long even in text?
-            // haven't found a simple way to get rid of this intermediate conversion to String
-            timestamp = DATE_FORMAT.parse(sb.toString()).getTime();
-        } catch (Exception e) {
-            // Ignore
-        }
+        long timestamp = TIMESTAMP_PARSER.parse(in, PIPE_TESTER);
 
         // level
         in.parseUtf8(sb, PIPE_TESTER);
@@ -89,8 +96,13 @@ final class TextChronicleLogEvent implements ChronicleLogEvent {
         in.parseUtf8(sb, PIPE_TESTER);
         String loggerName = sb.toString();
 
-        // message
-        String message = in.readLine();
+        // message, with the stack trace of a deduplicated throwable expanded,
+        // decoded as written by the text writers (readLine would read bytes)
+        in.parseUtf8(sb, EOL_TESTER);
+        if (sb.length() > 0 && sb.charAt(sb.length() - 1) == '\r') {
+            sb.setLength(sb.length() - 1);
+        }
+        String message = dictionary.readTrace(sb.toString());
 
         return new TextChronicleLogEvent(
                 timestamp,
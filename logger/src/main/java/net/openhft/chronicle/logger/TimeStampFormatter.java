@@ -26,10 +26,26 @@ import java.lang.ref.WeakReference;
 import java.text.DateFormat;
 import java.text.FieldPosition;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Calendar;
 import java.util.Date;
+import java.util.GregorianCalendar;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.TimeZone;
 
+/**
+ * Formats log time stamps.
+ *
+ * Patterns made of numeric year, month, day, hour, minute, second and
+ * millisecond fields (like {@link ChronicleLog#DEFAULT_DATE_FORMAT}) are rendered
+ * without SimpleDateFormat: the part of the time stamp that does not change within
+ * a minute is rendered once and cached per thread, seconds and milliseconds are
+ * written as digits. The cached minute is only reused when the time zone offset is
+ * the same at both of its ends, so DST and other offset changes are picked up.
+ * Any other pattern falls back to SimpleDateFormat.
+ */
 public class TimeStampFormatter {
 
     /**
@@ -47,6 +63,17 @@ public class TimeStampFormatter {
 
     private static final FieldPosition unusedFieldPosition = new FieldPosition(0);
 
+    private static final long MINUTE = 60 * 1000;
+
+    static final int LITERAL = 0;
+    static final int YEAR = 1;
+    static final int MONTH = 2;
+    static final int DAY = 3;
+    static final int HOUR = 4;
+    static final int MINUTES = 5;
+    static final int SECONDS = 6;
+    static final int MILLIS = 7;
+
     private final MutablesCache mutablesCache;
 
     // *************************************************************************
@@ -65,7 +92,7 @@ public class TimeStampFormatter {
         FormatterReference ref = formatters.get(dateFormat);
         TimeStampFormatter formatter;
         if (ref == null || (formatter = ref.get()) == null) {
-            formatter = new TimeStampFormatter(dateFormat);
+            formatter = new TimeStampFormatter(dateFormat, TimeZone.getDefault());
             formatters.put(dateFormat, new FormatterReference(dateFormat, formatter));
         }
         expungeStaleEntriesFromFormatters();
@@ -86,6 +113,97 @@ public class TimeStampFormatter {
     //
     // *************************************************************************
 
+    /**
+     * A literal or a numeric field of a date pattern.
+     */
+    static final class Token {
+        final int field;
+        final int width;
+        final String literal;
+
+        Token(int field, int width, String literal) {
+            this.field = field;
+            this.width = width;
+            this.literal = literal;
+        }
+    }
+
+    /**
+     * @return the tokens of the given pattern, or null if it uses anything but numeric
+     *         y, M, d, H, m, s and S fields, quoted text and literals
+     */
+    static Token[] tokenize(String dateFormat) {
+        final List<Token> tokens = new ArrayList<Token>();
+        final StringBuilder literal = new StringBuilder();
+        final int length = dateFormat.length();
+
+        for (int i = 0; i < length; ) {
+            char ch = dateFormat.charAt(i);
+            if (ch == '\'') {
+                if (i + 1 < length && dateFormat.charAt(i + 1) == '\'') {
+                    literal.append('\'');
+                    i += 2;
+                    continue;
+                }
+
+                int end = dateFormat.indexOf('\'', i + 1);
+                while (end != -1 && end + 1 < length && dateFormat.charAt(end + 1) == '\'') {
+                    literal.append(dateFormat, i + 1, end + 1);
+                    i = end + 1;
+                    end = dateFormat.indexOf('\'', i + 1);
+                }
+
+                if (end == -1) {
+                    return null;
+                }
+
+                literal.append(dateFormat, i + 1, end);
+                i = end + 1;
+
+            } else if ((ch >= 'a' && ch <= 'z') || (ch >= 'A' && ch <= 'Z')) {
+                int end = i;
+                while (end < length && dateFormat.charAt(end) == ch) {
+                    end++;
+                }
+
+                final int width = end - i;
+                final int field;
+                switch (ch) {
+                    case 'y': field = YEAR;    break;
+                    case 'M': field = width <= 2 ? MONTH : -1; break;
+                    case 'd': field = DAY;     break;
+                    case 'H': field = HOUR;    break;
+                    case 'm': field = MINUTES; break;
+                    case 's': field = SECONDS; break;
+                    case 'S': field = MILLIS;  break;
+                    default:  field = -1;      break;
+                }
+
+                if (field == -1) {
+                    return null;
+                }
+
+                if (literal.length() > 0) {
+                    tokens.add(new Token(LITERAL, 0, literal.toString()));
+                    literal.setLength(0);
+                }
+
+                tokens.add(new Token(field, width, null));
+                i = end;
+
+            } else {
+                literal.append(ch);
+                i++;
+            }
+        }
+
+        if (literal.length() > 0) {
+            tokens.add(new Token(LITERAL, 0, literal.toString()));
+        }
+
+        return tokens.toArray(new Token[tokens.size()]);
+    }
+
     /**
      * Three separate ThreadLocals for sb, format and date demand three ThreadLocalMap.get calls
      * in format() method, that is rather slow.
@@ -95,46 +213,205 @@ public class TimeStampFormatter {
         final DateFormat format;
         final Date date = new Date();
 
-        private Mutables(String dateFormat) {
+        private Mutables(String dateFormat, TimeZone timeZone) {
             format = new SimpleDateFormat(dateFormat);
+            format.setTimeZone(timeZone);
         }
     }
 
-    private static class MutablesCache extends ThreadLocal<Mutables> {
+    /**
+     * Per thread state of the pattern based formatter; prefix holds the rendered
+     * tokens preceding the first seconds or milliseconds field for the minute
+     * starting at base, valid for time stamps in [validFrom, validTo).
+     */
+    private static class FastMutables {
+        final Token[] tokens;
+        final int split;
+        final TimeZone timeZone;
+        final Calendar calendar;
+        final char[] prefix;
+        final char[] buffer;
+
+        int prefixLength;
+        long base;
+        long validFrom = Long.MAX_VALUE;
+        long validTo = Long.MIN_VALUE;
+        int year;
+        int month;
+        int day;
+        int hour;
+        int minute;
+
+        private FastMutables(Token[] tokens, TimeZone timeZone) {
+            this.tokens = tokens;
+            this.timeZone = timeZone;
+            this.calendar = new GregorianCalendar(timeZone);
+
+            int split = tokens.length;
+            int capacity = 0;
+            for (int i = 0; i < tokens.length; i++) {
+                Token token = tokens[i];
+                if (token.field == SECONDS || token.field == MILLIS) {
+                    split = Math.min(split, i);
+                }
+
+                capacity += token.field == LITERAL
+                    ? token.literal.length()
+                    : Math.max(token.width, 11);
+            }
+
+            this.split = split;
+            this.prefix = new char[capacity];
+            this.buffer = new char[capacity];
+        }
+
+        int render(long timeStamp) {
+            if (timeStamp < validFrom || timeStamp >= validTo) {
+                refresh(timeStamp);
+            }
+
+            System.arraycopy(prefix, 0, buffer, 0, prefixLength);
+            return render(timeStamp - base, split, tokens.length, buffer, prefixLength);
+        }
+
+        private void refresh(long timeStamp) {
+            final Calendar calendar = this.calendar;
+            calendar.setTimeInMillis(timeStamp);
+
+            year = calendar.get(Calendar.YEAR);
+            month = calendar.get(Calendar.MONTH) + 1;
+            day = calendar.get(Calendar.DAY_OF_MONTH);
+            hour = calendar.get(Calendar.HOUR_OF_DAY);
+            minute = calendar.get(Calendar.MINUTE);
+
+            base = timeStamp
+                - calendar.get(Calendar.SECOND) * 1000L
+                - calendar.get(Calendar.MILLISECOND);
+
+            if (timeZone.getOffset(base) == timeZone.getOffset(base + MINUTE - 1)) {
+                validFrom = base;
+                validTo = base + MINUTE;
+            } else {
+                // the offset changes within this minute, do not reuse it
+                validFrom = timeStamp;
+                validTo = timeStamp + 1;
+            }
+
+            prefixLength = render(0, 0, split, prefix, 0);
+        }
+
+        private int render(long offset, int from, int to, char[] out, int pos) {
+            for (int i = from; i < to; i++) {
+                final Token token = tokens[i];
+                switch (token.field) {
+                    case LITERAL:
+                        final String literal = token.literal;
+                        literal.getChars(0, literal.length(), out, pos);
+                        pos += literal.length();
+                        break;
+                    case YEAR:
+                        pos = token.width == 2
+                            ? digits(year % 100, 2, out, pos)
+                            : digits(year, token.width, out, pos);
+                        break;
+                    case MONTH:
+                        pos = digits(month, token.width, out, pos);
+                        break;
+                    case DAY:
+                        pos = digits(day, token.width, out, pos);
+                        break;
+                    case HOUR:
+                        pos = digits(hour, token.width, out, pos);
+                        break;
+                    case MINUTES:
+                        pos = digits(minute, token.width, out, pos);
+                        break;
+                    case SECONDS:
+                        pos = digits((int) (offset / 1000), token.width, out, pos);
+                        break;
+                    case MILLIS:
+                        pos = digits((int) (offset % 1000), token.width, out, pos);
+                        break;
+                }
+            }
+
+            return pos;
+        }
+
+        /**
+         * Writes a non negative value zero padded to the given width.
+         */
+        private static int digits(int value, int width, char[] out, int pos) {
+            int size = 1;
+            for (int v = value; v >= 10; v /= 10) {
+                size++;
+            }
+
+            for (int i = size; i < width; i++) {
+                out[pos++] = '0';
+            }
+
+            for (int i = pos + size - 1; i >= pos; i--) {
+                out[i] = (char) ('0' + value % 10);
+                value /= 10;
+            }
+
+            return pos + size;
+        }
+    }
+
+    private static class MutablesCache extends ThreadLocal<Object> {
         private final String dateFormat;
+        private final TimeZone timeZone;
+        private final Token[] tokens;
 
-        private MutablesCache(String dateFormat) {
+        private MutablesCache(String dateFormat, TimeZone timeZone) {
             this.dateFormat = dateFormat;
+            this.timeZone = timeZone;
+            this.tokens = tokenize(dateFormat);
         }
 
         @Override
-        protected Mutables initialValue() {
-            return new Mutables(dateFormat);
+        protected Object initialValue() {
+            return tokens != null
+                ? new FastMutables(tokens, (TimeZone) timeZone.clone())
+                : new Mutables(dateFormat, timeZone);
         }
     }
 
-    private TimeStampFormatter(String dateFormat) {
-        mutablesCache = new MutablesCache(dateFormat);
+    TimeStampFormatter(String dateFormat, TimeZone timeZone) {
+        mutablesCache = new MutablesCache(dateFormat, timeZone);
     }
 
     public void format(long timeStamp, ByteStringAppender appender) {
-        Mutables ms = mutablesCache.get();
-        StringBuffer sb = ms.sb;
-        sb.setLength(0);
-        Date date = ms.date;
-        date.setTime(timeStamp);
-        ms.format.format(date, sb, unusedFieldPosition);
-        appender.append(sb);
+        Object mutables = mutablesCache.get();
+        if (mutables instanceof FastMutables) {
+            FastMutables ms = (FastMutables) mutables;
+            char[] buffer = ms.buffer;
+            for (int i = 0, length = ms.render(timeStamp); i < length; i++) {
+                appender.append(buffer[i]);
+            }
+        } else {
+            appender.append(format((Mutables) mutables, timeStamp));
+        }
     }
 
     public String format(long timeStamp) {
-        Mutables ms = mutablesCache.get();
+        Object mutables = mutablesCache.get();
+        if (mutables instanceof FastMutables) {
+            FastMutables ms = (FastMutables) mutables;
+            return new String(ms.buffer, 0, ms.render(timeStamp));
+        }
+
+        return format((Mutables) mutables, timeStamp).toString();
+    }
+
+    private static StringBuffer format(Mutables ms, long timeStamp) {
         StringBuffer sb = ms.sb;
         sb.setLength(0);
         Date date = ms.date;
         date.setTime(timeStamp);
         ms.format.format(date, sb, unusedFieldPosition);
-
-        return sb.toString();
+        return sb;
     }
 }
@@ -0,0 +1,248 @@
+/*
+ * Copyright 2014 Higher Frequency Trading
+ *
+ * http://www.higherfrequencytrading.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.logger;
+
+import net.openhft.lang.io.Bytes;
+import net.openhft.lang.io.StopCharTester;
+import net.openhft.lang.model.constraints.NotNull;
+
+import java.text.DateFormat;
+import java.text.ParsePosition;
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.TimeZone;
+
+import static net.openhft.chronicle.logger.TimeStampFormatter.*;
+
+/**
+ * Parses time stamps written by {@link TimeStampFormatter} straight from the bytes
+ * of an excerpt.
+ *
+ * Numeric fields are read as digits and added to the start of their day, cached
+ * per thread, as long as the zone offset does not change during that day; days
+ * with an offset change are resolved through a Calendar. Patterns TimeStampFormatter
+ * does not render itself, two digit years and unexpected input fall back to
+ * SimpleDateFormat.
+ */
+final class TimeStampParser {
+    private static final long DAY_MILLIS = 24 * 60 * 60 * 1000L;
+
+    private final Token[] tokens;
+    private final StateCache stateCache;
+
+    TimeStampParser(String dateFormat, TimeZone timeZone) {
+        final Token[] tokens = tokenize(dateFormat);
+        this.tokens = supported(tokens) ? tokens : null;
+        this.stateCache = new StateCache(dateFormat, timeZone);
+    }
+
+    private static boolean supported(Token[] tokens) {
+        if (tokens == null) {
+            return false;
+        }
+
+        for (Token token : tokens) {
+            if (token.field == YEAR && token.width == 2) {
+                return false;
+            }
+
+            if (token.field == LITERAL) {
+                for (int i = 0; i < token.literal.length(); i++) {
+                    if (token.literal.charAt(i) > 127) {
+                        return false;
+                    }
+                }
+            }
+        }
+
+        return true;
+    }
+
+    // *************************************************************************
+    //
+    // *************************************************************************
+
+    private static class State {
+        final TimeZone timeZone;
+        final Calendar calendar;
+        final DateFormat format;
+        final StringBuilder sb = new StringBuilder();
+        final ParsePosition position = new ParsePosition(0);
+
+        int year = Integer.MIN_VALUE;
+        int month;
+        int day;
+        long dayStart;
+        boolean fixedOffset;
+
+        private State(String dateFormat, TimeZone timeZone) {
+            this.timeZone = timeZone;
+            this.calendar = new GregorianCalendar(timeZone);
+            this.format = new SimpleDateFormat(dateFormat);
+            this.format.setTimeZone(timeZone);
+        }
+
+        long toTimeStamp(int year, int month, int day, int hour, int minute, int second, int millis) {
+            if (year != this.year || month != this.month || day != this.day) {
+                final Calendar calendar = this.calendar;
+                calendar.clear();
+                calendar.set(year, month - 1, day);
+                final long start = calendar.getTimeInMillis();
+                calendar.clear();
+                calendar.set(year, month - 1, day + 1);
+                final long end = calendar.getTimeInMillis();
+
+                this.year = year;
+                this.month = month;
+                this.day = day;
+                this.dayStart = start;
+                this.fixedOffset = end - start == DAY_MILLIS
+                    && timeZone.getOffset(start) == timeZone.getOffset(end - 1);
+            }
+
+            final long millisOfDay = ((hour * 60L + minute) * 60L + second) * 1000L + millis;
+            if (fixedOffset && millisOfDay < DAY_MILLIS) {
+                return dayStart + millisOfDay;
+            }
+
+            final Calendar calendar = this.calendar;
+            calendar.clear();
+            calendar.set(year, month - 1, day, hour, minute, second);
+            calendar.set(Calendar.MILLISECOND, millis);
+            return calendar.getTimeInMillis();
+        }
+    }
+
+    private static class StateCache extends ThreadLocal<State> {
+        private final String dateFormat;
+        private final TimeZone timeZone;
+
+        private StateCache(String dateFormat, TimeZone timeZone) {
+            this.dateFormat = dateFormat;
+            this.timeZone = timeZone;
+        }
+
+        @Override
+        protected State initialValue() {
+            return new State(dateFormat, (TimeZone) timeZone.clone());
+        }
+    }
+
+    // *************************************************************************
+    //
+    // *************************************************************************
+
+    /**
+     * Reads a time stamp up to and including the first stop char.
+     *
+     * @return the time stamp, or 0 if it can't be parsed
+     */
+    long parse(@NotNull Bytes in, @NotNull StopCharTester stop) {
+        final State state = stateCache.get();
+        final long position = in.position();
+
+        if (tokens != null) {
+            final long timeStamp = parseFields(in, stop, state);
+            if (timeStamp != Long.MIN_VALUE) {
+                return timeStamp;
+            }
+
+            in.position(position);
+        }
+
+        return parseText(in, stop, state);
+    }
+
+    private long parseFields(Bytes in, StopCharTester stop, State state) {
+        int year = 1970;
+        int month = 1;
+        int day = 1;
+        int hour = 0;
+        int minute = 0;
+        int second = 0;
+        int millis = 0;
+
+        for (int i = 0; i < tokens.length; i++) {
+            final Token token = tokens[i];
+            if (token.field == LITERAL) {
+                final String literal = token.literal;
+                for (int c = 0; c < literal.length(); c++) {
+                    if (in.remaining() == 0 || in.readUnsignedByte() != literal.charAt(c)) {
+                        return Long.MIN_VALUE;
+                    }
+                }
+
+                continue;
+            }
+
+            // adjacent numeric fields can only be told apart by their width
+            final int maxDigits = i + 1 < tokens.length && tokens[i + 1].field != LITERAL
+                ? token.width
+                : 9;
+
+            int value = 0;
+            int digits = 0;
+            while (digits < maxDigits && in.remaining() > 0) {
+                final int ch = in.readUnsignedByte();
+                if (ch < '0' || ch > '9') {
+                    in.position(in.position() - 1);
+                    break;
+                }
+
+                value = value * 10 + ch - '0';
+                digits++;
+            }
+
+            if (digits == 0) {
+                return Long.MIN_VALUE;
+            }
+
+            switch (token.field) {
+                case YEAR:    year = value;   break;
+                case MONTH:   month = value;  break;
+                case DAY:     day = value;    break;
+                case HOUR:    hour = value;   break;
+                case MINUTES: minute = value; break;
+                case SECONDS: second = value; break;
+                case MILLIS:  millis = value; break;
+            }
+        }
+
+        if (in.remaining() > 0 && !stop.isStopChar(in.readUnsignedByte())) {
+            return Long.MIN_VALUE;
+        }
+
+        return state.toTimeStamp(year, month, day, hour, minute, second, millis);
+    }
+
+    private static long parseText(Bytes in, StopCharTester stop, State state) {
+        final StringBuilder sb = state.sb;
+        sb.setLength(0);
+        in.parseUtf8(sb, stop);
+
+        final ParsePosition position = state.position;
+        position.setIndex(0);
+        position.setErrorIndex(-1);
+
+        final Date date = state.format.parse(sb.toString(), position);
+        return date != null ? date.getTime() : 0;
+    }
+}
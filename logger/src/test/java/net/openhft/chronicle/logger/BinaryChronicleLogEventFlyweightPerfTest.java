@@ -0,0 +1,141 @@
+/*
+ * Copyright 2014 Higher Frequency Trading
+ *
+ * http://www.higherfrequencytrading.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.logger;
+
+import net.openhft.lang.io.Bytes;
+import net.openhft.lang.io.DirectStore;
+import org.junit.Test;
+
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Compares a scan filtering events by level and logger name done with
+ * eagerly decoded events against one done with a flyweight, over events
+ * whose strings are dictionary encoded as format version 3 writes them.
+ */
+public class BinaryChronicleLogEventFlyweightPerfTest {
+    private static final int EVENTS = 100000;
+    private static final int RUNS = 10;
+    private static final int SLOT = 256;
+    private static final String LOGGER = "net.openhft.chronicle.logger.Scan";
+
+    @Test
+    public void testScan() {
+        // one event per slot, as the flyweight does not move past the arguments
+        final DirectStore store = DirectStore.allocate((long) EVENTS * SLOT);
+        final Bytes bytes = store.bytes();
+
+        int expected = 0;
+        for (int i = 0; i < EVENTS; i++) {
+            final ChronicleLogLevel level = i % 10 == 0 ? ChronicleLogLevel.ERROR : ChronicleLogLevel.INFO;
+            if (level == ChronicleLogLevel.ERROR && i % 20 == 0) {
+                expected++;
+            }
+
+            bytes.position((long) i * SLOT);
+            bytes.writeByte(ChronicleLog.VERSION_3);
+            bytes.writeByte(ChronicleLog.FLAG_ARGS);
+            bytes.writeLong(System.currentTimeMillis());
+            level.writeTo(bytes);
+            writeSymbol(bytes, 0, "main", i == 0);
+            if (i % 20 == 0) {
+                writeSymbol(bytes, 1, LOGGER, i == 0);
+            } else {
+                writeSymbol(bytes, 2, LOGGER + "Other", i == 1);
+            }
+            writeSymbol(bytes, 3, "order {} filled at {} for {}", i == 0);
+            bytes.writeStopBit(3);
+            ChronicleLogCodec.writeArg(bytes, i);
+            ChronicleLogCodec.writeArg(bytes, 3.14 * i);
+            ChronicleLogCodec.writeArg(bytes, UUID.randomUUID());
+        }
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(expected, run("read", bytes, false));
+            assertEquals(expected, run("flyweight", bytes, true));
+        }
+
+        store.free();
+    }
+
+    /**
+     * Strings are dictionary encoded as written by ChronicleLogSymbols.
+     */
+    private static void writeSymbol(Bytes bytes, int id, String value, boolean define) {
+        if (define) {
+            bytes.writeStopBit(-(2L * id + 3));
+            bytes.writeUTFΔ(value);
+        } else {
+            bytes.writeStopBit(-(2L * id + 2));
+        }
+    }
+
+    private static int run(String name, Bytes bytes, boolean flyweight) {
+        final BinaryChronicleLogEventFlyweight event = new BinaryChronicleLogEventFlyweight();
+        final ChronicleLogDictionary dictionary = new ChronicleLogDictionary();
+
+        int matches = 0;
+        final long start = System.nanoTime();
+
+        for (int r = 0; r < RUNS; r++) {
+            matches = 0;
+            for (int i = 0; i < EVENTS; i++) {
+                bytes.position((long) i * SLOT);
+                if (flyweight) {
+                    event.wrap(bytes, dictionary);
+                    if (event.getLevel() == ChronicleLogLevel.ERROR && contentEquals(event.loggerName(), LOGGER)) {
+                        matches++;
+                    }
+
+                } else {
+                    final ChronicleLogEvent evt = BinaryChronicleLogEvent.read(bytes, dictionary);
+                    if (evt.getLevel() == ChronicleLogLevel.ERROR && LOGGER.equals(evt.getLoggerName())) {
+                        matches++;
+                    }
+                }
+            }
+        }
+
+        final long time = System.nanoTime() - start;
+
+        System.out.printf("BinaryChronicleLogEvent.%s (events=%d) %.1f ns per event\n",
+            name,
+            EVENTS,
+            (double) time / (RUNS * EVENTS)
+        );
+
+        return matches;
+    }
+
+    private static boolean contentEquals(CharSequence chars, String value) {
+        if (chars.length() != value.length()) {
+            return false;
+        }
+
+        for (int i = chars.length() - 1; i >= 0; i--) {
+            if (chars.charAt(i) != value.charAt(i)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
@@ -0,0 +1,409 @@
+/*
+ * Copyright 2014 Higher Frequency Trading
+ *
+ * http://www.higherfrequencytrading.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.logger;
+
+import net.openhft.chronicle.Chronicle;
+import net.openhft.chronicle.ChronicleQueueBuilder;
+import net.openhft.chronicle.ExcerptTailer;
+import net.openhft.lang.io.Bytes;
+import net.openhft.lang.io.DirectStore;
+import net.openhft.lang.io.IOTools;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class BinaryChronicleLogEventTest {
+    private DirectStore store;
+    private Bytes bytes;
+
+    @Before
+    public void setUp() {
+        store = DirectStore.allocate(64 * 1024);
+        bytes = store.bytes();
+    }
+
+    @After
+    public void tearDown() {
+        store.free();
+    }
+
+    @Test
+    public void testReadVersion1And2() {
+        for (byte version : new byte[] { ChronicleLog.VERSION_1, ChronicleLog.VERSION_2 }) {
+            bytes.clear();
+            bytes.writeByte(version);
+            bytes.writeLong(1234L);
+            ChronicleLogLevel.WARN.writeTo(bytes);
+            bytes.writeUTFΔ("thread");
+            bytes.writeUTFΔ("logger");
+            bytes.writeUTFΔ("message {}");
+            bytes.writeStopBit(1);
+            if (version == ChronicleLog.VERSION_1) {
+                bytes.writeObject(42);
+            } else {
+                ChronicleLogCodec.writeArg(bytes, 42);
+            }
+            bytes.writeBoolean(false);
+            bytes.flip();
+
+            ChronicleLogEvent evt = ChronicleLogHelper.decodeBinary(bytes, new ChronicleLogDictionary());
+            assertEquals(version, evt.getVersion());
+            assertEquals(1234L, evt.getTimeStamp());
+            assertEquals(ChronicleLogLevel.WARN, evt.getLevel());
+            assertEquals("thread", evt.getThreadName());
+            assertEquals("logger", evt.getLoggerName());
+            assertEquals("message {}", evt.getMessage());
+            assertEquals(42, evt.getArgumentArray()[0]);
+            assertNull(evt.getThrowable());
+        }
+    }
+
+    @Test
+    public void testReadVersion3() {
+        final ChronicleLogDictionary dictionary = new ChronicleLogDictionary();
+
+        // absolute time stamp, no optional section
+        writeHeader(0, 1234L);
+        bytes.flip();
+
+        ChronicleLogEvent evt = ChronicleLogHelper.decodeBinary(bytes, dictionary);
+        assertEquals(ChronicleLog.VERSION_3, evt.getVersion());
+        assertEquals(1234L, evt.getTimeStamp());
+        assertEquals("message", evt.getMessage());
+        assertFalse(evt.hasArguments());
+        assertNull(evt.getThrowable());
+        assertEquals(0, bytes.remaining());
+
+        // base then delta, with nanos, arguments, a throwable and a context
+        bytes.clear();
+        bytes.writeByte(ChronicleLog.VERSION_3);
+        bytes.writeByte(ChronicleLog.FLAG_TIMESTAMP_BASE | ChronicleLog.FLAG_NANOS | ChronicleLog.FLAG_ARGS
+            | ChronicleLog.FLAG_THROWABLE | ChronicleLog.FLAG_CONTEXT);
+        bytes.writeLong(3600000L);
+        bytes.writeStopBit(250);
+        bytes.writeStopBit(999999);
+        ChronicleLogLevel.ERROR.writeTo(bytes);
+        bytes.writeUTFΔ("thread");
+        bytes.writeUTFΔ("logger");
+        bytes.writeUTFΔ("message {}");
+        bytes.writeStopBit(1);
+        ChronicleLogCodec.writeArg(bytes, "arg");
+        bytes.writeBoolean(true);
+        bytes.writeObject(new IllegalStateException("failure"));
+        bytes.writeStopBit(3);
+        bytes.write(new byte[] { 1, 2, 3 });
+        bytes.flip();
+
+        BinaryChronicleLogEvent binary = BinaryChronicleLogEvent.read(bytes, dictionary);
+        assertEquals(3600250L, binary.getTimeStamp());
+        assertEquals(999999, binary.getNanos());
+        assertEquals(ChronicleLogLevel.ERROR, binary.getLevel());
+        assertEquals("arg", binary.getArgumentArray()[0]);
+        assertEquals("failure", binary.getThrowable().getMessage());
+        assertEquals(0, bytes.remaining());
+
+        bytes.clear();
+        bytes.writeByte(ChronicleLog.VERSION_3);
+        bytes.writeByte(ChronicleLog.FLAG_TIMESTAMP_DELTA);
+        bytes.writeStopBit(1000);
+        ChronicleLogLevel.INFO.writeTo(bytes);
+        bytes.writeUTFΔ("thread");
+        bytes.writeUTFΔ("logger");
+        bytes.writeUTFΔ("message");
+        bytes.flip();
+
+        assertEquals(3601000L, BinaryChronicleLogEvent.readTimestamp(bytes, dictionary));
+        bytes.position(0);
+        evt = ChronicleLogHelper.decodeBinary(bytes, dictionary);
+        assertEquals(3601000L, evt.getTimeStamp());
+        assertEquals(0, bytes.remaining());
+    }
+
+    @Test
+    public void testFlyweight() {
+        final ChronicleLogDictionary dictionary = new ChronicleLogDictionary();
+        final BinaryChronicleLogEventFlyweight event = new BinaryChronicleLogEventFlyweight();
+
+        // strings defined by the first event and referenced by the second one,
+        // the throwable definition is recorded even though it is not accessed
+        bytes.writeByte(ChronicleLog.VERSION_3);
+        bytes.writeByte(ChronicleLog.FLAG_ARGS | ChronicleLog.FLAG_THROWABLE);
+        bytes.writeLong(1234L);
+        ChronicleLogLevel.ERROR.writeTo(bytes);
+        bytes.writeStopBit(-3);
+        bytes.writeUTFΔ("thread");
+        bytes.writeStopBit(-5);
+        bytes.writeUTFΔ("logger");
+        bytes.writeUTFΔ("message {} {}");
+        bytes.writeStopBit(2);
+        ChronicleLogCodec.writeArg(bytes, "arg");
+        ChronicleLogCodec.writeArg(bytes, 42L);
+        bytes.writeByte(ChronicleLogSymbols.THROWABLE_DEFINITION);
+        bytes.writeStopBit(0);
+        bytes.writeObject(new IllegalStateException("failure"));
+        final long second = bytes.position();
+        bytes.writeByte(ChronicleLog.VERSION_3);
+        bytes.writeByte(ChronicleLog.FLAG_THROWABLE);
+        bytes.writeLong(1235L);
+        ChronicleLogLevel.WARN.writeTo(bytes);
+        bytes.writeStopBit(-2);
+        bytes.writeStopBit(-4);
+        bytes.writeUTFΔ("again");
+        bytes.writeByte(ChronicleLogSymbols.THROWABLE_REFERENCE);
+        bytes.writeStopBit(0);
+        bytes.writeUTFΔ("failure");
+        bytes.flip();
+
+        assertSame(event, event.wrap(bytes, dictionary));
+        assertEquals(ChronicleLogLevel.ERROR, event.getLevel());
+        assertEquals("logger", event.loggerName().toString());
+        assertEquals("message {} {}", event.message().toString());
+        assertTrue(event.hasArguments());
+
+        bytes.position(second);
+        event.wrap(bytes, dictionary);
+        assertEquals(1235L, event.getTimeStamp());
+        assertEquals(ChronicleLogLevel.WARN, event.getLevel());
+        assertEquals("thread", event.getThreadName());
+        assertEquals("logger", event.getLoggerName());
+        assertEquals("again", event.getMessage());
+        assertFalse(event.hasArguments());
+        assertEquals(0, event.getArgumentArray().length);
+        assertEquals("failure", event.getThrowable().getMessage());
+        assertTrue(event.getThrowable() instanceof IllegalStateException);
+
+        // arguments and inline throwable are decoded on access, in any order
+        bytes.position(0);
+        event.wrap(bytes, dictionary);
+        assertEquals("failure", event.getThrowable().getMessage());
+        assertEquals("arg", event.getArgumentArray()[0]);
+        assertEquals(42L, event.getArgumentArray()[1]);
+
+        final ChronicleLogEvent copy = event.copy();
+        bytes.position(second);
+        event.wrap(bytes, dictionary);
+        assertEquals("message {} {}", copy.getMessage());
+        assertEquals(2, copy.getArgumentArray().length);
+    }
+
+    @Test
+    public void testFlyweightVersion1And2() {
+        final BinaryChronicleLogEventFlyweight event = new BinaryChronicleLogEventFlyweight();
+
+        for (byte version : new byte[] { ChronicleLog.VERSION_1, ChronicleLog.VERSION_2 }) {
+            bytes.clear();
+            bytes.writeByte(version);
+            bytes.writeLong(1234L);
+            ChronicleLogLevel.DEBUG.writeTo(bytes);
+            bytes.writeUTFΔ("thread");
+            bytes.writeUTFΔ("logger");
+            bytes.writeUTFΔ("message {}");
+            bytes.writeStopBit(1);
+            if (version == ChronicleLog.VERSION_1) {
+                bytes.writeObject(42);
+            } else {
+                ChronicleLogCodec.writeArg(bytes, 42);
+            }
+            bytes.writeBoolean(true);
+            bytes.writeObject(new IllegalArgumentException("failure"));
+            bytes.flip();
+
+            event.wrap(bytes, new ChronicleLogDictionary());
+            assertEquals(version, event.getVersion());
+            assertEquals(1234L, event.getTimeStamp());
+            assertEquals(ChronicleLogLevel.DEBUG, event.getLevel());
+            assertEquals("thread", event.threadName().toString());
+            assertEquals("logger", event.getLoggerName());
+            assertEquals(42, event.getArgumentArray()[0]);
+            assertEquals("failure", event.getThrowable().getMessage());
+        }
+    }
+
+    @Test
+    public void testFlyweightNonAsciiRoundTrip() throws Exception {
+        final String dir = System.getProperty("java.io.tmpdir") + "/binary-log-event-" + System.nanoTime();
+
+        try {
+            // inline strings, then the same strings as definitions and references
+            for (ChronicleLogSymbols symbols : new ChronicleLogSymbols[] {
+                    null, new ChronicleLogSymbols(60 * 60 * 1000, true, true, true) }) {
+
+                final String path = dir + "/" + (symbols != null ? "symbols" : "inline");
+                final ChronicleLogWriter writer = new ChronicleLogWriters.BinaryWriter(
+                    ChronicleQueueBuilder.indexed(path).build(), symbols);
+
+                for (int i = 0; i < 2; i++) {
+                    writer.write(
+                        ChronicleLogLevel.INFO, 1234L + i, "f\u00e4den-\u00df", "com.acme.Pr\u00e9commandes",
+                        "prix {} \u20ac pour {}", null, 42, "Jos\u00e9 \u65e5\u672c");
+                    writer.write(
+                        ChronicleLogLevel.ERROR, 1240L + i, "f\u00e4den-\u00df", "com.acme.Pr\u00e9commandes",
+                        "\u00e9chec \ud83d\ude00", new IllegalStateException("r\u00e9ponse \u20ac"));
+                }
+
+                // the writer closes the chronicle
+                writer.close();
+
+                final Chronicle chronicle = ChronicleQueueBuilder.indexed(path).build();
+                final ExcerptTailer expected = chronicle.createTailer().toStart();
+                final ExcerptTailer actual = chronicle.createTailer().toStart();
+                final ChronicleLogDictionary expectedDictionary = new ChronicleLogDictionary();
+                final ChronicleLogDictionary actualDictionary = new ChronicleLogDictionary();
+                final BinaryChronicleLogEventFlyweight event = new BinaryChronicleLogEventFlyweight();
+
+                int count = 0;
+                while (expected.nextIndex()) {
+                    assertTrue(actual.nextIndex());
+
+                    final BinaryChronicleLogEvent binary = BinaryChronicleLogEvent.read(expected, expectedDictionary);
+                    event.wrap(actual, actualDictionary);
+
+                    assertEquals(binary.getTimeStamp(), event.getTimeStamp());
+                    assertEquals(binary.getLevel(), event.getLevel());
+                    assertEquals(binary.getThreadName(), event.getThreadName());
+                    assertEquals(binary.getLoggerName(), event.getLoggerName());
+                    assertEquals(binary.getMessage(), event.getMessage());
+                    assertArrayEquals(binary.getArgumentArray(), event.getArgumentArray());
+                    if (binary.getThrowable() == null) {
+                        assertNull(event.getThrowable());
+                    } else {
+                        assertEquals(binary.getThrowable().getClass(), event.getThrowable().getClass());
+                        assertEquals(binary.getThrowable().getMessage(), event.getThrowable().getMessage());
+                    }
+
+                    assertEquals("f\u00e4den-\u00df", event.getThreadName());
+                    assertEquals("com.acme.Pr\u00e9commandes", event.getLoggerName());
+
+                    expected.finish();
+                    actual.finish();
+                    count++;
+                }
+
+                assertEquals(4, count);
+                expected.close();
+                actual.close();
+                chronicle.close();
+            }
+        } finally {
+            IOTools.deleteDir(dir);
+        }
+    }
+
+    @Test
+    public void testWriteNanos() throws Exception {
+        final String path = System.getProperty("java.io.tmpdir") + "/binary-log-nanos-" + System.nanoTime();
+
+        try {
+            final ChronicleLogWriter writer = new ChronicleLogWriters.BinaryWriter(
+                ChronicleQueueBuilder.indexed(path).build(), null);
+
+            ChronicleLogWriters.write(
+                writer, ChronicleLogLevel.INFO, 1234L, 999999, "thread", "logger", "message {}", null,
+                ChronicleLogArgs.get().add(42));
+            ChronicleLogWriters.write(
+                writer, ChronicleLogLevel.INFO, 1235L, 0, "thread", "logger", "message", null, null);
+
+            // the writer closes the chronicle
+            writer.close();
+
+            final Chronicle chronicle = ChronicleQueueBuilder.indexed(path).build();
+            final ExcerptTailer tailer = chronicle.createTailer().toStart();
+            final ChronicleLogDictionary dictionary = new ChronicleLogDictionary();
+            final BinaryChronicleLogEventFlyweight event = new BinaryChronicleLogEventFlyweight();
+
+            assertTrue(tailer.nextIndex());
+            assertEquals(ChronicleLog.FLAG_NANOS, tailer.readByte(1) & ChronicleLog.FLAG_NANOS);
+            event.wrap(tailer, dictionary);
+            assertEquals(1234L, event.getTimeStamp());
+            assertEquals(999999, event.getNanos());
+            assertEquals(999999, ((BinaryChronicleLogEvent) event.copy()).getNanos());
+            assertArrayEquals(new Object[] { 42 }, event.getArgumentArray());
+            tailer.finish();
+
+            // no section without nanos
+            assertTrue(tailer.nextIndex());
+            assertEquals(0, tailer.readByte(1) & ChronicleLog.FLAG_NANOS);
+            assertEquals(0, BinaryChronicleLogEvent.read(tailer, dictionary).getNanos());
+            tailer.finish();
+
+            tailer.close();
+            chronicle.close();
+        } finally {
+            IOTools.deleteDir(path);
+        }
+    }
+
+    @Test
+    public void testWriteClockNanos() throws Exception {
+        final String path = System.getProperty("java.io.tmpdir") + "/binary-log-clock-" + System.nanoTime();
+        final ChronicleLogClock clock = new ChronicleLogClock() {
+            @Override
+            public long currentTimeMillis() {
+                return 1234L;
+            }
+
+            @Override
+            public long currentTimeNanos() {
+                return 1234000567L;
+            }
+        };
+
+        try {
+            final ChronicleLogWriter writer = new ChronicleLogWriters.BinaryWriter(
+                ChronicleQueueBuilder.indexed(path).build(), null);
+
+            ChronicleLogWriters.write(
+                writer, clock, ChronicleLogLevel.INFO, "thread", "logger", "message", null, null);
+
+            // the writer closes the chronicle
+            writer.close();
+
+            final Chronicle chronicle = ChronicleQueueBuilder.indexed(path).build();
+            final ExcerptTailer tailer = chronicle.createTailer().toStart();
+
+            assertTrue(tailer.nextIndex());
+            final BinaryChronicleLogEvent event = BinaryChronicleLogEvent.read(tailer, new ChronicleLogDictionary());
+            assertEquals(1234L, event.getTimeStamp());
+            assertEquals(567, event.getNanos());
+            tailer.finish();
+
+            tailer.close();
+            chronicle.close();
+        } finally {
+            IOTools.deleteDir(path);
+        }
+    }
+
+    private void writeHeader(int flags, long timestamp) {
+        bytes.writeByte(ChronicleLog.VERSION_3);
+        bytes.writeByte(flags);
+        bytes.writeLong(timestamp);
+        ChronicleLogLevel.INFO.writeTo(bytes);
+        bytes.writeUTFΔ("thread");
+        bytes.writeUTFΔ("logger");
+        bytes.writeUTFΔ("message");
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2014 Higher Frequency Trading
+ *
+ * http://www.higherfrequencytrading.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.logger;
+
+import net.openhft.chronicle.ChronicleQueueBuilder;
+import net.openhft.chronicle.tools.ChronicleTools;
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that, once warmed up, writing primitive arguments through a
+ * ChronicleLogArgs does not allocate on the logging thread.
+ */
+public class ChronicleLogArgsAllocationTest {
+    private static final int RUNS = 200000;
+
+    // what the chronicle may allocate when it maps a new data or index file,
+    // whatever the number of events: a single object per event is RUNS * 16 bytes
+    private static final long ALLOWANCE = 16 * 1024;
+
+    private String baseDir;
+    private ChronicleLogWriter writer;
+
+    @Before
+    public void setUp() throws IOException {
+        baseDir = System.getProperty("java.io.tmpdir") + "/chronicle-log-args-allocation";
+        ChronicleTools.deleteDirOnExit(baseDir);
+        writer = ChronicleLogWriters.binary(ChronicleQueueBuilder.vanilla(baseDir).build());
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        writer.close();
+    }
+
+    @Test
+    public void testSteadyStateAllocation() {
+        final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+
+        final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        Assume.assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        final long id = Thread.currentThread().getId();
+        final String threadName = Thread.currentThread().getName();
+
+        // warm up so that appenders, buffers and compiled code are in place
+        log(threadName, RUNS);
+
+        // what reading the counter costs by itself
+        final long overhead = -threads.getThreadAllocatedBytes(id) + threads.getThreadAllocatedBytes(id);
+
+        final long start = threads.getThreadAllocatedBytes(id);
+        log(threadName, RUNS);
+        final long allocated = threads.getThreadAllocatedBytes(id) - start - overhead;
+
+        assertTrue("allocated " + allocated + " bytes", allocated <= ALLOWANCE);
+    }
+
+    private void log(String threadName, int runs) {
+        for (int i = 0; i < runs; i++) {
+            ChronicleLogWriters.write(
+                writer,
+                ChronicleLogLevel.INFO,
+                System.currentTimeMillis(),
+                threadName,
+                "allocation",
+                "px={} qty={} side={} flag={}",
+                null,
+                ChronicleLogArgs.get().add(i * 0.25).add((long) i).add('B').add((i & 1) == 0));
+        }
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2014 Higher Frequency Trading
+ *
+ * http://www.higherfrequencytrading.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.logger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ChronicleLogBlocksTest {
+    private static final long CYCLE_LENGTH = 60 * 60 * 1000;
+    private static final long T0 = 10 * CYCLE_LENGTH;
+
+    private String path;
+
+    @Before
+    public void setUp() {
+        path = System.getProperty("java.io.tmpdir") + "/chronicle-log-blocks-" + System.nanoTime();
+    }
+
+    @After
+    public void tearDown() {
+        final File dir = ChronicleLogBlocks.directory(path);
+        final File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+
+        dir.delete();
+    }
+
+    private static void add(
+            ChronicleLogBlocks blocks,
+            long index,
+            ChronicleLogLevel level,
+            boolean definitions,
+            String message,
+            Object... args) {
+
+        ChronicleLogBlocks.Block block;
+        do {
+            block = blocks.block(index);
+            block.add(level, T0 + index, definitions);
+            block.addTerms("main");
+            block.addMessage(message, false);
+            for (Object arg : args) {
+                block.addArg(arg, false);
+            }
+        } while (!blocks.commit(block));
+    }
+
+    @Test
+    public void testSkip() throws Exception {
+        final ChronicleLogBlocks blocks = new ChronicleLogBlocks(path, CYCLE_LENGTH, 4, 256);
+        for (int i = 0; i < 4; i++) {
+            add(blocks, i, ChronicleLogLevel.INFO, false, "order {} accepted", 100 + i);
+        }
+        for (int i = 4; i < 8; i++) {
+            add(blocks, i, i == 6 ? ChronicleLogLevel.WARN : ChronicleLogLevel.DEBUG, false, "orderId={}", 200L + i);
+        }
+        for (int i = 8; i < 12; i++) {
+            add(blocks, i, ChronicleLogLevel.INFO, false, "order {} rejected", "reason-" + i);
+        }
+
+        blocks.close();
+
+        final ChronicleLogBlocks.Filter warn = ChronicleLogBlocks.filter(path, ChronicleLogLevel.WARN, null,
+            Long.MIN_VALUE, Long.MAX_VALUE);
+        assertEquals(4, warn.skip(0));
+        assertEquals(5, warn.skip(5));
+        assertEquals(12, warn.skip(8));
+        assertEquals(100, warn.skip(100));
+
+        final ChronicleLogBlocks.Filter orderId = ChronicleLogBlocks.filter(path, ChronicleLogLevel.WARN,
+            Collections.singleton("orderId=206"), Long.MIN_VALUE, Long.MAX_VALUE);
+        assertEquals(4, orderId.skip(0));
+
+        final ChronicleLogBlocks.Filter missing = ChronicleLogBlocks.filter(path, ChronicleLogLevel.WARN,
+            Collections.singleton("orderId=999"), Long.MIN_VALUE, Long.MAX_VALUE);
+        assertEquals(12, missing.skip(0));
+
+        final ChronicleLogBlocks.Filter reason = ChronicleLogBlocks.filter(path, null,
+            Arrays.asList("REASON-9", "nothing"), Long.MIN_VALUE, Long.MAX_VALUE);
+        assertEquals(8, reason.skip(0));
+
+        final ChronicleLogBlocks.Filter time = ChronicleLogBlocks.filter(path, null, null, T0 + 9, T0 + 10);
+        assertEquals(8, time.skip(0));
+    }
+
+    @Test
+    public void testDefinitionsAreNotSkipped() throws Exception {
+        final ChronicleLogBlocks blocks = new ChronicleLogBlocks(path, CYCLE_LENGTH, 4, 256);
+        for (int i = 0; i < 8; i++) {
+            add(blocks, i, ChronicleLogLevel.DEBUG, i == 5, "message");
+        }
+
+        blocks.close();
+
+        final ChronicleLogBlocks.Filter filter = ChronicleLogBlocks.filter(path, ChronicleLogLevel.ERROR, null,
+            Long.MIN_VALUE, Long.MAX_VALUE);
+        assertEquals(4, filter.skip(0));
+        assertEquals(4, filter.skip(4));
+    }
+
+    @Test
+    public void testPartialBlocks() throws Exception {
+        ChronicleLogBlocks blocks = new ChronicleLogBlocks(path, CYCLE_LENGTH, 4, 256);
+        add(blocks, 0, ChronicleLogLevel.INFO, false, "first");
+        add(blocks, 1, ChronicleLogLevel.INFO, false, "second");
+        blocks.close();
+
+        // a partially written record is dropped by the next writer
+        final File file = ChronicleLogBlocks.file(path, T0 / CYCLE_LENGTH);
+        final long length = file.length();
+        try (FileOutputStream out = new FileOutputStream(file, true)) {
+            out.write(new byte[] { 1, 2, 3 });
+        }
+
+        assertEquals(length, ChronicleLogBlocks.validLength(file));
+
+        blocks = new ChronicleLogBlocks(path, CYCLE_LENGTH, 4, 256);
+        add(blocks, 2, ChronicleLogLevel.INFO, false, "third");
+        add(blocks, 3, ChronicleLogLevel.INFO, false, "fourth");
+        add(blocks, 4, ChronicleLogLevel.INFO, false, "fifth");
+        blocks.close();
+
+        assertTrue(file.length() > length);
+        assertEquals(file.length(), ChronicleLogBlocks.validLength(file));
+
+        for (String term : Arrays.asList("first", "second", "third", "fourth")) {
+            final ChronicleLogBlocks.Filter filter = ChronicleLogBlocks.filter(path, null,
+                Collections.singleton(term), Long.MIN_VALUE, Long.MAX_VALUE);
+            assertEquals(0, filter.skip(0));
+            assertEquals(8, filter.skip(4));
+        }
+    }
+
+    @Test
+    public void testHash() {
+        assertEquals(ChronicleLogBlocks.hash("1234", 0, 4), ChronicleLogBlocks.hash(-1234));
+        assertEquals(ChronicleLogBlocks.hash("0", 0, 1), ChronicleLogBlocks.hash(0));
+        assertEquals(ChronicleLogBlocks.hash("OrderId", 0, 7), ChronicleLogBlocks.hash("orderid", 0, 7));
+        assertEquals(1, ChronicleLogBlocks.hashes("-- Order --").length);
+        assertEquals(ChronicleLogBlocks.hash(Long.MAX_VALUE),
+            ChronicleLogBlocks.hash(String.valueOf(Long.MAX_VALUE), 0, 19));
+    }
+}
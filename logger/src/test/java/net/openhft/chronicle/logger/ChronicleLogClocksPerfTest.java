@@ -0,0 +1,71 @@
+/*
+ * Copyright 2014 Higher Frequency Trading
+ *
+ * http://www.higherfrequencytrading.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.openhft.chronicle.logger;
+
+import org.junit.Test;
+
+/**
+ * Compares the per event cost of reading the time stamp and thread name
+ * from the system against the clocks and the thread name cache.
+ */
+public class ChronicleLogClocksPerfTest {
+    private static final int RUNS = 10000000;
+
+    @Test
+    public void testClocks() {
+        for (int i = 0; i < 3; i++) {
+            runSystem();
+            run("SystemClock", ChronicleLogClocks.system());
+            run("CachedClock", ChronicleLogClocks.cached(ChronicleLogClocks.DEFAULT_RESOLUTION));
+            run("NanoClock", ChronicleLogClocks.nano());
+        }
+    }
+
+    private static void runSystem() {
+        long sum = 0;
+        final long start = System.nanoTime();
+
+        for (int i = 0; i < RUNS; i++) {
+            sum += System.currentTimeMillis();
+            sum += Thread.currentThread().getName().length();
+        }
+
+        print("System.currentTimeMillis + Thread.getName", System.nanoTime() - start, sum);
+    }
+
+    private static void run(String name, ChronicleLogClock clock) {
+        long sum = 0;
+        final long start = System.nanoTime();
+
+        for (int i = 0; i < RUNS; i++) {
+            sum += clock.currentTimeMillis();
+            sum += ChronicleLogThreadNames.current().length();
+        }
+
+        print(name + " + ChronicleLogThreadNames", System.nanoTime() - start, sum);
+    }
+
+    private static void print(String name, long time, long sum) {
+        System.out.printf("%s (runs=%d, checksum=%d) %.1f ns per event\n",
+            name,
+            RUNS,
+            sum,
+            (double) time / RUNS
+        );
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2014 Higher Frequency Trading
+ *
+ * http://www.higherfrequencytrading.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.openhft.chronicle.logger;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ChronicleLogClocksTest {
+
+    @Test
+    public void testCachedClock() throws Exception {
+        final ChronicleLogClock clock = ChronicleLogClocks.cached(5);
+        assertSame(clock, ChronicleLogClocks.cached(5));
+
+        for (int i = 0; i < 10; i++) {
+            final long before = System.currentTimeMillis();
+            Thread.sleep(20);
+            final long millis = clock.currentTimeMillis();
+
+            assertTrue(millis >= before);
+            assertTrue(millis <= System.currentTimeMillis());
+        }
+    }
+
+    @Test
+    public void testNanoClock() throws Exception {
+        final ChronicleLogClock clock = ChronicleLogClocks.nano();
+
+        long last = 0;
+        for (int i = 0; i < 1000; i++) {
+            final long nanos = clock.currentTimeNanos();
+            assertTrue(nanos >= last);
+            assertTrue(Math.abs(TimeUnit.NANOSECONDS.toMillis(nanos) - System.currentTimeMillis()) < 50);
+            last = nanos;
+        }
+    }
+
+    @Test
+    public void testThreadNames() {
+        final String name = Thread.currentThread().getName();
+        try {
+            Thread.currentThread().setName("thread-names-1");
+            assertEquals("thread-names-1", ChronicleLogThreadNames.current());
+            assertEquals("thread-names-1", ChronicleLogThreadNames.current());
+
+            Thread.currentThread().setName("thread-names-2");
+            assertEquals("thread-names-2", ChronicleLogThreadNames.current());
+        } finally {
+            Thread.currentThread().setName(name);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2014 Higher Frequency Trading
+ *
+ * http://www.higherfrequencytrading.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.logger;
+
+import net.openhft.lang.io.Bytes;
+import net.openhft.lang.io.DirectStore;
+import org.junit.Test;
+
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Compares the cost, in time and bytes, of encoding log arguments with
+ * writeObject (format version 1) against the tagged ChronicleLogCodec
+ * encoding (format version 2).
+ */
+public class ChronicleLogCodecPerfTest {
+    private static final int RUNS = 1000000;
+
+    private static final Object[] ARGS = new Object[] {
+        42,
+        System.currentTimeMillis(),
+        3.14,
+        true,
+        "a string argument",
+        ChronicleLogLevel.INFO,
+        UUID.randomUUID()
+    };
+
+    @Test
+    public void testRoundTrip() {
+        final DirectStore store = DirectStore.allocate(1024);
+        final Bytes bytes = store.bytes();
+
+        for (Object arg : ARGS) {
+            bytes.clear();
+            ChronicleLogCodec.writeArg(bytes, arg);
+            bytes.flip();
+            assertEquals(arg, ChronicleLogCodec.readArg(bytes));
+        }
+
+        store.free();
+    }
+
+    @Test
+    public void testEncoding() {
+        final DirectStore store = DirectStore.allocate(1024);
+        final Bytes bytes = store.bytes();
+
+        for (int i = 0; i < 3; i++) {
+            run("writeObject", bytes, false);
+            run("codec", bytes, true);
+        }
+
+        store.free();
+    }
+
+    private static void run(String name, Bytes bytes, boolean codec) {
+        long size = 0;
+        final long start = System.nanoTime();
+
+        for (int i = 0; i < RUNS; i++) {
+            bytes.clear();
+            for (int a = 0; a < ARGS.length; a++) {
+                if (codec) {
+                    ChronicleLogCodec.writeArg(bytes, ARGS[a]);
+                } else {
+                    bytes.writeObject(ARGS[a]);
+                }
+            }
+
+            size = bytes.position();
+            bytes.flip();
+            for (int a = 0; a < ARGS.length; a++) {
+                if (codec) {
+                    ChronicleLogCodec.readArg(bytes);
+                } else {
+                    bytes.readObject();
+                }
+            }
+        }
+
+        final long time = System.nanoTime() - start;
+
+        System.out.printf("ChronicleLogCodec.%s (runs=%d, args=%d) %.1f ns per event, %d bytes per event\n",
+            name,
+            RUNS,
+            ARGS.length,
+            (double) time / RUNS,
+            size
+        );
+    }
+}
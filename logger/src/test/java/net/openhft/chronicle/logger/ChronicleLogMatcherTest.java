@@ -0,0 +1,148 @@
+/*
+ * Copyright 2014 Higher Frequency Trading
+ *
+ * http://www.higherfrequencytrading.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.logger;
+
+import net.openhft.lang.io.Bytes;
+import net.openhft.lang.io.DirectStore;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ChronicleLogMatcherTest {
+    private DirectStore store;
+    private Bytes bytes;
+
+    @Before
+    public void setUp() {
+        store = DirectStore.allocate(64 * 1024);
+        bytes = store.bytes();
+    }
+
+    @After
+    public void tearDown() {
+        store.free();
+    }
+
+    @Test
+    public void testFind() {
+        final ChronicleLogMatcher matcher = new ChronicleLogMatcher(Arrays.asList("he", "she", "his", "hers"));
+        assertTrue(matcher.find("ushers"));
+        assertTrue(matcher.find("this"));
+        assertTrue(matcher.find("ahishers"));
+        assertFalse(matcher.find("hxs"));
+        assertFalse(matcher.find("HE"));
+        assertFalse(matcher.find(""));
+        assertFalse(matcher.find(null));
+
+        final ChronicleLogMatcher overlapping = new ChronicleLogMatcher(Arrays.asList("abcd", "bc"));
+        assertTrue(overlapping.find("xabcx"));
+        assertFalse(overlapping.find("xabx"));
+
+        final ChronicleLogMatcher unicode = new ChronicleLogMatcher(Collections.singleton("gr\u00fc\u00df \u20ac"));
+        assertTrue(unicode.find("sch\u00f6ne gr\u00fc\u00df \u20ac!"));
+        assertFalse(unicode.find("gr\u00fc\u00df $"));
+
+        assertTrue(new ChronicleLogMatcher(Collections.singleton("")).find(null));
+        assertFalse(new ChronicleLogMatcher(Collections.<String>emptyList()).find("anything"));
+    }
+
+    @Test
+    public void testFindUTF() {
+        final ChronicleLogMatcher matcher = new ChronicleLogMatcher(Arrays.asList("orderId=123", "\u20ac42"));
+
+        bytes.writeUTFΔ("accepted orderId=123 from client");
+        bytes.writeUTFΔ("accepted orderId=124");
+        bytes.writeUTFΔ("price \u20ac42");
+        bytes.writeUTFΔ(null);
+        bytes.writeUTFΔ("last");
+        bytes.flip();
+
+        assertTrue(matcher.findUTF(bytes));
+        assertFalse(matcher.findUTF(bytes));
+        assertTrue(matcher.findUTF(bytes));
+        assertFalse(matcher.findUTF(bytes));
+        assertEquals("last", bytes.readUTFΔ());
+    }
+
+    @Test
+    public void testFlyweight() {
+        final ChronicleLogDictionary dictionary = new ChronicleLogDictionary();
+        final BinaryChronicleLogEventFlyweight event = new BinaryChronicleLogEventFlyweight();
+
+        bytes.writeByte(ChronicleLog.VERSION_3);
+        bytes.writeByte(0);
+        bytes.writeLong(1234L);
+        ChronicleLogLevel.INFO.writeTo(bytes);
+        bytes.writeStopBit(-3);
+        bytes.writeUTFΔ("main");
+        bytes.writeUTFΔ("com.acme.Orders");
+        bytes.writeUTFΔ("order 123 rejected");
+        bytes.flip();
+
+        event.wrap(bytes, dictionary);
+        assertTrue(event.findInThreadName(new ChronicleLogMatcher(Collections.singleton("mai"))));
+        assertTrue(event.findInLoggerName(new ChronicleLogMatcher(Collections.singleton("acme"))));
+        assertFalse(event.findInLoggerName(new ChronicleLogMatcher(Collections.singleton("main"))));
+        assertTrue(event.findInMessage(new ChronicleLogMatcher(Arrays.asList("accepted", "rejected"))));
+        assertFalse(event.findInMessage(new ChronicleLogMatcher(Collections.singleton("124"))));
+
+        // searching does not move the bytes nor prevent decoding
+        assertEquals("order 123 rejected", event.getMessage());
+        assertTrue(event.findInMessage(new ChronicleLogMatcher(Collections.singleton("123"))));
+        assertEquals("com.acme.Orders", event.loggerName().toString());
+    }
+
+    @Test
+    public void testFlyweightNonAscii() {
+        final ChronicleLogDictionary dictionary = new ChronicleLogDictionary();
+        final BinaryChronicleLogEventFlyweight event = new BinaryChronicleLogEventFlyweight();
+
+        // the lengths written by writeUTFΔ are in bytes, not chars
+        bytes.writeByte(ChronicleLog.VERSION_3);
+        bytes.writeByte(ChronicleLog.FLAG_ARGS);
+        bytes.writeLong(1234L);
+        ChronicleLogLevel.INFO.writeTo(bytes);
+        bytes.writeStopBit(-3);
+        bytes.writeUTFΔ("f\u00e4den-\u00df");
+        bytes.writeUTFΔ("com.acme.Pr\u00e9commandes");
+        bytes.writeUTFΔ("prix {} \u20ac");
+        bytes.writeStopBit(1);
+        ChronicleLogCodec.writeArg(bytes, 42);
+        bytes.flip();
+
+        event.wrap(bytes, dictionary);
+        assertTrue(event.findInThreadName(new ChronicleLogMatcher(Collections.singleton("\u00df"))));
+        assertFalse(event.findInThreadName(new ChronicleLogMatcher(Collections.singleton("acme"))));
+        assertTrue(event.findInLoggerName(new ChronicleLogMatcher(Collections.singleton("Pr\u00e9c"))));
+        assertTrue(event.findInMessage(new ChronicleLogMatcher(Collections.singleton("} \u20ac"))));
+        assertFalse(event.findInMessage(new ChronicleLogMatcher(Collections.singleton("\u20ac "))));
+
+        assertEquals("f\u00e4den-\u00df", event.getThreadName());
+        assertEquals("com.acme.Pr\u00e9commandes", event.getLoggerName());
+        assertEquals("prix {} \u20ac", event.getMessage());
+        assertEquals(42, event.getArgumentArray()[0]);
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2014 Higher Frequency Trading
+ *
+ * http://www.higherfrequencytrading.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.logger;
+
+import net.openhft.chronicle.ChronicleQueueBuilder;
+import net.openhft.lang.io.Bytes;
+import net.openhft.lang.io.IOTools;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+
+public class ChronicleLogMergeReaderTest {
+    private static final int CYCLE_LENGTH = 1000;
+
+    private String dir;
+    private ExecutorService stripeA;
+    private ExecutorService stripeB;
+
+    @Before
+    public void setUp() {
+        dir = System.getProperty("java.io.tmpdir") + "/chronicle-log-merge-" + System.nanoTime();
+
+        // the encoders of the symbols are per thread, as with a striped
+        // logger each stripe is written by its own thread
+        stripeA = Executors.newSingleThreadExecutor();
+        stripeB = Executors.newSingleThreadExecutor();
+    }
+
+    @After
+    public void tearDown() {
+        stripeA.shutdown();
+        stripeB.shutdown();
+        IOTools.deleteDir(dir);
+    }
+
+    private static void awaitNextCycle() throws InterruptedException {
+        final long now = System.currentTimeMillis();
+        Thread.sleep((now / CYCLE_LENGTH + 1) * CYCLE_LENGTH - now + 1);
+    }
+
+    private static void write(
+            ExecutorService stripe, final ChronicleLogWriter writer, final long timestamp, final String name)
+            throws Exception {
+        stripe.submit(new Runnable() {
+            @Override
+            public void run() {
+                writer.write(ChronicleLogLevel.INFO, timestamp, "thread-" + name, "logger", "event {}", null, name);
+            }
+        }).get();
+    }
+
+    private List<String> merge() throws IOException {
+        final List<String> events = new ArrayList<>();
+        final ChronicleLogMergeReader merger = new ChronicleLogMergeReader(
+            Arrays.asList(
+                ChronicleQueueBuilder.indexed(dir + "/a").build(),
+                ChronicleQueueBuilder.indexed(dir + "/b").build()),
+            true,
+            false);
+
+        try {
+            while (merger.read(new ChronicleLogReader() {
+                @Override
+                public void read(Bytes bytes) {
+                    final ChronicleLogEvent event = ChronicleLogHelper.decodeBinary(bytes);
+                    events.add(event.getTimeStamp() + "|" + event.getThreadName() + "|" + event.getArgumentArray()[0]);
+                }
+            })) {
+                // read all
+            }
+        } finally {
+            merger.close();
+        }
+
+        return events;
+    }
+
+    @Test
+    public void testStripesRollingTheirCycleApart() throws Exception {
+        // the stripes share their symbols, so they are read with one
+        // dictionary, the time stamp base of the next cycle read from a
+        // stripe must not apply to the events of the previous cycle still
+        // pending in the other one
+        final ChronicleLogSymbols symbols = new ChronicleLogSymbols(CYCLE_LENGTH, true, true, true);
+        final ChronicleLogWriter a = new ChronicleLogWriters.BinaryWriter(
+            ChronicleQueueBuilder.indexed(dir + "/a").build(), symbols, CYCLE_LENGTH);
+        final ChronicleLogWriter b = new ChronicleLogWriters.BinaryWriter(
+            ChronicleQueueBuilder.indexed(dir + "/b").build(), symbols, CYCLE_LENGTH);
+
+        awaitNextCycle();
+        final long c1 = System.currentTimeMillis() / CYCLE_LENGTH * CYCLE_LENGTH;
+        write(stripeA, a, c1, "a0");
+        write(stripeA, a, c1 + 10, "a1");
+        write(stripeB, b, c1 + 5, "b0");
+        write(stripeB, b, c1 + 15, "b1");
+        write(stripeB, b, c1 + 25, "b2");
+
+        awaitNextCycle();
+        final long c2 = System.currentTimeMillis() / CYCLE_LENGTH * CYCLE_LENGTH;
+        write(stripeA, a, c2, "a2");
+        write(stripeA, a, c2 + 10, "a3");
+        write(stripeB, b, c2 + 5, "b3");
+
+        // the writers close the chronicles
+        a.close();
+        b.close();
+
+        assertEquals(
+            Arrays.asList(
+                c1 + "|thread-a0|a0",
+                (c1 + 5) + "|thread-b0|b0",
+                (c1 + 10) + "|thread-a1|a1",
+                (c1 + 15) + "|thread-b1|b1",
+                (c1 + 25) + "|thread-b2|b2",
+                c2 + "|thread-a2|a2",
+                (c2 + 5) + "|thread-b3|b3",
+                (c2 + 10) + "|thread-a3|a3"),
+            merge());
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2014 Higher Frequency Trading
+ *
+ * http://www.higherfrequencytrading.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.logger;
+
+import net.openhft.chronicle.Chronicle;
+import net.openhft.chronicle.ChronicleQueueBuilder;
+import net.openhft.chronicle.ExcerptTailer;
+import net.openhft.lang.io.IOTools;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class ChronicleLogScannerTest {
+    private static final long CYCLE_LENGTH = 60 * 60 * 1000;
+    private static final long T0 = 10 * CYCLE_LENGTH;
+    private static final int EVENTS = 100;
+
+    private String dir;
+    private Chronicle chronicle;
+
+    @Before
+    public void setUp() throws Exception {
+        dir = System.getProperty("java.io.tmpdir") + "/chronicle-log-scanner-" + System.nanoTime();
+        chronicle = ChronicleQueueBuilder.indexed(dir + "/log").build();
+
+        // the names and templates are defined by the first event using them,
+        // new ones keep appearing so that definitions are spread over the splits
+        final ChronicleLogWriter writer = new ChronicleLogWriters.BinaryWriter(
+            chronicle,
+            new ChronicleLogSymbols(CYCLE_LENGTH, true, true, true),
+            CYCLE_LENGTH);
+
+        for (int i = 0; i < EVENTS; i++) {
+            writer.write(
+                ChronicleLogLevel.INFO,
+                T0 + i,
+                "thread-" + (i % 3),
+                "logger-" + (i / 10),
+                "message " + (i % 7) + " {}",
+                null,
+                i);
+        }
+
+        // the writer closes the chronicle
+        writer.close();
+        chronicle = ChronicleQueueBuilder.indexed(dir + "/log").build();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        chronicle.close();
+        IOTools.deleteDir(dir);
+    }
+
+    private List<String> sequential() throws IOException {
+        final List<String> events = new ArrayList<>();
+        final ChronicleLogDictionary dictionary = new ChronicleLogDictionary();
+        final ExcerptTailer tailer = chronicle.createTailer().toStart();
+        while (tailer.nextIndex()) {
+            events.add(asString(ChronicleLogHelper.decodeBinary(tailer, dictionary)));
+            tailer.finish();
+        }
+
+        tailer.close();
+        return events;
+    }
+
+    private List<String> scan(long splitSize, boolean ordered, long from, long to) throws Exception {
+        final List<String> events = new ArrayList<>();
+        final ChronicleLogScanner scanner = new ChronicleLogScanner(4, splitSize);
+        try {
+            scanner.scan(
+                Collections.singletonList(chronicle),
+                true,
+                from,
+                to,
+                new ChronicleLogScanner.MapperFactory<String>() {
+                    @Override
+                    public ChronicleLogScanner.Mapper<String> newMapper() {
+                        return new ChronicleLogScanner.Mapper<String>() {
+                            @Override
+                            public String map(ChronicleLogEvent event) {
+                                return asString(event);
+                            }
+                        };
+                    }
+                },
+                new ChronicleLogScanner.Sink<String>() {
+                    @Override
+                    public void accept(String result) {
+                        events.add(result);
+                    }
+                },
+                ordered);
+        } finally {
+            scanner.close();
+        }
+
+        return events;
+    }
+
+    private static String asString(ChronicleLogEvent event) {
+        return event.getTimeStamp() + "|" + event.getThreadName() + "|" + event.getLoggerName()
+            + "|" + event.getMessage() + "|" + event.getArgumentArray()[0];
+    }
+
+    @Test
+    public void testOrderedScanEqualsSequentialRead() throws Exception {
+        final List<String> expected = sequential();
+        assertEquals(EVENTS, expected.size());
+
+        // splits smaller than, dividing, equal to and larger than the chronicle
+        for (long splitSize : new long[] { 1, 7, 10, EVENTS, 10 * EVENTS }) {
+            assertEquals("split size " + splitSize, expected, scan(splitSize, true, Long.MIN_VALUE, Long.MAX_VALUE));
+        }
+    }
+
+    @Test
+    public void testUnorderedScanFindsAllEvents() throws Exception {
+        final List<String> expected = sequential();
+        Collections.sort(expected);
+
+        for (long splitSize : new long[] { 1, 7, 10 * EVENTS }) {
+            final List<String> events = scan(splitSize, false, Long.MIN_VALUE, Long.MAX_VALUE);
+            Collections.sort(events);
+            assertEquals("split size " + splitSize, expected, events);
+        }
+    }
+
+    @Test
+    public void testDefinitionsPrecedingTheScannedSplits() throws Exception {
+        // the events scanned reference names and templates defined in splits
+        // which are only read for their definitions
+        final List<String> expected = sequential().subList(55, 81);
+        assertEquals(expected, scan(7, true, T0 + 55, T0 + 80));
+        assertEquals(expected, scan(1, true, T0 + 55, T0 + 80));
+    }
+
+    @Test
+    public void testAggregate() throws Exception {
+        final ChronicleLogScanner scanner = new ChronicleLogScanner(4, 7);
+        try {
+            final Count count = scanner.aggregate(
+                Collections.singletonList(chronicle),
+                true,
+                Long.MIN_VALUE,
+                Long.MAX_VALUE,
+                new ChronicleLogScanner.AccumulatorFactory<Count>() {
+                    @Override
+                    public Count newAccumulator() {
+                        return new Count();
+                    }
+                });
+
+            assertEquals(EVENTS, count.events);
+        } finally {
+            scanner.close();
+        }
+    }
+
+    private static final class Count implements ChronicleLogScanner.Accumulator<Count> {
+        private long events;
+
+        @Override
+        public void add(ChronicleLogEvent event, long size) {
+            this.events++;
+        }
+
+        @Override
+        public void merge(Count other) {
+            this.events += other.events;
+        }
+    }
+}
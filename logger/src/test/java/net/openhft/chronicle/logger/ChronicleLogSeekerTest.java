@@ -0,0 +1,362 @@
+/*
+ * Copyright 2014 Higher Frequency Trading
+ *
+ * http://www.higherfrequencytrading.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.logger;
+
+import net.openhft.chronicle.Chronicle;
+import net.openhft.chronicle.ChronicleQueueBuilder;
+import net.openhft.chronicle.ExcerptTailer;
+import net.openhft.lang.io.Bytes;
+import net.openhft.lang.io.IOTools;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ChronicleLogSeekerTest {
+    private static final int CYCLE_LENGTH = 1000;
+    private static final int EVENTS_PER_CYCLE = 40;
+    private static final int EVENTS = 2 * EVENTS_PER_CYCLE;
+    private static final long STEP = 10;
+
+    private static String dir;
+    private static long[] timestamps;
+    private static ChronicleLogSeeker seeker;
+
+    @BeforeClass
+    public static void setUp() throws Exception {
+        dir = System.getProperty("java.io.tmpdir") + "/chronicle-log-seeker-" + System.nanoTime();
+        timestamps = new long[EVENTS];
+
+        // the whole log, and the same events split over two chronicles
+        final ChronicleLogWriter[] writers = new ChronicleLogWriter[] {
+            writer(dir + "/all"), writer(dir + "/even"), writer(dir + "/odd")
+        };
+
+        // the symbols roll on the wall clock, the events of each cycle are
+        // written right after it starts so that their time stamps are deltas
+        for (int i = 0; i < EVENTS; i++) {
+            if (i % EVENTS_PER_CYCLE == 0) {
+                awaitNextCycle();
+            }
+
+            final long cycleStart = System.currentTimeMillis() / CYCLE_LENGTH * CYCLE_LENGTH;
+            timestamps[i] = cycleStart + STEP * (i % EVENTS_PER_CYCLE);
+
+            writers[0].write(ChronicleLogLevel.INFO, timestamps[i], thread(i), logger(i), "message {}", null, i);
+            writers[1 + i % 2].write(ChronicleLogLevel.INFO, timestamps[i], thread(i), logger(i), "message {}", null, i);
+        }
+
+        // the writers close the chronicles
+        for (ChronicleLogWriter writer : writers) {
+            writer.close();
+        }
+
+        final VanillaLogAppenderConfig vanilla = new VanillaLogAppenderConfig();
+        vanilla.setCycleLength(CYCLE_LENGTH, false);
+        seeker = new ChronicleLogSeeker(true, 0, vanilla);
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        IOTools.deleteDir(dir);
+    }
+
+    private static ChronicleLogWriter writer(String path) throws IOException {
+        return new ChronicleLogWriters.BinaryWriter(
+            ChronicleQueueBuilder.indexed(path).build(),
+            new ChronicleLogSymbols(CYCLE_LENGTH, true, true, true),
+            CYCLE_LENGTH);
+    }
+
+    private static void awaitNextCycle() throws InterruptedException {
+        final long now = System.currentTimeMillis();
+        Thread.sleep((now / CYCLE_LENGTH + 1) * CYCLE_LENGTH - now + 1);
+    }
+
+    private static Chronicle open(String name) throws IOException {
+        return ChronicleQueueBuilder.indexed(dir + "/" + name).build();
+    }
+
+    private static String thread(int i) {
+        return "thread-" + (i % 3);
+    }
+
+    private static String logger(int i) {
+        return "logger-" + (i / 10);
+    }
+
+    private static String expected(int i) {
+        return timestamps[i] + "|" + thread(i) + "|" + logger(i) + "|" + i;
+    }
+
+    private static String asString(ChronicleLogEvent event) {
+        return event.getTimeStamp() + "|" + event.getThreadName() + "|" + event.getLoggerName()
+            + "|" + event.getArgumentArray()[0];
+    }
+
+    private static List<String> expectedFrom(int first) {
+        final List<String> events = new ArrayList<>();
+        for (int i = first; i < EVENTS; i++) {
+            events.add(expected(i));
+        }
+
+        return events;
+    }
+
+    /**
+     * Seek a tailer with a new dictionary and read the events following it.
+     */
+    private static List<String> seekAndRead(Chronicle chronicle, long timestamp) throws IOException {
+        final List<String> events = new ArrayList<>();
+        final ChronicleLogDictionary dictionary = new ChronicleLogDictionary();
+        final ExcerptTailer tailer = chronicle.createTailer();
+
+        try {
+            if (seeker.seek(chronicle, tailer, timestamp, dictionary)) {
+                do {
+                    events.add(asString(ChronicleLogHelper.decodeBinary(tailer, dictionary)));
+                    tailer.finish();
+                } while (tailer.nextIndex());
+            }
+        } finally {
+            tailer.close();
+        }
+
+        return events;
+    }
+
+    @Test
+    public void testFixtureIsDeltaEncoded() throws Exception {
+        // the first event of each cycle carries its start, the others a delta
+        final Chronicle chronicle = open("all");
+        final ExcerptTailer tailer = chronicle.createTailer();
+        try {
+            for (int i = 0; i < EVENTS; i++) {
+                assertTrue(tailer.index(i));
+                assertEquals(ChronicleLog.VERSION_3, tailer.readByte());
+
+                final int flags = tailer.readUnsignedByte();
+                if (i % EVENTS_PER_CYCLE == 0) {
+                    assertTrue("event " + i, (flags & ChronicleLog.FLAG_TIMESTAMP_BASE) != 0);
+                } else {
+                    assertTrue("event " + i, (flags & ChronicleLog.FLAG_TIMESTAMP_DELTA) != 0);
+                }
+            }
+        } finally {
+            tailer.close();
+            chronicle.close();
+        }
+    }
+
+    @Test
+    public void testSeekEachEvent() throws Exception {
+        // the time stamps of the delta encoded events are resolved by walking
+        // back to the start of their cycle
+        final Chronicle chronicle = open("all");
+        try {
+            for (int i = 0; i < EVENTS; i++) {
+                assertEquals(i, seeker.seek(chronicle, timestamps[i]));
+                assertEquals(i, seeker.seek(chronicle, timestamps[i] - STEP / 2));
+                assertEquals(i + 1 < EVENTS ? i + 1 : -1, seeker.seek(chronicle, timestamps[i] + 1));
+            }
+        } finally {
+            chronicle.close();
+        }
+    }
+
+    @Test
+    public void testSeekBeforeFirstEvent() throws Exception {
+        final Chronicle chronicle = open("all");
+        try {
+            assertEquals(0, seeker.seek(chronicle, timestamps[0] - 1));
+            assertEquals(0, seeker.seek(chronicle, Long.MIN_VALUE / 2));
+            assertEquals(expectedFrom(0), seekAndRead(chronicle, timestamps[0] - CYCLE_LENGTH));
+        } finally {
+            chronicle.close();
+        }
+    }
+
+    @Test
+    public void testSeekAfterLastEvent() throws Exception {
+        final Chronicle chronicle = open("all");
+        final ExcerptTailer tailer = chronicle.createTailer();
+        try {
+            assertEquals(-1, seeker.seek(chronicle, timestamps[EVENTS - 1] + 1));
+            assertEquals(-1, seeker.seek(chronicle, Long.MAX_VALUE / 2));
+            assertFalse(seeker.seek(chronicle, tailer, timestamps[EVENTS - 1] + 1, new ChronicleLogDictionary()));
+        } finally {
+            tailer.close();
+            chronicle.close();
+        }
+    }
+
+    @Test
+    public void testSeekAcrossCycleBoundary() throws Exception {
+        // between the last event of a cycle and the first one of the next
+        final long boundary = timestamps[EVENTS_PER_CYCLE] - 1;
+
+        final Chronicle chronicle = open("all");
+        try {
+            assertEquals(EVENTS_PER_CYCLE, seeker.seek(chronicle, boundary));
+            assertEquals(EVENTS_PER_CYCLE - 1, seeker.seek(chronicle, timestamps[EVENTS_PER_CYCLE - 1]));
+            assertEquals(expectedFrom(EVENTS_PER_CYCLE), seekAndRead(chronicle, boundary));
+            assertEquals(expectedFrom(EVENTS_PER_CYCLE - 1), seekAndRead(chronicle, timestamps[EVENTS_PER_CYCLE - 1]));
+        } finally {
+            chronicle.close();
+        }
+    }
+
+    @Test
+    public void testSeekReplaysDefinitions() throws Exception {
+        // the names of the events found are defined by the first events of
+        // their cycle, which are read into the dictionary by the seek
+        final Chronicle chronicle = open("all");
+        try {
+            for (int i : new int[] { 1, 5, 25, EVENTS_PER_CYCLE + 1, EVENTS_PER_CYCLE + 25, EVENTS - 1 }) {
+                assertEquals("event " + i, expectedFrom(i), seekAndRead(chronicle, timestamps[i]));
+            }
+        } finally {
+            chronicle.close();
+        }
+    }
+
+    @Test
+    public void testSeekWithRepeatedBase() throws Exception {
+        // the start of the cycle is written again every BASE_INTERVAL events
+        // of a thread, the time stamps are resolved from the closest one
+        final int events = 2 * ChronicleLogSymbols.BASE_INTERVAL + 1;
+        final ChronicleLogWriter writer = writer(dir + "/repeated");
+
+        awaitNextCycle();
+        final long cycleStart = System.currentTimeMillis() / CYCLE_LENGTH * CYCLE_LENGTH;
+        for (int i = 0; i < events; i++) {
+            writer.write(ChronicleLogLevel.INFO, cycleStart + i, thread(i), logger(i), "message {}", null, i);
+        }
+
+        // the writer closes the chronicle
+        writer.close();
+
+        final Chronicle chronicle = open("repeated");
+        final ExcerptTailer tailer = chronicle.createTailer();
+        try {
+            for (int i = 0; i < events; i++) {
+                assertTrue(tailer.index(i));
+                assertEquals(ChronicleLog.VERSION_3, tailer.readByte());
+
+                final int flags = tailer.readUnsignedByte();
+                assertEquals(
+                    "event " + i,
+                    i % ChronicleLogSymbols.BASE_INTERVAL == 0,
+                    (flags & ChronicleLog.FLAG_TIMESTAMP_BASE) != 0);
+            }
+
+            for (int i = 0; i < events; i++) {
+                assertEquals(i, seeker.seek(chronicle, cycleStart + i));
+            }
+        } finally {
+            tailer.close();
+            chronicle.close();
+        }
+    }
+
+    @Test
+    public void testToEndReadsDefinitionsOfLastCycle() throws Exception {
+        final Chronicle chronicle = open("all");
+        final ExcerptTailer tailer = chronicle.createTailer();
+        final ChronicleLogDictionary dictionary = new ChronicleLogDictionary();
+        try {
+            seeker.toEnd(chronicle, tailer, dictionary);
+            assertFalse(tailer.nextIndex());
+
+            // the last event references the names and the time stamp base
+            // defined by the first events of its cycle
+            assertTrue(tailer.index(EVENTS - 1));
+            assertEquals(expected(EVENTS - 1), asString(ChronicleLogHelper.decodeBinary(tailer, dictionary)));
+        } finally {
+            tailer.close();
+            chronicle.close();
+        }
+    }
+
+    @Test
+    public void testRanges() throws Exception {
+        final ChronicleLogIndexes indexes = new ChronicleLogIndexes();
+        final Chronicle chronicle = open("all");
+        try {
+            for (long size : new long[] { 1, 7, EVENTS, 10 * EVENTS }) {
+                final List<ChronicleLogIndexes.Range> ranges = indexes.ranges(chronicle, size);
+                assertEquals((EVENTS + size - 1) / size, ranges.size());
+
+                long start = 0;
+                for (ChronicleLogIndexes.Range range : ranges) {
+                    assertEquals(start, range.start);
+                    assertEquals(start == 0, range.head);
+                    assertTrue(range.end > range.start && range.end - range.start <= size);
+                    start = range.end;
+                }
+
+                assertEquals(EVENTS, start);
+            }
+        } finally {
+            chronicle.close();
+        }
+    }
+
+    /**
+     * Merge the even and odd events from the given time, the merge reader
+     * closes the chronicles.
+     */
+    private static List<String> merge(long from) throws IOException {
+        final List<String> events = new ArrayList<>();
+        final ChronicleLogMergeReader merger = new ChronicleLogMergeReader(
+            Arrays.asList(open("even"), open("odd")), true, false, seeker, from, true);
+
+        try {
+            while (merger.read(new ChronicleLogReader() {
+                @Override
+                public void read(Bytes bytes) {
+                    events.add(asString(ChronicleLogHelper.decodeBinary(bytes)));
+                }
+            })) {
+                // read all
+            }
+        } finally {
+            merger.close();
+        }
+
+        return events;
+    }
+
+    @Test
+    public void testMergeReaderSeek() throws Exception {
+        assertEquals(expectedFrom(0), merge(timestamps[0] - 1));
+        assertEquals(expectedFrom(25), merge(timestamps[25]));
+        assertEquals(expectedFrom(EVENTS_PER_CYCLE), merge(timestamps[EVENTS_PER_CYCLE] - 1));
+        assertEquals(expectedFrom(EVENTS_PER_CYCLE + 13), merge(timestamps[EVENTS_PER_CYCLE + 13]));
+        assertEquals(expectedFrom(EVENTS), merge(timestamps[EVENTS - 1] + 1));
+    }
+}
@@ -0,0 +1,252 @@
+/*
+ * Copyright 2014 Higher Frequency Trading
+ *
+ * http://www.higherfrequencytrading.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.logger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ChronicleLogSummaryTest {
+    private static final long CYCLE_LENGTH = 60 * 60 * 1000;
+
+    private String path;
+
+    @Before
+    public void setUp() {
+        path = System.getProperty("java.io.tmpdir") + "/chronicle-log-summary-" + System.nanoTime();
+    }
+
+    @After
+    public void tearDown() {
+        final File dir = ChronicleLogSummary.directory(path);
+        final File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+
+        dir.delete();
+    }
+
+    @Test
+    public void testCount() {
+        final ChronicleLogSummary summary = new ChronicleLogSummary(10, CYCLE_LENGTH);
+        summary.add(ChronicleLogLevel.INFO, 10 * CYCLE_LENGTH + 5, "logger1", 100);
+        summary.add(ChronicleLogLevel.ERROR, 10 * CYCLE_LENGTH + 1, "logger1", 101);
+        summary.add(ChronicleLogLevel.ERROR, 10 * CYCLE_LENGTH + 9, "logger2", 99);
+
+        assertEquals(3, summary.count());
+        assertEquals(2, summary.count(ChronicleLogLevel.ERROR));
+        assertEquals(1, summary.count("logger1", ChronicleLogLevel.ERROR));
+        assertEquals(0, summary.count("logger2", ChronicleLogLevel.INFO));
+        assertEquals(0, summary.count("logger3", ChronicleLogLevel.INFO));
+        assertEquals(10 * CYCLE_LENGTH + 1, summary.getMinTimestamp());
+        assertEquals(10 * CYCLE_LENGTH + 9, summary.getMaxTimestamp());
+        assertEquals(99, summary.getFirstIndex());
+        assertEquals(101, summary.getLastIndex());
+        assertEquals(10 * CYCLE_LENGTH, summary.getStart());
+        assertEquals(11 * CYCLE_LENGTH, summary.getEnd());
+    }
+
+    @Test
+    public void testLateEvents() throws Exception {
+        // events of an earlier cycle are clamped to the start of the cycle
+        final ChronicleLogSummary summary = new ChronicleLogSummary(10, CYCLE_LENGTH);
+        summary.add(ChronicleLogLevel.INFO, 10 * CYCLE_LENGTH + 5, "logger1", 0);
+        summary.add(ChronicleLogLevel.INFO, 10 * CYCLE_LENGTH - 1, "logger1", 1);
+        summary.add(ChronicleLogLevel.WARN, 8 * CYCLE_LENGTH, "logger2", 2);
+
+        assertEquals(3, summary.count());
+        assertEquals(2, summary.getLate());
+        assertEquals(10 * CYCLE_LENGTH, summary.getMinTimestamp());
+        assertEquals(10 * CYCLE_LENGTH + 5, summary.getMaxTimestamp());
+
+        summary.write(path);
+        final ChronicleLogSummary read = ChronicleLogSummary.read(ChronicleLogSummary.file(path, 10));
+        assertEquals(2, read.getLate());
+        assertEquals(10 * CYCLE_LENGTH, read.getMinTimestamp());
+
+        final ChronicleLogSummary other = new ChronicleLogSummary(10, CYCLE_LENGTH);
+        other.add(ChronicleLogLevel.INFO, 9 * CYCLE_LENGTH, "logger1", 3);
+        assertEquals(3, ChronicleLogSummary.merge(Arrays.asList(summary, other)).get(0).getLate());
+    }
+
+    @Test
+    public void testSummaryWriterLateEvents() throws Exception {
+        final ChronicleLogWriters.SummaryWriter writer = new ChronicleLogWriters.SummaryWriter(
+            new ChronicleLogWriters.SimpleWriter(new PrintStream(new ByteArrayOutputStream())),
+            path,
+            CYCLE_LENGTH);
+
+        writer.write(ChronicleLogLevel.INFO, 10 * CYCLE_LENGTH + 1, "thread", "logger", "message");
+        writer.write(ChronicleLogLevel.INFO, 11 * CYCLE_LENGTH + 1, "thread", "logger", "message");
+
+        // written once the cycle rolled, e.g. drained late by an AsyncWriter
+        writer.write(ChronicleLogLevel.INFO, 10 * CYCLE_LENGTH + 2, "thread", "logger", "message");
+        writer.close();
+
+        final List<ChronicleLogSummary> summaries = ChronicleLogSummary.read(path);
+        assertEquals(2, summaries.size());
+        assertEquals(1, summaries.get(0).count());
+        assertEquals(0, summaries.get(0).getLate());
+        assertEquals(2, summaries.get(1).count());
+        assertEquals(1, summaries.get(1).getLate());
+        assertEquals(11 * CYCLE_LENGTH, summaries.get(1).getMinTimestamp());
+        assertEquals(11 * CYCLE_LENGTH + 1, summaries.get(1).getMaxTimestamp());
+    }
+
+    @Test
+    public void testWriteRead() throws Exception {
+        final ChronicleLogSummary summary = new ChronicleLogSummary(10, CYCLE_LENGTH);
+        summary.add(ChronicleLogLevel.WARN, 10 * CYCLE_LENGTH, "logger1", -1);
+        summary.add(ChronicleLogLevel.WARN, 10 * CYCLE_LENGTH, "logger1", -1);
+        summary.write(path);
+
+        final ChronicleLogSummary read = ChronicleLogSummary.read(ChronicleLogSummary.file(path, 10));
+        assertEquals(10, read.getCycle());
+        assertEquals(CYCLE_LENGTH, read.getCycleLength());
+        assertEquals(2, read.count("logger1", ChronicleLogLevel.WARN));
+        assertEquals(-1, read.getFirstIndex());
+        assertEquals(-1, read.getLastIndex());
+
+        new ChronicleLogSummary(12, CYCLE_LENGTH).write(path);
+        new ChronicleLogSummary(11, CYCLE_LENGTH).write(path);
+
+        assertEquals(3, ChronicleLogSummary.read(path).size());
+        assertEquals(11, ChronicleLogSummary.read(path).get(1).getCycle());
+        assertEquals(2, ChronicleLogSummary.read(path, 11 * CYCLE_LENGTH, 12 * CYCLE_LENGTH).size());
+        assertEquals(1, ChronicleLogSummary.read(path, 11 * CYCLE_LENGTH, 12 * CYCLE_LENGTH - 1).size());
+    }
+
+    @Test
+    public void testMerge() {
+        final ChronicleLogSummary s1 = new ChronicleLogSummary(10, CYCLE_LENGTH);
+        final ChronicleLogSummary s2 = new ChronicleLogSummary(10, CYCLE_LENGTH);
+        final ChronicleLogSummary s3 = new ChronicleLogSummary(11, CYCLE_LENGTH);
+        s1.add(ChronicleLogLevel.DEBUG, 10 * CYCLE_LENGTH, "logger1", 0);
+        s2.add(ChronicleLogLevel.DEBUG, 10 * CYCLE_LENGTH, "logger1", 0);
+        s2.add(ChronicleLogLevel.DEBUG, 10 * CYCLE_LENGTH, "logger2", 1);
+        s3.add(ChronicleLogLevel.DEBUG, 11 * CYCLE_LENGTH, "logger1", 2);
+
+        final List<ChronicleLogSummary> merged = ChronicleLogSummary.merge(Arrays.asList(s3, s1, s2));
+        assertEquals(2, merged.size());
+        assertEquals(2, merged.get(0).count("logger1", ChronicleLogLevel.DEBUG));
+        assertEquals(1, merged.get(0).count("logger2", ChronicleLogLevel.DEBUG));
+        assertEquals(1, merged.get(1).count());
+    }
+
+    @Test
+    public void testSummaryWriter() throws Exception {
+        final ChronicleLogWriters.SummaryWriter writer = new ChronicleLogWriters.SummaryWriter(
+            new ChronicleLogWriters.SimpleWriter(new PrintStream(new ByteArrayOutputStream())),
+            path,
+            CYCLE_LENGTH);
+
+        assertNull(writer.summary());
+
+        writer.write(ChronicleLogLevel.INFO, 10 * CYCLE_LENGTH, "thread", "logger", "message");
+        writer.write(ChronicleLogLevel.ERROR, 10 * CYCLE_LENGTH + 1, "thread", "logger", "message", null);
+        assertEquals(2, writer.summary().count());
+        assertTrue(ChronicleLogSummary.read(path).isEmpty());
+
+        // the cycle rolls
+        writer.write(ChronicleLogLevel.ERROR, 11 * CYCLE_LENGTH, "thread", "logger", "message {}", null, 1);
+        assertEquals(1, writer.summary().count());
+        assertEquals(1, ChronicleLogSummary.read(path).size());
+
+        writer.close();
+
+        final List<ChronicleLogSummary> summaries = ChronicleLogSummary.read(path);
+        assertEquals(2, summaries.size());
+        assertEquals(1, summaries.get(0).count("logger", ChronicleLogLevel.ERROR));
+        assertEquals(1, summaries.get(1).count("logger", ChronicleLogLevel.ERROR));
+
+        // a new writer carries on with the summary of the cycle
+        final ChronicleLogWriters.SummaryWriter appender = new ChronicleLogWriters.SummaryWriter(
+            new ChronicleLogWriters.SimpleWriter(new PrintStream(new ByteArrayOutputStream())),
+            path,
+            CYCLE_LENGTH);
+
+        appender.write(ChronicleLogLevel.WARN, 11 * CYCLE_LENGTH + 10, "thread", "logger", "message");
+        appender.close();
+
+        assertEquals(2, ChronicleLogSummary.read(path).get(1).count());
+    }
+
+    @Test
+    public void testSummaryWriterConcurrentRoll() throws Exception {
+        final int threads = 4;
+        final int cycles = 50;
+        final int events = 100;
+
+        final ChronicleLogWriters.SummaryWriter writer = new ChronicleLogWriters.SummaryWriter(
+            new ChronicleLogWriters.SimpleWriter(new PrintStream(new ByteArrayOutputStream())),
+            path,
+            CYCLE_LENGTH);
+
+        // events counted while another thread rolls the cycle are not lost
+        final CountDownLatch start = new CountDownLatch(1);
+        final Thread[] writers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            writers[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+
+                    for (int c = 0; c < cycles; c++) {
+                        for (int i = 0; i < events; i++) {
+                            writer.write(ChronicleLogLevel.INFO, c * CYCLE_LENGTH + i, "thread", "logger", "message");
+                        }
+                    }
+                }
+            });
+            writers[t].start();
+        }
+
+        start.countDown();
+        for (Thread thread : writers) {
+            thread.join();
+        }
+
+        writer.close();
+
+        long count = 0;
+        for (ChronicleLogSummary summary : ChronicleLogSummary.read(path)) {
+            count += summary.count();
+        }
+
+        assertEquals(threads * cycles * events, count);
+    }
+}
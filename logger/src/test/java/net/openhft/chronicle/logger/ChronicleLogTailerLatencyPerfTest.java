@@ -0,0 +1,112 @@
+/*
+ * Copyright 2014 Higher Frequency Trading
+ *
+ * http://www.higherfrequencytrading.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.logger;
+
+import net.openhft.chronicle.Chronicle;
+import net.openhft.chronicle.ChronicleQueueBuilder;
+import net.openhft.chronicle.tools.ChronicleTools;
+import net.openhft.lang.io.Bytes;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the latency from a writer logging an event to a ChronicleLogTailer
+ * reading it, for each wait strategy. The writer logs bursts separated by
+ * pauses so the tailer is found both polling and waiting.
+ */
+public class ChronicleLogTailerLatencyPerfTest {
+    private static final int RUNS = 200000;
+    private static final int BURST = 100;
+    private static final long PAUSE_NANOS = TimeUnit.MICROSECONDS.toNanos(500);
+
+    @Test
+    public void testLatency() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            run("spin", ChronicleLogWaitStrategies.busySpin());
+            run("yield", ChronicleLogWaitStrategies.yielding());
+            run("backoff", ChronicleLogWaitStrategies.backoff());
+            run("backoff:100us", ChronicleLogWaitStrategies.backoff(100, TimeUnit.MICROSECONDS));
+            run("block:1ms", ChronicleLogWaitStrategies.blocking(1, TimeUnit.MILLISECONDS));
+        }
+    }
+
+    private static void run(String name, final ChronicleLogWaitStrategy wait) throws Exception {
+        final String baseDir = System.getProperty("java.io.tmpdir") + "/perf-tailer-latency-" + System.nanoTime();
+        ChronicleTools.deleteDirOnExit(baseDir);
+
+        final Chronicle chronicle = ChronicleQueueBuilder.vanilla(baseDir).build();
+        final ChronicleLogWriter writer = new ChronicleLogWriters.BinaryWriter(chronicle);
+        final ChronicleLogTailer tailer = new ChronicleLogTailer(chronicle, true, false);
+        final long[] latencies = new long[RUNS];
+
+        final Thread reader = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                tailer.tail(new ChronicleLogReader() {
+                    private int count = 0;
+
+                    @Override
+                    public void read(final Bytes bytes) {
+                        final long now = System.nanoTime();
+                        final ChronicleLogEvent event = ChronicleLogHelper.decodeBinary(bytes);
+                        latencies[count++] = now - (Long) event.getArgumentArray()[0];
+                        if (count == RUNS) {
+                            tailer.stop();
+                        }
+                    }
+                }, wait);
+            }
+        }, "tailer-" + name);
+
+        reader.start();
+
+        final long start = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) {
+            if (i % BURST == 0) {
+                final long end = System.nanoTime() + PAUSE_NANOS;
+                while (System.nanoTime() < end) {
+                    // pause between bursts
+                }
+            }
+
+            writer.write(ChronicleLogLevel.INFO, System.currentTimeMillis(), "writer", "perf",
+                "sent at {}", null, System.nanoTime());
+        }
+
+        reader.join(TimeUnit.MINUTES.toMillis(1));
+        final long time = System.nanoTime() - start;
+
+        tailer.close();
+        writer.close();
+        chronicle.close();
+
+        Arrays.sort(latencies);
+        System.out.printf("%s (runs=%d, elapsed=%.3f ms) latency 50%%=%.1f us, 99%%=%.1f us, 99.9%%=%.1f us, max=%.1f us\n",
+            name,
+            RUNS,
+            time / 1e6,
+            latencies[RUNS / 2] / 1e3,
+            latencies[RUNS * 99 / 100] / 1e3,
+            latencies[RUNS * 999 / 1000] / 1e3,
+            latencies[RUNS - 1] / 1e3
+        );
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2014 Higher Frequency Trading
+ *
+ * http://www.higherfrequencytrading.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.logger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ChronicleLogTermsTest {
+    private static final long CYCLE_LENGTH = 60 * 60 * 1000;
+
+    private String path;
+
+    @Before
+    public void setUp() {
+        path = System.getProperty("java.io.tmpdir") + "/chronicle-log-terms-" + System.nanoTime();
+    }
+
+    @After
+    public void tearDown() {
+        final File dir = ChronicleLogTerms.directory(path);
+        final File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+
+        dir.delete();
+    }
+
+    @Test
+    public void testTerms() {
+        assertEquals(
+            Arrays.asList("request", "req", "7f3a9c", "failed", "in", "12ms"),
+            ChronicleLogTerms.terms("Request req-7f3a9c failed in 12ms, request"));
+        assertEquals(Collections.emptyList(), ChronicleLogTerms.terms(" -- "));
+
+        final StringBuilder longTerm = new StringBuilder();
+        for (int i = 0; i < ChronicleLogTerms.MAX_TERM_LENGTH * 2; i++) {
+            longTerm.append('a');
+        }
+
+        assertEquals(
+            ChronicleLogTerms.MAX_TERM_LENGTH,
+            ChronicleLogTerms.terms(longTerm).get(0).length());
+    }
+
+    @Test
+    public void testWholeTerms() {
+        assertEquals(Collections.emptyList(), ChronicleLogTerms.wholeTerms("7f3a"));
+        assertEquals(Collections.emptyList(), ChronicleLogTerms.wholeTerms("req-7f3a"));
+        assertEquals(Arrays.asList("req"), ChronicleLogTerms.wholeTerms(" req-7f3a"));
+        assertEquals(Arrays.asList("req", "7f3a9c"), ChronicleLogTerms.wholeTerms(" Req-7f3a9c failed"));
+        assertEquals(Arrays.asList("7f3a9c"), ChronicleLogTerms.wholeTerms("-7f3a9c-"));
+    }
+
+    @Test
+    public void testLookup() throws Exception {
+        final ChronicleLogTerms.Batch batch = new ChronicleLogTerms.Batch(CYCLE_LENGTH);
+        batch.clear(10);
+        batch.add(Arrays.asList("", "user", "login"), 100, 10 * CYCLE_LENGTH);
+        batch.add(Arrays.asList("user", "logout"), 105, 10 * CYCLE_LENGTH + 1);
+        batch.append(path);
+
+        batch.clear(10);
+        batch.add(Arrays.asList("user", "login", "\u00df"), 1000, 10 * CYCLE_LENGTH + 2);
+        batch.append(path);
+
+        batch.clear(11);
+        batch.add(Arrays.asList("", "user", "login"), 2000, 11 * CYCLE_LENGTH);
+        batch.append(path);
+
+        final ChronicleLogTerms terms = new ChronicleLogTerms(path);
+        assertEquals(2000, terms.lastIndex());
+        assertEquals(11 * CYCLE_LENGTH, terms.lastTimestamp());
+
+        assertArrayEquals(new long[] { 100, 105, 1000, 2000 }, terms.lookup("user"));
+        assertArrayEquals(new long[] { 100, 105, 1000, 2000 }, terms.lookup("USER"));
+        assertArrayEquals(new long[] { 1000 }, terms.lookup("\u00df"));
+        assertArrayEquals(new long[0], terms.lookup("nobody"));
+
+        assertArrayEquals(
+            new long[] { 100, 1000, 2000 },
+            terms.lookup(Arrays.asList("user", "login"), Long.MIN_VALUE, Long.MAX_VALUE, false));
+        assertArrayEquals(
+            new long[] { 2000 },
+            terms.lookup(Arrays.asList("user", "login"), 11 * CYCLE_LENGTH, Long.MAX_VALUE, false));
+        assertArrayEquals(
+            new long[] { 105 },
+            terms.lookup(Arrays.asList("logout"), Long.MIN_VALUE, Long.MAX_VALUE, false));
+
+        // the definitions preceding the events found, in their cycle and the previous one
+        assertArrayEquals(
+            new long[] { 100, 105 },
+            terms.lookup(Arrays.asList("logout"), Long.MIN_VALUE, Long.MAX_VALUE, true));
+        assertArrayEquals(
+            new long[] { 100, 2000 },
+            terms.lookup(Arrays.asList("login"), 11 * CYCLE_LENGTH, Long.MAX_VALUE, true));
+    }
+
+    @Test
+    public void testCompactAndPartialSegment() throws Exception {
+        final ChronicleLogTerms.Batch batch = new ChronicleLogTerms.Batch(CYCLE_LENGTH);
+        for (int i = 0; i < 10; i++) {
+            batch.clear(10);
+            batch.add(Arrays.asList("term" + (i % 3), "all"), i * 1000, 10 * CYCLE_LENGTH + i);
+            batch.append(path);
+        }
+
+        final File file = ChronicleLogTerms.file(path, 10);
+        assertEquals(10, ChronicleLogTerms.map(file).size());
+
+        final ChronicleLogTerms.Batch merged = new ChronicleLogTerms.Batch(CYCLE_LENGTH);
+        merged.clear(10);
+        merged.addAll(ChronicleLogTerms.map(file));
+        merged.replace(path);
+
+        assertEquals(1, ChronicleLogTerms.map(file).size());
+        assertArrayEquals(new long[] { 1000, 4000, 7000 }, new ChronicleLogTerms(path).lookup("term1"));
+        assertEquals(10, new ChronicleLogTerms(path).lookup("all").length);
+
+        // a segment cut short by a crash is ignored
+        final long length = file.length();
+        try (FileOutputStream out = new FileOutputStream(file, true)) {
+            out.write(merged.encode().array(), 0, 20);
+        }
+
+        assertTrue(file.length() > length);
+        assertEquals(length, ChronicleLogTerms.validLength(file));
+        assertEquals(10, new ChronicleLogTerms(path).lookup("all").length);
+    }
+}
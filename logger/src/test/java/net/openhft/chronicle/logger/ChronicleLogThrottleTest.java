@@ -0,0 +1,127 @@
+/*
+ * Copyright 2014 Higher Frequency Trading
+ *
+ * http://www.higherfrequencytrading.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.logger;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ChronicleLogThrottleTest {
+    private static final long WINDOW = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    public void testRateLimit() {
+        final ChronicleLogThrottle.Bucket bucket = new ChronicleLogThrottle.Bucket(10, 5, 1, WINDOW);
+        final long now = System.nanoTime();
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(bucket.acquire(now));
+        }
+        for (int i = 0; i < 10; i++) {
+            assertFalse(bucket.acquire(now));
+        }
+
+        // one token every 100ms
+        assertTrue(bucket.acquire(now + TimeUnit.MILLISECONDS.toNanos(100)));
+        assertFalse(bucket.acquire(now + TimeUnit.MILLISECONDS.toNanos(100)));
+
+        assertEquals(0, bucket.closeWindow(now + WINDOW / 2));
+        assertEquals(11, bucket.closeWindow(now + WINDOW));
+        assertEquals(0, bucket.closeWindow(now + WINDOW));
+    }
+
+    @Test
+    public void testSampling() {
+        final ChronicleLogThrottle.Bucket bucket = new ChronicleLogThrottle.Bucket(0, 0, 10, WINDOW);
+        final long now = System.nanoTime();
+
+        int kept = 0;
+        for (int i = 0; i < 100000; i++) {
+            if (bucket.acquire(now)) {
+                kept++;
+            }
+        }
+
+        assertTrue(kept > 9000 && kept < 11000);
+        assertEquals(100000 - kept, bucket.drain());
+    }
+
+    @Test
+    public void testBuckets() {
+        final ChronicleLogThrottle throttle = new ChronicleLogThrottle(ChronicleLogThrottle.DEFAULT_WINDOW);
+        assertFalse(throttle.isEnabled());
+
+        throttle.limit(ChronicleLogLevel.WARN, 100, 100);
+        assertTrue(throttle.isEnabled());
+
+        assertNull(throttle.bucket("logger", ChronicleLogLevel.INFO));
+        assertSame(
+            throttle.bucket("logger", ChronicleLogLevel.WARN),
+            throttle.bucket("logger", ChronicleLogLevel.WARN));
+        assertTrue(
+            throttle.bucket("logger", ChronicleLogLevel.WARN) != throttle.bucket("other", ChronicleLogLevel.WARN));
+    }
+
+    @Test
+    public void testQuietBucket() throws Exception {
+        final ChronicleLogClock clock = new ChronicleLogClock() {
+            @Override
+            public long currentTimeMillis() {
+                return 1234L;
+            }
+
+            @Override
+            public long currentTimeNanos() {
+                return TimeUnit.MILLISECONDS.toNanos(1234L);
+            }
+        };
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final ChronicleLogThrottle throttle = new ChronicleLogThrottle(50).limit(ChronicleLogLevel.WARN, 1, 1);
+        final ChronicleLogWriter writer = ChronicleLogWriters.throttled(
+            new ChronicleLogWriters.SimpleWriter(new PrintStream(out, true)),
+            throttle,
+            clock);
+
+        for (int i = 0; i < 5; i++) {
+            writer.write(ChronicleLogLevel.WARN, 1L, "thread", "noisy", "warn " + i);
+        }
+
+        // the noisy bucket goes quiet, the next event of another logger reports it
+        Thread.sleep(100);
+        writer.write(ChronicleLogLevel.INFO, 1L, "thread", "other", "info");
+
+        final String timestamp = TimeStampFormatter.fromDateFormat(ChronicleLog.DEFAULT_DATE_FORMAT).format(1234L);
+        final String[] lines = out.toString().split(System.lineSeparator());
+
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].endsWith("|noisy|warn 0"));
+        assertTrue(lines[1].startsWith(timestamp + "|WARN|"));
+        assertTrue(lines[1].endsWith("|noisy|4 events suppressed"));
+        assertTrue(lines[2].endsWith("|other|info"));
+    }
+}
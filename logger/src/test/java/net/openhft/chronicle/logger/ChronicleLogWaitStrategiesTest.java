@@ -0,0 +1,85 @@
+/*
+ * Copyright 2014 Higher Frequency Trading
+ *
+ * http://www.higherfrequencytrading.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.logger;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ChronicleLogWaitStrategiesTest {
+
+    @Test
+    public void testParse() {
+        assertSame(ChronicleLogWaitStrategies.busySpin(), ChronicleLogWaitStrategies.parse("spin"));
+        assertSame(ChronicleLogWaitStrategies.yielding(), ChronicleLogWaitStrategies.parse("YIELD"));
+
+        final ChronicleLogWaitStrategies.Backoff backoff =
+            (ChronicleLogWaitStrategies.Backoff) ChronicleLogWaitStrategies.parse("backoff");
+        assertEquals(ChronicleLogWaitStrategies.DEFAULT_MAX_PARK_NANOS, backoff.getMaxParkNanos());
+
+        final ChronicleLogWaitStrategies.Backoff bounded =
+            (ChronicleLogWaitStrategies.Backoff) ChronicleLogWaitStrategies.parse("backoff:200");
+        assertEquals(TimeUnit.MICROSECONDS.toNanos(200), bounded.getMaxParkNanos());
+
+        final ChronicleLogWaitStrategies.Blocking blocking =
+            (ChronicleLogWaitStrategies.Blocking) ChronicleLogWaitStrategies.parse("block:5");
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(5), blocking.getParkNanos());
+
+        for (String spec : new String[] { "sleep", "block:", "block:0", "backoff:-1", "spin:10" }) {
+            try {
+                ChronicleLogWaitStrategies.parse(spec);
+                fail(spec);
+            } catch (IllegalArgumentException expected) {
+            }
+        }
+    }
+
+    @Test
+    public void testBackoff() {
+        final ChronicleLogWaitStrategies.Backoff backoff = new ChronicleLogWaitStrategies.Backoff(1000, 10000);
+        assertEquals(1000, backoff.parkNanos(0));
+        assertEquals(2000, backoff.parkNanos(1));
+        assertEquals(8000, backoff.parkNanos(3));
+        assertEquals(10000, backoff.parkNanos(4));
+        assertEquals(10000, backoff.parkNanos(63));
+        assertEquals(10000, backoff.parkNanos(Integer.MAX_VALUE));
+
+        final ChronicleLogWaitStrategies.Backoff wide =
+            new ChronicleLogWaitStrategies.Backoff(3, Long.MAX_VALUE);
+        assertTrue(wide.parkNanos(61) > 0);
+        assertEquals(Long.MAX_VALUE, wide.parkNanos(62));
+    }
+
+    @Test
+    public void testBlockingIsBounded() {
+        final ChronicleLogWaitStrategy wait = ChronicleLogWaitStrategies.blocking(1, TimeUnit.MILLISECONDS);
+
+        final long start = System.nanoTime();
+        for (int i = 0; i < 10; i++) {
+            wait.idle(i);
+        }
+
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+    }
+}
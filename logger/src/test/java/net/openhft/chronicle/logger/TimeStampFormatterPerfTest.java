@@ -0,0 +1,90 @@
+/*
+ * Copyright 2014 Higher Frequency Trading
+ *
+ * http://www.higherfrequencytrading.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.logger;
+
+import net.openhft.lang.io.Bytes;
+import net.openhft.lang.io.DirectStore;
+import org.junit.Test;
+
+import java.text.FieldPosition;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+/**
+ * Compares formatting time stamps with the default date format through
+ * SimpleDateFormat (the previous TimeStampFormatter implementation) against
+ * the cached TimeStampFormatter.
+ */
+public class TimeStampFormatterPerfTest {
+    private static final int RUNS = 10000000;
+
+    @Test
+    public void testFormat() {
+        final DirectStore store = DirectStore.allocate(256);
+        final Bytes bytes = store.bytes();
+
+        for (int i = 0; i < 3; i++) {
+            runSimpleDateFormat(bytes);
+            runTimeStampFormatter(bytes);
+        }
+
+        store.free();
+    }
+
+    private static void runSimpleDateFormat(Bytes bytes) {
+        final SimpleDateFormat format = new SimpleDateFormat(ChronicleLog.DEFAULT_DATE_FORMAT);
+        final FieldPosition position = new FieldPosition(0);
+        final StringBuffer sb = new StringBuffer();
+        final Date date = new Date();
+        final long now = System.currentTimeMillis();
+        final long start = System.nanoTime();
+
+        for (int i = 0; i < RUNS; i++) {
+            bytes.clear();
+            sb.setLength(0);
+            date.setTime(now + i);
+            format.format(date, sb, position);
+            bytes.append(sb);
+        }
+
+        print("SimpleDateFormat", System.nanoTime() - start);
+    }
+
+    private static void runTimeStampFormatter(Bytes bytes) {
+        final TimeStampFormatter formatter =
+            TimeStampFormatter.fromDateFormat(ChronicleLog.DEFAULT_DATE_FORMAT);
+        final long now = System.currentTimeMillis();
+        final long start = System.nanoTime();
+
+        for (int i = 0; i < RUNS; i++) {
+            bytes.clear();
+            formatter.format(now + i, bytes);
+        }
+
+        print("TimeStampFormatter", System.nanoTime() - start);
+    }
+
+    private static void print(String name, long time) {
+        System.out.printf("%s (runs=%d) %.1f ns per time stamp\n",
+            name,
+            RUNS,
+            (double) time / RUNS
+        );
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2014 Higher Frequency Trading
+ *
+ * http://www.higherfrequencytrading.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.logger;
+
+import net.openhft.lang.io.Bytes;
+import net.openhft.lang.io.DirectStore;
+import org.junit.Test;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertEquals;
+
+public class TimeStampFormatterTest {
+    private static final String[] ZONES = new String[] {
+        "UTC",
+        "Europe/London",
+        "America/New_York",
+        "Asia/Kolkata",
+        "Australia/Lord_Howe"
+    };
+
+    private static final String[] PATTERNS = new String[] {
+        ChronicleLog.DEFAULT_DATE_FORMAT,
+        "yyyy-MM-dd HH:mm:ss,SSS",
+        "yy/M/d H:m:s.S",
+        "ss.SSS 'at' HH:mm dd''MM''yyyy",
+        "EEE, d MMM yyyy HH:mm:ss Z"
+    };
+
+    @Test
+    public void testFormat() throws Exception {
+        final DirectStore store = DirectStore.allocate(256);
+        final Bytes bytes = store.bytes();
+
+        // 2014-01-01T00:00:00Z to 2015-01-01T00:00:00Z
+        final long from = 1388534400000L;
+        final long to = 1420070400000L;
+        final long step = 7 * 60 * 1000 + 13;
+
+        for (String zone : ZONES) {
+            final TimeZone timeZone = TimeZone.getTimeZone(zone);
+            for (String pattern : PATTERNS) {
+                final TimeStampFormatter formatter = new TimeStampFormatter(pattern, timeZone);
+                final SimpleDateFormat expected = new SimpleDateFormat(pattern);
+                expected.setTimeZone(timeZone);
+
+                for (long ts = from; ts < to; ts += step) {
+                    if (timeZone.getOffset(ts) != timeZone.getOffset(ts + step)) {
+                        // walk through the offset change in small steps
+                        for (long t = ts; t < ts + step; t += 251) {
+                            check(expected, formatter, bytes, t);
+                        }
+                    } else {
+                        check(expected, formatter, bytes, ts);
+                    }
+                }
+            }
+        }
+
+        store.free();
+    }
+
+    @Test
+    public void testBeforeEpoch() {
+        final DirectStore store = DirectStore.allocate(256);
+        final Bytes bytes = store.bytes();
+        final TimeZone timeZone = TimeZone.getTimeZone("Europe/London");
+        final TimeStampFormatter formatter =
+            new TimeStampFormatter(ChronicleLog.DEFAULT_DATE_FORMAT, timeZone);
+        final SimpleDateFormat expected = new SimpleDateFormat(ChronicleLog.DEFAULT_DATE_FORMAT);
+        expected.setTimeZone(timeZone);
+
+        for (long ts = -100000L; ts < 100000L; ts += 997) {
+            check(expected, formatter, bytes, ts);
+        }
+
+        store.free();
+    }
+
+    private static void check(SimpleDateFormat expected, TimeStampFormatter formatter, Bytes bytes, long ts) {
+        final String text = expected.format(new Date(ts));
+        assertEquals(text, formatter.format(ts));
+
+        bytes.clear();
+        formatter.format(ts, bytes);
+        bytes.flip();
+
+        final StringBuilder sb = new StringBuilder();
+        while (bytes.remaining() > 0) {
+            sb.append((char) bytes.readUnsignedByte());
+        }
+
+        assertEquals(text, sb.toString());
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2014 Higher Frequency Trading
+ *
+ * http://www.higherfrequencytrading.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.logger;
+
+import net.openhft.lang.io.Bytes;
+import net.openhft.lang.io.DirectStore;
+import net.openhft.lang.io.StopCharTester;
+import org.junit.Test;
+
+import java.text.SimpleDateFormat;
+import java.util.TimeZone;
+
+/**
+ * Measures the decode throughput of text events, comparing time stamps
+ * parsed with SimpleDateFormat (the previous TextChronicleLogEvent
+ * implementation) against TimeStampParser.
+ */
+public class TimeStampParserPerfTest {
+    private static final int RUNS = 2000000;
+    private static final int EVENTS = 1000;
+
+    private static final StopCharTester PIPE_TESTER = new StopCharTester() {
+        @Override
+        public boolean isStopChar(int ch) throws IllegalStateException {
+            return ch == '|';
+        }
+    };
+
+    @Test
+    public void testDecode() throws Exception {
+        final DirectStore store = DirectStore.allocate(128 * EVENTS);
+        final Bytes bytes = store.bytes();
+        final TimeStampFormatter formatter =
+            TimeStampFormatter.fromDateFormat(ChronicleLog.DEFAULT_DATE_FORMAT);
+
+        final long now = System.currentTimeMillis();
+        for (int i = 0; i < EVENTS; i++) {
+            formatter.format(now + i * 1013L, bytes);
+            bytes.append("|INFO|main|perf|text event ");
+            bytes.append(i);
+            bytes.append('\n');
+        }
+
+        final long limit = bytes.position();
+        for (int i = 0; i < 3; i++) {
+            runSimpleDateFormat(bytes, limit);
+            runTimeStampParser(bytes, limit);
+            runRead(bytes, limit);
+        }
+
+        store.free();
+    }
+
+    private static void runSimpleDateFormat(Bytes bytes, long limit) throws Exception {
+        final SimpleDateFormat format = new SimpleDateFormat(ChronicleLog.DEFAULT_DATE_FORMAT);
+        final StringBuilder sb = new StringBuilder();
+        final long start = System.nanoTime();
+
+        long sum = 0;
+        for (int i = 0; i < RUNS; ) {
+            bytes.position(0);
+            bytes.limit(limit);
+            for (int e = 0; e < EVENTS && i < RUNS; e++, i++) {
+                bytes.parseUtf8(sb, PIPE_TESTER);
+                sum += format.parse(sb.toString()).getTime();
+                bytes.readLine();
+            }
+        }
+
+        print("SimpleDateFormat.parse", System.nanoTime() - start, sum);
+    }
+
+    private static void runTimeStampParser(Bytes bytes, long limit) {
+        final TimeStampParser parser =
+            new TimeStampParser(ChronicleLog.DEFAULT_DATE_FORMAT, TimeZone.getDefault());
+        final long start = System.nanoTime();
+
+        long sum = 0;
+        for (int i = 0; i < RUNS; ) {
+            bytes.position(0);
+            bytes.limit(limit);
+            for (int e = 0; e < EVENTS && i < RUNS; e++, i++) {
+                sum += parser.parse(bytes, PIPE_TESTER);
+                bytes.readLine();
+            }
+        }
+
+        print("TimeStampParser.parse", System.nanoTime() - start, sum);
+    }
+
+    private static void runRead(Bytes bytes, long limit) {
+        final long start = System.nanoTime();
+
+        long sum = 0;
+        for (int i = 0; i < RUNS; ) {
+            bytes.position(0);
+            bytes.limit(limit);
+            for (int e = 0; e < EVENTS && i < RUNS; e++, i++) {
+                TextChronicleLogEvent event = TextChronicleLogEvent.read(bytes);
+                sum += event.getTimeStamp();
+            }
+        }
+
+        print("TextChronicleLogEvent.read", System.nanoTime() - start, sum);
+    }
+
+    private static void print(String name, long time, long sum) {
+        System.out.printf("%s (runs=%d, checksum=%d) %.1f ns per event, %.0f events/s\n",
+            name,
+            RUNS,
+            sum,
+            (double) time / RUNS,
+            RUNS * 1e9 / time
+        );
+    }
+}
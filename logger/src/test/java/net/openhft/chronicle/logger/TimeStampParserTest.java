@@ -0,0 +1,145 @@
+/*
+ * Copyright 2014 Higher Frequency Trading
+ *
+ * http://www.higherfrequencytrading.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.logger;
+
+import net.openhft.lang.io.Bytes;
+import net.openhft.lang.io.DirectStore;
+import net.openhft.lang.io.StopCharTester;
+import org.junit.Test;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+
+public class TimeStampParserTest {
+    private static final StopCharTester PIPE_TESTER = new StopCharTester() {
+        @Override
+        public boolean isStopChar(int ch) throws IllegalStateException {
+            return ch == '|';
+        }
+    };
+
+    private static final String[] ZONES = new String[] {
+        "UTC",
+        "Europe/London",
+        "America/Sao_Paulo",
+        "Asia/Kolkata",
+        "Australia/Lord_Howe"
+    };
+
+    private static final String[] PATTERNS = new String[] {
+        ChronicleLog.DEFAULT_DATE_FORMAT,
+        "yyyyMMddHHmmssSSS",
+        "ss.SSS 'at' HH:mm dd''MM''yyyy",
+        "EEE, d MMM yyyy HH:mm:ss.SSS Z"
+    };
+
+    // 2014-01-01T00:00:00Z to 2015-01-01T00:00:00Z
+    private static final long FROM = 1388534400000L;
+    private static final long TO = 1420070400000L;
+    private static final long STEP = 7 * 60 * 1000 + 13;
+
+    @Test
+    public void testParse() throws Exception {
+        final DirectStore store = DirectStore.allocate(256);
+        final Bytes bytes = store.bytes();
+
+        for (String zone : ZONES) {
+            final TimeZone timeZone = TimeZone.getTimeZone(zone);
+            for (String pattern : PATTERNS) {
+                final TimeStampParser parser = new TimeStampParser(pattern, timeZone);
+                final SimpleDateFormat expected = new SimpleDateFormat(pattern);
+                expected.setTimeZone(timeZone);
+
+                for (long ts = FROM; ts < TO; ts += STEP) {
+                    if (timeZone.getOffset(ts) != timeZone.getOffset(ts + STEP)) {
+                        // walk through the offset change in small steps
+                        for (long t = ts; t < ts + STEP; t += 251) {
+                            check(expected, parser, bytes, t);
+                        }
+                    } else {
+                        check(expected, parser, bytes, ts);
+                    }
+                }
+            }
+        }
+
+        store.free();
+    }
+
+    @Test
+    public void testConcurrentParse() throws Exception {
+        final TimeStampParser parser =
+            new TimeStampParser(ChronicleLog.DEFAULT_DATE_FORMAT, TimeZone.getDefault());
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        final List<Future<Void>> futures = new ArrayList<Future<Void>>();
+
+        for (int i = 0; i < 4; i++) {
+            final long offset = i * 24 * 60 * 60 * 1000L;
+            futures.add(executor.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    final DirectStore store = DirectStore.allocate(256);
+                    final Bytes bytes = store.bytes();
+                    final SimpleDateFormat expected =
+                        new SimpleDateFormat(ChronicleLog.DEFAULT_DATE_FORMAT);
+
+                    try {
+                        for (long ts = FROM + offset; ts < TO; ts += STEP * 11) {
+                            check(expected, parser, bytes, ts);
+                        }
+                    } finally {
+                        store.free();
+                    }
+
+                    return null;
+                }
+            }));
+        }
+
+        try {
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void check(SimpleDateFormat expected, TimeStampParser parser, Bytes bytes, long ts)
+            throws Exception {
+        final String text = expected.format(new Date(ts));
+
+        bytes.clear();
+        bytes.append(text);
+        bytes.append("|INFO");
+        bytes.flip();
+
+        assertEquals(text, expected.parse(text).getTime(), parser.parse(bytes, PIPE_TESTER));
+        assertEquals('I', bytes.readUnsignedByte());
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2014 Higher Frequency Trading
+ *
+ * http://www.higherfrequencytrading.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.logger;
+
+import net.openhft.chronicle.Chronicle;
+import net.openhft.chronicle.ChronicleQueueBuilder;
+import net.openhft.chronicle.ExcerptAppender;
+import net.openhft.chronicle.tools.ChronicleTools;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the throughput of writes that look up the appender with
+ * Chronicle.createAppender() on every call against the per-thread cache
+ * of VanillaExcerptAppenderProvider.
+ */
+public class VanillaExcerptAppenderProviderPerfTest {
+    private static final int RUNS = 5000000;
+    private static final int THREADS = Math.max(4, Runtime.getRuntime().availableProcessors());
+
+    private String baseDir;
+    private Chronicle chronicle;
+
+    @Before
+    public void setUp() throws IOException {
+        baseDir = System.getProperty("java.io.tmpdir") + "/perf-appender-provider";
+        ChronicleTools.deleteDirOnExit(baseDir);
+        chronicle = ChronicleQueueBuilder.vanilla(baseDir).build();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        chronicle.close();
+    }
+
+    @Test
+    public void testAppenderLookup() throws IOException, InterruptedException {
+        final ChronicleLogWriters.ExcerptAppenderProvider uncached = new ChronicleLogWriters.ExcerptAppenderProvider() {
+            @Override
+            public ExcerptAppender get() {
+                try {
+                    return chronicle.createAppender();
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        };
+
+        final ChronicleLogWriters.VanillaExcerptAppenderProvider cached =
+            new ChronicleLogWriters.VanillaExcerptAppenderProvider(chronicle);
+
+        for (int i = 0; i < 2; i++) {
+            run("createAppender", uncached);
+            run("cached", cached);
+        }
+
+        cached.close();
+    }
+
+    private void run(String name, ChronicleLogWriters.ExcerptAppenderProvider provider) throws InterruptedException {
+        final long start = System.nanoTime();
+
+        ExecutorService es = Executors.newFixedThreadPool(THREADS);
+        for (int t = 0; t < THREADS; t++) {
+            es.submit(new RunnableWriter(provider, RUNS));
+        }
+
+        es.shutdown();
+        es.awaitTermination(5, TimeUnit.MINUTES);
+
+        final long time = System.nanoTime() - start;
+
+        System.out.printf("AppenderProvider.%s (runs=%d, threads=%d, elapsed=%.3f ms) throughput %.0f msg/s, %.3f us per entry\n",
+            name,
+            RUNS,
+            THREADS,
+            time / 1e6,
+            RUNS * THREADS / (time / 1e9),
+            time / 1e3 / (RUNS * THREADS)
+        );
+    }
+
+    private static final class RunnableWriter implements Runnable {
+        private final ChronicleLogWriters.ExcerptAppenderProvider provider;
+        private final int runs;
+
+        RunnableWriter(ChronicleLogWriters.ExcerptAppenderProvider provider, int runs) {
+            this.provider = provider;
+            this.runs = runs;
+        }
+
+        @Override
+        public void run() {
+            final String threadName = Thread.currentThread().getName();
+            for (int i = 0; i < this.runs; i++) {
+                final ExcerptAppender appender = provider.get();
+                appender.startExcerpt();
+                appender.writeLong(System.currentTimeMillis());
+                appender.writeUTFΔ(threadName);
+                appender.writeInt(i);
+                appender.finish();
+            }
+        }
+    }
+}